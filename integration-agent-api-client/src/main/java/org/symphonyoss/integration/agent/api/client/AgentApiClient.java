@@ -24,13 +24,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
-import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.agent.api.client.pool.AgentEndpoint;
+import org.symphonyoss.integration.agent.api.client.pool.AgentEndpointPool;
+import org.symphonyoss.integration.agent.api.client.pool.LoadBalancedHttpApiClient;
+import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.api.client.SymphonyApiClient;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClientFactory;
+import org.symphonyoss.integration.client.support.hedging.RequestHedging;
+import org.symphonyoss.integration.client.support.timeout.AdaptiveTimeouts;
 import org.symphonyoss.integration.exception.MissingConfigurationException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 import org.symphonyoss.integration.model.yaml.ProxyConnectionInfo;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Low-level HTTP client to query Agent API.
  * Created by rsanchez on 22/02/17.
@@ -43,12 +54,28 @@ public class AgentApiClient extends SymphonyApiClient {
 
   private static final String REQUIRED_KEY = "agent.host";
 
+  private static final String HEDGING_NAME = "agent";
+
   @Autowired
   private LogMessageSource logMessage;
 
   @Autowired
   private IntegrationProperties properties;
 
+  @Autowired
+  private AgentEndpointPool endpointPool;
+
+  @Autowired
+  private RequestHedging requestHedging;
+
+  @Autowired
+  private AdaptiveTimeouts adaptiveTimeouts;
+
+  @Autowired
+  private AsyncHttpApiClientFactory asyncClientFactory;
+
+  private volatile AsyncHttpApiClient asyncClient;
+
   public AgentApiClient() {
     super(SERVICE_NAME);
   }
@@ -67,6 +94,47 @@ public class AgentApiClient extends SymphonyApiClient {
     return url;
   }
 
+  /**
+   * Builds the HTTP client. If there are many Agent endpoints configured, builds one HTTP client
+   * per endpoint and balances the requests among them. The requests are hedged if it's enabled to
+   * the Agent API client and bounded by the caller deadline and the adaptive timeouts.
+   *
+   * @param basePath Base path
+   */
+  @Override
+  protected HttpApiClient buildHttpClient(String basePath) {
+    HttpApiClient client = requestHedging.decorate(HEDGING_NAME, buildBalancedHttpClient(basePath));
+    return adaptiveTimeouts.decorate(HEDGING_NAME, client);
+  }
+
+  private HttpApiClient buildBalancedHttpClient(String basePath) {
+    if (!endpointPool.isBalanced()) {
+      return super.buildHttpClient(basePath);
+    }
+
+    Map<AgentEndpoint, HttpApiClient> clients = new LinkedHashMap<>();
+
+    for (AgentEndpoint endpoint : endpointPool.getEndpoints()) {
+      HttpApiClient client = super.buildHttpClient(endpoint.getUrl());
+      endpointPool.registerProbeClient(endpoint, client);
+      clients.put(endpoint, client);
+    }
+
+    return new LoadBalancedHttpApiClient(endpointPool, clients);
+  }
+
+  /**
+   * Retrieves the non-blocking HTTP client to the Agent API. The client is built on the first call.
+   * @return Asynchronous HTTP client
+   */
+  public AsyncHttpApiClient getAsyncClient() {
+    if (asyncClient == null) {
+      asyncClient = asyncClientFactory.newClient(getBasePath(), SERVICE_NAME);
+    }
+
+    return asyncClient;
+  }
+
   @Override
   protected ProxyConnectionInfo getProxy() {
     return this.properties.getAgent().getProxy();
@@ -21,11 +21,18 @@ import static org.symphonyoss.integration.agent.api.client.properties.BaseMessag
 import static org.symphonyoss.integration.agent.api.client.properties.BaseMessageApiClientProperties.MISSING_PARAMETER;
 import static org.symphonyoss.integration.agent.api.client.properties.BaseMessageApiClientProperties.MISSING_PARAMETER_SOLUTION;
 import static org.symphonyoss.integration.agent.api.client.properties.BaseMessageApiClientProperties.MISSING_STREAMID_SOLUTION;
+import static org.symphonyoss.integration.agent.api.client.properties.BaseMessageApiClientProperties.PREPARE_FAILURE;
+import static org.symphonyoss.integration.agent.api.client.properties.BaseMessageApiClientProperties.PREPARE_FAILURE_SOLUTION;
 
+import org.symphonyoss.integration.client.support.async.AsyncResults;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base Message API client.
  * Created by rsanchez on 27/03/17.
@@ -44,6 +51,21 @@ public abstract class BaseMessageApiClient implements MessageApiClient {
     this.logMessage = logMessage;
   }
 
+  /**
+   * Post a prepared message using the blocking HTTP client. API clients that have an asynchronous
+   * HTTP client override this method.
+   */
+  @Override
+  public CompletableFuture<Message> postMessageAsync(final String sessionToken,
+      final String kmToken, final String streamId, final PreparedMessage message) {
+    return AsyncResults.call(new AsyncResults.BlockingCall<Message>() {
+      @Override
+      public Message call() throws RemoteApiException {
+        return postMessage(sessionToken, kmToken, streamId, message);
+      }
+    });
+  }
+
   /**
    * Validate the required parameters to post messages through the Agent API.
    *
@@ -78,6 +100,15 @@ public abstract class BaseMessageApiClient implements MessageApiClient {
       throw new RemoteApiException(400, exception, solution);
     }
 
+    validateBody(message);
+  }
+
+  /**
+   * Validate the required body to post messages through the Agent API.
+   * @param message Message payload
+   * @throws RemoteApiException Message payload is missing
+   */
+  protected void validateBody(Message message) throws RemoteApiException {
     // verify the required parameter 'message' is set
     if (message == null) {
       String exception = logMessage.getMessage(MISSING_BODY);
@@ -87,4 +118,30 @@ public abstract class BaseMessageApiClient implements MessageApiClient {
     }
   }
 
+  /**
+   * Builds the authentication headers required by the Agent API.
+   * @param sessionToken Session token
+   * @param kmToken Key Manager token
+   * @return Header parameters
+   */
+  protected Map<String, String> buildHeaderParams(String sessionToken, String kmToken) {
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
+    headerParams.put(KM_TOKEN_HEADER_PARAM, kmToken);
+
+    return headerParams;
+  }
+
+  /**
+   * Builds the exception thrown when the message can't be serialized.
+   * @param e Serialization failure
+   * @return Remote API exception (HTTP 500)
+   */
+  protected RemoteApiException prepareFailure(Exception e) {
+    String errorMessage = logMessage.getMessage(PREPARE_FAILURE, e.getMessage());
+    String solution = logMessage.getMessage(PREPARE_FAILURE_SOLUTION);
+
+    return new RemoteApiException(500, errorMessage, e, solution);
+  }
+
 }
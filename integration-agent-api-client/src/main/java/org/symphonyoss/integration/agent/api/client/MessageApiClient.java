@@ -19,6 +19,8 @@ package org.symphonyoss.integration.agent.api.client;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface to be implemented by HTTP clients that post message through the Agent Messages API.
  *
@@ -26,6 +28,42 @@ import org.symphonyoss.integration.model.message.Message;
  */
 public interface MessageApiClient {
 
+  /**
+   * Agent Message API version used by this client.
+   * @return API version (i.e. v2, v4)
+   */
+  String getApiVersion();
+
   Message postMessage(String sessionToken, String kmToken, String streamId, Message message) throws RemoteApiException;
 
+  /**
+   * Serializes the message once, so it can be posted to many streams without serializing it again.
+   * @param message Message to be prepared
+   * @return Prepared message
+   */
+  PreparedMessage prepareMessage(Message message) throws RemoteApiException;
+
+  /**
+   * Post a prepared message to one existing stream. If the message was prepared by another API
+   * version, the original message is serialized again.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Message posted
+   */
+  Message postMessage(String sessionToken, String kmToken, String streamId,
+      PreparedMessage message) throws RemoteApiException;
+
+  /**
+   * Post a prepared message to one existing stream without blocking the caller thread.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Future completed with the message posted or with the {@link RemoteApiException}
+   */
+  CompletableFuture<Message> postMessageAsync(String sessionToken, String kmToken,
+      String streamId, PreparedMessage message);
+
 }
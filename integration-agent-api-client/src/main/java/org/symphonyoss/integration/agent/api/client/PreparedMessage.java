@@ -0,0 +1,80 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client;
+
+import org.symphonyoss.integration.model.message.Message;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Message already serialized to the wire format of an Agent Message API version.
+ *
+ * Posting the same message to several streams used to serialize the payload once per stream. The
+ * prepared message keeps the encoded body, so the fan-out only copies the same bytes to each
+ * request. This object is immutable and can be shared between threads.
+ */
+public class PreparedMessage implements StreamingOutput {
+
+  private final String apiVersion;
+
+  private final Message message;
+
+  private final MediaType mediaType;
+
+  private final byte[] body;
+
+  public PreparedMessage(String apiVersion, Message message, MediaType mediaType, byte[] body) {
+    this.apiVersion = apiVersion;
+    this.message = message;
+    this.mediaType = mediaType;
+    this.body = body.clone();
+  }
+
+  /**
+   * Agent Message API version used to serialize the body.
+   * @return API version (i.e. v2, v4)
+   */
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  /**
+   * Original message. Used when the message must be posted through another API version.
+   * @return Original message
+   */
+  public Message getMessage() {
+    return message;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public int getContentLength() {
+    return body.length;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    output.write(body);
+  }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+
+import javax.ws.rs.client.Entity;
+
+/**
+ * Entity serializer that writes {@link PreparedMessage} bodies as they are. Any other payload is
+ * serialized by the delegate serializer.
+ */
+public class PreparedMessageEntitySerializer implements EntitySerializer {
+
+  private final EntitySerializer delegate;
+
+  public PreparedMessageEntitySerializer(EntitySerializer delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Entity serialize(Object payload) {
+    if (payload instanceof PreparedMessage) {
+      PreparedMessage message = (PreparedMessage) payload;
+      return Entity.entity(message, message.getMediaType());
+    }
+
+    return delegate.serialize(payload);
+  }
+
+}
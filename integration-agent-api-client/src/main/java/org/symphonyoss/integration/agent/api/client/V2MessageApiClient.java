@@ -18,13 +18,19 @@ package org.symphonyoss.integration.agent.api.client;
 
 import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.api.client.json.JsonEntitySerializer;
+import org.symphonyoss.integration.api.client.json.JsonUtils;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncResults;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.core.MediaType;
 
 /**
  * Holds all endpoints to deal with message using Message API v2.
@@ -69,12 +75,39 @@ import java.util.Map;
 
 public class V2MessageApiClient extends BaseMessageApiClient {
 
+  public static final String API_VERSION = "v2";
+
+  /**
+   * Same JSON configuration used by the {@link JsonEntitySerializer}, so prepared messages are
+   * serialized exactly like the ones posted directly.
+   */
+  private final JsonUtils jsonUtils = new JsonUtils();
+
   private HttpApiClient apiClient;
 
+  private AsyncHttpApiClient asyncApiClient;
+
   public V2MessageApiClient(HttpApiClient apiClient, LogMessageSource logMessage) {
     super(logMessage);
     this.apiClient = apiClient;
-    this.apiClient.setEntitySerializer(new JsonEntitySerializer());
+    this.apiClient.setEntitySerializer(
+        new PreparedMessageEntitySerializer(new JsonEntitySerializer()));
+  }
+
+  public V2MessageApiClient(HttpApiClient apiClient, AsyncHttpApiClient asyncApiClient,
+      LogMessageSource logMessage) {
+    this(apiClient, logMessage);
+    this.asyncApiClient = asyncApiClient;
+
+    if (asyncApiClient != null) {
+      this.asyncApiClient.setEntitySerializer(
+          new PreparedMessageEntitySerializer(new JsonEntitySerializer()));
+    }
+  }
+
+  @Override
+  public String getApiVersion() {
+    return API_VERSION;
   }
 
   /**
@@ -90,12 +123,85 @@ public class V2MessageApiClient extends BaseMessageApiClient {
     validateParams(sessionToken, kmToken, streamId, message);
 
     String path = "/v2/stream/" + apiClient.escapeString(streamId) + "/message/create";
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
+
+    return apiClient.doPost(path, headerParams, Collections.<String, String>emptyMap(), message, Message.class);
+  }
+
+  /**
+   * Serializes the message as JSON.
+   * @param message Message to be prepared
+   * @return Prepared message
+   */
+  @Override
+  public PreparedMessage prepareMessage(Message message) throws RemoteApiException {
+    validateBody(message);
+
+    try {
+      byte[] body = jsonUtils.serialize(message).getBytes(StandardCharsets.UTF_8);
+      return new PreparedMessage(API_VERSION, message, MediaType.APPLICATION_JSON_TYPE, body);
+    } catch (RemoteApiException e) {
+      throw prepareFailure(e);
+    }
+  }
+
+  /**
+   * Post a prepared message to one existing stream.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Message posted
+   */
+  @Override
+  public Message postMessage(String sessionToken, String kmToken, String streamId,
+      PreparedMessage message) throws RemoteApiException {
+    if (message != null && !API_VERSION.equals(message.getApiVersion())) {
+      return postMessage(sessionToken, kmToken, streamId, message.getMessage());
+    }
+
+    validateParams(sessionToken, kmToken, streamId, message == null ? null : message.getMessage());
 
-    Map<String, String> headerParams = new HashMap<>();
-    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
-    headerParams.put(KM_TOKEN_HEADER_PARAM, kmToken);
+    String path = "/v2/stream/" + apiClient.escapeString(streamId) + "/message/create";
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
 
     return apiClient.doPost(path, headerParams, Collections.<String, String>emptyMap(), message, Message.class);
   }
 
+  /**
+   * Post a prepared message to one existing stream without blocking the caller thread. If the
+   * message was prepared by another API version, the original message is serialized again.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Future completed with the message posted or with the {@link RemoteApiException}
+   */
+  @Override
+  public CompletableFuture<Message> postMessageAsync(String sessionToken, String kmToken,
+      String streamId, PreparedMessage message) {
+    if (asyncApiClient == null) {
+      return super.postMessageAsync(sessionToken, kmToken, streamId, message);
+    }
+
+    PreparedMessage prepared = message;
+
+    try {
+      if (message != null && !API_VERSION.equals(message.getApiVersion())) {
+        prepared = prepareMessage(message.getMessage());
+      }
+
+      validateParams(sessionToken, kmToken, streamId,
+          prepared == null ? null : prepared.getMessage());
+    } catch (RemoteApiException e) {
+      return AsyncResults.failed(e);
+    }
+
+    String path = "/v2/stream/" + asyncApiClient.escapeString(streamId) + "/message/create";
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
+
+    return asyncApiClient.doPostAsync(path, headerParams, Collections.<String, String>emptyMap(),
+        prepared, Message.class);
+  }
+
 }
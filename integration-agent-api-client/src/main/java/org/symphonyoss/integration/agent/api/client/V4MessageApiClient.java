@@ -16,6 +16,8 @@
 
 package org.symphonyoss.integration.agent.api.client;
 
+import static javax.ws.rs.core.MediaType.MULTIPART_FORM_DATA_TYPE;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
 import static org.symphonyoss.integration.agent.api.client.properties.V4MessageApiClientProperties.POST_FAILURE;
 import static org.symphonyoss.integration.agent.api.client.properties.V4MessageApiClientProperties.POST_FAILURE_SOLUTION;
@@ -24,14 +26,21 @@ import org.apache.commons.lang3.StringUtils;
 import org.glassfish.jersey.media.multipart.FormDataMultiPart;
 import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.api.client.form.MultiPartEntitySerializer;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncResults;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.core.MediaType;
 
 /**
  * Holds all endpoints to deal with message using Message API v3.
@@ -85,12 +94,41 @@ public class V4MessageApiClient extends BaseMessageApiClient {
 
   private static final String DATA_BODY = "data";
 
+  public static final String API_VERSION = "v4";
+
+  private static final String BOUNDARY_PARAMETER = "boundary";
+
+  private static final String BOUNDARY_PREFIX = "Boundary_";
+
+  private static final String CRLF = "\r\n";
+
+  private static final String DASHES = "--";
+
   private HttpApiClient apiClient;
 
+  private AsyncHttpApiClient asyncApiClient;
+
   public V4MessageApiClient(HttpApiClient apiClient, LogMessageSource logMessage) {
     super(logMessage);
     this.apiClient = apiClient;
-    this.apiClient.setEntitySerializer(new MultiPartEntitySerializer());
+    this.apiClient.setEntitySerializer(
+        new PreparedMessageEntitySerializer(new MultiPartEntitySerializer()));
+  }
+
+  public V4MessageApiClient(HttpApiClient apiClient, AsyncHttpApiClient asyncApiClient,
+      LogMessageSource logMessage) {
+    this(apiClient, logMessage);
+    this.asyncApiClient = asyncApiClient;
+
+    if (asyncApiClient != null) {
+      this.asyncApiClient.setEntitySerializer(
+          new PreparedMessageEntitySerializer(new MultiPartEntitySerializer()));
+    }
+  }
+
+  @Override
+  public String getApiVersion() {
+    return API_VERSION;
   }
 
   /**
@@ -107,10 +145,7 @@ public class V4MessageApiClient extends BaseMessageApiClient {
     validateParams(sessionToken, kmToken, streamId, message);
 
     String path = "/v4/stream/" + apiClient.escapeString(streamId) + "/message/create";
-
-    Map<String, String> headerParams = new HashMap<>();
-    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
-    headerParams.put(KM_TOKEN_HEADER_PARAM, kmToken);
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
 
     try (FormDataMultiPart multiPart = new FormDataMultiPart()) {
       multiPart.field(MESSAGE_BODY, message.getMessage(), TEXT_PLAIN_TYPE);
@@ -130,4 +165,108 @@ public class V4MessageApiClient extends BaseMessageApiClient {
     }
   }
 
+  /**
+   * Serializes the message as a 'multipart/form-data' content. The parts are the same ones built
+   * by {@link #postMessage(String, String, String, Message)}.
+   * @param message Message to be prepared
+   * @return Prepared message
+   */
+  @Override
+  public PreparedMessage prepareMessage(Message message) throws RemoteApiException {
+    validateBody(message);
+
+    String boundary = BOUNDARY_PREFIX + UUID.randomUUID().toString().replace("-", "");
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writePart(output, boundary, MESSAGE_BODY, StringUtils.defaultString(message.getMessage()));
+
+    String entityJSON = message.getData();
+
+    if (StringUtils.isNotEmpty(entityJSON)) {
+      writePart(output, boundary, DATA_BODY, entityJSON);
+    }
+
+    write(output, DASHES + boundary + DASHES + CRLF);
+
+    MediaType mediaType = new MediaType(MULTIPART_FORM_DATA_TYPE.getType(),
+        MULTIPART_FORM_DATA_TYPE.getSubtype(),
+        Collections.singletonMap(BOUNDARY_PARAMETER, boundary));
+
+    return new PreparedMessage(API_VERSION, message, mediaType, output.toByteArray());
+  }
+
+  /**
+   * Post a prepared message to one existing stream.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Message posted
+   */
+  @Override
+  public Message postMessage(String sessionToken, String kmToken, String streamId,
+      PreparedMessage message) throws RemoteApiException {
+    if (message != null && !API_VERSION.equals(message.getApiVersion())) {
+      return postMessage(sessionToken, kmToken, streamId, message.getMessage());
+    }
+
+    validateParams(sessionToken, kmToken, streamId, message == null ? null : message.getMessage());
+
+    String path = "/v4/stream/" + apiClient.escapeString(streamId) + "/message/create";
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
+
+    return apiClient.doPost(path, headerParams, Collections.<String, String>emptyMap(), message, Message.class);
+  }
+
+  /**
+   * Post a prepared message to one existing stream without blocking the caller thread. If the
+   * message was prepared by another API version, the original message is serialized again.
+   * @param sessionToken Session authentication token.
+   * @param kmToken Key Manager authentication token.
+   * @param streamId Stream identifier
+   * @param message Prepared message
+   * @return Future completed with the message posted or with the {@link RemoteApiException}
+   */
+  @Override
+  public CompletableFuture<Message> postMessageAsync(String sessionToken, String kmToken,
+      String streamId, PreparedMessage message) {
+    if (asyncApiClient == null) {
+      return super.postMessageAsync(sessionToken, kmToken, streamId, message);
+    }
+
+    PreparedMessage prepared = message;
+
+    try {
+      if (message != null && !API_VERSION.equals(message.getApiVersion())) {
+        prepared = prepareMessage(message.getMessage());
+      }
+
+      validateParams(sessionToken, kmToken, streamId,
+          prepared == null ? null : prepared.getMessage());
+    } catch (RemoteApiException e) {
+      return AsyncResults.failed(e);
+    }
+
+    String path = "/v4/stream/" + asyncApiClient.escapeString(streamId) + "/message/create";
+    Map<String, String> headerParams = buildHeaderParams(sessionToken, kmToken);
+
+    return asyncApiClient.doPostAsync(path, headerParams, Collections.<String, String>emptyMap(),
+        prepared, Message.class);
+  }
+
+  private void writePart(ByteArrayOutputStream output, String boundary, String name,
+      String value) {
+    write(output, DASHES + boundary + CRLF);
+    write(output, "Content-Type: " + TEXT_PLAIN + CRLF);
+    write(output, "Content-Disposition: form-data; name=\"" + name + "\"" + CRLF);
+    write(output, CRLF);
+    write(output, value);
+    write(output, CRLF);
+  }
+
+  private void write(ByteArrayOutputStream output, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.write(bytes, 0, bytes.length);
+  }
+
 }
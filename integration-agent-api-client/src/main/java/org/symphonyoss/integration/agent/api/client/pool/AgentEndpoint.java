@@ -0,0 +1,172 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agent endpoint that belongs to the {@link AgentEndpointPool}.
+ *
+ * Tracks the number of outstanding requests, the latency (EWMA) and the health state of the
+ * endpoint. An ejected endpoint doesn't receive requests until it's re-admitted by the pool.
+ */
+public class AgentEndpoint {
+
+  private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final String url;
+
+  private final String name;
+
+  private final double decayNanos;
+
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+  private double ewmaNanos;
+
+  private long lastUpdateNanos;
+
+  private boolean sampled;
+
+  private volatile boolean ejected;
+
+  private volatile long ejectedUntilNanos;
+
+  public AgentEndpoint(String url, long decayMillis) {
+    this.url = url;
+    this.name = buildName(url);
+    this.decayNanos = decayMillis * NANOS_PER_MILLI;
+  }
+
+  /**
+   * Builds the endpoint identity used on logs and metrics (host and port).
+   */
+  private static String buildName(String url) {
+    try {
+      URI uri = URI.create(url);
+
+      if (uri.getHost() != null) {
+        return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + "_" + uri.getPort();
+      }
+    } catch (IllegalArgumentException e) {
+      // Use the raw URL
+    }
+
+    return url.replaceAll("[^A-Za-z0-9_\\-.]", "_");
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getOutstanding() {
+    return outstanding.get();
+  }
+
+  public boolean isEjected() {
+    return ejected;
+  }
+
+  /**
+   * Checks if the ejection period has elapsed, so the endpoint can be probed.
+   * @param nowNanos Current time (nanoseconds)
+   * @return true if the endpoint is ejected and ready to be probed
+   */
+  public boolean isReadyForProbe(long nowNanos) {
+    return ejected && nowNanos - ejectedUntilNanos >= 0;
+  }
+
+  public long getEjectedUntilNanos() {
+    return ejectedUntilNanos;
+  }
+
+  /**
+   * Latency moving average. The average decays to zero while the endpoint is idle, so a slow
+   * endpoint gets traffic again after some time.
+   * @param nowNanos Current time (nanoseconds)
+   * @return Latency (nanoseconds)
+   */
+  public synchronized double getLatencyNanos(long nowNanos) {
+    if (!sampled) {
+      return 0;
+    }
+
+    long elapsed = Math.max(0, nowNanos - lastUpdateNanos);
+    return ewmaNanos * Math.exp(-elapsed / decayNanos);
+  }
+
+  void start() {
+    outstanding.incrementAndGet();
+  }
+
+  void finish() {
+    outstanding.decrementAndGet();
+  }
+
+  /**
+   * Records the latency of a request that reached the endpoint.
+   * @param nowNanos Current time (nanoseconds)
+   * @param latencyNanos Request latency (nanoseconds)
+   */
+  synchronized void recordLatency(long nowNanos, long latencyNanos) {
+    if (sampled) {
+      long elapsed = Math.max(0, nowNanos - lastUpdateNanos);
+      double weight = Math.exp(-elapsed / decayNanos);
+
+      ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+    } else {
+      ewmaNanos = latencyNanos;
+      sampled = true;
+    }
+
+    lastUpdateNanos = nowNanos;
+
+    consecutiveFailures.set(0);
+  }
+
+  /**
+   * Records a connectivity failure.
+   * @return Number of consecutive failures
+   */
+  int recordFailure() {
+    return consecutiveFailures.incrementAndGet();
+  }
+
+  void eject(long nowNanos, long ejectionNanos) {
+    this.ejectedUntilNanos = nowNanos + ejectionNanos;
+    this.ejected = true;
+  }
+
+  void readmit() {
+    consecutiveFailures.set(0);
+    this.ejected = false;
+  }
+
+  @Override
+  public String toString() {
+    return url;
+  }
+
+}
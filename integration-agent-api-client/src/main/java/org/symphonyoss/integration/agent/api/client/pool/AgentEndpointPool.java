@@ -0,0 +1,346 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.authentication.ConnectivityException;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Pool of Agent endpoints.
+ *
+ * The pool is built from the comma-separated list of URLs configured on the key
+ * 'integration_bridge.agent-pool.urls'. If this key is missing, the pool contains only the Agent
+ * URL configured on the YAML file.
+ *
+ * Each request is routed to the available endpoint with the lowest score according to the
+ * {@link BalancingStrategy}. Endpoints are ejected after consecutive connectivity failures
+ * (passive health check) and re-admitted when the ejection period has elapsed and the health check
+ * probe succeeds (active health check).
+ */
+@Component
+public class AgentEndpointPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AgentEndpointPool.class);
+
+  private static final String PREFIX = "integration_bridge.agent-pool.";
+
+  public static final String URLS_KEY = PREFIX + "urls";
+
+  public static final String STRATEGY_KEY = PREFIX + "strategy";
+
+  public static final String FAILURE_THRESHOLD_KEY = PREFIX + "failure-threshold";
+
+  public static final String EJECTION_TIME_KEY = PREFIX + "ejection-time";
+
+  public static final String LATENCY_DECAY_KEY = PREFIX + "latency-decay";
+
+  private static final BalancingStrategy DEFAULT_STRATEGY = BalancingStrategy.LEAST_OUTSTANDING;
+
+  private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+
+  private static final long DEFAULT_EJECTION_TIME = 30000;
+
+  private static final long DEFAULT_LATENCY_DECAY = 10000;
+
+  private static final String HEALTH_CHECK_PATH = "/v1/HealthCheck";
+
+  private static final String METRIC_PREFIX = "agent.endpoint";
+
+  private static final String OUTSTANDING = "outstanding";
+
+  private static final String LATENCY = "latency";
+
+  private static final String EJECTED = "ejected";
+
+  private static final String EJECTIONS = "ejections";
+
+  private static final String FAILURES = "failures";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private IntegrationProperties properties;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private BalancingStrategy strategy = DEFAULT_STRATEGY;
+
+  private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+
+  private long ejectionNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_EJECTION_TIME);
+
+  private List<AgentEndpoint> endpoints = Collections.emptyList();
+
+  /**
+   * HTTP clients used to probe the ejected endpoints
+   */
+  private final ConcurrentMap<AgentEndpoint, HttpApiClient> probeClients =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Reads the pool settings and builds the endpoints.
+   */
+  @PostConstruct
+  public void init() {
+    strategy = BalancingStrategy.valueOf(
+        environment.getProperty(STRATEGY_KEY, DEFAULT_STRATEGY.name()).trim().toUpperCase());
+    failureThreshold = Math.max(1,
+        environment.getProperty(FAILURE_THRESHOLD_KEY, Integer.class, DEFAULT_FAILURE_THRESHOLD));
+    ejectionNanos = TimeUnit.MILLISECONDS.toNanos(
+        environment.getProperty(EJECTION_TIME_KEY, Long.class, DEFAULT_EJECTION_TIME));
+
+    long latencyDecay =
+        environment.getProperty(LATENCY_DECAY_KEY, Long.class, DEFAULT_LATENCY_DECAY);
+
+    List<AgentEndpoint> result = new ArrayList<>();
+
+    for (String url : getUrls()) {
+      AgentEndpoint endpoint = new AgentEndpoint(url, latencyDecay);
+      registerMetrics(endpoint);
+      result.add(endpoint);
+    }
+
+    this.endpoints = Collections.unmodifiableList(result);
+
+    LOG.info("Agent endpoint pool: {}, strategy: {}", endpoints, strategy);
+  }
+
+  private List<String> getUrls() {
+    List<String> urls = new ArrayList<>();
+
+    for (String url : StringUtils.split(environment.getProperty(URLS_KEY, StringUtils.EMPTY), ',')) {
+      if (StringUtils.isNotBlank(url)) {
+        urls.add(StringUtils.removeEnd(url.trim(), "/"));
+      }
+    }
+
+    if (urls.isEmpty() && StringUtils.isNotBlank(properties.getAgentUrl())) {
+      urls.add(properties.getAgentUrl());
+    }
+
+    return urls;
+  }
+
+  private void registerMetrics(final AgentEndpoint endpoint) {
+    registerGauge(endpoint, OUTSTANDING, new Gauge<Integer>() {
+      @Override
+      public Integer getValue() {
+        return endpoint.getOutstanding();
+      }
+    });
+
+    registerGauge(endpoint, LATENCY, new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return TimeUnit.NANOSECONDS.toMillis((long) endpoint.getLatencyNanos(System.nanoTime()));
+      }
+    });
+
+    registerGauge(endpoint, EJECTED, new Gauge<Boolean>() {
+      @Override
+      public Boolean getValue() {
+        return endpoint.isEjected();
+      }
+    });
+  }
+
+  private void registerGauge(AgentEndpoint endpoint, String metric, Gauge<?> gauge) {
+    String name = metricName(endpoint, metric);
+
+    if (!metricsRegistry.getGauges().containsKey(name)) {
+      metricsRegistry.register(name, gauge);
+    }
+  }
+
+  private String metricName(AgentEndpoint endpoint, String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, endpoint.getName(), metric);
+  }
+
+  public List<AgentEndpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  public BalancingStrategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Checks if the requests should be balanced among many endpoints.
+   * @return true if the pool contains more than one endpoint
+   */
+  public boolean isBalanced() {
+    return endpoints.size() > 1;
+  }
+
+  /**
+   * Selects the endpoint to the next request. If all the endpoints are ejected, selects the one
+   * closest to the end of the ejection period.
+   * @return Selected endpoint or null if the pool is empty
+   */
+  public AgentEndpoint select() {
+    List<AgentEndpoint> current = endpoints;
+    int size = current.size();
+
+    if (size == 0) {
+      return null;
+    }
+
+    long now = System.nanoTime();
+
+    // Random start avoids sending all the requests to the first endpoint when the scores are tied
+    int start = ThreadLocalRandom.current().nextInt(size);
+
+    AgentEndpoint selected = null;
+    double selectedScore = Double.MAX_VALUE;
+
+    for (int i = 0; i < size; i++) {
+      AgentEndpoint endpoint = current.get((start + i) % size);
+
+      if (!endpoint.isEjected()) {
+        double score = strategy.score(endpoint, now);
+
+        if (selected == null || score < selectedScore) {
+          selected = endpoint;
+          selectedScore = score;
+        }
+      }
+    }
+
+    if (selected != null) {
+      return selected;
+    }
+
+    for (AgentEndpoint endpoint : current) {
+      if (selected == null || endpoint.getEjectedUntilNanos() - selected.getEjectedUntilNanos() < 0) {
+        selected = endpoint;
+      }
+    }
+
+    return selected;
+  }
+
+  /**
+   * Registers the HTTP client used to probe the endpoint. Only the first client is kept.
+   * @param endpoint Agent endpoint
+   * @param client HTTP client
+   */
+  public void registerProbeClient(AgentEndpoint endpoint, HttpApiClient client) {
+    probeClients.putIfAbsent(endpoint, client);
+  }
+
+  /**
+   * Reports the endpoint answered the request.
+   * @param endpoint Agent endpoint
+   * @param latencyNanos Request latency (nanoseconds)
+   */
+  public void onSuccess(AgentEndpoint endpoint, long latencyNanos) {
+    endpoint.recordLatency(System.nanoTime(), latencyNanos);
+  }
+
+  /**
+   * Reports the request has failed. Only connectivity failures count to eject the endpoint.
+   * @param endpoint Agent endpoint
+   * @param e Failure
+   */
+  public void onFailure(AgentEndpoint endpoint, Exception e) {
+    if (!isConnectivityFailure(e)) {
+      return;
+    }
+
+    metricsRegistry.meter(metricName(endpoint, FAILURES)).mark();
+
+    int failures = endpoint.recordFailure();
+
+    if (failures >= failureThreshold && !endpoint.isEjected()) {
+      eject(endpoint);
+      LOG.warn("Agent endpoint {} ejected after {} consecutive failures", endpoint, failures);
+    }
+  }
+
+  private boolean isConnectivityFailure(Exception e) {
+    return e instanceof ConnectivityException || e instanceof ProcessingException;
+  }
+
+  private void eject(AgentEndpoint endpoint) {
+    endpoint.eject(System.nanoTime(), ejectionNanos);
+    metricsRegistry.meter(metricName(endpoint, EJECTIONS)).mark();
+  }
+
+  /**
+   * Probes the ejected endpoints whose ejection period has elapsed. The endpoint is re-admitted
+   * if the health check succeeds, otherwise it's ejected for another period.
+   */
+  @Scheduled(fixedRateString = "${integration_bridge.agent-pool.probe-rate:10000}")
+  public void probeEjectedEndpoints() {
+    long now = System.nanoTime();
+
+    for (AgentEndpoint endpoint : endpoints) {
+      if (endpoint.isReadyForProbe(now)) {
+        if (probe(endpoint)) {
+          endpoint.readmit();
+          LOG.info("Agent endpoint {} re-admitted", endpoint);
+        } else {
+          eject(endpoint);
+        }
+      }
+    }
+  }
+
+  private boolean probe(AgentEndpoint endpoint) {
+    HttpApiClient client = probeClients.get(endpoint);
+
+    if (client == null) {
+      // Nothing to probe with, the endpoint gets traffic again
+      return true;
+    }
+
+    try {
+      client.doGet(HEALTH_CHECK_PATH, Collections.<String, String>emptyMap(),
+          Collections.<String, String>emptyMap(), String.class);
+      return true;
+    } catch (Exception e) {
+      LOG.warn("Agent endpoint {} health check failed: {}", endpoint, e.getMessage());
+      return false;
+    }
+  }
+
+}
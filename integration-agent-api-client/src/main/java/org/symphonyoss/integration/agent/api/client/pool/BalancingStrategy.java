@@ -0,0 +1,47 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+/**
+ * Strategies used by the {@link AgentEndpointPool} to choose the endpoint for a request. The
+ * endpoint with the lowest score is selected.
+ */
+public enum BalancingStrategy {
+
+  /**
+   * Endpoint with the least number of outstanding requests.
+   */
+  LEAST_OUTSTANDING {
+    @Override
+    double score(AgentEndpoint endpoint, long nowNanos) {
+      return endpoint.getOutstanding();
+    }
+  },
+
+  /**
+   * Endpoint with the lowest latency moving average, weighted by the outstanding requests.
+   */
+  EWMA {
+    @Override
+    double score(AgentEndpoint endpoint, long nowNanos) {
+      return endpoint.getLatencyNanos(nowNanos) * (endpoint.getOutstanding() + 1);
+    }
+  };
+
+  abstract double score(AgentEndpoint endpoint, long nowNanos);
+
+}
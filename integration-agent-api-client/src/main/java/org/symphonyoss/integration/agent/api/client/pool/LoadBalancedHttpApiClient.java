@@ -0,0 +1,139 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP client that routes each request to one of the endpoints of the {@link AgentEndpointPool}.
+ *
+ * There is one HTTP client per endpoint. The endpoint is chosen when the request starts and the
+ * request outcome is reported back to the pool. Requests are not retried on another endpoint,
+ * because posting a message is not idempotent.
+ */
+public class LoadBalancedHttpApiClient implements HttpApiClient {
+
+  private final AgentEndpointPool pool;
+
+  private final Map<AgentEndpoint, HttpApiClient> clients;
+
+  private final HttpApiClient defaultClient;
+
+  /**
+   * @param pool Agent endpoint pool
+   * @param clients HTTP client for each endpoint of the pool
+   */
+  public LoadBalancedHttpApiClient(AgentEndpointPool pool,
+      Map<AgentEndpoint, HttpApiClient> clients) {
+    if (clients.isEmpty()) {
+      throw new IllegalArgumentException("At least one endpoint client is required");
+    }
+
+    this.pool = pool;
+    this.clients = new LinkedHashMap<>(clients);
+    this.defaultClient = this.clients.values().iterator().next();
+  }
+
+  @Override
+  public <T> T doGet(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Class<T> returnType) throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute(HttpApiClient client) throws RemoteApiException {
+        return client.doGet(path, headerParams, queryParams, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPost(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute(HttpApiClient client) throws RemoteApiException {
+        return client.doPost(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPut(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute(HttpApiClient client) throws RemoteApiException {
+        return client.doPut(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public String escapeString(String str) {
+    return defaultClient.escapeString(str);
+  }
+
+  @Override
+  public void setEntitySerializer(EntitySerializer serializer) {
+    for (HttpApiClient client : clients.values()) {
+      client.setEntitySerializer(serializer);
+    }
+  }
+
+  private <T> T execute(Request<T> request) throws RemoteApiException {
+    AgentEndpoint endpoint = pool.select();
+    HttpApiClient client = clients.get(endpoint);
+
+    if (client == null) {
+      return request.execute(defaultClient);
+    }
+
+    endpoint.start();
+    long startTime = System.nanoTime();
+
+    try {
+      T result = request.execute(client);
+      pool.onSuccess(endpoint, System.nanoTime() - startTime);
+      return result;
+    } catch (RemoteApiException e) {
+      // The endpoint is reachable, the error came from the Agent API
+      pool.onSuccess(endpoint, System.nanoTime() - startTime);
+      throw e;
+    } catch (RuntimeException e) {
+      pool.onFailure(endpoint, e);
+      throw e;
+    } finally {
+      endpoint.finish();
+    }
+  }
+
+  /**
+   * Request to be performed on the selected endpoint.
+   */
+  private interface Request<T> {
+
+    T execute(HttpApiClient client) throws RemoteApiException;
+
+  }
+
+}
@@ -32,4 +32,8 @@ public class BaseMessageApiClientProperties {
 
   public static final String MISSING_BODY_SOLUTION = "integration.base.message.missing.requiredBody.solution";
 
+  public static final String PREPARE_FAILURE = "integration.base.message.prepare.failure";
+
+  public static final String PREPARE_FAILURE_SOLUTION = "integration.base.message.prepare.failure.solution";
+
 }
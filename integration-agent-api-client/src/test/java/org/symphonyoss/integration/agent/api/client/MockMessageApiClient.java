@@ -30,10 +30,26 @@ public class MockMessageApiClient extends BaseMessageApiClient {
     super(logMessage);
   }
 
+  @Override
+  public String getApiVersion() {
+    return null;
+  }
+
   @Override
   public Message postMessage(String sessionToken, String kmToken, String streamId, Message message)
       throws RemoteApiException {
     return null;
   }
 
+  @Override
+  public PreparedMessage prepareMessage(Message message) throws RemoteApiException {
+    return null;
+  }
+
+  @Override
+  public Message postMessage(String sessionToken, String kmToken, String streamId,
+      PreparedMessage message) throws RemoteApiException {
+    return null;
+  }
+
 }
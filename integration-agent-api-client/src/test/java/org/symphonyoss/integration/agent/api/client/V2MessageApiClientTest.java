@@ -17,9 +17,11 @@
 package org.symphonyoss.integration.agent.api.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,9 +33,13 @@ import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.ws.rs.core.MediaType;
+
 /**
  * Unit test for {@link V2MessageApiClient}
  * Created by rsanchez on 22/02/17.
@@ -80,6 +86,74 @@ public class V2MessageApiClientTest {
     assertEquals(message, result);
   }
 
+  @Test
+  public void testPrepareMessage() throws RemoteApiException, IOException {
+    Message message = mockMessage();
+
+    PreparedMessage prepared = apiClient.prepareMessage(message);
+
+    assertEquals(V2MessageApiClient.API_VERSION, prepared.getApiVersion());
+    assertEquals(MediaType.APPLICATION_JSON_TYPE, prepared.getMediaType());
+    assertSame(message, prepared.getMessage());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    prepared.write(output);
+
+    assertEquals(prepared.getContentLength(), output.size());
+
+    Message body = new ObjectMapper().readValue(output.toByteArray(), Message.class);
+    assertEquals(message.getMessage(), body.getMessage());
+    assertEquals(message.getFormat(), body.getFormat());
+  }
+
+  @Test
+  public void testPostPreparedMessage() throws RemoteApiException {
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put("sessionToken", MOCK_SESSION);
+    headerParams.put("keyManagerToken", MOCK_KM_SESSION);
+
+    Map<String, String> queryParams = new HashMap<>();
+
+    Message message = mockMessage();
+    PreparedMessage prepared = apiClient.prepareMessage(message);
+
+    String path = "/v2/stream/" + MOCK_STREAM_ID + "/message/create";
+
+    doReturn(MOCK_STREAM_ID).when(httpClient).escapeString(MOCK_STREAM_ID);
+    doReturn(message).when(httpClient).doPost(path, headerParams, queryParams, prepared, Message.class);
+
+    Message result = apiClient.postMessage(MOCK_SESSION, MOCK_KM_SESSION, MOCK_STREAM_ID, prepared);
+
+    assertEquals(message, result);
+  }
+
+  @Test
+  public void testPostMessagePreparedByAnotherVersion() throws RemoteApiException {
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put("sessionToken", MOCK_SESSION);
+    headerParams.put("keyManagerToken", MOCK_KM_SESSION);
+
+    Map<String, String> queryParams = new HashMap<>();
+
+    Message message = mockMessage();
+    PreparedMessage prepared = new PreparedMessage(V4MessageApiClient.API_VERSION, message,
+        MediaType.MULTIPART_FORM_DATA_TYPE, new byte[0]);
+
+    String path = "/v2/stream/" + MOCK_STREAM_ID + "/message/create";
+
+    doReturn(MOCK_STREAM_ID).when(httpClient).escapeString(MOCK_STREAM_ID);
+    doReturn(message).when(httpClient).doPost(path, headerParams, queryParams, message, Message.class);
+
+    Message result = apiClient.postMessage(MOCK_SESSION, MOCK_KM_SESSION, MOCK_STREAM_ID, prepared);
+
+    assertEquals(message, result);
+  }
+
+  @Test(expected = RemoteApiException.class)
+  public void testPrepareNullMessage() throws RemoteApiException {
+    apiClient.prepareMessage(null);
+  }
+
   private Message mockMessage() {
     Message message = new Message();
     message.setFormat(Message.FormatEnum.MESSAGEML);
@@ -17,7 +17,9 @@
 package org.symphonyoss.integration.agent.api.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.eq;
@@ -42,10 +44,14 @@ import org.symphonyoss.integration.json.JsonUtils;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.message.Message;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.ws.rs.core.MediaType;
+
 /**
  * Unit test for {@link V4MessageApiClient}
  * Created by rsanchez on 22/02/17.
@@ -154,6 +160,89 @@ public class V4MessageApiClientTest {
     assertEquals(message.getData(), result.getData());
   }
 
+  @Test
+  public void testPrepareMessage() throws RemoteApiException, IOException {
+    Message message = mockMessage();
+
+    JsonNode node =
+        JsonUtils.readTree(getClass().getClassLoader().getResourceAsStream(FILENAME_ENTITY_JSON));
+    message.setData(node.toString());
+
+    PreparedMessage prepared = apiClient.prepareMessage(message);
+
+    assertEquals(V4MessageApiClient.API_VERSION, prepared.getApiVersion());
+    assertTrue(prepared.getMediaType().isCompatible(MediaType.MULTIPART_FORM_DATA_TYPE));
+
+    String boundary = prepared.getMediaType().getParameters().get("boundary");
+    assertNotNull(boundary);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    prepared.write(output);
+
+    String body = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+    String expected = "--" + boundary + "\r\n"
+        + "Content-Type: text/plain\r\n"
+        + "Content-Disposition: form-data; name=\"message\"\r\n"
+        + "\r\n"
+        + MOCK_PRESENTATION_ML + "\r\n"
+        + "--" + boundary + "\r\n"
+        + "Content-Type: text/plain\r\n"
+        + "Content-Disposition: form-data; name=\"data\"\r\n"
+        + "\r\n"
+        + message.getData() + "\r\n"
+        + "--" + boundary + "--\r\n";
+
+    assertEquals(expected, body);
+    assertEquals(prepared.getContentLength(), output.size());
+  }
+
+  @Test
+  public void testPostPreparedMessage() throws RemoteApiException {
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put("sessionToken", MOCK_SESSION);
+    headerParams.put("keyManagerToken", MOCK_KM_SESSION);
+
+    Map<String, String> queryParams = new HashMap<>();
+
+    Message message = mockMessage();
+    PreparedMessage prepared = apiClient.prepareMessage(message);
+
+    String path = "/v4/stream/" + MOCK_STREAM_ID + "/message/create";
+
+    doReturn(MOCK_STREAM_ID).when(httpClient).escapeString(MOCK_STREAM_ID);
+    doReturn(message).when(httpClient)
+        .doPost(path, headerParams, queryParams, prepared, Message.class);
+
+    Message result = apiClient.postMessage(MOCK_SESSION, MOCK_KM_SESSION, MOCK_STREAM_ID, prepared);
+
+    assertEquals(message, result);
+  }
+
+  @Test
+  public void testPostMessagePreparedByAnotherVersion() throws RemoteApiException {
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put("sessionToken", MOCK_SESSION);
+    headerParams.put("keyManagerToken", MOCK_KM_SESSION);
+
+    Map<String, String> queryParams = new HashMap<>();
+
+    Message message = mockMessage();
+    PreparedMessage prepared = new PreparedMessage(V2MessageApiClient.API_VERSION, message,
+        MediaType.APPLICATION_JSON_TYPE, new byte[0]);
+
+    String path = "/v4/stream/" + MOCK_STREAM_ID + "/message/create";
+
+    doReturn(MOCK_STREAM_ID).when(httpClient).escapeString(MOCK_STREAM_ID);
+    doAnswer(new AnswerV3MessageApi()).when(httpClient)
+        .doPost(eq(path), eq(headerParams), eq(queryParams), any(MultiPart.class),
+            eq(Message.class));
+
+    Message result = apiClient.postMessage(MOCK_SESSION, MOCK_KM_SESSION, MOCK_STREAM_ID, prepared);
+
+    assertEquals(message.getMessage(), result.getMessage());
+  }
+
   private Message mockMessage() {
     Message message = new Message();
     message.setMessage(MOCK_PRESENTATION_ML);
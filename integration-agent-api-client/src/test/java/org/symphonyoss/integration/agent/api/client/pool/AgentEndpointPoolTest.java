@@ -0,0 +1,229 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link AgentEndpointPool}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AgentEndpointPoolTest {
+
+  private static final String AGENT_URL = "https://agent.symphony.com:8444/agent";
+
+  private static final String AGENT_1 = "https://agent1.symphony.com:8444/agent";
+
+  private static final String AGENT_2 = "https://agent2.symphony.com:8444/agent";
+
+  private static final String HEALTH_CHECK_PATH = "/v1/HealthCheck";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(AgentEndpointPool.URLS_KEY, AGENT_1 + ", " + AGENT_2 + "/")
+      .withProperty(AgentEndpointPool.FAILURE_THRESHOLD_KEY, "2")
+      .withProperty(AgentEndpointPool.EJECTION_TIME_KEY, "0");
+
+  @Mock
+  private IntegrationProperties properties;
+
+  @Mock
+  private HttpApiClient probeClient;
+
+  @InjectMocks
+  private AgentEndpointPool pool = new AgentEndpointPool();
+
+  @Test
+  public void testInit() {
+    pool.init();
+
+    assertTrue(pool.isBalanced());
+    assertEquals(BalancingStrategy.LEAST_OUTSTANDING, pool.getStrategy());
+    assertEquals(2, pool.getEndpoints().size());
+    assertEquals(AGENT_1, pool.getEndpoints().get(0).getUrl());
+    assertEquals(AGENT_2, pool.getEndpoints().get(1).getUrl());
+
+    String gauge = MetricRegistry.name(BASE_METRIC_NAME, "agent.endpoint",
+        "agent1.symphony.com_8444", "outstanding");
+    assertTrue(metricsRegistry.getGauges().containsKey(gauge));
+  }
+
+  @Test
+  public void testDefaultAgentUrl() {
+    doReturn(AGENT_URL).when(properties).getAgentUrl();
+    ((MockEnvironment) environment).setProperty(AgentEndpointPool.URLS_KEY, "");
+
+    pool.init();
+
+    assertFalse(pool.isBalanced());
+    assertEquals(AGENT_URL, pool.select().getUrl());
+  }
+
+  @Test
+  public void testEmptyPool() {
+    ((MockEnvironment) environment).setProperty(AgentEndpointPool.URLS_KEY, "");
+
+    pool.init();
+
+    assertFalse(pool.isBalanced());
+    assertNull(pool.select());
+  }
+
+  @Test
+  public void testLeastOutstanding() {
+    pool.init();
+
+    AgentEndpoint busy = pool.getEndpoints().get(0);
+    AgentEndpoint idle = pool.getEndpoints().get(1);
+
+    busy.start();
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(idle, pool.select());
+    }
+
+    busy.finish();
+  }
+
+  @Test
+  public void testEwma() {
+    ((MockEnvironment) environment).setProperty(AgentEndpointPool.STRATEGY_KEY, "ewma");
+
+    pool.init();
+
+    AgentEndpoint slow = pool.getEndpoints().get(0);
+    AgentEndpoint fast = pool.getEndpoints().get(1);
+
+    pool.onSuccess(slow, 500000000L);
+    pool.onSuccess(fast, 1000000L);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(fast, pool.select());
+    }
+  }
+
+  @Test
+  public void testPassiveEjection() {
+    pool.init();
+
+    AgentEndpoint failing = pool.getEndpoints().get(0);
+
+    pool.onFailure(failing, new ProcessingException("Connection refused"));
+    assertFalse(failing.isEjected());
+
+    pool.onFailure(failing, new ProcessingException("Connection refused"));
+    assertTrue(failing.isEjected());
+
+    for (int i = 0; i < 10; i++) {
+      assertNotEquals(failing, pool.select());
+    }
+
+    String ejections =
+        MetricRegistry.name(BASE_METRIC_NAME, "agent.endpoint", failing.getName(), "ejections");
+    assertEquals(1, metricsRegistry.meter(ejections).getCount());
+  }
+
+  @Test
+  public void testIgnoreOtherFailures() {
+    pool.init();
+
+    AgentEndpoint endpoint = pool.getEndpoints().get(0);
+
+    for (int i = 0; i < 10; i++) {
+      pool.onFailure(endpoint, new IllegalStateException());
+    }
+
+    assertFalse(endpoint.isEjected());
+  }
+
+  @Test
+  public void testSuccessResetsFailures() {
+    pool.init();
+
+    AgentEndpoint endpoint = pool.getEndpoints().get(0);
+
+    pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+    pool.onSuccess(endpoint, 1000000L);
+    pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+
+    assertFalse(endpoint.isEjected());
+  }
+
+  @Test
+  public void testAllEndpointsEjected() {
+    pool.init();
+
+    for (AgentEndpoint endpoint : pool.getEndpoints()) {
+      pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+      pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+    }
+
+    assertEquals(pool.getEndpoints().get(0), pool.select());
+  }
+
+  @Test
+  public void testActiveReadmission() throws RemoteApiException {
+    pool.init();
+
+    AgentEndpoint endpoint = pool.getEndpoints().get(0);
+    pool.registerProbeClient(endpoint, probeClient);
+
+    pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+    pool.onFailure(endpoint, new ProcessingException("Connection refused"));
+
+    doThrow(ProcessingException.class).when(probeClient)
+        .doGet(eq(HEALTH_CHECK_PATH), anyMap(), anyMap(), eq(String.class));
+
+    pool.probeEjectedEndpoints();
+    assertTrue(endpoint.isEjected());
+
+    doReturn("{}").when(probeClient)
+        .doGet(eq(HEALTH_CHECK_PATH), anyMap(), anyMap(), eq(String.class));
+
+    pool.probeEjectedEndpoints();
+    assertFalse(endpoint.isEjected());
+  }
+
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.agent.api.client.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link LoadBalancedHttpApiClient}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoadBalancedHttpApiClientTest {
+
+  private static final String PATH = "/v4/stream/123/message/create";
+
+  private static final Map<String, String> EMPTY = Collections.emptyMap();
+
+  @Mock
+  private AgentEndpointPool pool;
+
+  @Mock
+  private HttpApiClient client1;
+
+  @Mock
+  private HttpApiClient client2;
+
+  @Mock
+  private EntitySerializer serializer;
+
+  private AgentEndpoint endpoint1 = new AgentEndpoint("https://agent1:8444/agent", 10000);
+
+  private AgentEndpoint endpoint2 = new AgentEndpoint("https://agent2:8444/agent", 10000);
+
+  private LoadBalancedHttpApiClient apiClient;
+
+  @Before
+  public void init() {
+    Map<AgentEndpoint, HttpApiClient> clients = new LinkedHashMap<>();
+    clients.put(endpoint1, client1);
+    clients.put(endpoint2, client2);
+
+    apiClient = new LoadBalancedHttpApiClient(pool, clients);
+  }
+
+  @Test
+  public void testRouteToSelectedEndpoint() throws RemoteApiException {
+    doReturn(endpoint2).when(pool).select();
+    doReturn("ok").when(client2).doPost(PATH, EMPTY, EMPTY, "payload", String.class);
+
+    assertEquals("ok", apiClient.doPost(PATH, EMPTY, EMPTY, "payload", String.class));
+    assertEquals(0, endpoint2.getOutstanding());
+  }
+
+  @Test
+  public void testRemoteApiExceptionKeepsEndpoint() throws RemoteApiException {
+    RemoteApiException exception = new RemoteApiException(403, "Forbidden");
+
+    doReturn(endpoint1).when(pool).select();
+    doThrow(exception).when(client1).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      apiClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (RemoteApiException e) {
+      assertEquals(exception, e);
+    }
+
+    verify(pool, never()).onFailure(endpoint1, exception);
+  }
+
+  @Test
+  public void testConnectivityFailure() throws RemoteApiException {
+    ProcessingException exception = new ProcessingException("Connection refused");
+
+    doReturn(endpoint1).when(pool).select();
+    doThrow(exception).when(client1).doPut(PATH, EMPTY, EMPTY, "payload", String.class);
+
+    try {
+      apiClient.doPut(PATH, EMPTY, EMPTY, "payload", String.class);
+      fail();
+    } catch (ProcessingException e) {
+      assertEquals(exception, e);
+    }
+
+    verify(pool).onFailure(endpoint1, exception);
+    assertEquals(0, endpoint1.getOutstanding());
+  }
+
+  @Test
+  public void testSetEntitySerializer() {
+    apiClient.setEntitySerializer(serializer);
+
+    verify(client1).setEntitySerializer(serializer);
+    verify(client2).setEntitySerializer(serializer);
+  }
+
+}
@@ -18,10 +18,13 @@ package org.symphonyoss.integration.auth.api.client;
 
 import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.auth.api.model.Token;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncResults;
 import org.symphonyoss.integration.exception.RemoteApiException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API client to authenticate users to another applications using HTTPs certificates.
@@ -29,21 +32,55 @@ import java.util.Map;
  */
 public class AuthenticationApiClient {
 
+  private static final String AUTHENTICATE_PATH = "/v1/authenticate";
+
+  private static final String USER_SESSION_HEADER_PARAM = "userSession";
+
   private HttpApiClient apiClient;
 
+  private AsyncHttpApiClient asyncApiClient;
+
   public AuthenticationApiClient(HttpApiClient apiClient) {
     this.apiClient = apiClient;
   }
 
+  public AuthenticationApiClient(HttpApiClient apiClient, AsyncHttpApiClient asyncApiClient) {
+    this.apiClient = apiClient;
+    this.asyncApiClient = asyncApiClient;
+  }
+
   public Token authenticate(String userId) throws RemoteApiException {
-    String path = "/v1/authenticate";
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put(USER_SESSION_HEADER_PARAM, userId);
+
+    Map<String, String> queryParams = new HashMap<>();
+
+    return apiClient.doPost(AUTHENTICATE_PATH, headerParams, queryParams, null, Token.class);
+  }
+
+  /**
+   * Authenticates the user without blocking the caller thread. If there is no asynchronous HTTP
+   * client, the authentication is performed by the blocking client.
+   * @param userId User identifier
+   * @return Future completed with the token or with the {@link RemoteApiException}
+   */
+  public CompletableFuture<Token> authenticateAsync(final String userId) {
+    if (asyncApiClient == null) {
+      return AsyncResults.call(new AsyncResults.BlockingCall<Token>() {
+        @Override
+        public Token call() throws RemoteApiException {
+          return authenticate(userId);
+        }
+      });
+    }
 
     Map<String, String> headerParams = new HashMap<>();
-    headerParams.put("userSession", userId);
+    headerParams.put(USER_SESSION_HEADER_PARAM, userId);
 
     Map<String, String> queryParams = new HashMap<>();
 
-    return apiClient.doPost(path, headerParams, queryParams, null, Token.class);
+    return asyncApiClient.doPostAsync(AUTHENTICATE_PATH, headerParams, queryParams, null,
+        Token.class);
   }
 
 }
@@ -24,8 +24,10 @@ import static org.symphonyoss.integration.auth.api.properties.AuthApiClientPrope
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.api.client.SymphonyApiClient;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClientFactory;
 import org.symphonyoss.integration.exception.MissingConfigurationException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.ProxyConnectionInfo;
@@ -44,6 +46,11 @@ public class KmAuthHttpApiClient extends SymphonyApiClient {
   @Autowired
   private LogMessageSource logMessageSource;
 
+  @Autowired
+  private AsyncHttpApiClientFactory asyncClientFactory;
+
+  private volatile AsyncHttpApiClient asyncClient;
+
   public KmAuthHttpApiClient() {
     super(SERVICE_NAME);
   }
@@ -61,6 +68,19 @@ public class KmAuthHttpApiClient extends SymphonyApiClient {
     return url;
   }
 
+  /**
+   * Retrieves the non-blocking HTTP client to the Key Manager Authentication API. The client is
+   * built on the first call.
+   * @return Asynchronous HTTP client
+   */
+  public AsyncHttpApiClient getAsyncClient() {
+    if (asyncClient == null) {
+      asyncClient = asyncClientFactory.newClient(getBasePath(), SERVICE_NAME);
+    }
+
+    return asyncClient;
+  }
+
   @Override
   protected ProxyConnectionInfo getProxy() {
     return this.properties.getKeyManagerAuth().getProxy();
@@ -26,6 +26,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.api.client.SymphonyApiClient;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClientFactory;
 import org.symphonyoss.integration.exception.MissingConfigurationException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
@@ -48,6 +50,11 @@ public class PodAuthHttpApiClient extends SymphonyApiClient {
   @Autowired
   private LogMessageSource logMessageSource;
 
+  @Autowired
+  private AsyncHttpApiClientFactory asyncClientFactory;
+
+  private volatile AsyncHttpApiClient asyncClient;
+
   public PodAuthHttpApiClient() {
     super(SERVICE_NAME);
   }
@@ -65,6 +72,19 @@ public class PodAuthHttpApiClient extends SymphonyApiClient {
     return url;
   }
 
+  /**
+   * Retrieves the non-blocking HTTP client to the POD Authentication API. The client is built on
+   * the first call.
+   * @return Asynchronous HTTP client
+   */
+  public AsyncHttpApiClient getAsyncClient() {
+    if (asyncClient == null) {
+      asyncClient = asyncClientFactory.newClient(getBasePath(), SERVICE_NAME);
+    }
+
+    return asyncClient;
+  }
+
   @Override
   protected ProxyConnectionInfo getProxy() {
     return this.properties.getPodSessionManager().getProxy();
@@ -16,6 +16,9 @@
 
 package org.symphonyoss.integration.authentication;
 
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.model.yaml.HttpClientConfig;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 
@@ -41,7 +44,26 @@ public class AppAuthenticationContext extends AuthenticationContext {
    */
   public AppAuthenticationContext(String applicationId, KeyStore keyStore, String keyStorePassword,
       HttpClientConfig httpClientConfig, IntegrationProperties properties) {
-    super(keyStore, keyStorePassword, httpClientConfig, properties);
+    this(applicationId, keyStore, keyStorePassword, httpClientConfig, properties, null, null, null);
+  }
+
+  /**
+   * Initializes application identifier and HTTP client with the SSL Context according to the
+   * keystore received. The HTTP client settings of each service are taken from its profile.
+   *
+   * @param applicationId Application identifier
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @param httpClientConfig API client settings, used when there is no profile
+   * @param profiles HTTP client profiles
+   * @param sslContexts Shared SSL contexts
+   * @param compression HTTP compression
+   */
+  public AppAuthenticationContext(String applicationId, KeyStore keyStore, String keyStorePassword,
+      HttpClientConfig httpClientConfig, IntegrationProperties properties,
+      HttpClientProfiles profiles, SSLContextCache sslContexts, HttpCompression compression) {
+    super(keyStore, keyStorePassword, httpClientConfig, properties, profiles, sslContexts,
+        compression);
     this.applicationId = applicationId;
   }
 
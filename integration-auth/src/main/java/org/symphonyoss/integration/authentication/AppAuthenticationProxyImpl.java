@@ -29,6 +29,9 @@ import org.symphonyoss.integration.authentication.api.AppAuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.model.AppToken;
 import org.symphonyoss.integration.authentication.api.model.PodCertificate;
 import org.symphonyoss.integration.authentication.exception.UnregisteredAppAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
@@ -60,6 +63,15 @@ public class AppAuthenticationProxyImpl implements AppAuthenticationProxy {
   @Autowired
   private PodAuthAppHttpApiClient podAuthAppHttpApiClient;
 
+  @Autowired
+  private HttpClientProfiles httpClientProfiles;
+
+  @Autowired
+  private SSLContextCache sslContexts;
+
+  @Autowired
+  private HttpCompression httpCompression;
+
   private AuthenticationAppApiClient apiClient;
 
   /**
@@ -74,7 +86,8 @@ public class AppAuthenticationProxyImpl implements AppAuthenticationProxy {
   public void registerApplication(String applicationId, KeyStore keyStore, String keyStorePassword) {
     AppAuthenticationContext context =
         new AppAuthenticationContext(applicationId, keyStore, keyStorePassword,
-            properties.getHttpClientConfig(), properties);
+            properties.getHttpClientConfig(), properties, httpClientProfiles,
+            sslContexts, httpCompression);
 
     appContexts.put(applicationId, context);
   }
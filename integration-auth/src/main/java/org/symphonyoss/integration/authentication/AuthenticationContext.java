@@ -22,18 +22,25 @@ import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.eclipse.jetty.client.HttpClient;
 
 import org.glassfish.jersey.SslConfigurator;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.jetty.connector.JettyConnectorProvider;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.authentication.exception.MissingClientException;
 import org.symphonyoss.integration.authentication.exception.MissingServiceConfigurationException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfile;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.authentication.properties.AuthenticationContextProperties;
+import org.symphonyoss.integration.client.support.deadline.DeadlineTimeoutFilter;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.logging.MessageUtils;
 import org.symphonyoss.integration.model.yaml.ConnectionInfo;
@@ -44,7 +51,11 @@ import org.symphonyoss.integration.model.yaml.ProxyConnectionInfo;
 import java.security.KeyStore;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
+import javax.net.ssl.SSLContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 
@@ -60,6 +71,23 @@ public abstract class AuthenticationContext {
 
   private final Map<ServiceName, Client> serviceClients = new HashMap<>();
 
+  /**
+   * Non-blocking HTTP clients, built on demand
+   */
+  private final ConcurrentMap<ServiceName, Client> asyncServiceClients = new ConcurrentHashMap<>();
+
+  private final Map<ServiceName, ProxyConnectionInfo> serviceProxies = new HashMap<>();
+
+  private final KeyStore keyStore;
+
+  private final String keyStorePassword;
+
+  private final Map<ServiceName, HttpClientProfile> serviceProfiles = new HashMap<>();
+
+  private final SSLContextCache sslContexts;
+
+  private final HttpCompression compression;
+
   /**
    * Initializes HTTP client with the SSL Context according to the keystore received.
    * @param keyStore Keystore object
@@ -68,6 +96,23 @@ public abstract class AuthenticationContext {
    */
   public AuthenticationContext(KeyStore keyStore, String keyStorePassword, HttpClientConfig
       httpClientConfig, IntegrationProperties properties) {
+    this(keyStore, keyStorePassword, httpClientConfig, properties, null, null, null);
+  }
+
+  /**
+   * Initializes HTTP client with the SSL Context according to the keystore received. The HTTP
+   * client settings of each service are taken from its profile, and the SSL context is shared with
+   * the other contexts that use the same keystore.
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @param httpClientConfig API client settings, used when there is no profile
+   * @param profiles HTTP client profiles (may be null)
+   * @param sslContexts Shared SSL contexts (may be null)
+   * @param compression HTTP compression (may be null)
+   */
+  public AuthenticationContext(KeyStore keyStore, String keyStorePassword, HttpClientConfig
+      httpClientConfig, IntegrationProperties properties, HttpClientProfiles profiles,
+      SSLContextCache sslContexts, HttpCompression compression) {
     if (httpClientConfig == null) {
       httpClientConfig = new HttpClientConfig();
     }
@@ -83,31 +128,38 @@ public abstract class AuthenticationContext {
               AuthenticationContextProperties.MISSING_SERVICE_CONFIGURATION_SOLUTION));
     }
 
+    this.keyStore = keyStore;
+    this.keyStorePassword = keyStorePassword;
+    this.sslContexts = sslContexts;
+    this.compression = compression;
+
     for (Map.Entry<ServiceName, ConnectionInfo> entry : services.entrySet()) {
       ServiceName service = entry.getKey();
       ConnectionInfo serviceInfo = entry.getValue();
 
+      HttpClientProfile profile = (profiles != null)
+          ? profiles.getProfile(service)
+          : HttpClientProfile.fromConfig(httpClientConfig);
+
+      this.serviceProfiles.put(service, profile);
+      this.serviceProxies.put(service, serviceInfo.getProxy());
       this.serviceClients.put(service,
-          buildClient(keyStore, keyStorePassword, httpClientConfig, serviceInfo.getProxy()));
+          buildClient(service, keyStore, keyStorePassword, profile, serviceInfo.getProxy()));
     }
 
   }
 
   /**
    * Builds HTTP client with the SSL Context according to the keystore received.
+   * @param serviceName Service name
    * @param keyStore Keystore object
    * @param keyStorePassword Keystore password
-   * @param httpClientConfig API client settings
+   * @param profile HTTP client settings of the service
    * @return HTTP client
    */
-  private Client buildClient(KeyStore keyStore, String keyStorePassword,
-      HttpClientConfig httpClientConfig, ProxyConnectionInfo proxyConnectionInfo) {
-    final ClientConfig clientConfig = new ClientConfig();
-    clientConfig.register(MultiPartFeature.class);
-
-    // Connect and read timeouts in milliseconds
-    clientConfig.property(ClientProperties.READ_TIMEOUT, httpClientConfig.getReadTimeout());
-    clientConfig.property(ClientProperties.CONNECT_TIMEOUT, httpClientConfig.getConnectTimeout());
+  private Client buildClient(ServiceName serviceName, KeyStore keyStore, String keyStorePassword,
+      HttpClientProfile profile, ProxyConnectionInfo proxyConnectionInfo) {
+    final ClientConfig clientConfig = buildClientConfig(serviceName, profile, proxyConnectionInfo);
 
     // Socket factory setup with custom SSL context settings
     SSLConnectionSocketFactory sslSocketFactory;
@@ -115,11 +167,10 @@ public abstract class AuthenticationContext {
     if (keyStore == null || keyStorePassword == null) {
       sslSocketFactory = SSLConnectionSocketFactory.getSystemSocketFactory();
     } else {
-      SslConfigurator sslConfigurator = SslConfigurator.newInstance()
-          .keyStore(keyStore)
-          .keyStorePassword(keyStorePassword);
-
-      sslSocketFactory = new SSLConnectionSocketFactory(sslConfigurator.createSSLContext());
+      SSLContext sslContext = createSSLContext(keyStore, keyStorePassword);
+      sslSocketFactory = (sslContexts != null)
+          ? sslContexts.newSocketFactory(sslContext)
+          : new SSLConnectionSocketFactory(sslContext);
     }
 
     Registry<ConnectionSocketFactory> socketFactoryRegistry =
@@ -128,11 +179,13 @@ public abstract class AuthenticationContext {
             .register("https", sslSocketFactory)
             .build();
 
-    // Connection pool setup with custom socket factory and max connections
+    // Connection pool setup with custom socket factory, max connections and connection TTL
     PoolingHttpClientConnectionManager connectionManager =
-        new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-    connectionManager.setMaxTotal(httpClientConfig.getMaxConnections());
-    connectionManager.setDefaultMaxPerRoute(httpClientConfig.getMaxConnectionsPerRoute());
+        new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null,
+            profile.getKeepAliveMillis(), TimeUnit.MILLISECONDS);
+    connectionManager.setMaxTotal(profile.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(profile.getMaxConnectionsPerRoute());
+    connectionManager.setValidateAfterInactivity(profile.getValidateAfterInactivityMillis());
 
     // Sets the connector provider and connection manager (as shared to avoid the client runtime
     // to shut it down)
@@ -141,6 +194,71 @@ public abstract class AuthenticationContext {
     ApacheConnectorProvider connectorProvider = new ApacheConnectorProvider();
     clientConfig.connectorProvider(connectorProvider);
 
+    // Build the client with the above configurations
+    final ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(clientConfig);
+
+    return clientBuilder.build();
+  }
+
+  /**
+   * Builds a non-blocking HTTP client with the same SSL context, timeouts and proxy settings used
+   * by the default client. The Jetty connector performs the requests on a selector, so the
+   * asynchronous invocations don't hold a thread while waiting for the response and many requests
+   * share a few threads.
+   * @param serviceName Service name
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @param profile HTTP client settings of the service
+   * @return HTTP client
+   */
+  private Client buildAsyncClient(ServiceName serviceName, KeyStore keyStore,
+      String keyStorePassword, HttpClientProfile profile,
+      ProxyConnectionInfo proxyConnectionInfo) {
+    final ClientConfig clientConfig = buildClientConfig(serviceName, profile, proxyConnectionInfo);
+    clientConfig.connectorProvider(new JettyConnectorProvider());
+
+    ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(clientConfig);
+
+    if (keyStore != null && keyStorePassword != null) {
+      clientBuilder.sslContext(createSSLContext(keyStore, keyStorePassword));
+    }
+
+    Client client = clientBuilder.build();
+
+    HttpClient httpClient = JettyConnectorProvider.getHttpClient(client);
+    httpClient.setMaxConnectionsPerDestination(profile.getMaxConnectionsPerRoute());
+
+    if (profile.getKeepAliveMillis() > 0) {
+      httpClient.setIdleTimeout(profile.getKeepAliveMillis());
+    }
+
+    return client;
+  }
+
+  /**
+   * Builds the client settings shared by the blocking and non-blocking clients.
+   * @param serviceName Service name
+   * @param profile HTTP client settings of the service
+   * @param proxyConnectionInfo Proxy settings
+   * @return Client settings
+   */
+  private ClientConfig buildClientConfig(ServiceName serviceName, HttpClientProfile profile,
+      ProxyConnectionInfo proxyConnectionInfo) {
+    final ClientConfig clientConfig = new ClientConfig();
+    clientConfig.register(MultiPartFeature.class);
+
+    // Compressed requests and responses, if enabled to the service
+    if (compression != null) {
+      compression.configure(clientConfig, serviceName, profile);
+    }
+
+    // Connect and read timeouts in milliseconds
+    clientConfig.property(ClientProperties.READ_TIMEOUT, profile.getReadTimeout());
+    clientConfig.property(ClientProperties.CONNECT_TIMEOUT, profile.getConnectTimeout());
+
+    // Shortens the timeouts above to the deadline of the request, if there is any
+    clientConfig.register(DeadlineTimeoutFilter.class);
+
     // Adds proxy info if there is any
     if (proxyConnectionInfo != null) {
 
@@ -161,10 +279,19 @@ public abstract class AuthenticationContext {
       }
     }
 
-    // Build the client with the above configurations
-    final ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(clientConfig);
+    return clientConfig;
+  }
 
-    return clientBuilder.build();
+  private SSLContext createSSLContext(KeyStore keyStore, String keyStorePassword) {
+    if (sslContexts != null) {
+      return sslContexts.getSSLContext(keyStore, keyStorePassword);
+    }
+
+    SslConfigurator sslConfigurator = SslConfigurator.newInstance()
+        .keyStore(keyStore)
+        .keyStorePassword(keyStorePassword);
+
+    return sslConfigurator.createSSLContext();
   }
 
   /**
@@ -178,4 +305,40 @@ public abstract class AuthenticationContext {
       throw new MissingClientException(COMPONENT, serviceName);
     }
   }
+
+  /**
+   * Get the HTTP client settings applied to the service clients.
+   * @return HTTP client profile or null if the service isn't configured
+   */
+  public HttpClientProfile getHttpClientProfile(ServiceName serviceName) {
+    return serviceProfiles.get(serviceName);
+  }
+
+  /**
+   * Get non-blocking HTTP client. The client is built on the first call.
+   * @return HTTP client
+   */
+  public Client asyncHttpClientForContext(ServiceName serviceName) {
+    Client client = asyncServiceClients.get(serviceName);
+
+    if (client != null) {
+      return client;
+    }
+
+    if (!serviceProxies.containsKey(serviceName)) {
+      throw new MissingClientException(COMPONENT, serviceName);
+    }
+
+    Client newClient = buildAsyncClient(serviceName, keyStore, keyStorePassword,
+        serviceProfiles.get(serviceName), serviceProxies.get(serviceName));
+    client = asyncServiceClients.putIfAbsent(serviceName, newClient);
+
+    if (client == null) {
+      return newClient;
+    }
+
+    // Another thread has built the client first
+    newClient.close();
+    return client;
+  }
 }
\ No newline at end of file
@@ -48,6 +48,12 @@ import org.symphonyoss.integration.auth.api.model.Token;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.authentication.exception.UnregisteredSessionTokenException;
 import org.symphonyoss.integration.authentication.exception.UnregisteredUserAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
+import org.symphonyoss.integration.client.support.async.AsyncHttpClientProvider;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.AuthenticationException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
@@ -61,6 +67,8 @@ import java.security.KeyStore;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 import javax.ws.rs.client.Client;
@@ -73,7 +81,7 @@ import javax.ws.rs.core.Response.Status;
  * Created by rsanchez on 06/05/16.
  */
 @Component
-public class AuthenticationProxyImpl implements AuthenticationProxy {
+public class AuthenticationProxyImpl implements AuthenticationProxy, AsyncHttpClientProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(AuthenticationProxyImpl.class);
 
@@ -91,6 +99,13 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
 
   private Map<String, UserAuthenticationContext> authContexts = new ConcurrentHashMap<>();
 
+  /**
+   * Serializes the re-authentication. The authentication performs blocking HTTP calls, so an
+   * explicit lock is used instead of a monitor to avoid pinning carrier threads when the caller
+   * runs on a virtual thread.
+   */
+  private final Lock reAuthLock = new ReentrantLock();
+
   @Autowired
   private IntegrationProperties properties;
 
@@ -100,6 +115,15 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
   @Autowired
   private KmAuthHttpApiClient kmAuthHttpApiClient;
 
+  @Autowired
+  private HttpClientProfiles httpClientProfiles;
+
+  @Autowired
+  private SSLContextCache sslContexts;
+
+  @Autowired
+  private HttpCompression httpCompression;
+
   @Autowired
   private LogMessageSource logMessage;
 
@@ -217,12 +241,18 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
    * @throws RemoteApiException the original exception
    */
   @Override
-  public synchronized void reAuthOrThrow(String userId, RemoteApiException remoteApiException)
+  public void reAuthOrThrow(String userId, RemoteApiException remoteApiException)
       throws RemoteApiException {
     if (validateResponseCode(Status.UNAUTHORIZED, remoteApiException.getCode())) {
-      if (shouldInvalidateSession(userId)) {
-        invalidate(userId);
-        authenticate(userId);
+      lockReAuth();
+
+      try {
+        if (shouldInvalidateSession(userId)) {
+          invalidate(userId);
+          authenticate(userId);
+        }
+      } finally {
+        reAuthLock.unlock();
       }
     } else {
       throw remoteApiException;
@@ -245,11 +275,40 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
   }
 
   @Override
-  public synchronized AuthenticationToken reAuthSessionOrThrow(String sessionToken, RemoteApiException remoteApiException)
+  public AuthenticationToken reAuthSessionOrThrow(String sessionToken, RemoteApiException remoteApiException)
       throws RemoteApiException {
-    UserAuthenticationContext authContext = contextForSessionToken(sessionToken);
-    reAuthOrThrow(authContext.getUserId(), remoteApiException);
-    return authContext.getToken();
+    lockReAuth();
+
+    try {
+      UserAuthenticationContext authContext = contextForSessionToken(sessionToken);
+      reAuthOrThrow(authContext.getUserId(), remoteApiException);
+      return authContext.getToken();
+    } finally {
+      reAuthLock.unlock();
+    }
+  }
+
+  /**
+   * Acquires the re-authentication lock. If the caller has a deadline, waits only for the remaining
+   * time of the deadline.
+   * @throws DeadlineExceededException Deadline expired before the lock is acquired
+   */
+  private void lockReAuth() throws DeadlineExceededException {
+    Deadline deadline = Deadline.current();
+
+    if (deadline == null) {
+      reAuthLock.lock();
+      return;
+    }
+
+    try {
+      if (!reAuthLock.tryLock(deadline.remaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)) {
+        throw new DeadlineExceededException();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DeadlineExceededException();
+    }
   }
 
   /**
@@ -295,7 +354,8 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
   @Override
   public void registerUser(String userId, KeyStore keyStore, String keyStorePass) {
     authContexts.put(userId, new UserAuthenticationContext(userId, keyStore, keyStorePass,
-        properties.getHttpClientConfig(), properties));
+        properties.getHttpClientConfig(), properties, httpClientProfiles,
+        sslContexts, httpCompression));
   }
 
   /**
@@ -313,4 +373,20 @@ public class AuthenticationProxyImpl implements AuthenticationProxy {
   public Client httpClientForSessionToken(String sessionToken, ServiceName serviceName) {
     return contextForSessionToken(sessionToken).httpClientForContext(serviceName);
   }
+
+  /**
+   * Retrieves a non-blocking client build with the proper SSL context for the user.
+   */
+  @Override
+  public Client asyncHttpClientForUser(String userId, ServiceName serviceName) {
+    return contextForUser(userId).asyncHttpClientForContext(serviceName);
+  }
+
+  /**
+   * Retrieves a non-blocking client build with the proper SSL context for the session token owner.
+   */
+  @Override
+  public Client asyncHttpClientForSessionToken(String sessionToken, ServiceName serviceName) {
+    return contextForSessionToken(sessionToken).asyncHttpClientForContext(serviceName);
+  }
 }
\ No newline at end of file
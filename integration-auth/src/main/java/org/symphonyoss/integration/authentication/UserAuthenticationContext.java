@@ -16,10 +16,14 @@
 
 package org.symphonyoss.integration.authentication;
 
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.model.yaml.HttpClientConfig;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 
 import java.security.KeyStore;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Stores authentication context for an integration user (User ID, HTTP client and token).
@@ -30,16 +34,16 @@ public class UserAuthenticationContext extends AuthenticationContext {
 
   private final String userId;
 
-  private boolean isTokenValid = false;
-
-  private AuthenticationToken token = AuthenticationToken.VOID_AUTH_TOKEN;
-
   /**
    * The current token and the previous one are kept on the authentication context map, as for a
    * short time window, some threads may have the previous valid token in hands, while another thread has
    * just renewed it.
+   *
+   * Both tokens and the validity flag are replaced together as an immutable snapshot, so readers
+   * never block and never see a partial update. This also avoids pinning carrier threads when the
+   * context is used from virtual threads.
    */
-  private AuthenticationToken previousToken = AuthenticationToken.VOID_AUTH_TOKEN;
+  private final AtomicReference<TokenState> state = new AtomicReference<>(TokenState.INITIAL);
 
   /**
    * Initializes user identifier and HTTP client with the SSL Context according to the keystore
@@ -52,7 +56,26 @@ public class UserAuthenticationContext extends AuthenticationContext {
    */
   public UserAuthenticationContext(String userId, KeyStore keyStore, String keyStorePassword,
       HttpClientConfig httpClientConfig, IntegrationProperties properties) {
-    super(keyStore, keyStorePassword, httpClientConfig, properties);
+    this(userId, keyStore, keyStorePassword, httpClientConfig, properties, null, null, null);
+  }
+
+  /**
+   * Initializes user identifier and HTTP client with the SSL Context according to the keystore
+   * received. The HTTP client settings of each service are taken from its profile.
+   *
+   * @param userId User identifier
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @param httpClientConfig API client settings, used when there is no profile
+   * @param profiles HTTP client profiles
+   * @param sslContexts Shared SSL contexts
+   * @param compression HTTP compression
+   */
+  public UserAuthenticationContext(String userId, KeyStore keyStore, String keyStorePassword,
+      HttpClientConfig httpClientConfig, IntegrationProperties properties,
+      HttpClientProfiles profiles, SSLContextCache sslContexts, HttpCompression compression) {
+    super(keyStore, keyStorePassword, httpClientConfig, properties, profiles, sslContexts,
+        compression);
 
     this.userId = userId;
   }
@@ -61,33 +84,69 @@ public class UserAuthenticationContext extends AuthenticationContext {
     return userId;
   }
 
-  public synchronized AuthenticationToken getToken() {
-    return token;
+  public AuthenticationToken getToken() {
+    return state.get().token;
   }
 
-  public synchronized AuthenticationToken getPreviousToken() {
-    return previousToken;
+  public AuthenticationToken getPreviousToken() {
+    return state.get().previousToken;
   }
 
-  public synchronized void setToken(AuthenticationToken newToken) {
-    if (newToken == null || newToken.equals(AuthenticationToken.VOID_AUTH_TOKEN)) {
-      // Current and previous tokens are just overridden with new non-void tokens.
-      // The authentication context is retrieved by the session token on POD and Agent API clients,
-      // and therefore the token should not not be thrown away when invalidated.
-      isTokenValid = false;
-    } else {
-      previousToken = token;
-      token = newToken;
-      isTokenValid = true;
-    }
+  public void setToken(AuthenticationToken newToken) {
+    TokenState current;
+    TokenState updated;
+
+    do {
+      current = state.get();
+
+      if (newToken == null || newToken.equals(AuthenticationToken.VOID_AUTH_TOKEN)) {
+        // Current and previous tokens are just overridden with new non-void tokens.
+        // The authentication context is retrieved by the session token on POD and Agent API clients,
+        // and therefore the token should not not be thrown away when invalidated.
+        updated = current.invalidate();
+      } else {
+        updated = new TokenState(newToken, current.token, true);
+      }
+    } while (!state.compareAndSet(current, updated));
   }
 
-  public synchronized void invalidateAuthentication() {
-    isTokenValid = false;
+  public void invalidateAuthentication() {
+    TokenState current;
+
+    do {
+      current = state.get();
+    } while (!state.compareAndSet(current, current.invalidate()));
+  }
+
+  public boolean isAuthenticated() {
+    return state.get().valid;
   }
 
-  public synchronized boolean isAuthenticated() {
-    return isTokenValid;
+  /**
+   * Immutable snapshot of the tokens and their validity.
+   */
+  private static final class TokenState {
+
+    private static final TokenState INITIAL = new TokenState(AuthenticationToken.VOID_AUTH_TOKEN,
+        AuthenticationToken.VOID_AUTH_TOKEN, false);
+
+    private final AuthenticationToken token;
+
+    private final AuthenticationToken previousToken;
+
+    private final boolean valid;
+
+    private TokenState(AuthenticationToken token, AuthenticationToken previousToken,
+        boolean valid) {
+      this.token = token;
+      this.previousToken = previousToken;
+      this.valid = valid;
+    }
+
+    private TokenState invalidate() {
+      return valid ? new TokenState(token, previousToken, false) : this;
+    }
+
   }
 
 }
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Negotiates gzip compression with a remote service.
+ *
+ * The request bodies above the threshold are compressed and every request accepts gzip responses.
+ * The compressed responses are decompressed before being read, unless the connector has already
+ * done it. If the remote service rejects a compressed body (HTTP 415) the request compression is
+ * turned off for this service and the rejected request is sent again without compression.
+ */
+public class GzipCompressionFilter
+    implements ClientRequestFilter, ClientResponseFilter, WriterInterceptor, ReaderInterceptor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GzipCompressionFilter.class);
+
+  public static final String GZIP = "gzip";
+
+  private static final String X_GZIP = "x-gzip";
+
+  private static final int PERCENT = 100;
+
+  private final String serviceName;
+
+  private final int threshold;
+
+  private final AtomicBoolean requestCompression = new AtomicBoolean(true);
+
+  private final Histogram ratio;
+
+  private final Timer compressionTime;
+
+  private final Meter compressedResponses;
+
+  public GzipCompressionFilter(String serviceName, int threshold, Histogram ratio,
+      Timer compressionTime, Meter compressedResponses) {
+    this.serviceName = serviceName;
+    this.threshold = threshold;
+    this.ratio = ratio;
+    this.compressionTime = compressionTime;
+    this.compressedResponses = compressedResponses;
+  }
+
+  @Override
+  public void filter(ClientRequestContext requestContext) throws IOException {
+    if (!requestContext.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+      requestContext.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING, GZIP);
+    }
+  }
+
+  @Override
+  public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext)
+      throws IOException {
+    if (responseContext.getStatus() != Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode()) {
+      return;
+    }
+
+    boolean compressed = GZIP.equals(requestContext.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+
+    if (!compressed) {
+      return;
+    }
+
+    if (requestCompression.compareAndSet(true, false)) {
+      LOG.warn("{} doesn't accept compressed requests, the request compression was disabled",
+          serviceName);
+    }
+
+    retryUncompressed(requestContext, responseContext);
+  }
+
+  /**
+   * Sends the rejected request again without compression and replaces the rejected response with
+   * the new one, so the negotiation doesn't fail the request. The request compression is already
+   * disabled, so the new request isn't compressed and it's never retried.
+   * @param requestContext Rejected request
+   * @param responseContext Rejected response
+   */
+  private void retryUncompressed(ClientRequestContext requestContext,
+      ClientResponseContext responseContext) {
+    MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>(requestContext.getHeaders());
+    headers.remove(HttpHeaders.CONTENT_ENCODING);
+    headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+    Invocation.Builder builder =
+        requestContext.getClient().target(requestContext.getUri()).request().headers(headers);
+
+    for (String name : requestContext.getPropertyNames()) {
+      builder.property(name, requestContext.getProperty(name));
+    }
+
+    Entity<?> entity = Entity.entity(requestContext.getEntity(), requestContext.getMediaType(),
+        requestContext.getEntityAnnotations());
+
+    Response response = builder.method(requestContext.getMethod(), entity);
+
+    responseContext.setStatus(response.getStatus());
+    responseContext.getHeaders().clear();
+    responseContext.getHeaders().putAll(response.getStringHeaders());
+
+    if (response.hasEntity()) {
+      // Already decompressed by this filter if the response was compressed
+      responseContext.setEntityStream(response.readEntity(InputStream.class));
+      responseContext.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+      responseContext.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+    } else {
+      responseContext.setEntityStream(new ByteArrayInputStream(new byte[0]));
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context)
+      throws IOException, WebApplicationException {
+    if (!requestCompression.get()
+        || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      context.proceed();
+      return;
+    }
+
+    // The body is buffered to find out whether it reaches the threshold
+    OutputStream output = context.getOutputStream();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    context.setOutputStream(body);
+    context.proceed();
+    context.setOutputStream(output);
+
+    if (body.size() < threshold) {
+      body.writeTo(output);
+      return;
+    }
+
+    long start = System.nanoTime();
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.size() / 2);
+
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      body.writeTo(gzip);
+    }
+
+    compressionTime.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    ratio.update((long) compressed.size() * PERCENT / body.size());
+
+    // Headers are sent after the buffered entity is written (see HttpCompression)
+    context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+    context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+
+    compressed.writeTo(output);
+  }
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context)
+      throws IOException, WebApplicationException {
+    String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+
+    if (GZIP.equalsIgnoreCase(encoding) || X_GZIP.equalsIgnoreCase(encoding)) {
+      compressedResponses.mark();
+      context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+      context.setInputStream(new GZIPInputStream(context.getInputStream()));
+    }
+
+    return context.proceed();
+  }
+
+  public boolean isRequestCompression() {
+    return requestCompression.get();
+  }
+
+}
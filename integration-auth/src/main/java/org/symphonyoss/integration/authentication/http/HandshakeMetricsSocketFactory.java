@@ -0,0 +1,74 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import com.codahale.metrics.Meter;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+
+import java.io.IOException;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+/**
+ * SSL socket factory that counts full and resumed TLS handshakes.
+ *
+ * A session created before the socket was prepared must have been resumed from the session cache,
+ * otherwise the socket performed a full handshake.
+ */
+public class HandshakeMetricsSocketFactory extends SSLConnectionSocketFactory {
+
+  private final Meter fullHandshakes;
+
+  private final Meter resumedHandshakes;
+
+  public HandshakeMetricsSocketFactory(SSLContext sslContext, Meter fullHandshakes,
+      Meter resumedHandshakes) {
+    super(sslContext);
+    this.fullHandshakes = fullHandshakes;
+    this.resumedHandshakes = resumedHandshakes;
+  }
+
+  @Override
+  protected void prepareSocket(SSLSocket socket) throws IOException {
+    final long startTime = System.currentTimeMillis();
+
+    socket.addHandshakeCompletedListener(new HandshakeCompletedListener() {
+      @Override
+      public void handshakeCompleted(HandshakeCompletedEvent event) {
+        // Renegotiations are not counted
+        event.getSocket().removeHandshakeCompletedListener(this);
+        onHandshake(event.getSession().getCreationTime() < startTime);
+      }
+    });
+  }
+
+  /**
+   * Reports a completed TLS handshake.
+   * @param resumed true if the session was resumed, false otherwise
+   */
+  void onHandshake(boolean resumed) {
+    if (resumed) {
+      resumedHandshakes.mark();
+    } else {
+      fullHandshakes.mark();
+    }
+  }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import org.symphonyoss.integration.model.yaml.HttpClientConfig;
+
+/**
+ * HTTP client settings applied to the clients of a remote service.
+ */
+public class HttpClientProfile {
+
+  /**
+   * Default inactivity period before a pooled connection is validated (milliseconds)
+   */
+  public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+  /**
+   * Keep pooled connections alive indefinitely
+   */
+  public static final long INFINITE_KEEP_ALIVE = -1;
+
+  /**
+   * Default minimum size of a request body to be compressed (bytes)
+   */
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+  private int connectTimeout;
+
+  private int readTimeout;
+
+  private int maxConnections;
+
+  private int maxConnectionsPerRoute;
+
+  /**
+   * Max time a pooled connection is kept alive (milliseconds)
+   */
+  private long keepAliveMillis = INFINITE_KEEP_ALIVE;
+
+  /**
+   * Inactivity period before a pooled connection is validated (milliseconds)
+   */
+  private int validateAfterInactivityMillis = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+
+  /**
+   * Compress the request bodies and accept compressed responses (gzip)
+   */
+  private boolean compression = false;
+
+  /**
+   * Minimum size of a request body to be compressed (bytes)
+   */
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
+  /**
+   * Creates a profile using the global HTTP client settings.
+   * @param config Global HTTP client settings
+   * @return HTTP client profile
+   */
+  public static HttpClientProfile fromConfig(HttpClientConfig config) {
+    if (config == null) {
+      config = new HttpClientConfig();
+    }
+
+    HttpClientProfile profile = new HttpClientProfile();
+    profile.setConnectTimeout(config.getConnectTimeout());
+    profile.setReadTimeout(config.getReadTimeout());
+    profile.setMaxConnections(config.getMaxConnections());
+    profile.setMaxConnectionsPerRoute(config.getMaxConnectionsPerRoute());
+
+    return profile;
+  }
+
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public int getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(int readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+  }
+
+  public long getKeepAliveMillis() {
+    return keepAliveMillis;
+  }
+
+  public void setKeepAliveMillis(long keepAliveMillis) {
+    this.keepAliveMillis = keepAliveMillis;
+  }
+
+  public int getValidateAfterInactivityMillis() {
+    return validateAfterInactivityMillis;
+  }
+
+  public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+    this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+  }
+
+  public boolean isCompression() {
+    return compression;
+  }
+
+  public void setCompression(boolean compression) {
+    this.compression = compression;
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  public void setCompressionThreshold(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return "HttpClientProfile{" +
+        "connectTimeout=" + connectTimeout +
+        ", readTimeout=" + readTimeout +
+        ", maxConnections=" + maxConnections +
+        ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+        ", keepAliveMillis=" + keepAliveMillis +
+        ", validateAfterInactivityMillis=" + validateAfterInactivityMillis +
+        ", compression=" + compression +
+        ", compressionThreshold=" + compressionThreshold +
+        '}';
+  }
+
+}
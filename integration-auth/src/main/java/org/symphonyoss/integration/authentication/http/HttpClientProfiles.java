@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the HTTP client profile of each remote service.
+ *
+ * The global settings (http_client_config) are the defaults and can be overridden per service
+ * using the keys 'integration_bridge.http-client.[service].*', where the service is the name used
+ * in the YAML file (i.e. pod, agent, key_manager, key_manager_auth, pod_session_manager).
+ */
+@Component
+public class HttpClientProfiles {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HttpClientProfiles.class);
+
+  private static final String PREFIX = "integration_bridge.http-client.";
+
+  public static final String CONNECT_TIMEOUT = "connect-timeout";
+
+  public static final String READ_TIMEOUT = "read-timeout";
+
+  public static final String MAX_CONNECTIONS = "max-connections";
+
+  public static final String MAX_CONNECTIONS_PER_ROUTE = "max-connections-per-route";
+
+  public static final String KEEP_ALIVE = "keep-alive";
+
+  public static final String VALIDATE_AFTER_INACTIVITY = "validate-after-inactivity";
+
+  public static final String COMPRESSION = "compression";
+
+  public static final String COMPRESSION_THRESHOLD = "compression-threshold";
+
+  @Autowired
+  private IntegrationProperties properties;
+
+  @Autowired
+  private Environment environment;
+
+  private final ConcurrentMap<ServiceName, HttpClientProfile> profiles = new ConcurrentHashMap<>();
+
+  /**
+   * Retrieves the HTTP client profile of the service.
+   * @param serviceName Service name
+   * @return HTTP client profile
+   */
+  public HttpClientProfile getProfile(ServiceName serviceName) {
+    HttpClientProfile profile = profiles.get(serviceName);
+
+    if (profile == null) {
+      HttpClientProfile newProfile = readProfile(serviceName);
+      profile = profiles.putIfAbsent(serviceName, newProfile);
+
+      if (profile == null) {
+        profile = newProfile;
+        LOG.info("HTTP client profile for {}: {}", serviceName, profile);
+      }
+    }
+
+    return profile;
+  }
+
+  /**
+   * Retrieves the effective HTTP client profiles of all the services.
+   * @return HTTP client profile per service name
+   */
+  public Map<ServiceName, HttpClientProfile> getProfiles() {
+    Map<ServiceName, HttpClientProfile> result = new LinkedHashMap<>();
+
+    for (ServiceName serviceName : ServiceName.values()) {
+      result.put(serviceName, getProfile(serviceName));
+    }
+
+    return result;
+  }
+
+  private HttpClientProfile readProfile(ServiceName serviceName) {
+    String prefix = PREFIX + serviceName.name().toLowerCase() + ".";
+    HttpClientProfile profile = HttpClientProfile.fromConfig(properties.getHttpClientConfig());
+
+    profile.setConnectTimeout(environment.getProperty(prefix + CONNECT_TIMEOUT, Integer.class,
+        profile.getConnectTimeout()));
+    profile.setReadTimeout(
+        environment.getProperty(prefix + READ_TIMEOUT, Integer.class, profile.getReadTimeout()));
+    profile.setMaxConnections(environment.getProperty(prefix + MAX_CONNECTIONS, Integer.class,
+        profile.getMaxConnections()));
+    profile.setMaxConnectionsPerRoute(environment.getProperty(prefix + MAX_CONNECTIONS_PER_ROUTE,
+        Integer.class, profile.getMaxConnectionsPerRoute()));
+    profile.setKeepAliveMillis(
+        environment.getProperty(prefix + KEEP_ALIVE, Long.class, profile.getKeepAliveMillis()));
+    profile.setValidateAfterInactivityMillis(environment.getProperty(
+        prefix + VALIDATE_AFTER_INACTIVITY, Integer.class,
+        profile.getValidateAfterInactivityMillis()));
+    profile.setCompression(
+        environment.getProperty(prefix + COMPRESSION, Boolean.class, profile.isCompression()));
+    profile.setCompressionThreshold(environment.getProperty(prefix + COMPRESSION_THRESHOLD,
+        Integer.class, profile.getCompressionThreshold()));
+
+    return profile;
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.core.Configurable;
+
+/**
+ * Enables the gzip compression on the HTTP clients of the services whose profile asks for it.
+ *
+ * The compression state is shared by all the clients of the same service, so once the service
+ * rejects a compressed request no other client compresses the requests sent to it. The
+ * compression ratio (percent of the original size), the compression time and the number of
+ * compressed responses are reported per service.
+ */
+@Component
+public class HttpCompression {
+
+  private static final String METRIC_PREFIX = "compression";
+
+  private static final String RATIO = "ratio";
+
+  private static final String TIME = "time";
+
+  private static final String COMPRESSED_RESPONSES = "compressedResponses";
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private final ConcurrentMap<ServiceName, GzipCompressionFilter> filters =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Registers the compression filter on the client settings if it's enabled to the service. The
+   * request entities are buffered, so the connectors send the headers only after the compression
+   * filter has decided whether the body is compressed.
+   * @param config Client settings
+   * @param serviceName Service name
+   * @param profile HTTP client settings of the service
+   */
+  public void configure(Configurable<?> config, ServiceName serviceName,
+      HttpClientProfile profile) {
+    if (profile.isCompression()) {
+      config.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+      config.register(getFilter(serviceName, profile));
+    }
+  }
+
+  /**
+   * Retrieves the compression filter of the service. The filter is created on the first call.
+   * @param serviceName Service name
+   * @param profile HTTP client settings of the service
+   * @return Compression filter
+   */
+  public GzipCompressionFilter getFilter(ServiceName serviceName, HttpClientProfile profile) {
+    GzipCompressionFilter filter = filters.get(serviceName);
+
+    if (filter == null) {
+      String service = serviceName.name().toLowerCase();
+
+      GzipCompressionFilter newFilter = new GzipCompressionFilter(service,
+          profile.getCompressionThreshold(),
+          metricsRegistry.histogram(metricName(service, RATIO)),
+          metricsRegistry.timer(metricName(service, TIME)),
+          metricsRegistry.meter(metricName(service, COMPRESSED_RESPONSES)));
+
+      filter = filters.putIfAbsent(serviceName, newFilter);
+
+      if (filter == null) {
+        filter = newFilter;
+      }
+    }
+
+    return filter;
+  }
+
+  private static String metricName(String service, String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, service, metric);
+  }
+
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.glassfish.jersey.SslConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.Certificate;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * Shares one {@link SSLContext} per keystore identity.
+ *
+ * The TLS session cache belongs to the SSL context, so the HTTP clients of the same bot can only
+ * resume the TLS sessions opened by each other if they use the same context. Without this, every
+ * connection pool pays a full mutual TLS handshake for each new connection.
+ *
+ * The keystore identity is the fingerprint of the certificates stored in the keystore and its
+ * password. The size and the timeout of the client session cache can be set using the keys
+ * 'integration_bridge.tls.*'.
+ */
+@Component
+public class SSLContextCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SSLContextCache.class);
+
+  private static final String PREFIX = "integration_bridge.tls.";
+
+  public static final String SHARED_KEY = PREFIX + "shared-context";
+
+  public static final String SESSION_CACHE_SIZE_KEY = PREFIX + "session-cache-size";
+
+  public static final String SESSION_TIMEOUT_KEY = PREFIX + "session-timeout";
+
+  /**
+   * Default number of cached TLS sessions per SSL context (0 means no limit)
+   */
+  public static final int DEFAULT_SESSION_CACHE_SIZE = 1000;
+
+  /**
+   * Default TLS session timeout (seconds)
+   */
+  public static final int DEFAULT_SESSION_TIMEOUT = 3600;
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private static final String METRIC_PREFIX = "tls";
+
+  private static final String FULL_HANDSHAKES = "fullHandshakes";
+
+  private static final String RESUMED_HANDSHAKES = "resumedHandshakes";
+
+  private static final String CONTEXTS = "contexts";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private final ConcurrentMap<String, SSLContext> contexts = new ConcurrentHashMap<>();
+
+  private boolean shared;
+
+  private int sessionCacheSize;
+
+  private int sessionTimeout;
+
+  private Meter fullHandshakes;
+
+  private Meter resumedHandshakes;
+
+  /**
+   * Reads the TLS settings and registers the handshake metrics.
+   */
+  @PostConstruct
+  public void init() {
+    this.shared = environment.getProperty(SHARED_KEY, Boolean.class, Boolean.TRUE);
+    this.sessionCacheSize = environment.getProperty(SESSION_CACHE_SIZE_KEY, Integer.class,
+        DEFAULT_SESSION_CACHE_SIZE);
+    this.sessionTimeout =
+        environment.getProperty(SESSION_TIMEOUT_KEY, Integer.class, DEFAULT_SESSION_TIMEOUT);
+
+    this.fullHandshakes = metricsRegistry.meter(metricName(FULL_HANDSHAKES));
+    this.resumedHandshakes = metricsRegistry.meter(metricName(RESUMED_HANDSHAKES));
+
+    String contextsMetric = metricName(CONTEXTS);
+
+    if (!metricsRegistry.getGauges().containsKey(contextsMetric)) {
+      metricsRegistry.register(contextsMetric, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return contexts.size();
+        }
+      });
+    }
+
+    LOG.info("Shared SSL context enabled: {}, session cache size: {}, session timeout: {}s",
+        shared, sessionCacheSize, sessionTimeout);
+  }
+
+  /**
+   * Retrieves the SSL context for the keystore. The context is created on the first call for each
+   * keystore identity.
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @return SSL context
+   */
+  public SSLContext getSSLContext(KeyStore keyStore, String keyStorePassword) {
+    if (!shared) {
+      return createSSLContext(keyStore, keyStorePassword);
+    }
+
+    String identity;
+
+    try {
+      identity = getIdentity(keyStore, keyStorePassword);
+    } catch (GeneralSecurityException e) {
+      LOG.warn("Fail to read the keystore identity, the SSL context won't be shared", e);
+      return createSSLContext(keyStore, keyStorePassword);
+    }
+
+    SSLContext context = contexts.get(identity);
+
+    if (context == null) {
+      SSLContext newContext = createSSLContext(keyStore, keyStorePassword);
+      context = contexts.putIfAbsent(identity, newContext);
+
+      if (context == null) {
+        context = newContext;
+      }
+    }
+
+    return context;
+  }
+
+  /**
+   * Builds the socket factory used by the connection pools. The socket factory reports whether
+   * each TLS handshake was a full handshake or a resumed session.
+   * @param sslContext SSL context
+   * @return Socket factory
+   */
+  public SSLConnectionSocketFactory newSocketFactory(SSLContext sslContext) {
+    return new HandshakeMetricsSocketFactory(sslContext, fullHandshakes, resumedHandshakes);
+  }
+
+  public int getSessionCacheSize() {
+    return sessionCacheSize;
+  }
+
+  public int getSessionTimeout() {
+    return sessionTimeout;
+  }
+
+  /**
+   * Creates the SSL context and configures its client session cache.
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @return SSL context
+   */
+  private SSLContext createSSLContext(KeyStore keyStore, String keyStorePassword) {
+    SSLContext context = SslConfigurator.newInstance()
+        .keyStore(keyStore)
+        .keyStorePassword(keyStorePassword)
+        .createSSLContext();
+
+    SSLSessionContext sessionContext = context.getClientSessionContext();
+
+    if (sessionContext != null) {
+      sessionContext.setSessionCacheSize(sessionCacheSize);
+      sessionContext.setSessionTimeout(sessionTimeout);
+    }
+
+    return context;
+  }
+
+  /**
+   * Computes the keystore identity. The certificates are sorted by alias, so the identity doesn't
+   * depend on the keystore iteration order.
+   * @param keyStore Keystore object
+   * @param keyStorePassword Keystore password
+   * @return Keystore identity
+   * @throws GeneralSecurityException Failure to read the certificates
+   */
+  private String getIdentity(KeyStore keyStore, String keyStorePassword)
+      throws GeneralSecurityException {
+    MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+
+    List<String> aliases = Collections.list(keyStore.aliases());
+    Collections.sort(aliases);
+
+    for (String alias : aliases) {
+      Certificate certificate = keyStore.getCertificate(alias);
+
+      if (certificate != null) {
+        digest.update(certificate.getEncoded());
+      }
+    }
+
+    if (keyStorePassword != null) {
+      digest.update(keyStorePassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    return keyStore.getType() + ":" + Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  private static String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, metric);
+  }
+
+}
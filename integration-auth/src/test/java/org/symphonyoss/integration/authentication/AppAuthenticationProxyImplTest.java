@@ -22,6 +22,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.symphonyoss.integration.authentication.properties.AppAuthenticationProxyProperties.UNREGISTERED_APP_MESSAGE;
 import static org.symphonyoss.integration.authentication.properties.AppAuthenticationProxyProperties.UNREGISTERED_APP_SOLUTION;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
@@ -37,6 +38,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.symphonyoss.integration.auth.api.client.PodAuthAppHttpApiClient;
 import org.symphonyoss.integration.authentication.exception.UnregisteredAppAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.exception.ExceptionMessageFormatter;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
@@ -54,7 +58,9 @@ import javax.ws.rs.core.Configuration;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(classes = {IntegrationProperties.class, AppAuthenticationProxyImpl.class})
+@ContextConfiguration(classes = {IntegrationProperties.class, HttpClientProfiles.class,
+    MetricRegistry.class, SSLContextCache.class, HttpCompression.class,
+    AppAuthenticationProxyImpl.class})
 public class AppAuthenticationProxyImplTest {
 
   private static final String JIRA = "jira";
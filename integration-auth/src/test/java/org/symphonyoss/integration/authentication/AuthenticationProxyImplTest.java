@@ -23,6 +23,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.http.HttpStatus;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
@@ -45,6 +46,9 @@ import org.symphonyoss.integration.auth.api.model.Token;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.authentication.exception.UnregisteredSessionTokenException;
 import org.symphonyoss.integration.authentication.exception.UnregisteredUserAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
+import org.symphonyoss.integration.authentication.http.SSLContextCache;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.AuthenticationException;
 import org.symphonyoss.integration.exception.authentication.ForbiddenAuthException;
@@ -63,7 +67,9 @@ import javax.ws.rs.core.Response;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(classes = {IntegrationProperties.class, AuthenticationProxyImpl.class})
+@ContextConfiguration(
+    classes = {IntegrationProperties.class, HttpClientProfiles.class, MetricRegistry.class,
+        SSLContextCache.class, HttpCompression.class, AuthenticationProxyImpl.class})
 public class AuthenticationProxyImplTest {
 
   private static final String JIRAWEBHOOK = "jirawebhook";
@@ -20,9 +20,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +36,9 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.symphonyoss.integration.authentication.http.HttpClientProfile;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+import org.symphonyoss.integration.authentication.http.HttpCompression;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.model.yaml.ConnectionInfo;
 import org.symphonyoss.integration.model.yaml.HttpClientConfig;
@@ -80,6 +89,9 @@ public class UserAuthenticationContextTest {
   @Spy
   private IntegrationProperties properties;
 
+  @Mock
+  private HttpClientProfiles profiles;
+
   @Before
   public void initAuthenticationContext() {
     properties.setPod(podConnectionInfo);
@@ -192,4 +204,49 @@ public class UserAuthenticationContextTest {
     assertEquals(httpClientConfig.getMaxConnectionsPerRoute(), clientTotalConnPerRoute);
   }
 
+  @Test
+  public void testHttpClientProfile() {
+    HttpClientProfile profile = new HttpClientProfile();
+    profile.setConnectTimeout(1000);
+    profile.setReadTimeout(60000);
+    profile.setMaxConnections(400);
+    profile.setMaxConnectionsPerRoute(200);
+    profile.setKeepAliveMillis(30000);
+    profile.setValidateAfterInactivityMillis(500);
+
+    doReturn(profile).when(profiles).getProfile(SERVICE_NAME);
+
+    UserAuthenticationContext authContext =
+        new UserAuthenticationContext(USER_ID, null, null, null, properties, profiles, null,
+            null);
+
+    Configuration clientConfiguration =
+        authContext.httpClientForContext(SERVICE_NAME).getConfiguration();
+    PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager)
+        clientConfiguration.getProperty(ApacheClientProperties.CONNECTION_MANAGER);
+
+    assertEquals(60000, clientConfiguration.getProperty(ClientProperties.READ_TIMEOUT));
+    assertEquals(1000, clientConfiguration.getProperty(ClientProperties.CONNECT_TIMEOUT));
+    assertEquals(400, connectionManager.getMaxTotal());
+    assertEquals(200, connectionManager.getDefaultMaxPerRoute());
+    assertEquals(500, connectionManager.getValidateAfterInactivity());
+    assertEquals(profile, authContext.getHttpClientProfile(SERVICE_NAME));
+  }
+
+  @Test
+  public void testCompression() {
+    HttpClientProfile profile = HttpClientProfile.fromConfig(null);
+    profile.setCompression(true);
+
+    doReturn(profile).when(profiles).getProfile(SERVICE_NAME);
+
+    HttpCompression compression = mock(HttpCompression.class);
+
+    UserAuthenticationContext authContext = new UserAuthenticationContext(USER_ID, null, null,
+        null, properties, profiles, null, compression);
+    assertNotNull(authContext.httpClientForContext(SERVICE_NAME));
+
+    verify(compression).configure(any(ClientConfig.class), eq(SERVICE_NAME), eq(profile));
+  }
+
 }
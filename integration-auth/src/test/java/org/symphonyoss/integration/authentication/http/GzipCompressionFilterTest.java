@@ -0,0 +1,325 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Unit tests for {@link GzipCompressionFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class GzipCompressionFilterTest {
+
+  private static final int THRESHOLD = 1024;
+
+  @Mock
+  private WriterInterceptorContext writerContext;
+
+  @Mock
+  private ReaderInterceptorContext readerContext;
+
+  @Mock
+  private ClientRequestContext requestContext;
+
+  @Mock
+  private ClientResponseContext responseContext;
+
+  @Mock
+  private Client client;
+
+  @Mock
+  private WebTarget target;
+
+  @Mock
+  private Invocation.Builder builder;
+
+  @Mock
+  private Response response;
+
+  private Histogram ratio = new Histogram(new SlidingWindowReservoir(10));
+
+  private Meter compressedResponses = new Meter();
+
+  private GzipCompressionFilter filter;
+
+  private MultivaluedMap<String, Object> requestHeaders = new MultivaluedHashMap<>();
+
+  private MultivaluedMap<String, String> responseHeaders = new MultivaluedHashMap<>();
+
+  private OutputStream outputStream;
+
+  private InputStream inputStream;
+
+  @Before
+  public void init() {
+    filter = new GzipCompressionFilter("agent", THRESHOLD, ratio, new Timer(),
+        compressedResponses);
+
+    doReturn(requestHeaders).when(writerContext).getHeaders();
+    doReturn(requestHeaders).when(requestContext).getHeaders();
+    doReturn(responseHeaders).when(readerContext).getHeaders();
+  }
+
+  @Test
+  public void testAcceptEncoding() throws IOException {
+    filter.filter(requestContext);
+    assertEquals(GzipCompressionFilter.GZIP, requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Test
+  public void testSmallBody() throws IOException {
+    byte[] body = newBody(THRESHOLD - 1);
+    ByteArrayOutputStream output = write(body);
+
+    assertArrayEquals(body, output.toByteArray());
+    assertNull(requestHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(0, ratio.getCount());
+  }
+
+  @Test
+  public void testCompressedBody() throws IOException {
+    byte[] body = newBody(THRESHOLD * 10);
+    ByteArrayOutputStream output = write(body);
+
+    assertEquals(GzipCompressionFilter.GZIP,
+        requestHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+
+    GZIPInputStream decompressed =
+        new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()));
+    assertArrayEquals(body, readAll(decompressed));
+
+    assertEquals(1, ratio.getCount());
+    assertTrue(ratio.getSnapshot().getMax() < 10);
+  }
+
+  @Test
+  public void testCompressionRejected() throws IOException {
+    URI uri = URI.create("https://agent.symphony.com/agent/v4/stream/123/message/create");
+    Object entity = new Object();
+
+    requestHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, GzipCompressionFilter.GZIP);
+    requestHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, "128");
+    requestHeaders.putSingle(HttpHeaders.AUTHORIZATION, "token");
+
+    doReturn(GzipCompressionFilter.GZIP).when(requestContext)
+        .getHeaderString(HttpHeaders.CONTENT_ENCODING);
+    doReturn(415).when(responseContext).getStatus();
+    doReturn(responseHeaders).when(responseContext).getHeaders();
+
+    doReturn(client).when(requestContext).getClient();
+    doReturn(uri).when(requestContext).getUri();
+    doReturn("POST").when(requestContext).getMethod();
+    doReturn(entity).when(requestContext).getEntity();
+    doReturn(MediaType.APPLICATION_JSON_TYPE).when(requestContext).getMediaType();
+    doReturn(Collections.singletonList(ClientProperties.READ_TIMEOUT)).when(requestContext)
+        .getPropertyNames();
+    doReturn(1000).when(requestContext).getProperty(ClientProperties.READ_TIMEOUT);
+
+    doReturn(target).when(client).target(uri);
+    doReturn(builder).when(target).request();
+    doReturn(builder).when(builder).headers(any(MultivaluedMap.class));
+    doReturn(builder).when(builder).property(anyString(), any());
+
+    InputStream retryBody = new ByteArrayInputStream(new byte[] {'{', '}'});
+    MultivaluedMap<String, String> retryHeaders = new MultivaluedHashMap<>();
+    retryHeaders.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+
+    doReturn(response).when(builder).method(eq("POST"), any(Entity.class));
+    doReturn(200).when(response).getStatus();
+    doReturn(retryHeaders).when(response).getStringHeaders();
+    doReturn(true).when(response).hasEntity();
+    doReturn(retryBody).when(response).readEntity(InputStream.class);
+
+    filter.filter(requestContext, responseContext);
+    assertFalse(filter.isRequestCompression());
+
+    // Sent again without compression
+    ArgumentCaptor<MultivaluedMap> headers = ArgumentCaptor.forClass(MultivaluedMap.class);
+    verify(builder).headers(headers.capture());
+    assertFalse(headers.getValue().containsKey(HttpHeaders.CONTENT_ENCODING));
+    assertFalse(headers.getValue().containsKey(HttpHeaders.CONTENT_LENGTH));
+    assertEquals("token", headers.getValue().getFirst(HttpHeaders.AUTHORIZATION));
+    verify(builder).property(ClientProperties.READ_TIMEOUT, 1000);
+
+    ArgumentCaptor<Entity> sent = ArgumentCaptor.forClass(Entity.class);
+    verify(builder).method(eq("POST"), sent.capture());
+    assertSame(entity, sent.getValue().getEntity());
+
+    // The rejected response is replaced
+    verify(responseContext).setStatus(200);
+    verify(responseContext).setEntityStream(retryBody);
+    assertEquals(MediaType.APPLICATION_JSON, responseHeaders.getFirst(HttpHeaders.CONTENT_TYPE));
+
+    // Next requests aren't compressed
+    requestHeaders.clear();
+
+    byte[] body = newBody(THRESHOLD * 10);
+    assertArrayEquals(body, write(body).toByteArray());
+  }
+
+  @Test
+  public void testUncompressedRequestRejected() throws IOException {
+    doReturn(415).when(responseContext).getStatus();
+
+    filter.filter(requestContext, responseContext);
+
+    assertTrue(filter.isRequestCompression());
+    verify(requestContext, never()).getClient();
+  }
+
+  @Test
+  public void testCompressedResponse() throws IOException {
+    byte[] body = newBody(THRESHOLD);
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(body);
+    }
+
+    responseHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, GzipCompressionFilter.GZIP);
+    inputStream = new ByteArrayInputStream(compressed.toByteArray());
+
+    doAnswer(new Answer<InputStream>() {
+      @Override
+      public InputStream answer(InvocationOnMock invocation) throws Throwable {
+        return inputStream;
+      }
+    }).when(readerContext).getInputStream();
+
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        inputStream = (InputStream) invocation.getArguments()[0];
+        return null;
+      }
+    }).when(readerContext).setInputStream(any(InputStream.class));
+
+    doAnswer(new Answer<byte[]>() {
+      @Override
+      public byte[] answer(InvocationOnMock invocation) throws Throwable {
+        return readAll(inputStream);
+      }
+    }).when(readerContext).proceed();
+
+    assertArrayEquals(body, (byte[]) filter.aroundReadFrom(readerContext));
+    assertFalse(responseHeaders.containsKey(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(1, compressedResponses.getCount());
+  }
+
+  private ByteArrayOutputStream write(final byte[] body) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    outputStream = output;
+
+    doAnswer(new Answer<OutputStream>() {
+      @Override
+      public OutputStream answer(InvocationOnMock invocation) throws Throwable {
+        return outputStream;
+      }
+    }).when(writerContext).getOutputStream();
+
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        outputStream = (OutputStream) invocation.getArguments()[0];
+        return null;
+      }
+    }).when(writerContext).setOutputStream(any(OutputStream.class));
+
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        outputStream.write(body);
+        return null;
+      }
+    }).when(writerContext).proceed();
+
+    filter.aroundWriteTo(writerContext);
+
+    return output;
+  }
+
+  private byte[] readAll(InputStream input) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int read;
+
+    while ((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+    }
+
+    return output.toByteArray();
+  }
+
+  private byte[] newBody(int size) {
+    byte[] body = new byte[size];
+    Arrays.fill(body, (byte) 'a');
+    return body;
+  }
+
+}
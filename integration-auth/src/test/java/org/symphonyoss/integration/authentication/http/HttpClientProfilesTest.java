@@ -0,0 +1,115 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.model.yaml.HttpClientConfig;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import java.util.Map;
+
+/**
+ * Unit tests for {@link HttpClientProfiles}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientProfilesTest {
+
+  private static final String AGENT_PREFIX = "integration_bridge.http-client.agent.";
+
+  @Spy
+  private IntegrationProperties properties = new IntegrationProperties();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.READ_TIMEOUT, "60000")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.MAX_CONNECTIONS, "400")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.MAX_CONNECTIONS_PER_ROUTE, "200")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.KEEP_ALIVE, "30000")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.VALIDATE_AFTER_INACTIVITY, "500")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.COMPRESSION, "true")
+      .withProperty(AGENT_PREFIX + HttpClientProfiles.COMPRESSION_THRESHOLD, "4096");
+
+  @InjectMocks
+  private HttpClientProfiles profiles = new HttpClientProfiles();
+
+  private HttpClientConfig config;
+
+  @Before
+  public void init() {
+    config = new HttpClientConfig();
+    config.setConnectTimeout(2000);
+    config.setReadTimeout(5000);
+    config.setMaxConnections(100);
+    config.setMaxConnectionsPerRoute(50);
+
+    properties.setHttpClientConfig(config);
+  }
+
+  @Test
+  public void testDefaultProfile() {
+    HttpClientProfile profile = profiles.getProfile(ServiceName.POD);
+
+    assertEquals(2000, profile.getConnectTimeout());
+    assertEquals(5000, profile.getReadTimeout());
+    assertEquals(100, profile.getMaxConnections());
+    assertEquals(50, profile.getMaxConnectionsPerRoute());
+    assertEquals(HttpClientProfile.INFINITE_KEEP_ALIVE, profile.getKeepAliveMillis());
+    assertEquals(HttpClientProfile.DEFAULT_VALIDATE_AFTER_INACTIVITY,
+        profile.getValidateAfterInactivityMillis());
+    assertFalse(profile.isCompression());
+    assertEquals(HttpClientProfile.DEFAULT_COMPRESSION_THRESHOLD,
+        profile.getCompressionThreshold());
+  }
+
+  @Test
+  public void testServiceProfile() {
+    HttpClientProfile profile = profiles.getProfile(ServiceName.AGENT);
+
+    assertEquals(2000, profile.getConnectTimeout());
+    assertEquals(60000, profile.getReadTimeout());
+    assertEquals(400, profile.getMaxConnections());
+    assertEquals(200, profile.getMaxConnectionsPerRoute());
+    assertEquals(30000, profile.getKeepAliveMillis());
+    assertEquals(500, profile.getValidateAfterInactivityMillis());
+    assertTrue(profile.isCompression());
+    assertEquals(4096, profile.getCompressionThreshold());
+
+    assertSame(profile, profiles.getProfile(ServiceName.AGENT));
+  }
+
+  @Test
+  public void testAllProfiles() {
+    Map<ServiceName, HttpClientProfile> result = profiles.getProfiles();
+
+    assertEquals(ServiceName.values().length, result.size());
+    assertEquals(60000, result.get(ServiceName.AGENT).getReadTimeout());
+  }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+
+/**
+ * Unit tests for {@link HttpCompression}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HttpCompressionTest {
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @InjectMocks
+  private HttpCompression compression = new HttpCompression();
+
+  @Test
+  public void testDisabled() {
+    ClientConfig config = new ClientConfig();
+    compression.configure(config, ServiceName.AGENT, new HttpClientProfile());
+
+    assertFalse(config.isRegistered(GzipCompressionFilter.class));
+    assertNull(config.getProperty(ClientProperties.REQUEST_ENTITY_PROCESSING));
+  }
+
+  @Test
+  public void testEnabled() {
+    HttpClientProfile profile = new HttpClientProfile();
+    profile.setCompression(true);
+
+    ClientConfig config = new ClientConfig();
+    compression.configure(config, ServiceName.AGENT, profile);
+
+    GzipCompressionFilter filter = compression.getFilter(ServiceName.AGENT, profile);
+
+    assertTrue(config.isRegistered(filter));
+    assertEquals(RequestEntityProcessing.BUFFERED,
+        config.getProperty(ClientProperties.REQUEST_ENTITY_PROCESSING));
+
+    // The filter is shared by all the clients of the service
+    assertSame(filter, compression.getFilter(ServiceName.AGENT, profile));
+  }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.authentication.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.security.KeyStore;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * Unit tests for {@link SSLContextCache}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SSLContextCacheTest {
+
+  private static final String PASSWORD = "changeit";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private MockEnvironment environment = new MockEnvironment()
+      .withProperty(SSLContextCache.SESSION_CACHE_SIZE_KEY, "50")
+      .withProperty(SSLContextCache.SESSION_TIMEOUT_KEY, "600");
+
+  @InjectMocks
+  private SSLContextCache cache = new SSLContextCache();
+
+  private KeyStore keyStore;
+
+  @Before
+  public void init() throws Exception {
+    keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+    keyStore.load(null, null);
+
+    cache.init();
+  }
+
+  @Test
+  public void testSharedContext() throws Exception {
+    KeyStore sameKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+    sameKeyStore.load(null, null);
+
+    SSLContext context = cache.getSSLContext(keyStore, PASSWORD);
+
+    assertSame(context, cache.getSSLContext(keyStore, PASSWORD));
+    assertSame(context, cache.getSSLContext(sameKeyStore, PASSWORD));
+    assertNotSame(context, cache.getSSLContext(keyStore, "other"));
+  }
+
+  @Test
+  public void testSessionCache() {
+    SSLSessionContext sessionContext =
+        cache.getSSLContext(keyStore, PASSWORD).getClientSessionContext();
+
+    assertEquals(50, sessionContext.getSessionCacheSize());
+    assertEquals(600, sessionContext.getSessionTimeout());
+  }
+
+  @Test
+  public void testNotShared() {
+    environment.setProperty(SSLContextCache.SHARED_KEY, "false");
+    cache.init();
+
+    assertNotSame(cache.getSSLContext(keyStore, PASSWORD),
+        cache.getSSLContext(keyStore, PASSWORD));
+  }
+
+  @Test
+  public void testHandshakeMetrics() {
+    SSLConnectionSocketFactory socketFactory =
+        cache.newSocketFactory(cache.getSSLContext(keyStore, PASSWORD));
+    assertTrue(socketFactory instanceof HandshakeMetricsSocketFactory);
+
+    HandshakeMetricsSocketFactory metricsSocketFactory =
+        (HandshakeMetricsSocketFactory) socketFactory;
+    metricsSocketFactory.onHandshake(false);
+    metricsSocketFactory.onHandshake(true);
+    metricsSocketFactory.onHandshake(true);
+
+    assertEquals(1, metricsRegistry.meter(metricName("fullHandshakes")).getCount());
+    assertEquals(2, metricsRegistry.meter(metricName("resumedHandshakes")).getCount());
+    assertEquals(1, metricsRegistry.getGauges().get(metricName("contexts")).getValue());
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, "tls", metric);
+  }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of the {@link org.symphonyoss.integration.api.client.HttpApiClient}.
+ *
+ * The requests don't block the caller thread. The returned future completes with the response
+ * entity, or exceptionally with a {@link org.symphonyoss.integration.exception.RemoteApiException}
+ * if the remote API answers with an error status. Connectivity failures complete the future with
+ * the original exception.
+ */
+public interface AsyncHttpApiClient {
+
+  <T> CompletableFuture<T> doGetAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Class<T> returnType);
+
+  <T> CompletableFuture<T> doPostAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Object payload, Class<T> returnType);
+
+  <T> CompletableFuture<T> doPutAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Object payload, Class<T> returnType);
+
+  String escapeString(String str);
+
+  void setEntitySerializer(EntitySerializer serializer);
+
+}
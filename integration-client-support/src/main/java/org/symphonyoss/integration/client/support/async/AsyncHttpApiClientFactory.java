@@ -0,0 +1,51 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.logging.LogMessageSource;
+
+/**
+ * Builds the {@link AsyncHttpApiClient} used by the API clients.
+ */
+@Component
+public class AsyncHttpApiClientFactory {
+
+  @Autowired
+  private AuthenticationProxy authenticationProxy;
+
+  @Autowired(required = false)
+  private AsyncHttpClientProvider clientProvider;
+
+  @Autowired
+  private LogMessageSource logMessage;
+
+  /**
+   * Builds an asynchronous HTTP client.
+   * @param basePath Base path
+   * @param serviceName Service name, used to select the SSL context and proxy settings
+   * @return Asynchronous HTTP client
+   */
+  public AsyncHttpApiClient newClient(String basePath, ServiceName serviceName) {
+    return new JaxRsAsyncHttpApiClient(basePath, serviceName, authenticationProxy, clientProvider,
+        logMessage);
+  }
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+
+import javax.ws.rs.client.Client;
+
+/**
+ * Provides the HTTP clients used by the {@link AsyncHttpApiClient}. These clients are built with a
+ * non-blocking connector, so the asynchronous requests don't hold a thread while waiting for the
+ * response.
+ */
+public interface AsyncHttpClientProvider {
+
+  /**
+   * Retrieves a non-blocking client built with the proper SSL context for the user.
+   */
+  Client asyncHttpClientForUser(String userId, ServiceName serviceName);
+
+  /**
+   * Retrieves a non-blocking client built with the proper SSL context for the session token owner.
+   */
+  Client asyncHttpClientForSessionToken(String sessionToken, ServiceName serviceName);
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Helper methods to build the futures returned by the asynchronous API client methods.
+ */
+public final class AsyncResults {
+
+  private AsyncResults() {}
+
+  /**
+   * Call performed by the blocking HTTP client.
+   */
+  public interface BlockingCall<T> {
+
+    T call() throws RemoteApiException;
+
+  }
+
+  /**
+   * Builds a future completed exceptionally.
+   * @param e Failure
+   * @return Failed future
+   */
+  public static <T> CompletableFuture<T> failed(Throwable e) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    result.completeExceptionally(e);
+    return result;
+  }
+
+  /**
+   * Performs the call on the caller thread. Used when there is no asynchronous HTTP client, so the
+   * callers get the same result type and error mapping.
+   * @param call Blocking call
+   * @return Completed future
+   */
+  public static <T> CompletableFuture<T> call(BlockingCall<T> call) {
+    try {
+      return CompletableFuture.completedFuture(call.call());
+    } catch (RemoteApiException e) {
+      return failed(e);
+    } catch (RuntimeException e) {
+      return failed(e);
+    }
+  }
+
+}
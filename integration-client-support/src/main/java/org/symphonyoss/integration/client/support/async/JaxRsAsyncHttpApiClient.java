@@ -0,0 +1,285 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import static org.symphonyoss.integration.client.support.properties.AsyncHttpApiClientProperties
+    .MISSING_PARAMETER;
+import static org.symphonyoss.integration.client.support.properties.AsyncHttpApiClientProperties
+    .MISSING_PARAMETER_SOLUTION;
+import static org.symphonyoss.integration.client.support.properties.AsyncHttpApiClientProperties
+    .REMOTE_API_ERROR;
+import static org.symphonyoss.integration.client.support.properties.AsyncHttpApiClientProperties
+    .REMOTE_API_ERROR_SOLUTION;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * {@link AsyncHttpApiClient} built on top of the JAX-RS asynchronous invocations.
+ *
+ * The JAX-RS client is selected the same way the synchronous clients do: by the session token
+ * header or, for the authentication APIs, by the user session header. If an
+ * {@link AsyncHttpClientProvider} is available, its non-blocking clients are used. Otherwise the
+ * requests run on the default clients, which complete asynchronously but use a blocking connector.
+ *
+ * If the caller thread has a {@link Deadline}, the read timeout of each call is bounded by the
+ * remaining time and the call fails fast once the deadline has expired.
+ */
+public class JaxRsAsyncHttpApiClient implements AsyncHttpApiClient {
+
+  public static final String SESSION_TOKEN_HEADER_PARAM = "sessionToken";
+
+  public static final String USER_SESSION_HEADER_PARAM = "userSession";
+
+  private static final int BAD_REQUEST = Response.Status.BAD_REQUEST.getStatusCode();
+
+  private static final String GET = "GET";
+
+  private static final String POST = "POST";
+
+  private static final String PUT = "PUT";
+
+  private static final String UTF_8 = "UTF-8";
+
+  /**
+   * Jersey read timeout property (ClientProperties.READ_TIMEOUT)
+   */
+  public static final String READ_TIMEOUT_PROPERTY = "jersey.config.client.readTimeout";
+
+  private final String basePath;
+
+  private final ServiceName serviceName;
+
+  private final AuthenticationProxy authenticationProxy;
+
+  private final AsyncHttpClientProvider clientProvider;
+
+  private final LogMessageSource logMessage;
+
+  private EntitySerializer serializer = new EntitySerializer() {
+    @Override
+    public Entity serialize(Object payload) {
+      return Entity.entity(payload, MediaType.APPLICATION_JSON_TYPE);
+    }
+  };
+
+  public JaxRsAsyncHttpApiClient(String basePath, ServiceName serviceName,
+      AuthenticationProxy authenticationProxy, AsyncHttpClientProvider clientProvider,
+      LogMessageSource logMessage) {
+    this.basePath = basePath;
+    this.serviceName = serviceName;
+    this.authenticationProxy = authenticationProxy;
+    this.clientProvider = clientProvider;
+    this.logMessage = logMessage;
+  }
+
+  @Override
+  public <T> CompletableFuture<T> doGetAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Class<T> returnType) {
+    return invoke(GET, path, headerParams, queryParams, null, returnType);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> doPostAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Object payload, Class<T> returnType) {
+    return invoke(POST, path, headerParams, queryParams, payload, returnType);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> doPutAsync(String path, Map<String, String> headerParams,
+      Map<String, String> queryParams, Object payload, Class<T> returnType) {
+    return invoke(PUT, path, headerParams, queryParams, payload, returnType);
+  }
+
+  @Override
+  public String escapeString(String str) {
+    try {
+      return URLEncoder.encode(str, UTF_8).replaceAll("\\+", "%20");
+    } catch (UnsupportedEncodingException e) {
+      return str;
+    }
+  }
+
+  @Override
+  public void setEntitySerializer(EntitySerializer serializer) {
+    this.serializer = serializer;
+  }
+
+  private <T> CompletableFuture<T> invoke(String method, String path,
+      Map<String, String> headerParams, Map<String, String> queryParams, Object payload,
+      Class<T> returnType) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+
+    try {
+      Deadline deadline = Deadline.current();
+
+      if (deadline != null && deadline.isExpired()) {
+        throw new DeadlineExceededException();
+      }
+
+      Client client = getClient(headerParams);
+      WebTarget target = client.target(basePath).path(path);
+
+      for (Map.Entry<String, String> entry : queryParams.entrySet()) {
+        target = target.queryParam(entry.getKey(), entry.getValue());
+      }
+
+      Invocation.Builder builder = target.request(MediaType.APPLICATION_JSON_TYPE);
+
+      for (Map.Entry<String, String> entry : headerParams.entrySet()) {
+        builder = builder.header(entry.getKey(), entry.getValue());
+      }
+
+      if (deadline != null) {
+        builder = builder.property(READ_TIMEOUT_PROPERTY, getReadTimeout(client, deadline));
+      }
+
+      AsyncInvoker invoker = builder.async();
+      ResponseCallback<T> callback = new ResponseCallback<>(result, path, returnType);
+
+      final Future<Response> call = (payload == null)
+          ? invoker.method(method, callback)
+          : invoker.method(method, serializer.serialize(payload), callback);
+
+      result.whenComplete(new BiConsumer<T, Throwable>() {
+        @Override
+        public void accept(T value, Throwable throwable) {
+          if (result.isCancelled()) {
+            call.cancel(true);
+          }
+        }
+      });
+    } catch (RemoteApiException e) {
+      result.completeExceptionally(e);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Computes the read timeout of the call: the remaining time of the deadline, unless the read
+   * timeout configured to the client is shorter.
+   */
+  private int getReadTimeout(Client client, Deadline deadline) {
+    long remaining = Math.max(1, deadline.remaining(TimeUnit.MILLISECONDS));
+    Object configured = client.getConfiguration().getProperty(READ_TIMEOUT_PROPERTY);
+
+    if (configured instanceof Integer && (Integer) configured > 0) {
+      remaining = Math.min(remaining, (Integer) configured);
+    }
+
+    return (int) Math.min(remaining, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Selects the client according to the authentication headers.
+   */
+  private Client getClient(Map<String, String> headerParams) throws RemoteApiException {
+    String sessionToken = headerParams.get(SESSION_TOKEN_HEADER_PARAM);
+
+    if (sessionToken != null) {
+      return (clientProvider != null)
+          ? clientProvider.asyncHttpClientForSessionToken(sessionToken, serviceName)
+          : authenticationProxy.httpClientForSessionToken(sessionToken, serviceName);
+    }
+
+    String userId = headerParams.get(USER_SESSION_HEADER_PARAM);
+
+    if (userId != null) {
+      return (clientProvider != null)
+          ? clientProvider.asyncHttpClientForUser(userId, serviceName)
+          : authenticationProxy.httpClientForUser(userId, serviceName);
+    }
+
+    String reason = logMessage.getMessage(MISSING_PARAMETER, SESSION_TOKEN_HEADER_PARAM);
+    String solution = logMessage.getMessage(MISSING_PARAMETER_SOLUTION, SESSION_TOKEN_HEADER_PARAM);
+    throw new RemoteApiException(BAD_REQUEST, reason, solution);
+  }
+
+  /**
+   * Maps the response to the entity or to a {@link RemoteApiException}.
+   */
+  private class ResponseCallback<T> implements InvocationCallback<Response> {
+
+    private final CompletableFuture<T> result;
+
+    private final String path;
+
+    private final Class<T> returnType;
+
+    ResponseCallback(CompletableFuture<T> result, String path, Class<T> returnType) {
+      this.result = result;
+      this.path = path;
+      this.returnType = returnType;
+    }
+
+    @Override
+    public void completed(Response response) {
+      try {
+        int status = response.getStatus();
+
+        if (Response.Status.Family.SUCCESSFUL.equals(Response.Status.Family.familyOf(status))) {
+          T entity = response.hasEntity() ? response.readEntity(returnType) : null;
+          result.complete(entity);
+        } else {
+          String body = response.hasEntity() ? response.readEntity(String.class) : "";
+          String code = String.valueOf(status);
+          String message = logMessage.getMessage(REMOTE_API_ERROR, path, code, body);
+          String solution = logMessage.getMessage(REMOTE_API_ERROR_SOLUTION, path, code, body,
+              serviceName.toString());
+
+          result.completeExceptionally(new RemoteApiException(status, message, solution));
+        }
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      } finally {
+        response.close();
+      }
+    }
+
+    @Override
+    public void failed(Throwable throwable) {
+      result.completeExceptionally(throwable);
+    }
+
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of the request being processed by the current thread.
+ *
+ * The deadline starts when the webhook request enters the bridge and is attached to the thread
+ * that processes it. The API clients read it to bound each remote call by the remaining time, and
+ * the remaining work is cancelled once it expires.
+ */
+public final class Deadline {
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private final long expiresAtNanos;
+
+  private Deadline(long expiresAtNanos) {
+    this.expiresAtNanos = expiresAtNanos;
+  }
+
+  /**
+   * Creates a deadline that expires after the given timeout.
+   * @param timeout Timeout
+   * @param unit Timeout unit
+   * @return Deadline
+   */
+  public static Deadline after(long timeout, TimeUnit unit) {
+    return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+  }
+
+  /**
+   * Retrieves the deadline attached to the current thread.
+   * @return Deadline or null if there is no deadline attached
+   */
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Attaches the deadline to the current thread.
+   * @param deadline Deadline to be attached (may be null)
+   * @return Deadline previously attached, it should be passed to {@link #restore(Deadline)} when
+   * the work is done
+   */
+  public static Deadline attach(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    restore(deadline);
+    return previous;
+  }
+
+  /**
+   * Restores the deadline previously attached to the current thread.
+   * @param previous Deadline returned by {@link #attach(Deadline)}
+   */
+  public static void restore(Deadline previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Fails if the deadline attached to the current thread has expired.
+   * @throws DeadlineExceededException Deadline expired
+   */
+  public static void checkCurrent() throws DeadlineExceededException {
+    Deadline deadline = CURRENT.get();
+
+    if (deadline != null && deadline.isExpired()) {
+      throw new DeadlineExceededException();
+    }
+  }
+
+  /**
+   * Retrieves the time left until the deadline expires.
+   * @param unit Time unit
+   * @return Remaining time or zero if the deadline has expired
+   */
+  public long remaining(TimeUnit unit) {
+    long remaining = expiresAtNanos - System.nanoTime();
+    return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+  }
+
+  public boolean isExpired() {
+    return expiresAtNanos - System.nanoTime() <= 0;
+  }
+
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+/**
+ * Thrown when the request deadline expires before the remote call completes. It's reported as
+ * HTTP 504 (Gateway Timeout).
+ */
+public class DeadlineExceededException extends RemoteApiException {
+
+  public static final int GATEWAY_TIMEOUT = 504;
+
+  private static final String MESSAGE = "Request deadline exceeded";
+
+  public DeadlineExceededException() {
+    super(GATEWAY_TIMEOUT, MESSAGE);
+  }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * HTTP client decorator that bounds each call by the deadline attached to the caller thread.
+ *
+ * The call is performed by the decorated client on the caller thread. The HTTP client must have
+ * the {@link DeadlineTimeoutFilter} registered, which applies the remaining time as the connect
+ * and read timeouts of the request. Calls made after the deadline expired, or that fail because
+ * the deadline expired while they were in progress, throw a {@link DeadlineExceededException}.
+ */
+public class DeadlineHttpApiClient implements HttpApiClient {
+
+  private final HttpApiClient client;
+
+  public DeadlineHttpApiClient(HttpApiClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public <T> T doGet(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Class<T> returnType) throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doGet(path, headerParams, queryParams, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPost(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPost(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPut(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPut(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public String escapeString(String str) {
+    return client.escapeString(str);
+  }
+
+  @Override
+  public void setEntitySerializer(EntitySerializer serializer) {
+    client.setEntitySerializer(serializer);
+  }
+
+  private <T> T execute(Request<T> request) throws RemoteApiException {
+    Deadline deadline = Deadline.current();
+
+    if (deadline == null) {
+      return request.execute();
+    }
+
+    if (deadline.isExpired()) {
+      throw new DeadlineExceededException();
+    }
+
+    try {
+      return request.execute();
+    } catch (ProcessingException e) {
+      // Less than a millisecond left is as good as expired, the timeouts have this precision
+      if (deadline.remaining(TimeUnit.MILLISECONDS) == 0) {
+        throw new DeadlineExceededException();
+      }
+
+      throw e;
+    }
+  }
+
+  /**
+   * Request to be performed by the decorated client.
+   */
+  private interface Request<T> {
+
+    T execute() throws RemoteApiException;
+
+  }
+
+}
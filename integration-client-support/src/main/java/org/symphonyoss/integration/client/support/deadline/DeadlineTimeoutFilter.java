@@ -0,0 +1,78 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import org.glassfish.jersey.client.ClientProperties;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+
+/**
+ * Bounds the connect and read timeouts of each request by the deadline attached to the calling
+ * thread.
+ *
+ * The timeouts are set as request properties, which take precedence over the client settings, so
+ * a blocking call gives up on its own thread once the deadline expires. Requests without a
+ * deadline, or whose remaining time is longer than the client timeouts, keep the client timeouts.
+ */
+public class DeadlineTimeoutFilter implements ClientRequestFilter {
+
+  private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Override
+  public void filter(ClientRequestContext requestContext) throws IOException {
+    Deadline deadline = Deadline.current();
+
+    if (deadline == null) {
+      return;
+    }
+
+    // Rounded up, so the timeout doesn't fire before the deadline expires. Zero means no timeout,
+    // so an expired deadline still gets the shortest timeout.
+    long remainingNanos = deadline.remaining(TimeUnit.NANOSECONDS);
+    long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos + ONE_MILLI - 1));
+
+    bound(requestContext, ClientProperties.CONNECT_TIMEOUT, remaining);
+    bound(requestContext, ClientProperties.READ_TIMEOUT, remaining);
+  }
+
+  private void bound(ClientRequestContext requestContext, String property, long remaining) {
+    long timeout = getTimeout(requestContext, property);
+
+    if (timeout <= 0 || remaining < timeout) {
+      requestContext.setProperty(property, (int) Math.min(remaining, Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * Retrieves the timeout of the request, or the client timeout if the request doesn't set one.
+   * @return Timeout (milliseconds) or zero if there is no timeout
+   */
+  private long getTimeout(ClientRequestContext requestContext, String property) {
+    Object value = requestContext.getProperty(property);
+
+    if (value == null) {
+      value = requestContext.getConfiguration().getProperty(property);
+    }
+
+    return (value instanceof Number) ? ((Number) value).longValue() : 0;
+  }
+
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Creates the request deadlines and builds the HTTP clients that honor them.
+ *
+ * The deadline is configured using the keys 'integration_bridge.deadline.*'. The timeout can be
+ * overridden per integration using the key 'integration_bridge.deadline.[integration].timeout'.
+ * The deadlines are disabled by default.
+ *
+ * The remote calls are bounded on the caller thread: the {@link DeadlineTimeoutFilter} applies the
+ * remaining time as the connect and read timeouts of each request.
+ */
+@Component
+public class RequestDeadlines {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RequestDeadlines.class);
+
+  private static final String PREFIX = "integration_bridge.deadline.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String TIMEOUT_KEY = PREFIX + "timeout";
+
+  public static final String TIMEOUT = "timeout";
+
+  private static final boolean DEFAULT_ENABLED = false;
+
+  private static final long DEFAULT_TIMEOUT = 30000;
+
+  @Autowired
+  private Environment environment;
+
+  private boolean enabled;
+
+  private long timeoutMillis;
+
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, DEFAULT_ENABLED);
+    this.timeoutMillis = environment.getProperty(TIMEOUT_KEY, Long.class, DEFAULT_TIMEOUT);
+
+    LOG.info("Request deadline enabled: {}, timeout: {}ms", enabled, timeoutMillis);
+  }
+
+  /**
+   * Creates the deadline of a request received by the integration.
+   * @param integration Integration name (configuration type)
+   * @return Deadline or null if the deadlines are disabled
+   */
+  public Deadline newDeadline(String integration) {
+    if (!enabled) {
+      return null;
+    }
+
+    return Deadline.after(getTimeoutMillis(integration), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Retrieves the deadline timeout of the integration.
+   * @param integration Integration name (configuration type)
+   * @return Timeout (milliseconds)
+   */
+  public long getTimeoutMillis(String integration) {
+    if (integration == null) {
+      return timeoutMillis;
+    }
+
+    return environment.getProperty(PREFIX + integration + "." + TIMEOUT, Long.class,
+        timeoutMillis);
+  }
+
+  /**
+   * Decorates the HTTP client to bound each call by the caller deadline.
+   * @param client HTTP client
+   * @return HTTP client decorated or the same HTTP client if the deadlines are disabled
+   */
+  public HttpApiClient decorate(HttpApiClient client) {
+    if (!enabled) {
+      return client;
+    }
+
+    return bound(client);
+  }
+
+  /**
+   * Decorates the HTTP client to bound each call by the caller deadline, even if the request
+   * deadlines are disabled. Used by the components that attach their own deadlines to the calls.
+   * @param client HTTP client
+   * @return HTTP client decorated
+   */
+  public HttpApiClient bound(HttpApiClient client) {
+    return new DeadlineHttpApiClient(client);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+}
@@ -0,0 +1,387 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.hedging;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.DistributedTracingUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * HTTP client decorator that hedges the requests safe to be duplicated.
+ *
+ * The request is performed by one of the threads of the bounded hedging executor while the caller
+ * waits for the answer. If it doesn't answer within the delay computed by the
+ * {@link HedgingPolicy}, a backup request is sent and the caller gets the first answer, so a slow
+ * request loses to a faster backup. The losing request is cancelled. A {@link RemoteApiException}
+ * is an answer, while a request that fails without an answer (i.e. connection failures or read
+ * timeouts) waits for the other request still in progress. When the hedging executor has no free
+ * thread, the request is performed on the caller thread without hedging.
+ */
+public class HedgingHttpApiClient implements HttpApiClient {
+
+  private static final String POST = "POST";
+
+  private static final String PUT = "PUT";
+
+  private final HttpApiClient client;
+
+  private final HedgingPolicy policy;
+
+  private final ExecutorService executor;
+
+  private final ScheduledExecutorService scheduler;
+
+  public HedgingHttpApiClient(HttpApiClient client, HedgingPolicy policy,
+      ExecutorService executor, ScheduledExecutorService scheduler) {
+    this.client = client;
+    this.policy = policy;
+    this.executor = executor;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public <T> T doGet(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Class<T> returnType) throws RemoteApiException {
+    return execute(HedgingSettings.GET, new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doGet(path, headerParams, queryParams, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPost(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(POST, new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPost(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPut(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(PUT, new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPut(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public String escapeString(String str) {
+    return client.escapeString(str);
+  }
+
+  @Override
+  public void setEntitySerializer(EntitySerializer serializer) {
+    client.setEntitySerializer(serializer);
+  }
+
+  private <T> T execute(String method, Request<T> request) throws RemoteApiException {
+    if (!policy.getSettings().isHedged(method)) {
+      return request.execute();
+    }
+
+    policy.onRequest();
+
+    long delay = policy.getHedgeDelayNanos();
+
+    if (delay < 0) {
+      // Not enough samples to compute the delay
+      return timed(request);
+    }
+
+    final Hedge<T> hedge = new Hedge<>(request);
+
+    if (!hedge.sendPrimary()) {
+      // No thread available to race the requests
+      return timed(request);
+    }
+
+    Future<?> scheduled = schedule(hedge, delay);
+
+    try {
+      return hedge.getResult();
+    } finally {
+      if (scheduled != null) {
+        scheduled.cancel(false);
+      }
+
+      hedge.close();
+    }
+  }
+
+  private Future<?> schedule(final Hedge<?> hedge, long delayNanos) {
+    try {
+      return scheduler.schedule(new Runnable() {
+        @Override
+        public void run() {
+          hedge.sendBackup();
+        }
+      }, delayNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      return null;
+    }
+  }
+
+  private <T> T timed(Request<T> request) throws RemoteApiException {
+    long start = System.nanoTime();
+
+    try {
+      return request.execute();
+    } finally {
+      policy.recordLatency(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Request to be performed by the decorated client.
+   */
+  private interface Request<T> {
+
+    T execute() throws RemoteApiException;
+
+  }
+
+  /**
+   * Races the primary and backup requests on the hedging executor. Both keep the caller trace ID
+   * and deadline. The result completes with the first answer, or with the failure of the last
+   * request to fail when no answer arrives.
+   */
+  private class Hedge<T> {
+
+    private final Request<T> request;
+
+    private final String parentTraceId = DistributedTracingUtils.getMDC();
+
+    private final Deadline deadline = Deadline.current();
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private Future<?> primary;
+
+    private Future<?> backup;
+
+    /**
+     * Requests sent and not finished yet
+     */
+    private int pending;
+
+    /**
+     * Whether the backup request can still be sent
+     */
+    private boolean hedgeable = true;
+
+    private RuntimeException failure;
+
+    Hedge(Request<T> request) {
+      this.request = request;
+    }
+
+    /**
+     * Sends the primary request.
+     * @return false if there is no thread available
+     */
+    boolean sendPrimary() {
+      synchronized (this) {
+        pending++;
+      }
+
+      try {
+        Future<?> future = executor.submit(new Attempt(false));
+
+        synchronized (this) {
+          primary = future;
+        }
+
+        return true;
+      } catch (RejectedExecutionException e) {
+        synchronized (this) {
+          pending--;
+          hedgeable = false;
+        }
+
+        return false;
+      }
+    }
+
+    /**
+     * Sends the backup request if the primary request is still in progress and the budget allows.
+     */
+    void sendBackup() {
+      synchronized (this) {
+        if (!hedgeable || result.isDone()) {
+          return;
+        }
+
+        hedgeable = false;
+
+        if (!policy.tryHedge()) {
+          return;
+        }
+
+        pending++;
+      }
+
+      try {
+        Future<?> future = executor.submit(new Attempt(true));
+
+        synchronized (this) {
+          backup = future;
+        }
+      } catch (RejectedExecutionException e) {
+        onFailure(null);
+      }
+    }
+
+    /**
+     * Completes the result with an answer. Answers received after the first one are ignored.
+     */
+    synchronized void onAnswer(T value, RemoteApiException error, boolean isBackup) {
+      if (result.isDone()) {
+        return;
+      }
+
+      // Reported before completing the result, so it's visible once the caller gets the answer
+      if (isBackup) {
+        policy.onBackupWin();
+      }
+
+      if (error == null) {
+        result.complete(value);
+      } else {
+        result.completeExceptionally(error);
+      }
+    }
+
+    /**
+     * Reports a request failed without an answer. The result fails once there is no other
+     * request in progress and no backup request to be sent.
+     * @param e Failure or null if the request wasn't sent
+     */
+    synchronized void onFailure(RuntimeException e) {
+      pending--;
+
+      if (failure == null) {
+        failure = e;
+      }
+
+      if (e != null) {
+        // The backup request is only sent while the primary request is waiting for an answer
+        hedgeable = false;
+      }
+
+      if (pending == 0 && !hedgeable && failure != null) {
+        result.completeExceptionally(failure);
+      }
+    }
+
+    /**
+     * Waits for the first answer.
+     * @return Answer
+     */
+    T getResult() throws RemoteApiException {
+      try {
+        return result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ProcessingException(e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+
+        if (cause instanceof RemoteApiException) {
+          throw (RemoteApiException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+
+        throw new ProcessingException(cause);
+      }
+    }
+
+    /**
+     * Prevents the backup request from being sent and cancels the requests still in progress.
+     */
+    synchronized void close() {
+      hedgeable = false;
+
+      if (primary != null) {
+        primary.cancel(true);
+      }
+
+      if (backup != null) {
+        backup.cancel(true);
+      }
+    }
+
+    /**
+     * Single request performed on the hedging executor.
+     */
+    private class Attempt implements Runnable {
+
+      private final boolean isBackup;
+
+      Attempt(boolean isBackup) {
+        this.isBackup = isBackup;
+      }
+
+      @Override
+      public void run() {
+        DistributedTracingUtils.setMDC(parentTraceId);
+        Deadline previous = Deadline.attach(deadline);
+
+        try {
+          onAnswer(timed(request), null, isBackup);
+        } catch (RemoteApiException e) {
+          onAnswer(null, e, isBackup);
+        } catch (RuntimeException e) {
+          onFailure(e);
+        } catch (Error e) {
+          onFailure(new ProcessingException(e));
+        } finally {
+          Deadline.restore(previous);
+          DistributedTracingUtils.clearMDC();
+        }
+      }
+
+    }
+
+  }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.hedging;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runtime state shared by all the hedged HTTP clients of an API client: latency histogram,
+ * hedging budget and metrics.
+ *
+ * The backup request is sent when the first one exceeds the configured latency percentile. Each
+ * request earns a fraction of a token (the budget ratio) and each backup request spends a whole
+ * token, so the number of backup requests never exceeds the budget.
+ */
+public class HedgingPolicy {
+
+  private static final String METRIC_PREFIX = "hedging";
+
+  private static final int MAX_TOKENS = 10;
+
+  private final HedgingSettings settings;
+
+  private final Timer latency;
+
+  private final Meter requests;
+
+  private final Meter hedges;
+
+  private final Meter wins;
+
+  private double tokens;
+
+  public HedgingPolicy(String clientName, HedgingSettings settings,
+      MetricRegistry metricsRegistry) {
+    this.settings = settings;
+    this.latency = metricsRegistry.timer(metricName(clientName, "latency"));
+    this.requests = metricsRegistry.meter(metricName(clientName, "requests"));
+    this.hedges = metricsRegistry.meter(metricName(clientName, "hedges"));
+    this.wins = metricsRegistry.meter(metricName(clientName, "wins"));
+
+    registerGauge(metricsRegistry, metricName(clientName, "hedgeRate"), new RatioGauge() {
+      @Override
+      protected Ratio getRatio() {
+        return Ratio.of(hedges.getCount(), requests.getCount());
+      }
+    });
+
+    registerGauge(metricsRegistry, metricName(clientName, "winRate"), new RatioGauge() {
+      @Override
+      protected Ratio getRatio() {
+        return Ratio.of(wins.getCount(), hedges.getCount());
+      }
+    });
+  }
+
+  private static String metricName(String clientName, String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, clientName, metric);
+  }
+
+  private static void registerGauge(MetricRegistry metricsRegistry, String name, Gauge<?> gauge) {
+    if (!metricsRegistry.getGauges().containsKey(name)) {
+      metricsRegistry.register(name, gauge);
+    }
+  }
+
+  public HedgingSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Records the latency of a single attempt.
+   * @param latencyNanos Latency (nanoseconds)
+   */
+  public void recordLatency(long latencyNanos) {
+    latency.update(latencyNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Reports a new hedged request. The request earns a fraction of a token.
+   */
+  public synchronized void onRequest() {
+    requests.mark();
+    tokens = Math.min(MAX_TOKENS, tokens + settings.getBudget());
+  }
+
+  /**
+   * Retrieves the time to wait for the first request before sending the backup request.
+   * @return Delay (nanoseconds) or -1 if there are not enough latency samples yet
+   */
+  public long getHedgeDelayNanos() {
+    if (latency.getCount() < settings.getMinSamples()) {
+      return -1;
+    }
+
+    long delay = (long) latency.getSnapshot().getValue(settings.getPercentile() / 100);
+    return Math.max(delay, settings.getMinDelayNanos());
+  }
+
+  /**
+   * Spends a token to send a backup request.
+   * @return true if the budget allows the backup request
+   */
+  public synchronized boolean tryHedge() {
+    if (tokens < 1) {
+      return false;
+    }
+
+    tokens -= 1;
+    hedges.mark();
+    return true;
+  }
+
+  /**
+   * Reports the backup request answered first.
+   */
+  public void onBackupWin() {
+    wins.mark();
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.hedging;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings used to hedge the requests of an API client.
+ */
+public class HedgingSettings {
+
+  public static final String GET = "GET";
+
+  private boolean enabled = false;
+
+  /**
+   * Latency percentile after which the backup request is sent (0-100)
+   */
+  private double percentile = 95;
+
+  /**
+   * Minimum delay before the backup request is sent (milliseconds)
+   */
+  private long minDelayMillis = 20;
+
+  /**
+   * Max ratio of hedged requests (i.e. 0.05 allows one backup request each 20 requests)
+   */
+  private double budget = 0.05;
+
+  /**
+   * Number of latency samples required before hedging the requests
+   */
+  private long minSamples = 50;
+
+  /**
+   * HTTP methods safe to be duplicated
+   */
+  private Set<String> methods = Collections.singleton(GET);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  public void setPercentile(double percentile) {
+    this.percentile = percentile;
+  }
+
+  public long getMinDelayMillis() {
+    return minDelayMillis;
+  }
+
+  public void setMinDelayMillis(long minDelayMillis) {
+    this.minDelayMillis = minDelayMillis;
+  }
+
+  public long getMinDelayNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+  }
+
+  public double getBudget() {
+    return budget;
+  }
+
+  public void setBudget(double budget) {
+    this.budget = budget;
+  }
+
+  public long getMinSamples() {
+    return minSamples;
+  }
+
+  public void setMinSamples(long minSamples) {
+    this.minSamples = minSamples;
+  }
+
+  public Set<String> getMethods() {
+    return methods;
+  }
+
+  public void setMethods(Set<String> methods) {
+    this.methods = Collections.unmodifiableSet(new HashSet<>(methods));
+  }
+
+  /**
+   * Checks if the requests performed with the HTTP method can be hedged.
+   * @param method HTTP method
+   * @return true if hedging is enabled for the HTTP method
+   */
+  public boolean isHedged(String method) {
+    return enabled && methods.contains(method);
+  }
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.hedging;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Builds the hedged HTTP clients.
+ *
+ * Hedging is configured per API client using the keys 'integration_bridge.hedging.[client].*'.
+ * It's disabled by default and only GET requests are hedged unless other methods are configured.
+ * The primary and backup requests of all the API clients share a bounded number of threads,
+ * configured using the key 'integration_bridge.hedging.threads'. Requests that find no free thread
+ * are performed by the caller without hedging.
+ */
+@Component
+public class RequestHedging {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RequestHedging.class);
+
+  private static final String PREFIX = "integration_bridge.hedging.";
+
+  public static final String ENABLED = "enabled";
+
+  public static final String PERCENTILE = "percentile";
+
+  public static final String MIN_DELAY = "min-delay";
+
+  public static final String BUDGET = "budget";
+
+  public static final String MIN_SAMPLES = "min-samples";
+
+  public static final String METHODS = "methods";
+
+  public static final String THREADS_KEY = PREFIX + "threads";
+
+  private static final int DEFAULT_THREADS = 50;
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final String THREAD_NAME = "hedging";
+
+  private static final String TIMER_THREAD_NAME = "hedging-timer";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private final ConcurrentMap<String, HedgingPolicy> policies = new ConcurrentHashMap<>();
+
+  private ThreadPoolExecutor executor;
+
+  private ScheduledThreadPoolExecutor scheduler;
+
+  @PostConstruct
+  public void init() {
+    int threads = environment.getProperty(THREADS_KEY, Integer.class, DEFAULT_THREADS);
+
+    // No queue, requests that find all the threads busy are rejected and not hedged
+    this.executor = new ThreadPoolExecutor(0, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new SynchronousQueue<Runnable>(), newThreadFactory(THREAD_NAME));
+
+    this.scheduler = new ScheduledThreadPoolExecutor(1, newThreadFactory(TIMER_THREAD_NAME));
+
+    // Backup requests no longer needed are removed from the queue
+    this.scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  private ThreadFactory newThreadFactory(final String name) {
+    return new ThreadFactory() {
+
+      private final AtomicInteger id = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, name + "-" + id.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+  }
+
+  /**
+   * Decorates the HTTP client if hedging is enabled to the API client.
+   * @param clientName API client name (i.e. agent, pod, integration)
+   * @param client HTTP client
+   * @return Hedged HTTP client or the same HTTP client if hedging is disabled
+   */
+  public HttpApiClient decorate(String clientName, HttpApiClient client) {
+    HedgingPolicy policy = getPolicy(clientName);
+
+    if (!policy.getSettings().isEnabled()) {
+      return client;
+    }
+
+    return new HedgingHttpApiClient(client, policy, executor, scheduler);
+  }
+
+  /**
+   * Retrieves the hedging policy of the API client. The policy is shared by all the HTTP clients
+   * built to the same API client.
+   * @param clientName API client name
+   * @return Hedging policy
+   */
+  public HedgingPolicy getPolicy(String clientName) {
+    HedgingPolicy policy = policies.get(clientName);
+
+    if (policy == null) {
+      HedgingPolicy newPolicy =
+          new HedgingPolicy(clientName, readSettings(clientName), metricsRegistry);
+      policy = policies.putIfAbsent(clientName, newPolicy);
+
+      if (policy == null) {
+        policy = newPolicy;
+        LOG.info("Request hedging for {} enabled: {}, methods: {}", clientName,
+            policy.getSettings().isEnabled(), policy.getSettings().getMethods());
+      }
+    }
+
+    return policy;
+  }
+
+  private HedgingSettings readSettings(String clientName) {
+    String prefix = PREFIX + clientName + ".";
+    HedgingSettings settings = new HedgingSettings();
+
+    settings.setEnabled(
+        environment.getProperty(prefix + ENABLED, Boolean.class, settings.isEnabled()));
+    settings.setPercentile(
+        environment.getProperty(prefix + PERCENTILE, Double.class, settings.getPercentile()));
+    settings.setMinDelayMillis(
+        environment.getProperty(prefix + MIN_DELAY, Long.class, settings.getMinDelayMillis()));
+    settings.setBudget(environment.getProperty(prefix + BUDGET, Double.class, settings.getBudget()));
+    settings.setMinSamples(
+        environment.getProperty(prefix + MIN_SAMPLES, Long.class, settings.getMinSamples()));
+
+    String methods = environment.getProperty(prefix + METHODS);
+
+    if (StringUtils.isNotBlank(methods)) {
+      Set<String> result = new HashSet<>();
+
+      for (String method : StringUtils.split(methods, ',')) {
+        result.add(method.trim().toUpperCase());
+      }
+
+      settings.setMethods(result);
+    }
+
+    return settings;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    executor.shutdownNow();
+  }
+
+}
@@ -0,0 +1,11 @@
+package org.symphonyoss.integration.client.support.properties;
+
+/**
+ * {@link AsyncHttpApiClientProperties}
+ */
+public class AsyncHttpApiClientProperties {
+  public static final String MISSING_PARAMETER = "integration.client.support.async.missing.parameter";
+  public static final String MISSING_PARAMETER_SOLUTION = "integration.client.support.async.missing.parameter.solution";
+  public static final String REMOTE_API_ERROR = "integration.client.support.async.remote.error";
+  public static final String REMOTE_API_ERROR_SOLUTION = "integration.client.support.async.remote.error.solution";
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+import org.symphonyoss.integration.api.client.EntitySerializer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * HTTP client decorator that bounds each call by the adaptive timeout of its operation.
+ *
+ * The operation is identified by the HTTP method and the path, where the path segments that hold
+ * identifiers are replaced by '{id}' (i.e. GET /v1/configuration/{id}/instance/{id}). The
+ * timeout is applied as a deadline, so the decorated client must honor the caller deadline. When
+ * the caller deadline expires first it's kept untouched.
+ *
+ * Calls that hit the adaptive timeout fail like a read timeout: a {@link ProcessingException}
+ * caused by a {@link SocketTimeoutException}.
+ */
+public class AdaptiveTimeoutHttpApiClient implements HttpApiClient {
+
+  private static final String GET = "GET";
+
+  private static final String POST = "POST";
+
+  private static final String PUT = "PUT";
+
+  private static final String ID_SEGMENT = "{id}";
+
+  private static final Pattern NAME_SEGMENT = Pattern.compile("v[0-9]+|[A-Za-z][A-Za-z-]{0,23}");
+
+  private final String clientName;
+
+  private final HttpApiClient client;
+
+  private final AdaptiveTimeouts timeouts;
+
+  public AdaptiveTimeoutHttpApiClient(String clientName, HttpApiClient client,
+      AdaptiveTimeouts timeouts) {
+    this.clientName = clientName;
+    this.client = client;
+    this.timeouts = timeouts;
+  }
+
+  @Override
+  public <T> T doGet(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Class<T> returnType) throws RemoteApiException {
+    return execute(getOperation(GET, path), new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doGet(path, headerParams, queryParams, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPost(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(getOperation(POST, path), new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPost(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public <T> T doPut(final String path, final Map<String, String> headerParams,
+      final Map<String, String> queryParams, final Object payload, final Class<T> returnType)
+      throws RemoteApiException {
+    return execute(getOperation(PUT, path), new Request<T>() {
+      @Override
+      public T execute() throws RemoteApiException {
+        return client.doPut(path, headerParams, queryParams, payload, returnType);
+      }
+    });
+  }
+
+  @Override
+  public String escapeString(String str) {
+    return client.escapeString(str);
+  }
+
+  @Override
+  public void setEntitySerializer(EntitySerializer serializer) {
+    client.setEntitySerializer(serializer);
+  }
+
+  private <T> T execute(String operation, Request<T> request) throws RemoteApiException {
+    AdaptiveTimeoutPolicy policy = timeouts.getPolicy(clientName, operation);
+
+    long start = System.nanoTime();
+    long timeoutMillis = policy.getTimeoutMillis(start);
+
+    Deadline current = Deadline.current();
+    boolean bounded =
+        current == null || current.remaining(TimeUnit.MILLISECONDS) > timeoutMillis;
+
+    Deadline previous = null;
+
+    if (bounded) {
+      previous = Deadline.attach(Deadline.after(timeoutMillis, TimeUnit.MILLISECONDS));
+    }
+
+    try {
+      T result = request.execute();
+      policy.recordLatency(System.nanoTime() - start);
+      return result;
+    } catch (DeadlineExceededException e) {
+      if (!bounded) {
+        throw e;
+      }
+
+      policy.onTimeout(timeoutMillis);
+      throw new ProcessingException(new SocketTimeoutException(
+          "Adaptive timeout of " + timeoutMillis + "ms exceeded calling " + operation));
+    } catch (RemoteApiException e) {
+      // The remote service has answered
+      policy.recordLatency(System.nanoTime() - start);
+      throw e;
+    } finally {
+      if (bounded) {
+        Deadline.restore(previous);
+      }
+    }
+  }
+
+  /**
+   * Identifies the operation of the call.
+   * @param method HTTP method
+   * @param path Request path
+   * @return Operation name (i.e. POST /v4/stream/{id}/message/create)
+   */
+  static String getOperation(String method, String path) {
+    StringBuilder operation = new StringBuilder(method).append(' ');
+
+    for (String segment : path.split("/")) {
+      if (segment.isEmpty()) {
+        continue;
+      }
+
+      operation.append('/');
+      operation.append(NAME_SEGMENT.matcher(segment).matches() ? segment : ID_SEGMENT);
+    }
+
+    return operation.toString();
+  }
+
+  /**
+   * Request to be performed by the decorated client.
+   */
+  private interface Request<T> {
+
+    T execute() throws RemoteApiException;
+
+  }
+
+}
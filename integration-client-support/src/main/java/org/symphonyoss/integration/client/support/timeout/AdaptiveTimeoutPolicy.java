@@ -0,0 +1,127 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.codahale.metrics.Snapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive timeout of a single API operation.
+ *
+ * The latencies observed in the last window are kept in a rolling histogram. The timeout is the
+ * configured percentile of this histogram times the multiplier, bounded by the min and max
+ * timeouts. While there are not enough samples the max timeout is used.
+ *
+ * A call that hits the timeout is recorded with the timeout as its latency, so the timeout grows
+ * back when the remote service slows down instead of cutting every call.
+ *
+ * Computing the percentile copies the histogram, so the timeout is refreshed at most once per
+ * refresh interval.
+ */
+public class AdaptiveTimeoutPolicy {
+
+  private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final AdaptiveTimeoutSettings settings;
+
+  private final Histogram latency;
+
+  private final Meter timeouts;
+
+  private volatile long timeoutMillis;
+
+  private volatile long nextRefreshNanos;
+
+  public AdaptiveTimeoutPolicy(AdaptiveTimeoutSettings settings, Meter timeouts, long nowNanos) {
+    this.settings = settings;
+    this.latency = new Histogram(
+        new SlidingTimeWindowReservoir(settings.getWindowSeconds(), TimeUnit.SECONDS));
+    this.timeouts = timeouts;
+    this.timeoutMillis = settings.getMaxTimeoutMillis();
+    this.nextRefreshNanos = nowNanos;
+  }
+
+  /**
+   * Retrieves the current timeout.
+   * @param nowNanos Current time (nanoseconds)
+   * @return Timeout (milliseconds)
+   */
+  public long getTimeoutMillis(long nowNanos) {
+    if (nowNanos - nextRefreshNanos >= 0) {
+      nextRefreshNanos = nowNanos + REFRESH_INTERVAL_NANOS;
+      timeoutMillis = computeTimeoutMillis();
+    }
+
+    return timeoutMillis;
+  }
+
+  /**
+   * Records the latency of a call answered by the remote service.
+   * @param latencyNanos Latency (nanoseconds)
+   */
+  public void recordLatency(long latencyNanos) {
+    latency.update(latencyNanos);
+  }
+
+  /**
+   * Reports a call that hit the timeout.
+   * @param timeoutMillis Timeout applied to the call (milliseconds)
+   */
+  public void onTimeout(long timeoutMillis) {
+    timeouts.mark();
+    latency.update(TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+  }
+
+  /**
+   * Builds a gauge that reports the current timeout.
+   * @return Gauge
+   */
+  public Gauge<Long> timeoutGauge() {
+    return new Gauge<Long>() {
+      @Override
+      public Long getValue() {
+        return timeoutMillis;
+      }
+    };
+  }
+
+  public AdaptiveTimeoutSettings getSettings() {
+    return settings;
+  }
+
+  private long computeTimeoutMillis() {
+    Snapshot snapshot = latency.getSnapshot();
+
+    // Only the samples still in the window are counted
+    if (snapshot.size() == 0 || snapshot.size() < settings.getMinSamples()) {
+      return settings.getMaxTimeoutMillis();
+    }
+
+    double percentileNanos = snapshot.getValue(settings.getPercentile() / 100);
+    long timeout =
+        TimeUnit.NANOSECONDS.toMillis((long) (percentileNanos * settings.getMultiplier()));
+
+    return Math.min(settings.getMaxTimeoutMillis(),
+        Math.max(settings.getMinTimeoutMillis(), timeout));
+  }
+
+}
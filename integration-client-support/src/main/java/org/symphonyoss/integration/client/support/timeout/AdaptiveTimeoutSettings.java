@@ -0,0 +1,112 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+/**
+ * Settings used to compute the adaptive timeouts of an API client.
+ */
+public class AdaptiveTimeoutSettings {
+
+  private boolean enabled = false;
+
+  /**
+   * Latency percentile used as the base of the timeout (0-100)
+   */
+  private double percentile = 99;
+
+  /**
+   * Factor applied to the latency percentile
+   */
+  private double multiplier = 2;
+
+  /**
+   * Lowest timeout (milliseconds)
+   */
+  private long minTimeoutMillis = 500;
+
+  /**
+   * Highest timeout (milliseconds). Also used while there are not enough latency samples.
+   */
+  private long maxTimeoutMillis = 5000;
+
+  /**
+   * Number of latency samples required before adapting the timeout
+   */
+  private long minSamples = 50;
+
+  /**
+   * Period covered by the latency histogram (seconds)
+   */
+  private long windowSeconds = 60;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  public void setPercentile(double percentile) {
+    this.percentile = percentile;
+  }
+
+  public double getMultiplier() {
+    return multiplier;
+  }
+
+  public void setMultiplier(double multiplier) {
+    this.multiplier = multiplier;
+  }
+
+  public long getMinTimeoutMillis() {
+    return minTimeoutMillis;
+  }
+
+  public void setMinTimeoutMillis(long minTimeoutMillis) {
+    this.minTimeoutMillis = minTimeoutMillis;
+  }
+
+  public long getMaxTimeoutMillis() {
+    return maxTimeoutMillis;
+  }
+
+  public void setMaxTimeoutMillis(long maxTimeoutMillis) {
+    this.maxTimeoutMillis = maxTimeoutMillis;
+  }
+
+  public long getMinSamples() {
+    return minSamples;
+  }
+
+  public void setMinSamples(long minSamples) {
+    this.minSamples = minSamples;
+  }
+
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  public void setWindowSeconds(long windowSeconds) {
+    this.windowSeconds = windowSeconds;
+  }
+
+}
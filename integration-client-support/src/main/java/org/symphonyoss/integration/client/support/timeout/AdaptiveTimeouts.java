@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.client.support.deadline.RequestDeadlines;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds the HTTP clients whose calls are bounded by adaptive timeouts.
+ *
+ * The adaptive timeouts are configured per API client using the keys
+ * 'integration_bridge.adaptive-timeout.[client].*', where the client is the API client name (i.e.
+ * agent, pod, integration). Each operation of the API client keeps its own latency histogram and
+ * exports its timeout hits and its current timeout as metrics.
+ */
+@Component
+public class AdaptiveTimeouts {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AdaptiveTimeouts.class);
+
+  private static final String PREFIX = "integration_bridge.adaptive-timeout.";
+
+  public static final String ENABLED = "enabled";
+
+  public static final String PERCENTILE = "percentile";
+
+  public static final String MULTIPLIER = "multiplier";
+
+  public static final String MIN_TIMEOUT = "min-timeout";
+
+  public static final String MAX_TIMEOUT = "max-timeout";
+
+  public static final String MIN_SAMPLES = "min-samples";
+
+  public static final String WINDOW = "window";
+
+  public static final String READ_TIMEOUT_KEY = "http_client_config.read_timeout";
+
+  private static final String METRIC_PREFIX = "adaptiveTimeout";
+
+  private static final String TIMEOUTS = "timeouts";
+
+  private static final String TIMEOUT = "timeout";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  @Autowired
+  private RequestDeadlines requestDeadlines;
+
+  private final ConcurrentMap<String, AdaptiveTimeoutSettings> settings =
+      new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, AdaptiveTimeoutPolicy> policies = new ConcurrentHashMap<>();
+
+  /**
+   * Decorates the HTTP client to bound each call by the caller deadline and, if it's enabled to
+   * the API client, by the adaptive timeout of the operation.
+   * @param clientName API client name (i.e. agent, pod, integration)
+   * @param client HTTP client
+   * @return HTTP client decorated
+   */
+  public HttpApiClient decorate(String clientName, HttpApiClient client) {
+    if (!getSettings(clientName).isEnabled()) {
+      return requestDeadlines.decorate(client);
+    }
+
+    return new AdaptiveTimeoutHttpApiClient(clientName, requestDeadlines.bound(client), this);
+  }
+
+  /**
+   * Retrieves the adaptive timeout settings of the API client.
+   * @param clientName API client name
+   * @return Adaptive timeout settings
+   */
+  public AdaptiveTimeoutSettings getSettings(String clientName) {
+    AdaptiveTimeoutSettings result = settings.get(clientName);
+
+    if (result == null) {
+      AdaptiveTimeoutSettings newSettings = readSettings(clientName);
+      result = settings.putIfAbsent(clientName, newSettings);
+
+      if (result == null) {
+        result = newSettings;
+        LOG.info("Adaptive timeouts for {} enabled: {}, min: {}ms, max: {}ms", clientName,
+            result.isEnabled(), result.getMinTimeoutMillis(), result.getMaxTimeoutMillis());
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Retrieves the adaptive timeout policy of the operation. The policy is shared by all the HTTP
+   * clients built to the same API client.
+   * @param clientName API client name
+   * @param operation Operation name
+   * @return Adaptive timeout policy
+   */
+  public AdaptiveTimeoutPolicy getPolicy(String clientName, String operation) {
+    String key = clientName + ":" + operation;
+    AdaptiveTimeoutPolicy policy = policies.get(key);
+
+    if (policy == null) {
+      AdaptiveTimeoutPolicy newPolicy = new AdaptiveTimeoutPolicy(getSettings(clientName),
+          metricsRegistry.meter(metricName(clientName, operation, TIMEOUTS)), System.nanoTime());
+      policy = policies.putIfAbsent(key, newPolicy);
+
+      if (policy == null) {
+        policy = newPolicy;
+        registerGauge(metricName(clientName, operation, TIMEOUT), policy);
+      }
+    }
+
+    return policy;
+  }
+
+  private synchronized void registerGauge(String name, AdaptiveTimeoutPolicy policy) {
+    if (!metricsRegistry.getGauges().containsKey(name)) {
+      metricsRegistry.register(name, policy.timeoutGauge());
+    }
+  }
+
+  private AdaptiveTimeoutSettings readSettings(String clientName) {
+    String prefix = PREFIX + clientName + ".";
+    AdaptiveTimeoutSettings settings = new AdaptiveTimeoutSettings();
+
+    // The read timeout is the default upper bound
+    settings.setMaxTimeoutMillis(environment.getProperty(READ_TIMEOUT_KEY,
+        Long.class, settings.getMaxTimeoutMillis()));
+
+    settings.setEnabled(
+        environment.getProperty(prefix + ENABLED, Boolean.class, settings.isEnabled()));
+    settings.setPercentile(
+        environment.getProperty(prefix + PERCENTILE, Double.class, settings.getPercentile()));
+    settings.setMultiplier(
+        environment.getProperty(prefix + MULTIPLIER, Double.class, settings.getMultiplier()));
+    settings.setMinTimeoutMillis(environment.getProperty(prefix + MIN_TIMEOUT, Long.class,
+        settings.getMinTimeoutMillis()));
+    settings.setMaxTimeoutMillis(environment.getProperty(prefix + MAX_TIMEOUT, Long.class,
+        settings.getMaxTimeoutMillis()));
+    settings.setMinSamples(
+        environment.getProperty(prefix + MIN_SAMPLES, Long.class, settings.getMinSamples()));
+    settings.setWindowSeconds(
+        environment.getProperty(prefix + WINDOW, Long.class, settings.getWindowSeconds()));
+
+    return settings;
+  }
+
+  private static String metricName(String clientName, String operation, String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, clientName, operation, metric);
+  }
+
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.AsyncInvoker;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Unit tests for {@link JaxRsAsyncHttpApiClient}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JaxRsAsyncHttpApiClientTest {
+
+  private static final String BASE_PATH = "https://test.symphony.com/pod";
+
+  private static final String PATH = "/v2/user";
+
+  private static final String SESSION_TOKEN = "95248a8c-4e79-4fb3-8e1b-3eb8bf0dc0f3";
+
+  private static final Map<String, String> EMPTY = Collections.emptyMap();
+
+  @Mock
+  private AuthenticationProxy authenticationProxy;
+
+  @Mock
+  private AsyncHttpClientProvider clientProvider;
+
+  @Mock
+  private LogMessageSource logMessage;
+
+  @Mock
+  private Client client;
+
+  @Mock
+  private Configuration configuration;
+
+  @Mock
+  private WebTarget target;
+
+  @Mock
+  private Invocation.Builder builder;
+
+  @Mock
+  private AsyncInvoker invoker;
+
+  @Mock
+  private Future<Response> call;
+
+  @Mock
+  private Response response;
+
+  private Map<String, String> headerParams = new HashMap<>();
+
+  private JaxRsAsyncHttpApiClient apiClient;
+
+  @Before
+  public void init() {
+    headerParams.put(JaxRsAsyncHttpApiClient.SESSION_TOKEN_HEADER_PARAM, SESSION_TOKEN);
+
+    doReturn(client).when(clientProvider)
+        .asyncHttpClientForSessionToken(SESSION_TOKEN, ServiceName.POD);
+    doReturn(target).when(client).target(BASE_PATH);
+    doReturn(target).when(target).path(PATH);
+    doReturn(target).when(target).queryParam(anyString(), any());
+    doReturn(builder).when(target).request(MediaType.APPLICATION_JSON_TYPE);
+    doReturn(builder).when(builder).header(anyString(), any());
+    doReturn(builder).when(builder).property(anyString(), any());
+    doReturn(invoker).when(builder).async();
+    doReturn(call).when(invoker).method(eq("GET"), any(InvocationCallback.class));
+    doReturn(call).when(invoker)
+        .method(eq("POST"), any(Entity.class), any(InvocationCallback.class));
+
+    apiClient = new JaxRsAsyncHttpApiClient(BASE_PATH, ServiceName.POD, authenticationProxy,
+        clientProvider, logMessage);
+  }
+
+  @After
+  public void cleanup() {
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testMissingAuthenticationHeader() throws InterruptedException {
+    CompletableFuture<String> result = apiClient.doGetAsync(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      result.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RemoteApiException);
+      assertEquals(400, ((RemoteApiException) e.getCause()).getCode());
+    }
+  }
+
+  @Test
+  public void testGetSuccess() throws ExecutionException, InterruptedException {
+    doReturn(200).when(response).getStatus();
+    doReturn(true).when(response).hasEntity();
+    doReturn("user").when(response).readEntity(String.class);
+
+    CompletableFuture<String> result =
+        apiClient.doGetAsync(PATH, headerParams, EMPTY, String.class);
+
+    assertEquals(false, result.isDone());
+
+    captureCallback("GET").completed(response);
+
+    assertEquals("user", result.get());
+    verify(response).close();
+  }
+
+  @Test
+  public void testPostFailure() throws InterruptedException {
+    doReturn(404).when(response).getStatus();
+    doReturn(false).when(response).hasEntity();
+
+    CompletableFuture<String> result =
+        apiClient.doPostAsync(PATH, headerParams, EMPTY, "payload", String.class);
+
+    ArgumentCaptor<InvocationCallback> captor = ArgumentCaptor.forClass(InvocationCallback.class);
+    verify(invoker).method(eq("POST"), any(Entity.class), captor.capture());
+    captor.getValue().completed(response);
+
+    try {
+      result.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RemoteApiException);
+      assertEquals(404, ((RemoteApiException) e.getCause()).getCode());
+    }
+  }
+
+  @Test
+  public void testCancel() {
+    CompletableFuture<String> result =
+        apiClient.doGetAsync(PATH, headerParams, EMPTY, String.class);
+
+    result.cancel(true);
+
+    verify(call).cancel(true);
+  }
+
+  @Test
+  public void testDeadlineExpired() throws InterruptedException {
+    Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    CompletableFuture<String> result =
+        apiClient.doGetAsync(PATH, headerParams, EMPTY, String.class);
+
+    try {
+      result.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof DeadlineExceededException);
+    }
+
+    verify(invoker, never()).method(eq("GET"), any(InvocationCallback.class));
+  }
+
+  @Test
+  public void testDeadlineReadTimeout() {
+    doReturn(configuration).when(client).getConfiguration();
+    doReturn(5000).when(configuration).getProperty(JaxRsAsyncHttpApiClient.READ_TIMEOUT_PROPERTY);
+
+    Deadline.attach(Deadline.after(1, TimeUnit.MINUTES));
+    apiClient.doGetAsync(PATH, headerParams, EMPTY, String.class);
+
+    verify(builder).property(JaxRsAsyncHttpApiClient.READ_TIMEOUT_PROPERTY, 5000);
+  }
+
+  @Test
+  public void testRemainingTimeReadTimeout() {
+    doReturn(configuration).when(client).getConfiguration();
+    doReturn(60000).when(configuration).getProperty(JaxRsAsyncHttpApiClient.READ_TIMEOUT_PROPERTY);
+
+    Deadline.attach(Deadline.after(1, TimeUnit.SECONDS));
+    apiClient.doGetAsync(PATH, headerParams, EMPTY, String.class);
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(builder).property(eq(JaxRsAsyncHttpApiClient.READ_TIMEOUT_PROPERTY), captor.capture());
+
+    int timeout = (Integer) captor.getValue();
+    assertTrue(timeout > 0 && timeout <= 1000);
+  }
+
+  @Test
+  public void testEscapeString() {
+    assertEquals("test%20user%40symphony.com", apiClient.escapeString("test user@symphony.com"));
+  }
+
+  private InvocationCallback<Response> captureCallback(String method) {
+    ArgumentCaptor<InvocationCallback> captor = ArgumentCaptor.forClass(InvocationCallback.class);
+    verify(invoker).method(eq(method), captor.capture());
+    return captor.getValue();
+  }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link DeadlineHttpApiClient}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DeadlineHttpApiClientTest {
+
+  private static final String PATH = "/v1/configuration/123/instance/456";
+
+  private static final Map<String, String> EMPTY = Collections.emptyMap();
+
+  @Mock
+  private HttpApiClient client;
+
+  private DeadlineHttpApiClient deadlineClient;
+
+  @Before
+  public void init() {
+    deadlineClient = new DeadlineHttpApiClient(client);
+  }
+
+  @After
+  public void cleanup() {
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testWithoutDeadline() throws RemoteApiException {
+    doReturn("result").when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals("result", deadlineClient.doGet(PATH, EMPTY, EMPTY, String.class));
+  }
+
+  @Test
+  public void testDeadlineExpired() throws RemoteApiException {
+    Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    try {
+      deadlineClient.doPost(PATH, EMPTY, EMPTY, "payload", String.class);
+      fail();
+    } catch (DeadlineExceededException e) {
+      assertEquals(DeadlineExceededException.GATEWAY_TIMEOUT, e.getCode());
+    }
+
+    verify(client, never()).doPost(PATH, EMPTY, EMPTY, "payload", String.class);
+  }
+
+  @Test
+  public void testCallOnCallerThread() throws RemoteApiException {
+    final Deadline deadline = Deadline.after(1, TimeUnit.SECONDS);
+    final Thread caller = Thread.currentThread();
+    Deadline.attach(deadline);
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        boolean sameThread = Thread.currentThread() == caller;
+        return (sameThread && Deadline.current() == deadline) ? "result" : null;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals("result", deadlineClient.doGet(PATH, EMPTY, EMPTY, String.class));
+  }
+
+  @Test
+  public void testDeadlineExpiresDuringCall() throws RemoteApiException {
+    Deadline.attach(Deadline.after(50, TimeUnit.MILLISECONDS));
+
+    // Read timeout applied by the DeadlineTimeoutFilter
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        Thread.sleep(Deadline.current().remaining(TimeUnit.MILLISECONDS) + 1);
+        throw new ProcessingException(new SocketTimeoutException("Read timed out"));
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      deadlineClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (DeadlineExceededException e) {
+      assertEquals(DeadlineExceededException.GATEWAY_TIMEOUT, e.getCode());
+    }
+  }
+
+  @Test
+  public void testProcessingExceptionWithinDeadline() throws RemoteApiException {
+    Deadline.attach(Deadline.after(1, TimeUnit.SECONDS));
+
+    ProcessingException error = new ProcessingException("Connection refused");
+    doThrow(error).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      deadlineClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (ProcessingException e) {
+      assertEquals(error, e);
+    }
+  }
+
+  @Test
+  public void testRemoteApiException() throws RemoteApiException {
+    Deadline.attach(Deadline.after(1, TimeUnit.SECONDS));
+
+    RemoteApiException error = new RemoteApiException(404, "Not found");
+    doThrow(error).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      deadlineClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (RemoteApiException e) {
+      assertEquals(error, e);
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link Deadline}
+ */
+public class DeadlineTest {
+
+  @After
+  public void cleanup() {
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testRemaining() {
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+
+    assertFalse(deadline.isExpired());
+    assertTrue(deadline.remaining(TimeUnit.SECONDS) > 50);
+    assertTrue(deadline.remaining(TimeUnit.SECONDS) <= 60);
+  }
+
+  @Test
+  public void testExpired() {
+    Deadline deadline = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+    assertTrue(deadline.isExpired());
+    assertEquals(0, deadline.remaining(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testAttachAndRestore() {
+    Deadline first = Deadline.after(1, TimeUnit.MINUTES);
+    Deadline second = Deadline.after(1, TimeUnit.SECONDS);
+
+    assertNull(Deadline.attach(first));
+    assertEquals(first, Deadline.current());
+
+    Deadline previous = Deadline.attach(second);
+    assertEquals(first, previous);
+    assertEquals(second, Deadline.current());
+
+    Deadline.restore(previous);
+    assertEquals(first, Deadline.current());
+
+    Deadline.restore(null);
+    assertNull(Deadline.current());
+  }
+
+  @Test
+  public void testCheckCurrent() throws DeadlineExceededException {
+    // No deadline attached
+    Deadline.checkCurrent();
+
+    Deadline.attach(Deadline.after(1, TimeUnit.MINUTES));
+    Deadline.checkCurrent();
+
+    Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    try {
+      Deadline.checkCurrent();
+      fail();
+    } catch (DeadlineExceededException e) {
+      assertEquals(DeadlineExceededException.GATEWAY_TIMEOUT, e.getCode());
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.core.Configuration;
+
+/**
+ * Unit tests for {@link DeadlineTimeoutFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DeadlineTimeoutFilterTest {
+
+  private static final int CONNECT_TIMEOUT = 2000;
+
+  private static final int READ_TIMEOUT = 5000;
+
+  @Mock
+  private ClientRequestContext requestContext;
+
+  @Mock
+  private Configuration configuration;
+
+  private DeadlineTimeoutFilter filter = new DeadlineTimeoutFilter();
+
+  @Before
+  public void init() {
+    doReturn(configuration).when(requestContext).getConfiguration();
+    doReturn(CONNECT_TIMEOUT).when(configuration).getProperty(ClientProperties.CONNECT_TIMEOUT);
+    doReturn(READ_TIMEOUT).when(configuration).getProperty(ClientProperties.READ_TIMEOUT);
+  }
+
+  @After
+  public void cleanup() {
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testWithoutDeadline() throws IOException {
+    filter.filter(requestContext);
+
+    verify(requestContext, never()).setProperty(anyString(), any());
+    verify(requestContext, never()).getConfiguration();
+  }
+
+  @Test
+  public void testDeadlineLongerThanTimeouts() throws IOException {
+    Deadline.attach(Deadline.after(10, TimeUnit.SECONDS));
+
+    filter.filter(requestContext);
+
+    verify(requestContext, never()).setProperty(anyString(), any());
+  }
+
+  @Test
+  public void testReadTimeoutBounded() throws IOException {
+    Deadline.attach(Deadline.after(3, TimeUnit.SECONDS));
+
+    filter.filter(requestContext);
+
+    ArgumentCaptor<Object> timeout = ArgumentCaptor.forClass(Object.class);
+    verify(requestContext).setProperty(eq(ClientProperties.READ_TIMEOUT), timeout.capture());
+
+    int value = (Integer) timeout.getValue();
+    assertTrue(value > 2000 && value <= 3000);
+
+    verify(requestContext, never()).setProperty(eq(ClientProperties.CONNECT_TIMEOUT), any());
+  }
+
+  @Test
+  public void testBothTimeoutsBounded() throws IOException {
+    Deadline.attach(Deadline.after(100, TimeUnit.MILLISECONDS));
+
+    filter.filter(requestContext);
+
+    ArgumentCaptor<Object> connect = ArgumentCaptor.forClass(Object.class);
+    verify(requestContext).setProperty(eq(ClientProperties.CONNECT_TIMEOUT), connect.capture());
+    assertTrue((Integer) connect.getValue() <= 100);
+
+    ArgumentCaptor<Object> read = ArgumentCaptor.forClass(Object.class);
+    verify(requestContext).setProperty(eq(ClientProperties.READ_TIMEOUT), read.capture());
+    assertTrue((Integer) read.getValue() <= 100);
+  }
+
+  @Test
+  public void testExpiredDeadline() throws IOException {
+    Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    filter.filter(requestContext);
+
+    verify(requestContext).setProperty(ClientProperties.CONNECT_TIMEOUT, 1);
+    verify(requestContext).setProperty(ClientProperties.READ_TIMEOUT, 1);
+  }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.deadline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link RequestDeadlines}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RequestDeadlinesTest {
+
+  private static final String INTEGRATION = "jiraWebHookIntegration";
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(RequestDeadlines.ENABLED_KEY, "true")
+      .withProperty(RequestDeadlines.TIMEOUT_KEY, "10000")
+      .withProperty("integration_bridge.deadline." + INTEGRATION + ".timeout", "20000");
+
+  @InjectMocks
+  private RequestDeadlines deadlines = new RequestDeadlines();
+
+  @Before
+  public void init() {
+    deadlines.init();
+  }
+
+  @Test
+  public void testTimeout() {
+    assertEquals(10000, deadlines.getTimeoutMillis("simpleWebHookIntegration"));
+    assertEquals(20000, deadlines.getTimeoutMillis(INTEGRATION));
+
+    Deadline deadline = deadlines.newDeadline(INTEGRATION);
+    assertNotNull(deadline);
+    assertTrue(deadline.remaining(TimeUnit.MILLISECONDS) > 10000);
+  }
+
+  @Test
+  public void testDecorate() {
+    HttpApiClient client = mock(HttpApiClient.class);
+    assertTrue(deadlines.decorate(client) instanceof DeadlineHttpApiClient);
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    RequestDeadlines defaultDeadlines = new RequestDeadlines();
+    ReflectionTestUtils.setField(defaultDeadlines, "environment", new MockEnvironment());
+    defaultDeadlines.init();
+
+    assertFalse(defaultDeadlines.isEnabled());
+    assertNull(defaultDeadlines.newDeadline(INTEGRATION));
+  }
+
+  @Test
+  public void testDisabled() {
+    ((MockEnvironment) environment).setProperty(RequestDeadlines.ENABLED_KEY, "false");
+    deadlines.init();
+
+    HttpApiClient client = mock(HttpApiClient.class);
+
+    assertNull(deadlines.newDeadline(INTEGRATION));
+    assertEquals(client, deadlines.decorate(client));
+
+    // Callers that attach their own deadlines still get a bounded client
+    assertTrue(deadlines.bound(client) instanceof DeadlineHttpApiClient);
+  }
+
+}
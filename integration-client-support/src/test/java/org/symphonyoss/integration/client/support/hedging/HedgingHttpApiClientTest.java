@@ -0,0 +1,337 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.hedging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link HedgingHttpApiClient}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HedgingHttpApiClientTest {
+
+  private static final String CLIENT_NAME = "integration";
+
+  private static final String PATH = "/v1/configuration/123/instance/456";
+
+  private static final Map<String, String> EMPTY = Collections.emptyMap();
+
+  private static final String PRIMARY = "primary";
+
+  private static final String BACKUP = "backup";
+
+  @Mock
+  private HttpApiClient client;
+
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  private ThreadPoolExecutor executor = new ThreadPoolExecutor(0, 4, 1, TimeUnit.SECONDS,
+      new SynchronousQueue<Runnable>());
+
+  private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+
+  private HedgingSettings settings;
+
+  @Before
+  public void init() {
+    settings = new HedgingSettings();
+    settings.setEnabled(true);
+    settings.setMinSamples(0);
+    settings.setMinDelayMillis(10);
+    settings.setBudget(1);
+  }
+
+  @After
+  public void shutdown() {
+    scheduler.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  private HedgingHttpApiClient buildClient() {
+    HedgingPolicy policy = new HedgingPolicy(CLIENT_NAME, settings, metricsRegistry);
+    return new HedgingHttpApiClient(client, policy, executor, scheduler);
+  }
+
+  private long count(String metric) {
+    return metricsRegistry.meter(
+        MetricRegistry.name(BASE_METRIC_NAME, "hedging", CLIENT_NAME, metric)).getCount();
+  }
+
+  @Test
+  public void testMethodNotHedged() throws RemoteApiException {
+    doAnswer(new SequenceAnswer(500, PRIMARY, 0, BACKUP)).when(client)
+        .doPost(PATH, EMPTY, EMPTY, null, String.class);
+
+    assertEquals(PRIMARY, buildClient().doPost(PATH, EMPTY, EMPTY, null, String.class));
+    verify(client, times(1)).doPost(PATH, EMPTY, EMPTY, null, String.class);
+  }
+
+  @Test
+  public void testNotEnoughSamples() throws RemoteApiException {
+    settings.setMinSamples(100);
+
+    doAnswer(new SequenceAnswer(100, PRIMARY, 0, BACKUP)).when(client)
+        .doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(PRIMARY, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertEquals(0, count("hedges"));
+  }
+
+  @Test
+  public void testNotEnoughSamplesOnCallerThread() throws RemoteApiException {
+    settings.setMinSamples(100);
+
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        thread.compareAndSet(null, Thread.currentThread());
+        return PRIMARY;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(PRIMARY, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertSame(Thread.currentThread(), thread.get());
+    assertEquals(0, count("hedges"));
+  }
+
+  @Test
+  public void testNoThreadAvailable() throws RemoteApiException {
+    executor.shutdown();
+
+    final AtomicReference<Thread> thread = new AtomicReference<>();
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        thread.compareAndSet(null, Thread.currentThread());
+        Thread.sleep(100);
+        return PRIMARY;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(PRIMARY, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertSame(Thread.currentThread(), thread.get());
+    verify(client, times(1)).doGet(PATH, EMPTY, EMPTY, String.class);
+    assertEquals(0, count("hedges"));
+  }
+
+  @Test
+  public void testSlowPrimaryLosesToBackup() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch cancelled = new CountDownLatch(1);
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        if (calls.getAndIncrement() == 0) {
+          try {
+            Thread.sleep(5000);
+          } catch (InterruptedException e) {
+            cancelled.countDown();
+            throw e;
+          }
+
+          return PRIMARY;
+        }
+
+        return BACKUP;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    long start = System.nanoTime();
+
+    assertEquals(BACKUP, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+
+    // The slow primary request is cancelled
+    assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+
+    assertEquals(1, count("hedges"));
+    assertEquals(1, count("wins"));
+  }
+
+  @Test
+  public void testBackupWins() throws RemoteApiException {
+    final AtomicInteger calls = new AtomicInteger();
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        if (calls.getAndIncrement() == 0) {
+          Thread.sleep(200);
+          throw new ProcessingException("Read timed out");
+        }
+
+        return BACKUP;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(BACKUP, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertEquals(1, count("requests"));
+    assertEquals(1, count("hedges"));
+    assertEquals(1, count("wins"));
+  }
+
+  @Test
+  public void testFailureBeforeHedgeDelay() throws RemoteApiException {
+    settings.setMinDelayMillis(1000);
+
+    final ProcessingException exception = new ProcessingException("Connection refused");
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        throw exception;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      buildClient().doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (ProcessingException e) {
+      assertSame(exception, e);
+    }
+
+    verify(client, times(1)).doGet(PATH, EMPTY, EMPTY, String.class);
+    assertEquals(0, count("hedges"));
+  }
+
+  @Test
+  public void testBudgetExhausted() throws RemoteApiException {
+    settings.setBudget(0);
+
+    doAnswer(new SequenceAnswer(100, PRIMARY, 0, BACKUP)).when(client)
+        .doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(PRIMARY, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    verify(client, times(1)).doGet(PATH, EMPTY, EMPTY, String.class);
+    assertEquals(0, count("hedges"));
+  }
+
+  @Test
+  public void testRemoteApiExceptionIsAnAnswer() throws RemoteApiException {
+    settings.setMinDelayMillis(1000);
+
+    final RemoteApiException exception = new RemoteApiException(404, "Not found");
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        throw exception;
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      buildClient().doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (RemoteApiException e) {
+      assertEquals(exception, e);
+    }
+
+    verify(client, times(1)).doGet(PATH, EMPTY, EMPTY, String.class);
+  }
+
+  @Test
+  public void testBackupFailureWaitsPrimary() throws RemoteApiException {
+    final AtomicInteger calls = new AtomicInteger();
+
+    doAnswer(new Answer<String>() {
+      @Override
+      public String answer(InvocationOnMock invocation) throws Throwable {
+        if (calls.getAndIncrement() == 0) {
+          Thread.sleep(200);
+          return PRIMARY;
+        }
+
+        throw new ProcessingException("Connection refused");
+      }
+    }).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals(PRIMARY, buildClient().doGet(PATH, EMPTY, EMPTY, String.class));
+    assertEquals(1, count("hedges"));
+    assertEquals(0, count("wins"));
+  }
+
+  /**
+   * Answers the first call after the first delay and the other calls after the second delay.
+   */
+  private static final class SequenceAnswer implements Answer<String> {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final long firstDelay;
+
+    private final String firstResult;
+
+    private final long nextDelay;
+
+    private final String nextResult;
+
+    SequenceAnswer(long firstDelay, String firstResult, long nextDelay, String nextResult) {
+      this.firstDelay = firstDelay;
+      this.firstResult = firstResult;
+      this.nextDelay = nextDelay;
+      this.nextResult = nextResult;
+    }
+
+    @Override
+    public String answer(InvocationOnMock invocation) throws Throwable {
+      if (calls.getAndIncrement() == 0) {
+        Thread.sleep(firstDelay);
+        return firstResult;
+      }
+
+      Thread.sleep(nextDelay);
+      return nextResult;
+    }
+  }
+
+}
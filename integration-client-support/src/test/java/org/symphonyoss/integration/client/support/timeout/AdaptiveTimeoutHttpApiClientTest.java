@@ -0,0 +1,174 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
+import org.symphonyoss.integration.client.support.deadline.DeadlineHttpApiClient;
+import org.symphonyoss.integration.client.support.deadline.DeadlineTimeoutFilter;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link AdaptiveTimeoutHttpApiClient}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveTimeoutHttpApiClientTest {
+
+  private static final String CLIENT_NAME = "integration";
+
+  private static final String PATH = "/v1/configuration/5810d144e4b0f884b709cc90/instance/123";
+
+  private static final String OPERATION = "GET /v1/configuration/{id}/instance/{id}";
+
+  private static final Map<String, String> EMPTY = Collections.emptyMap();
+
+  private static final String PREFIX = "integration_bridge.adaptive-timeout." + CLIENT_NAME + ".";
+
+  @Mock
+  private HttpApiClient client;
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(PREFIX + AdaptiveTimeouts.ENABLED, "true")
+      .withProperty(PREFIX + AdaptiveTimeouts.MIN_TIMEOUT, "50")
+      .withProperty(PREFIX + AdaptiveTimeouts.MAX_TIMEOUT, "100");
+
+  @InjectMocks
+  private AdaptiveTimeouts timeouts = new AdaptiveTimeouts();
+
+  private AdaptiveTimeoutHttpApiClient timeoutClient;
+
+  @Before
+  public void init() {
+    HttpApiClient deadlineClient = new DeadlineHttpApiClient(client);
+    timeoutClient = new AdaptiveTimeoutHttpApiClient(CLIENT_NAME, deadlineClient, timeouts);
+  }
+
+  @After
+  public void cleanup() {
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testOperation() {
+    assertEquals(OPERATION, AdaptiveTimeoutHttpApiClient.getOperation("GET", PATH));
+    assertEquals("POST /v4/stream/{id}/message/create", AdaptiveTimeoutHttpApiClient
+        .getOperation("POST", "/v4/stream/Pn6_4LQ0h4TDjlq5ei8gv3___p-Fy4kbdA/message/create"));
+  }
+
+  @Test
+  public void testSettings() {
+    AdaptiveTimeoutSettings settings = timeouts.getSettings(CLIENT_NAME);
+
+    assertTrue(settings.isEnabled());
+    assertEquals(50, settings.getMinTimeoutMillis());
+    assertEquals(100, settings.getMaxTimeoutMillis());
+  }
+
+  @Test
+  public void testCallWithinTimeout() throws RemoteApiException {
+    doReturn("result").when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    assertEquals("result", timeoutClient.doGet(PATH, EMPTY, EMPTY, String.class));
+    assertEquals(0, metricsRegistry.meter(metricName("timeouts")).getCount());
+
+    // The caller deadline is restored
+    assertNull(Deadline.current());
+  }
+
+  @Test
+  public void testTimeout() throws RemoteApiException {
+    doAnswer(new TimedOutCall()).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      timeoutClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (ProcessingException e) {
+      assertTrue(e.getCause() instanceof SocketTimeoutException);
+    }
+
+    assertEquals(1, metricsRegistry.meter(metricName("timeouts")).getCount());
+    assertEquals(100L, metricsRegistry.getGauges().get(metricName("timeout")).getValue());
+  }
+
+  @Test
+  public void testCallerDeadlineExpiresFirst() throws RemoteApiException {
+    Deadline.attach(Deadline.after(10, TimeUnit.MILLISECONDS));
+
+    doAnswer(new TimedOutCall()).when(client).doGet(PATH, EMPTY, EMPTY, String.class);
+
+    try {
+      timeoutClient.doGet(PATH, EMPTY, EMPTY, String.class);
+      fail();
+    } catch (DeadlineExceededException e) {
+      assertEquals(DeadlineExceededException.GATEWAY_TIMEOUT, e.getCode());
+    }
+
+    assertEquals(0, metricsRegistry.meter(metricName("timeouts")).getCount());
+  }
+
+  /**
+   * Emulates a call that hits the read timeout applied by the {@link DeadlineTimeoutFilter}.
+   */
+  private static class TimedOutCall implements Answer<String> {
+
+    @Override
+    public String answer(InvocationOnMock invocation) throws Throwable {
+      Thread.sleep(Deadline.current().remaining(TimeUnit.MILLISECONDS) + 1);
+      throw new ProcessingException(new SocketTimeoutException("Read timed out"));
+    }
+
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, "adaptiveTimeout", CLIENT_NAME, OPERATION,
+        metric);
+  }
+
+}
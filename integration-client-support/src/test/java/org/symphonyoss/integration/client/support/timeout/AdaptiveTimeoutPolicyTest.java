@@ -0,0 +1,110 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.client.support.timeout;
+
+import static org.junit.Assert.assertEquals;
+
+import com.codahale.metrics.Meter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AdaptiveTimeoutPolicy}
+ */
+public class AdaptiveTimeoutPolicyTest {
+
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private AdaptiveTimeoutSettings settings;
+
+  private Meter timeouts;
+
+  private AdaptiveTimeoutPolicy policy;
+
+  @Before
+  public void init() {
+    settings = new AdaptiveTimeoutSettings();
+    settings.setEnabled(true);
+    settings.setPercentile(99);
+    settings.setMultiplier(2);
+    settings.setMinTimeoutMillis(10);
+    settings.setMaxTimeoutMillis(1000);
+    settings.setMinSamples(10);
+
+    timeouts = new Meter();
+    policy = new AdaptiveTimeoutPolicy(settings, timeouts, 0);
+  }
+
+  @Test
+  public void testNotEnoughSamples() {
+    record(5, 100);
+    assertEquals(1000, policy.getTimeoutMillis(0));
+  }
+
+  @Test
+  public void testAdaptiveTimeout() {
+    record(20, 100);
+    assertEquals(200, policy.getTimeoutMillis(0));
+  }
+
+  @Test
+  public void testMinTimeout() {
+    record(20, 1);
+    assertEquals(10, policy.getTimeoutMillis(0));
+  }
+
+  @Test
+  public void testMaxTimeout() {
+    record(20, 800);
+    assertEquals(1000, policy.getTimeoutMillis(0));
+  }
+
+  @Test
+  public void testRefreshInterval() {
+    record(20, 100);
+    assertEquals(200, policy.getTimeoutMillis(0));
+
+    record(20, 300);
+
+    // Should keep the previous value (refresh interval)
+    assertEquals(200, policy.getTimeoutMillis(ONE_SECOND / 2));
+    assertEquals(600, policy.getTimeoutMillis(ONE_SECOND));
+  }
+
+  @Test
+  public void testTimeoutGrowsTheTimeout() {
+    record(20, 100);
+    assertEquals(200, policy.getTimeoutMillis(0));
+
+    for (int i = 0; i < 5; i++) {
+      policy.onTimeout(200);
+    }
+
+    assertEquals(5, timeouts.getCount());
+    assertEquals(400, policy.getTimeoutMillis(ONE_SECOND));
+    assertEquals(400L, policy.timeoutGauge().getValue().longValue());
+  }
+
+  private void record(int samples, long latencyMillis) {
+    for (int i = 0; i < samples; i++) {
+      policy.recordLatency(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    }
+  }
+
+}
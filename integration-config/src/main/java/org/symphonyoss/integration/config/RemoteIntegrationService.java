@@ -36,6 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.config.exception.ConfigurationNotFoundException;
+import org.symphonyoss.integration.config.index.InstanceHashIndex;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.config.ForbiddenUserException;
 import org.symphonyoss.integration.exception.config.RemoteConfigurationException;
@@ -68,6 +69,9 @@ public class RemoteIntegrationService implements IntegrationService {
   @Autowired
   private IntegrationHttpApiClient client;
 
+  @Autowired
+  private InstanceHashIndex instanceHashIndex;
+
   private IntegrationApiClient configurationApiClient;
 
   private IntegrationInstanceAdminApiClient instanceApiClient;
@@ -165,7 +169,9 @@ public class RemoteIntegrationService implements IntegrationService {
   @Override
   public IntegrationInstance save(IntegrationInstance instance, String userId) {
     if (instanceExists(instance, userId)) {
-      return updateInstance(instance, userId);
+      IntegrationInstance result = updateInstance(instance, userId);
+      instanceHashIndex.onInstanceSaved(instance);
+      return result;
     } else {
       throw new UnsupportedOperationException(logMessage.getMessage(INTEGRATION_INSTANCE_UNSUPPORTED_OPERATION));
     }
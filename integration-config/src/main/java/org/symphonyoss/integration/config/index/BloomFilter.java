@@ -0,0 +1,161 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.config.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings.
+ *
+ * The filter answers "definitely not present" or "might be present". The bit array is sized for
+ * the expected number of entries and the target false-positive probability. Entries are hashed
+ * with a 64-bit FNV-1a hash and the bit positions are derived using double hashing.
+ */
+public class BloomFilter {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final double LN2 = Math.log(2);
+
+  private final AtomicLongArray bits;
+
+  private final long bitCount;
+
+  private final int hashCount;
+
+  private final AtomicInteger entries = new AtomicInteger();
+
+  /**
+   * Creates an empty filter.
+   * @param expectedEntries Expected number of entries
+   * @param falsePositiveRate Target false-positive probability
+   */
+  public BloomFilter(int expectedEntries, double falsePositiveRate) {
+    int expected = Math.max(1, expectedEntries);
+    double rate = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+
+    long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (LN2 * LN2));
+    int words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = words * 64L;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * LN2));
+  }
+
+  /**
+   * Adds an entry to the filter.
+   * @param value Entry
+   */
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashCount; i++) {
+      long index = position(h1 + i * h2);
+      setBit(index);
+    }
+
+    entries.incrementAndGet();
+  }
+
+  /**
+   * Checks if the entry might be in the filter.
+   * @param value Entry
+   * @return false if the entry is definitely not in the filter, true if it might be.
+   */
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+
+    for (int i = 1; i <= hashCount; i++) {
+      long index = position(h1 + i * h2);
+
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Estimates the current false-positive probability based on the number of entries.
+   * @return False-positive probability
+   */
+  public double getFalsePositiveRate() {
+    double exponent = -(double) hashCount * entries.get() / bitCount;
+    return Math.pow(1 - Math.exp(exponent), hashCount);
+  }
+
+  /**
+   * Retrieves the filter size.
+   * @return Size of the bit array (bytes)
+   */
+  public long getSizeInBytes() {
+    return bitCount / 8;
+  }
+
+  public int getEntries() {
+    return entries.get();
+  }
+
+  public int getHashCount() {
+    return hashCount;
+  }
+
+  private long position(int combinedHash) {
+    // Flip the bits when negative to keep an uniform distribution
+    int positive = (combinedHash < 0) ? ~combinedHash : combinedHash;
+    return positive % bitCount;
+  }
+
+  private void setBit(long index) {
+    int word = (int) (index >>> 6);
+    long mask = 1L << index;
+
+    while (true) {
+      long current = bits.get(word);
+
+      if ((current & mask) != 0 || bits.compareAndSet(word, current, current | mask)) {
+        return;
+      }
+    }
+  }
+
+  private static long hash(String value) {
+    long hash = FNV_OFFSET_BASIS;
+
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= (b & 0xff);
+      hash *= FNV_PRIME;
+    }
+
+    // Final avalanche, so the upper and lower halves are independent enough for double hashing
+    hash ^= (hash >>> 33);
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= (hash >>> 33);
+
+    return hash;
+  }
+
+}
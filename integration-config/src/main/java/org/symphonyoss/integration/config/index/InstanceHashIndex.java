@@ -0,0 +1,412 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.config.index;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.pod.api.client.IntegrationHttpApiClient;
+import org.symphonyoss.integration.pod.api.client.IntegrationInstanceAdminApiClient;
+import org.symphonyoss.integration.pod.api.model.IntegrationInstanceList;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Index of the known instance identifiers per configuration.
+ *
+ * Webhook requests carrying instance hashes that don't exist trigger a remote instance lookup.
+ * This index keeps a {@link BloomFilter} of the instance identifiers of each configuration, so
+ * the dispatcher can reject the definite misses without any remote call.
+ *
+ * The filters are built on demand from the paged instance list of the Integration API and rebuilt
+ * periodically. Saved instances are added to the filter immediately. Instances created outside
+ * the Integration Bridge are only known after the next rebuild, so a miss also triggers a
+ * rebuild (at most once per min-rebuild-interval). Requests are never rejected while a filter
+ * is not available.
+ */
+@Component
+public class InstanceHashIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InstanceHashIndex.class);
+
+  private static final String PREFIX = "integration_bridge.instance-filter.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String PAGE_SIZE_KEY = PREFIX + "page-size";
+
+  public static final String FALSE_POSITIVE_RATE_KEY = PREFIX + "false-positive-rate";
+
+  public static final String MIN_REBUILD_INTERVAL_KEY = PREFIX + "min-rebuild-interval";
+
+  public static final String MAX_INSTANCES_KEY = PREFIX + "max-instances";
+
+  private static final boolean DEFAULT_ENABLED = false;
+
+  private static final int DEFAULT_PAGE_SIZE = 100;
+
+  private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  private static final long DEFAULT_MIN_REBUILD_INTERVAL = 10000;
+
+  private static final int DEFAULT_MAX_INSTANCES = 1000000;
+
+  /**
+   * Minimum capacity of the filters, so saved instances don't degrade small filters too fast
+   */
+  private static final int MIN_CAPACITY = 1024;
+
+  private static final String METRIC_PREFIX = "webhook.instanceFilter";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  @Autowired
+  private AuthenticationProxy authenticationProxy;
+
+  @Autowired
+  private LogMessageSource logMessage;
+
+  @Autowired
+  private IntegrationHttpApiClient client;
+
+  private IntegrationInstanceAdminApiClient instanceApiClient;
+
+  private final ConcurrentMap<String, ConfigurationFilter> filters = new ConcurrentHashMap<>();
+
+  private ExecutorService executor;
+
+  private boolean enabled;
+
+  private int pageSize;
+
+  private double falsePositiveRate;
+
+  private long minRebuildIntervalNanos;
+
+  private int maxInstances;
+
+  private Meter rejected;
+
+  private Meter failures;
+
+  /**
+   * Reads the filter settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, DEFAULT_ENABLED);
+    this.pageSize = environment.getProperty(PAGE_SIZE_KEY, Integer.class, DEFAULT_PAGE_SIZE);
+    this.falsePositiveRate = environment.getProperty(FALSE_POSITIVE_RATE_KEY, Double.class,
+        DEFAULT_FALSE_POSITIVE_RATE);
+    this.minRebuildIntervalNanos = TimeUnit.MILLISECONDS.toNanos(environment.getProperty(
+        MIN_REBUILD_INTERVAL_KEY, Long.class, DEFAULT_MIN_REBUILD_INTERVAL));
+    this.maxInstances =
+        environment.getProperty(MAX_INSTANCES_KEY, Integer.class, DEFAULT_MAX_INSTANCES);
+
+    this.instanceApiClient = new IntegrationInstanceAdminApiClient(client, logMessage);
+
+    this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "instance-filter");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    this.rejected = metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX,
+        "rejected"));
+    this.failures = metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX,
+        "failures"));
+
+    LOGGER.info("Instance filter enabled: {}, false-positive rate: {}", enabled,
+        falsePositiveRate);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Checks if the instance definitely doesn't exist. This method never performs remote calls.
+   * @param configurationId Configuration identifier
+   * @param integrationUser Integration user used to list the instances
+   * @param instanceId Instance identifier
+   * @return true if the instance definitely doesn't exist or false if it might exist (or the
+   * filter isn't available yet)
+   */
+  public boolean isUnknownInstance(String configurationId, String integrationUser,
+      String instanceId) {
+    if (!enabled || configurationId == null || instanceId == null) {
+      return false;
+    }
+
+    ConfigurationFilter entry = getEntry(configurationId, integrationUser);
+    BloomFilter filter = entry.filter;
+
+    if (filter == null) {
+      scheduleBuild(entry);
+      return false;
+    }
+
+    if (filter.mightContain(instanceId)) {
+      return false;
+    }
+
+    rejected.mark();
+
+    // The instance may have been created outside the Integration Bridge
+    if (System.nanoTime() - entry.builtAtNanos > minRebuildIntervalNanos) {
+      scheduleBuild(entry);
+    }
+
+    return true;
+  }
+
+  /**
+   * Adds a saved instance to the filter of its configuration.
+   * @param instance Integration instance
+   */
+  public void onInstanceSaved(IntegrationInstance instance) {
+    if (!enabled || instance == null || instance.getConfigurationId() == null
+        || instance.getInstanceId() == null) {
+      return;
+    }
+
+    ConfigurationFilter entry = filters.get(instance.getConfigurationId());
+
+    if (entry != null) {
+      entry.add(instance.getInstanceId());
+    }
+  }
+
+  /**
+   * Rebuilds the filters of all the known configurations.
+   */
+  @Scheduled(fixedDelayString = "${integration_bridge.instance-filter.rebuild-interval:300000}")
+  public void rebuildAll() {
+    if (!enabled) {
+      return;
+    }
+
+    for (ConfigurationFilter entry : filters.values()) {
+      scheduleBuild(entry);
+    }
+  }
+
+  /**
+   * Builds the filter for the configuration using the paged instance list.
+   * @param entry Configuration filter
+   */
+  void build(ConfigurationFilter entry) {
+    List<String> instanceIds = new ArrayList<>();
+
+    try {
+      String sessionToken = authenticationProxy.getSessionToken(entry.integrationUser);
+      int offset = 0;
+
+      while (offset < maxInstances) {
+        IntegrationInstanceList page = instanceApiClient.listInstances(sessionToken,
+            entry.configurationId, offset, pageSize);
+
+        if (page == null || page.isEmpty()) {
+          break;
+        }
+
+        for (IntegrationInstance instance : page) {
+          if (instance.getInstanceId() != null) {
+            instanceIds.add(instance.getInstanceId());
+          }
+        }
+
+        if (page.size() < pageSize) {
+          break;
+        }
+
+        offset += page.size();
+      }
+    } catch (Exception e) {
+      failures.mark();
+      LOGGER.warn("Cannot build the instance filter for configuration " + entry.configurationId,
+          e);
+      return;
+    }
+
+    BloomFilter filter =
+        new BloomFilter(Math.max(MIN_CAPACITY, instanceIds.size() * 2), falsePositiveRate);
+
+    for (String instanceId : instanceIds) {
+      filter.put(instanceId);
+    }
+
+    entry.replace(filter);
+
+    LOGGER.info("Instance filter built for configuration {}: {} instances, {} bytes",
+        entry.configurationId, instanceIds.size(), filter.getSizeInBytes());
+  }
+
+  private ConfigurationFilter getEntry(String configurationId, String integrationUser) {
+    ConfigurationFilter entry = filters.get(configurationId);
+
+    if (entry != null) {
+      return entry;
+    }
+
+    ConfigurationFilter newEntry = new ConfigurationFilter(configurationId, integrationUser);
+    entry = filters.putIfAbsent(configurationId, newEntry);
+
+    if (entry == null) {
+      registerGauges(newEntry);
+      return newEntry;
+    }
+
+    return entry;
+  }
+
+  private void scheduleBuild(final ConfigurationFilter entry) {
+    if (!entry.building.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            build(entry);
+          } finally {
+            entry.building.set(false);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      entry.building.set(false);
+    }
+  }
+
+  private void registerGauges(final ConfigurationFilter entry) {
+    String size = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, entry.configurationId,
+        "size");
+
+    if (!metricsRegistry.getGauges().containsKey(size)) {
+      metricsRegistry.register(size, new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          BloomFilter filter = entry.filter;
+          return (filter == null) ? 0L : filter.getSizeInBytes();
+        }
+      });
+    }
+
+    String rate = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, entry.configurationId,
+        "falsePositiveRate");
+
+    if (!metricsRegistry.getGauges().containsKey(rate)) {
+      metricsRegistry.register(rate, new Gauge<Double>() {
+        @Override
+        public Double getValue() {
+          BloomFilter filter = entry.filter;
+          return (filter == null) ? 0D : filter.getFalsePositiveRate();
+        }
+      });
+    }
+  }
+
+  /**
+   * Holds the filter of a configuration and the instances saved while the filter is rebuilt.
+   *
+   * The saved instances and the filter replacement are guarded by the entry lock, so an instance
+   * saved during a rebuild is either added to the new filter before it's published or put into
+   * the published filter. Readers never see a filter missing the saved instances.
+   */
+  static final class ConfigurationFilter {
+
+    private final String configurationId;
+
+    private final String integrationUser;
+
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private Set<String> savedInstances = new HashSet<>();
+
+    private volatile BloomFilter filter;
+
+    private volatile long builtAtNanos;
+
+    ConfigurationFilter(String configurationId, String integrationUser) {
+      this.configurationId = configurationId;
+      this.integrationUser = integrationUser;
+    }
+
+    synchronized void add(String instanceId) {
+      savedInstances.add(instanceId);
+
+      if (filter != null) {
+        filter.put(instanceId);
+      }
+    }
+
+    synchronized void replace(BloomFilter newFilter) {
+      // Instances saved during the rebuild may be missing from the instance list
+      for (String instanceId : savedInstances) {
+        newFilter.put(instanceId);
+      }
+
+      this.savedInstances = new HashSet<>();
+      this.builtAtNanos = System.nanoTime();
+      this.filter = newFilter;
+    }
+
+    BloomFilter getFilter() {
+      return filter;
+    }
+
+  }
+
+}
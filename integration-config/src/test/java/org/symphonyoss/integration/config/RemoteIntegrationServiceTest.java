@@ -23,6 +23,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
@@ -33,6 +34,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.config.exception.ConfigurationNotFoundException;
+import org.symphonyoss.integration.config.index.InstanceHashIndex;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.config.ForbiddenUserException;
 import org.symphonyoss.integration.exception.config.RemoteConfigurationException;
@@ -75,6 +77,9 @@ public class RemoteIntegrationServiceTest {
   @Mock
   private LogMessageSource logMesagge;
 
+  @Mock
+  private InstanceHashIndex instanceHashIndex;
+
   @InjectMocks
   private RemoteIntegrationService remoteIntegrationService;
 
@@ -270,6 +275,7 @@ public class RemoteIntegrationServiceTest {
         .updateInstance(eq(TOKEN), any(IntegrationInstanceSubmissionUpdate.class));
 
     assertEquals(instance, remoteIntegrationService.save(instance, USER_ID));
+    verify(instanceHashIndex).onInstanceSaved(instance);
   }
 
   private IntegrationSettings buildIntegrationSettings() {
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.config.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BloomFilter}
+ */
+public class BloomFilterTest {
+
+  private static final int ENTRIES = 10000;
+
+  @Test
+  public void testInvalidSettings() {
+    BloomFilter filter = new BloomFilter(0, 1);
+    filter.put("instance");
+
+    assertTrue(filter.mightContain("instance"));
+    assertTrue(filter.getHashCount() >= 1);
+  }
+
+  @Test
+  public void testNoFalseNegatives() {
+    BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+
+    for (int i = 0; i < ENTRIES; i++) {
+      filter.put("instance" + i);
+    }
+
+    for (int i = 0; i < ENTRIES; i++) {
+      assertTrue(filter.mightContain("instance" + i));
+    }
+
+    assertEquals(ENTRIES, filter.getEntries());
+  }
+
+  @Test
+  public void testFalsePositiveRate() {
+    BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+
+    for (int i = 0; i < ENTRIES; i++) {
+      filter.put("instance" + i);
+    }
+
+    int falsePositives = 0;
+
+    for (int i = 0; i < ENTRIES; i++) {
+      if (filter.mightContain("unknown" + i)) {
+        falsePositives++;
+      }
+    }
+
+    assertTrue(falsePositives < ENTRIES * 0.02);
+    assertTrue(filter.getFalsePositiveRate() < 0.02);
+  }
+
+  @Test
+  public void testEmpty() {
+    BloomFilter filter = new BloomFilter(100, 0.01);
+
+    assertFalse(filter.mightContain("instance"));
+    assertEquals(0, filter.getFalsePositiveRate(), 0);
+  }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.config.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.pod.api.client.IntegrationHttpApiClient;
+import org.symphonyoss.integration.pod.api.client.IntegrationInstanceAdminApiClient;
+import org.symphonyoss.integration.pod.api.model.IntegrationInstanceList;
+
+/**
+ * Unit tests for {@link InstanceHashIndex}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InstanceHashIndexTest {
+
+  private static final String CONFIGURATION_ID = "57756bca4b54433738037005";
+
+  private static final String INTEGRATION_USER = "jirawebhook";
+
+  private static final String SESSION_TOKEN = "95248a1c-7ba3-4b2d-9d93-d1f93e0ec1f0";
+
+  private static final String UNKNOWN_INSTANCE = "unknown";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(InstanceHashIndex.ENABLED_KEY, "true")
+      .withProperty(InstanceHashIndex.PAGE_SIZE_KEY, "2");
+
+  @Mock
+  private AuthenticationProxy authenticationProxy;
+
+  @Mock
+  private LogMessageSource logMessage;
+
+  @Mock
+  private IntegrationHttpApiClient client;
+
+  @InjectMocks
+  private InstanceHashIndex index = new InstanceHashIndex();
+
+  private IntegrationInstanceAdminApiClient instanceApiClient;
+
+  private InstanceHashIndex.ConfigurationFilter entry;
+
+  @Before
+  public void init() throws RemoteApiException {
+    index.init();
+
+    instanceApiClient = mock(IntegrationInstanceAdminApiClient.class);
+    ReflectionTestUtils.setField(index, "instanceApiClient", instanceApiClient);
+
+    doReturn(SESSION_TOKEN).when(authenticationProxy).getSessionToken(INTEGRATION_USER);
+
+    doReturn(page("instance0", "instance1")).when(instanceApiClient)
+        .listInstances(SESSION_TOKEN, CONFIGURATION_ID, 0, 2);
+    doReturn(page("instance2")).when(instanceApiClient)
+        .listInstances(SESSION_TOKEN, CONFIGURATION_ID, 2, 2);
+
+    entry = new InstanceHashIndex.ConfigurationFilter(CONFIGURATION_ID, INTEGRATION_USER);
+  }
+
+  @After
+  public void shutdown() {
+    index.shutdown();
+  }
+
+  @Test
+  public void testBuild() {
+    index.build(entry);
+
+    BloomFilter filter = entry.getFilter();
+    assertNotNull(filter);
+    assertEquals(3, filter.getEntries());
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(filter.mightContain("instance" + i));
+    }
+  }
+
+  @Test
+  public void testBuildFailure() throws RemoteApiException {
+    doThrow(RemoteApiException.class).when(instanceApiClient)
+        .listInstances(eq(SESSION_TOKEN), eq(CONFIGURATION_ID), anyInt(), anyInt());
+
+    index.build(entry);
+
+    assertNull(entry.getFilter());
+
+    String failures = MetricRegistry.name(BASE_METRIC_NAME, "webhook.instanceFilter", "failures");
+    assertEquals(1, metricsRegistry.meter(failures).getCount());
+  }
+
+  @Test
+  public void testSavedInstancesSurviveRebuild() {
+    index.build(entry);
+    entry.add("instance3");
+
+    assertTrue(entry.getFilter().mightContain("instance3"));
+
+    // Instance saved during a rebuild that doesn't return it yet
+    entry.add("instance4");
+    index.build(entry);
+
+    assertTrue(entry.getFilter().mightContain("instance3"));
+    assertTrue(entry.getFilter().mightContain("instance4"));
+  }
+
+  @Test
+  public void testUnknownInstanceWithoutFilter() {
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+  }
+
+  @Test
+  public void testUnknownInstance() throws InterruptedException {
+    // First call schedules the build
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+
+    for (int i = 0; i < 50 && !index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER,
+        UNKNOWN_INSTANCE); i++) {
+      Thread.sleep(100);
+    }
+
+    assertTrue(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, "instance1"));
+
+    IntegrationInstance instance = new IntegrationInstance();
+    instance.setConfigurationId(CONFIGURATION_ID);
+    instance.setInstanceId(UNKNOWN_INSTANCE);
+
+    index.onInstanceSaved(instance);
+
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+  }
+
+  @Test
+  public void testDisabled() {
+    ReflectionTestUtils.setField(index, "enabled", false);
+
+    index.rebuildAll();
+
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+    assertFalse(index.isUnknownInstance(CONFIGURATION_ID, INTEGRATION_USER, UNKNOWN_INSTANCE));
+  }
+
+  private IntegrationInstanceList page(String... instanceIds) {
+    IntegrationInstanceList list = new IntegrationInstanceList();
+
+    for (String instanceId : instanceIds) {
+      IntegrationInstance instance = new IntegrationInstance();
+      instance.setConfigurationId(CONFIGURATION_ID);
+      instance.setInstanceId(instanceId);
+      list.add(instance);
+    }
+
+    return list;
+  }
+
+}
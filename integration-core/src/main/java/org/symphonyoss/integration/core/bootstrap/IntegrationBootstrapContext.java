@@ -28,11 +28,13 @@ import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.Integration;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.core.NullIntegration;
+import org.symphonyoss.integration.core.event.IntegrationUpdatedEventData;
 import org.symphonyoss.integration.core.runnable.IntegrationAbstractRunnable;
 import org.symphonyoss.integration.exception.IntegrationRuntimeException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.exception.bootstrap.RetryLifecycleException;
 import org.symphonyoss.integration.healthcheck.application.ApplicationsHealthIndicator;
+import org.symphonyoss.integration.healthcheck.config.VirtualThreads;
 import org.symphonyoss.integration.logging.DistributedTracingUtils;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.metrics.IntegrationMetricsController;
@@ -69,6 +71,8 @@ public class IntegrationBootstrapContext implements IntegrationBootstrap {
 
   public static final String BOOTSTRAP_DELAY_KEY = "bootstrap.delay";
 
+  private static final String RETRIER_THREAD_NAME = "Retrier";
+
   @Autowired
   private ApplicationContext context;
 
@@ -117,11 +121,23 @@ public class IntegrationBootstrapContext implements IntegrationBootstrap {
   @Override
   public void startup() {
     DistributedTracingUtils.setMDC();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Retrier", false));
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(newRetrierThreadFactory());
 
     initIntegrations();
   }
 
+  /**
+   * Creates the thread factory used by the bootstrap scheduler. The bootstrap tasks block on remote
+   * calls, so they run on a virtual thread when the virtual thread mode is enabled.
+   */
+  private ThreadFactory newRetrierThreadFactory() {
+    if (VirtualThreads.isEnabled(environment)) {
+      return VirtualThreads.newThreadFactory(RETRIER_THREAD_NAME, false, true);
+    }
+
+    return new NamedThreadFactory(RETRIER_THREAD_NAME, false);
+  }
+
   /**
    * Initialize deployed integrations
    */
@@ -263,6 +279,7 @@ public class IntegrationBootstrapContext implements IntegrationBootstrap {
       this.integrations.put(settings.getConfigurationId(), integration);
 
       metricsController.addIntegrationTimer(integrationUser);
+      publisher.publishEvent(new IntegrationUpdatedEventData(integrationUser));
 
       LOGGER.info(logMessage.getMessage(INTEGRATION_SUCCESSFULLY_BOOTSTRAPPED, integrationUser));
 
@@ -331,6 +348,10 @@ public class IntegrationBootstrapContext implements IntegrationBootstrap {
 
     if (integration != null) {
       this.integrations.remove(id);
+
+      IntegrationSettings settings = integration.getSettings();
+      String configurationType = (settings != null) ? settings.getType() : null;
+      publisher.publishEvent(new IntegrationUpdatedEventData(configurationType));
     }
   }
 
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.bridge;
+
+import static org.symphonyoss.integration.healthcheck.services.indicators.AgentHealthIndicator
+    .AGENT_MESSAGEML_VERSION2;
+
+import com.github.zafarkhaja.semver.Version;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Features provided by the Agent that change how the messages are posted.
+ */
+public enum AgentCapability {
+
+  /**
+   * Agent supports MessageML v2 through the Message API v4.
+   */
+  MESSAGEML_V2(AGENT_MESSAGEML_VERSION2);
+
+  private final Version minVersion;
+
+  AgentCapability(Version minVersion) {
+    this.minVersion = minVersion;
+  }
+
+  /**
+   * Detects the capabilities provided by the Agent version.
+   * @param agentVersion Agent version or null if the version is unknown
+   * @return Capabilities supported by the Agent
+   */
+  public static Set<AgentCapability> fromVersion(Version agentVersion) {
+    Set<AgentCapability> capabilities = EnumSet.noneOf(AgentCapability.class);
+
+    if (agentVersion != null) {
+      for (AgentCapability capability : values()) {
+        if (agentVersion.greaterThanOrEqualTo(capability.minVersion)) {
+          capabilities.add(capability);
+        }
+      }
+    }
+
+    return capabilities;
+  }
+
+}
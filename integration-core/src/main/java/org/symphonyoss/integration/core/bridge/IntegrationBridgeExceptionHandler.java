@@ -152,7 +152,7 @@ public class IntegrationBridgeExceptionHandler extends ExceptionHandler {
    * object with code field reporting 403 as well.
    */
   private boolean isForbiddenError(Status status, String responseMessage) {
-    if (!forbiddenError(status.getStatusCode())) {
+    if (status == null || !forbiddenError(status.getStatusCode())) {
       return false;
     }
 
@@ -32,15 +32,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.Integration;
+import org.symphonyoss.integration.agent.api.client.PreparedMessage;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
 import org.symphonyoss.integration.core.bootstrap.IntegrationBootstrapContext;
+import org.symphonyoss.integration.core.coalescing.CoalescedMessageSender;
+import org.symphonyoss.integration.core.coalescing.MessageCoalescer;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.config.IntegrationInstance;
 import org.symphonyoss.integration.model.message.Message;
 import org.symphonyoss.integration.service.IntegrationBridge;
-import org.symphonyoss.integration.service.StreamService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -60,7 +64,7 @@ public class IntegrationBridgeImpl implements IntegrationBridge {
   private IntegrationBootstrapContext bootstrap;
 
   @Autowired
-  private StreamService streamService;
+  private PreparedMessageStreamService streamService;
 
   @Autowired
   private IntegrationBridgeExceptionHandler exceptionHandler;
@@ -68,8 +72,30 @@ public class IntegrationBridgeImpl implements IntegrationBridge {
   @Autowired
   private LogMessageSource logMessage;
 
+  @Autowired
+  private MessageCoalescer coalescer;
+
+  /**
+   * Posts the message to the streams configured for the instance. When message coalescing is
+   * enabled the message is buffered and delivered later, combined with the other messages
+   * received during the coalescing window. In this case, an empty list is returned.
+   */
   @Override
   public List<Message> sendMessage(IntegrationInstance instance, String integrationUser, Message message) throws RemoteApiException {
+    boolean buffered = coalescer.offer(instance, integrationUser, message,
+        new CoalescedMessageSender() {
+          @Override
+          public void send(IntegrationInstance instance, String integrationUser, Message message)
+              throws RemoteApiException {
+            List<String> streams = streamService.getStreams(instance);
+            sendMessage(instance, integrationUser, streams, message);
+          }
+        });
+
+    if (buffered) {
+      return new ArrayList<>();
+    }
+
     List<String> streams = streamService.getStreams(instance);
     return sendMessage(instance, integrationUser, streams, message);
   }
@@ -118,15 +144,27 @@ public class IntegrationBridgeImpl implements IntegrationBridge {
       throw new RemoteApiException(code, reason, solution);
     }
 
+    // Serialize the message only once when it must be posted to many streams
+    PreparedMessage preparedMessage = null;
+
+    if (streams.size() > 1) {
+      preparedMessage = streamService.prepareMessage(message);
+    }
+
     RemoteApiException remoteApiException = null;
     for (String stream : streams) {
+      // Cancels the remaining streams when the request deadline expires
+      Deadline.checkCurrent();
+
       try {
-        Message messageResponse = postMessage(integrationUser, stream, message);
+        Message messageResponse = postMessage(integrationUser, stream, message, preparedMessage);
         result.add(messageResponse);
+      } catch (DeadlineExceededException e) {
+        throw e;
       } catch (RemoteApiException e) {
         exceptionHandler.handleRemoteApiException(e, instance, integrationUser, stream);
 
-        if (remoteApiException == null || Response.Status.fromStatusCode(remoteApiException.getCode()).getFamily() != Response.Status.Family.SERVER_ERROR) {
+        if (remoteApiException == null || Response.Status.Family.familyOf(remoteApiException.getCode()) != Response.Status.Family.SERVER_ERROR) {
           remoteApiException = e;
         }
       } catch (ConnectivityException | ProcessingException e) {
@@ -162,12 +200,20 @@ public class IntegrationBridgeImpl implements IntegrationBridge {
    * @param integrationUser the user of integration
    * @param stream the stream identifier.
    * @param message the actual message. It's expected to be already on proper format.
+   * @param preparedMessage the message already serialized or null if it must be serialized
    * @return Response message
    * @throws RemoteApiException
    */
-  private Message postMessage(String integrationUser, String stream, Message message)
-      throws RemoteApiException {
-    Message messageResponse = streamService.postMessage(integrationUser, stream, message);
+  private Message postMessage(String integrationUser, String stream, Message message,
+      PreparedMessage preparedMessage) throws RemoteApiException {
+    Message messageResponse;
+
+    if (preparedMessage == null) {
+      messageResponse = streamService.postMessage(integrationUser, stream, message);
+    } else {
+      messageResponse = streamService.postMessage(integrationUser, stream, preparedMessage);
+    }
+
     LOGGER.info(logMessage.getMessage(USER_POSTED_MESSAGE,integrationUser, stream));
 
     return messageResponse;
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.bridge;
+
+import com.github.zafarkhaja.semver.Version;
+import org.symphonyoss.integration.agent.api.client.MessageApiClient;
+import org.symphonyoss.integration.model.message.MessageMLVersion;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the Agent Message API routing table.
+ *
+ * Holds the Message API client used for each MessageML version and the capabilities detected from
+ * the Agent version. A new snapshot is built whenever the Agent version changes and it's swapped
+ * atomically, so the threads posting messages never see a partially updated table.
+ */
+public class MessageApiRoutes {
+
+  private final Version agentVersion;
+
+  private final Set<AgentCapability> capabilities;
+
+  private final Map<MessageMLVersion, MessageApiClient> clients;
+
+  public MessageApiRoutes(Version agentVersion,
+      Map<MessageMLVersion, MessageApiClient> clients) {
+    this.agentVersion = agentVersion;
+
+    Set<AgentCapability> detected = AgentCapability.fromVersion(agentVersion);
+    this.capabilities = Collections.unmodifiableSet(
+        detected.isEmpty() ? EnumSet.noneOf(AgentCapability.class) : EnumSet.copyOf(detected));
+
+    Map<MessageMLVersion, MessageApiClient> routes = new EnumMap<>(MessageMLVersion.class);
+    routes.putAll(clients);
+
+    this.clients = Collections.unmodifiableMap(routes);
+  }
+
+  /**
+   * Agent version used to build this snapshot.
+   * @return Agent version or null if the version is unknown
+   */
+  public Version getAgentVersion() {
+    return agentVersion;
+  }
+
+  public Set<AgentCapability> getCapabilities() {
+    return capabilities;
+  }
+
+  public boolean hasCapability(AgentCapability capability) {
+    return capabilities.contains(capability);
+  }
+
+  /**
+   * Retrieves the Message API client for the MessageML version.
+   * @param version MessageML version
+   * @return Message API client or null if there is no route for the MessageML version
+   */
+  public MessageApiClient getClient(MessageMLVersion version) {
+    if (version == null) {
+      return null;
+    }
+
+    return clients.get(version);
+  }
+
+  /**
+   * Checks if this snapshot was built for the Agent version.
+   * @param version Agent version
+   * @return true if the Agent version is the same one used to build this snapshot
+   */
+  public boolean isAgentVersion(Version version) {
+    return agentVersion == null ? version == null : agentVersion.equals(version);
+  }
+
+}
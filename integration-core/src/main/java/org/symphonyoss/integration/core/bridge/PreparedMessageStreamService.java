@@ -0,0 +1,49 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.bridge;
+
+import org.symphonyoss.integration.agent.api.client.PreparedMessage;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.model.message.Message;
+import org.symphonyoss.integration.service.StreamService;
+
+/**
+ * Stream service able to serialize a message once and post it to many streams.
+ */
+public interface PreparedMessageStreamService extends StreamService {
+
+  /**
+   * Serializes the message once, so it can be posted to many streams without serializing it
+   * again for each one.
+   * @param message Message to be prepared
+   * @return Prepared message or null if the message can't be prepared. In this case, the caller
+   * should post the original message.
+   */
+  PreparedMessage prepareMessage(Message message);
+
+  /**
+   * Posts a message already prepared by {@link #prepareMessage(Message)}.
+   * @param integrationUser Integration user
+   * @param stream Stream identifier
+   * @param preparedMessage Prepared message
+   * @return Message posted
+   * @throws RemoteApiException Failure to post the message
+   */
+  Message postMessage(String integrationUser, String stream, PreparedMessage preparedMessage)
+      throws RemoteApiException;
+
+}
@@ -24,9 +24,10 @@ import static org.symphonyoss.integration.core.properties.StreamServiceImplPrope
     .ERROR_GET_STREAM_JSON;
 import static org.symphonyoss.integration.core.properties.StreamServiceImplProperties
     .ERROR_GET_STREAM_JSON_SOLUTION;
-import static org.symphonyoss.integration.healthcheck.services.indicators.AgentHealthIndicator
-    .AGENT_MESSAGEML_VERSION2;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.github.zafarkhaja.semver.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,11 +36,13 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.agent.api.client.AgentApiClient;
 import org.symphonyoss.integration.agent.api.client.MessageApiClient;
+import org.symphonyoss.integration.agent.api.client.PreparedMessage;
 import org.symphonyoss.integration.agent.api.client.V2MessageApiClient;
 import org.symphonyoss.integration.agent.api.client.V4MessageApiClient;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.AuthenticationToken;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.core.ratelimit.AgentRateLimiter;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.logging.LogMessageSource;
@@ -50,15 +53,16 @@ import org.symphonyoss.integration.model.stream.Stream;
 import org.symphonyoss.integration.model.stream.StreamType;
 import org.symphonyoss.integration.pod.api.client.PodHttpApiClient;
 import org.symphonyoss.integration.pod.api.client.StreamApiClient;
-import org.symphonyoss.integration.service.StreamService;
 import org.symphonyoss.integration.utils.WebHookConfigurationUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.PostConstruct;
 
@@ -67,10 +71,12 @@ import javax.annotation.PostConstruct;
  * Created by rsanchez on 13/05/16.
  */
 @Component
-public class StreamServiceImpl implements StreamService {
+public class StreamServiceImpl implements PreparedMessageStreamService {
 
   private static final Logger LOG = LoggerFactory.getLogger(StreamServiceImpl.class);
 
+  private static final String ROUTE_METRIC = "agent.messageApi.route";
+
   @Autowired
   private AuthenticationProxy authenticationProxy;
 
@@ -86,15 +92,32 @@ public class StreamServiceImpl implements StreamService {
   @Autowired
   private LogMessageSource logMessage;
 
+  @Autowired
+  private AgentRateLimiter rateLimiter;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
   /**
    * Pod Stream API Client
    */
   private StreamApiClient streamsApi;
 
   /**
-   * Select the correct Agent Message API Client according to the MessageML version
+   * Agent Message API v2 client
+   */
+  private MessageApiClient messageApiV2;
+
+  /**
+   * Agent Message API v4 client. Used when the Agent supports MessageML v2.
    */
-  private Map<MessageMLVersion, MessageApiClient> apiResolver = new HashMap<>();
+  private MessageApiClient messageApiV4;
+
+  /**
+   * Select the correct Agent Message API Client according to the MessageML version. The snapshot
+   * is replaced (never modified) when the Agent version changes.
+   */
+  private final AtomicReference<MessageApiRoutes> routes = new AtomicReference<>();
 
   /**
    * Initialize
@@ -103,12 +126,61 @@ public class StreamServiceImpl implements StreamService {
   public void init() {
     streamsApi = new StreamApiClient(podApiClient, logMessage);
 
-    MessageApiClient messageApiClient = new V2MessageApiClient(agentV2ApiClient, logMessage);
+    messageApiV2 = new V2MessageApiClient(agentV2ApiClient, logMessage);
+    messageApiV4 = new V4MessageApiClient(agentV4ApiClient, logMessage);
 
     // In the begin, we must configure the Agent Message API v2 for both versions of MessageML.
     // After that, this API version might get overridden by the event handler method.
-    apiResolver.put(MessageMLVersion.V1, messageApiClient);
-    apiResolver.put(MessageMLVersion.V2, messageApiClient);
+    routes.set(buildRoutes(null));
+
+    registerRouteGauges();
+  }
+
+  /**
+   * Registers one gauge per MessageML version showing the Agent Message API version in use.
+   */
+  private void registerRouteGauges() {
+    for (final MessageMLVersion version : MessageMLVersion.values()) {
+      String name = MetricRegistry.name(BASE_METRIC_NAME, ROUTE_METRIC, version.name());
+
+      if (!metricsRegistry.getGauges().containsKey(name)) {
+        metricsRegistry.register(name, new Gauge<String>() {
+          @Override
+          public String getValue() {
+            MessageApiClient client = routes.get().getClient(version);
+            return client == null ? null : client.getApiVersion();
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Builds the routing snapshot for the Agent version.
+   * @param agentVersion Agent version or null if the version is unknown
+   * @return Routing snapshot
+   */
+  private MessageApiRoutes buildRoutes(Version agentVersion) {
+    Map<MessageMLVersion, MessageApiClient> clients = new EnumMap<>(MessageMLVersion.class);
+    clients.put(MessageMLVersion.V1, messageApiV2);
+
+    Set<AgentCapability> capabilities = AgentCapability.fromVersion(agentVersion);
+
+    if (capabilities.contains(AgentCapability.MESSAGEML_V2)) {
+      clients.put(MessageMLVersion.V2, messageApiV4);
+    } else {
+      clients.put(MessageMLVersion.V2, messageApiV2);
+    }
+
+    return new MessageApiRoutes(agentVersion, clients);
+  }
+
+  /**
+   * Retrieves the current Agent Message API routing snapshot.
+   * @return Routing snapshot
+   */
+  public MessageApiRoutes getMessageApiRoutes() {
+    return routes.get();
   }
 
   @Override
@@ -141,15 +213,71 @@ public class StreamServiceImpl implements StreamService {
   @Override
   public Message postMessage(String integrationUser, String stream, Message messageSubmission)
       throws RemoteApiException {
+    return postMessage(integrationUser, stream, messageSubmission, null);
+  }
+
+  @Override
+  public PreparedMessage prepareMessage(Message message) {
+    MessageApiRoutes current = routes.get();
+
+    if (current == null) {
+      return null;
+    }
+
+    MessageApiClient messageApi = current.getClient(message.getVersion());
+
+    if (messageApi == null) {
+      return null;
+    }
+
+    try {
+      return messageApi.prepareMessage(message);
+    } catch (RemoteApiException e) {
+      LOG.warn("Fail to prepare the message, it will be serialized for each stream", e);
+      return null;
+    }
+  }
+
+  @Override
+  public Message postMessage(String integrationUser, String stream,
+      PreparedMessage preparedMessage) throws RemoteApiException {
+    return postMessage(integrationUser, stream, preparedMessage.getMessage(), preparedMessage);
+  }
+
+  private Message postMessage(String integrationUser, String stream, Message messageSubmission,
+      PreparedMessage preparedMessage) throws RemoteApiException {
     AuthenticationToken authToken = authenticationProxy.getToken(integrationUser);
 
     String sessionToken = authToken.getSessionToken();
     String keyManagerToken = authToken.getKeyManagerToken();
 
-    MessageApiClient messageApi = apiResolver.get(messageSubmission.getVersion());
+    MessageApiClient messageApi = routes.get().getClient(messageSubmission.getVersion());
+
+    // Wait for the outbound rate limiter (or shed the call if the integration user is throttled)
+    rateLimiter.acquire(integrationUser);
+
+    long startTime = System.nanoTime();
 
-    // Post Message using Message API
-    return messageApi.postMessage(sessionToken, keyManagerToken, stream, messageSubmission);
+    try {
+      // Post Message using Message API
+      Message result;
+
+      if (preparedMessage == null) {
+        result = messageApi.postMessage(sessionToken, keyManagerToken, stream, messageSubmission);
+      } else {
+        result = messageApi.postMessage(sessionToken, keyManagerToken, stream, preparedMessage);
+      }
+
+      rateLimiter.onSuccess(integrationUser, System.nanoTime() - startTime);
+
+      return result;
+    } catch (RemoteApiException e) {
+      rateLimiter.onFailure(integrationUser, e.getCode());
+      throw e;
+    } catch (RuntimeException e) {
+      rateLimiter.onError(integrationUser, e);
+      throw e;
+    }
   }
 
   @Override
@@ -163,8 +291,10 @@ public class StreamServiceImpl implements StreamService {
 
   /**
    * Handle service version updated event to switch the Agent Message API version. If the Agent
-   * version is greater than or equal to '1.46.0' this service should use the API v3, otherwise it
+   * version is greater than or equal to '1.46.0' this service should use the API v4, otherwise it
    * should use the API v2.
+   *
+   * The routing snapshot is only rebuilt when the Agent version changes.
    * @param event Service version updated event
    */
   @EventListener
@@ -175,12 +305,17 @@ public class StreamServiceImpl implements StreamService {
       // Get the current version
       Version version = Version.valueOf(event.getNewVersion());
 
-      if (version.greaterThanOrEqualTo(AGENT_MESSAGEML_VERSION2)) {
-        apiResolver.put(MessageMLVersion.V2, new V4MessageApiClient(agentV4ApiClient, logMessage));
-      } else {
-        MessageApiClient messageApiClient = apiResolver.get(MessageMLVersion.V1);
-        apiResolver.put(MessageMLVersion.V2, messageApiClient);
+      MessageApiRoutes current = routes.get();
+
+      if (current != null && current.isAgentVersion(version)) {
+        return;
       }
+
+      MessageApiRoutes updated = buildRoutes(version);
+      routes.set(updated);
+
+      LOG.info("Agent Message API routes updated. Agent version: {}, capabilities: {}", version,
+          updated.getCapabilities());
     }
   }
 
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.coalescing;
+
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.model.message.Message;
+
+/**
+ * Delivers the messages released by the {@link MessageCoalescer} to the instance streams.
+ */
+public interface CoalescedMessageSender {
+
+  /**
+   * Posts the message to the streams configured for the instance.
+   * @param instance Integration instance
+   * @param integrationUser Integration user
+   * @param message Message to be posted
+   * @throws RemoteApiException Failure to post the message
+   */
+  void send(IntegrationInstance instance, String integrationUser, Message message)
+      throws RemoteApiException;
+
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.coalescing;
+
+import static org.symphonyoss.integration.core.properties.MessageCoalescerProperties.DELIVERY_FAILED;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.core.bootstrap.NamedThreadFactory;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.model.message.Message;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Buffers the messages posted to an integration instance during a short window and delivers
+ * them as a single message when the window closes.
+ *
+ * Bursty webhook sources may post dozens of events in a few seconds, each one becoming a message
+ * on every stream of the instance. When coalescing is enabled, the first event opens a window for
+ * the instance. Further events received within the window are buffered and the window closes when
+ * it expires or when the max number of events is reached, whichever comes first. The buffered
+ * messages are then combined by the {@link MessageCombiner} and posted once per stream. If they
+ * can't be combined, or the combined message fails to be posted, they are posted one by one.
+ *
+ * The window and the max number of events can be overridden per integration user, and the window
+ * can also be overridden per instance. A window equal to zero disables coalescing.
+ */
+@Component
+public class MessageCoalescer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MessageCoalescer.class);
+
+  private static final String PREFIX = "integration_bridge.message-coalescing.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String WINDOW_KEY = PREFIX + "window";
+
+  public static final String MAX_EVENTS_KEY = PREFIX + "max-events";
+
+  public static final String THREADS_KEY = PREFIX + "threads";
+
+  private static final String INSTANCES = "instances";
+
+  private static final String THREAD_NAME = "message-coalescer";
+
+  private static final long DEFAULT_WINDOW = 2000;
+
+  private static final int DEFAULT_MAX_EVENTS = 20;
+
+  private static final int DEFAULT_THREADS = 2;
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private LogMessageSource logMessage;
+
+  private final MessageCombiner combiner = new MessageCombiner();
+
+  /**
+   * Open batches, keyed by instance and MessageML version
+   */
+  private final Map<String, Batch> batches = new HashMap<>();
+
+  private boolean enabled;
+
+  private long windowMillis;
+
+  private int maxEvents;
+
+  private ScheduledThreadPoolExecutor executor;
+
+  /**
+   * Reads the coalescing settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, Boolean.FALSE);
+    this.windowMillis = environment.getProperty(WINDOW_KEY, Long.class, DEFAULT_WINDOW);
+    this.maxEvents = environment.getProperty(MAX_EVENTS_KEY, Integer.class, DEFAULT_MAX_EVENTS);
+
+    int threads = environment.getProperty(THREADS_KEY, Integer.class, DEFAULT_THREADS);
+
+    if (enabled) {
+      this.executor =
+          new ScheduledThreadPoolExecutor(threads, new NamedThreadFactory(THREAD_NAME, true));
+      this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    LOG.info("Message coalescing enabled: {}, window: {}ms, max events: {}", enabled,
+        windowMillis, maxEvents);
+  }
+
+  /**
+   * Delivers the pending batches and stops the executor.
+   */
+  @PreDestroy
+  public void destroy() {
+    if (executor == null) {
+      return;
+    }
+
+    List<Batch> pending;
+
+    synchronized (batches) {
+      pending = new ArrayList<>(batches.values());
+      batches.clear();
+    }
+
+    for (Batch batch : pending) {
+      batch.cancel();
+      deliver(batch);
+    }
+
+    executor.shutdown();
+  }
+
+  /**
+   * Offers a message to be coalesced.
+   * @param instance Integration instance
+   * @param integrationUser Integration user
+   * @param message Message to be posted
+   * @param sender Callback used to post the message when the window closes
+   * @return true if the message was buffered or false if it must be posted by the caller
+   */
+  public boolean offer(IntegrationInstance instance, String integrationUser, Message message,
+      CoalescedMessageSender sender) {
+    if (!enabled) {
+      return false;
+    }
+
+    long window = getWindow(instance.getInstanceId(), integrationUser);
+    int limit = getMaxEvents(integrationUser);
+
+    if (window <= 0 || limit <= 1) {
+      return false;
+    }
+
+    String key = instance.getInstanceId() + ":" + message.getVersion();
+    Batch full = null;
+
+    synchronized (batches) {
+      Batch batch = batches.get(key);
+
+      if (batch == null) {
+        batch = new Batch(key, instance, integrationUser, sender);
+        batches.put(key, batch);
+        batch.schedule(window);
+      }
+
+      batch.messages.add(message);
+
+      if (batch.messages.size() >= limit) {
+        batches.remove(key);
+        full = batch;
+      }
+    }
+
+    if (full != null) {
+      full.cancel();
+      executor.execute(new FlushTask(full));
+    }
+
+    return true;
+  }
+
+  /**
+   * Retrieves the coalescing window. The instance override takes precedence over the integration
+   * override, which takes precedence over the default window.
+   * @param instanceId Instance identifier
+   * @param integrationUser Integration user
+   * @return Window (milliseconds)
+   */
+  public long getWindow(String instanceId, String integrationUser) {
+    Long instanceWindow =
+        environment.getProperty(PREFIX + INSTANCES + "." + instanceId + ".window", Long.class);
+
+    if (instanceWindow != null) {
+      return instanceWindow;
+    }
+
+    return environment.getProperty(PREFIX + integrationUser + ".window", Long.class,
+        windowMillis);
+  }
+
+  /**
+   * Retrieves the max number of events buffered for the integration.
+   * @param integrationUser Integration user
+   * @return Max number of events per window
+   */
+  public int getMaxEvents(String integrationUser) {
+    return environment.getProperty(PREFIX + integrationUser + ".max-events", Integer.class,
+        maxEvents);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Closes the window, if it's still open, and delivers the buffered messages.
+   * @param batch Batch to be delivered
+   */
+  private void flush(Batch batch) {
+    synchronized (batches) {
+      if (batches.get(batch.key) == batch) {
+        batches.remove(batch.key);
+      }
+    }
+
+    deliver(batch);
+  }
+
+  private void deliver(Batch batch) {
+    List<Message> messages;
+
+    synchronized (batches) {
+      if (batch.delivered) {
+        return;
+      }
+
+      batch.delivered = true;
+      messages = batch.messages;
+    }
+
+    Message combined = combiner.combine(messages);
+
+    if (combined != null && send(batch, combined, messages.size())) {
+      return;
+    }
+
+    // The messages can't be combined or the combined message was rejected (i.e. size limit)
+    for (Message message : messages) {
+      send(batch, message, 1);
+    }
+  }
+
+  /**
+   * Posts the message.
+   * @param batch Batch being delivered
+   * @param message Message to be posted
+   * @param count Number of events in the message
+   * @return true if the message was posted or false otherwise
+   */
+  private boolean send(Batch batch, Message message, int count) {
+    try {
+      batch.sender.send(batch.instance, batch.integrationUser, message);
+      return true;
+    } catch (Exception e) {
+      LOG.warn(logMessage.getMessage(DELIVERY_FAILED, String.valueOf(count),
+          batch.instance.getInstanceId(), batch.integrationUser), e);
+      return false;
+    }
+  }
+
+  /**
+   * Messages buffered for an instance during a window.
+   */
+  private class Batch {
+
+    private final String key;
+
+    private final IntegrationInstance instance;
+
+    private final String integrationUser;
+
+    private final CoalescedMessageSender sender;
+
+    private final List<Message> messages = new ArrayList<>();
+
+    private ScheduledFuture<?> timer;
+
+    private boolean delivered;
+
+    Batch(String key, IntegrationInstance instance, String integrationUser,
+        CoalescedMessageSender sender) {
+      this.key = key;
+      this.instance = instance;
+      this.integrationUser = integrationUser;
+      this.sender = sender;
+    }
+
+    void schedule(long window) {
+      this.timer = executor.schedule(new FlushTask(this), window, TimeUnit.MILLISECONDS);
+    }
+
+    void cancel() {
+      if (timer != null) {
+        timer.cancel(false);
+      }
+    }
+
+  }
+
+  /**
+   * Task that delivers a batch.
+   */
+  private class FlushTask implements Runnable {
+
+    private final Batch batch;
+
+    FlushTask(Batch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    public void run() {
+      flush(batch);
+    }
+
+  }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.coalescing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.symphonyoss.integration.model.message.Message;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Combines the messages buffered by the {@link MessageCoalescer} into one message.
+ *
+ * The MessageML bodies are concatenated inside a single messageML root, separated by line breaks.
+ * Messages whose root has attributes aren't combined.
+ * The EntityJSON objects are merged into one object. When two messages use the same entity key,
+ * the key of the later message is renamed and the references to it in its body (data-entity-id
+ * attributes and entity expressions) are rewritten.
+ */
+public class MessageCombiner {
+
+  private static final String MESSAGEML_START = "<messageML>";
+
+  private static final String MESSAGEML_ROOT = "<messageML";
+
+  private static final String MESSAGEML_END = "</messageML>";
+
+  private static final String SEPARATOR = "<br/>";
+
+  private static final String KEY_SUFFIX = "_";
+
+  private static final Pattern ROOT_PATTERN =
+      Pattern.compile("^<messageML(\\s[^>]*)?>(.*)</messageML>$", Pattern.DOTALL);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Combines the messages. All the messages must have the same MessageML version.
+   * @param messages Messages to be combined
+   * @return Combined message or null if the messages can't be combined
+   */
+  public Message combine(List<Message> messages) {
+    if (messages.size() == 1) {
+      return messages.get(0);
+    }
+
+    StringBuilder body = new StringBuilder(MESSAGEML_START);
+    ObjectNode data = null;
+
+    for (int i = 0; i < messages.size(); i++) {
+      Message message = messages.get(i);
+      String content = stripRoot(StringUtils.defaultString(message.getMessage()));
+
+      if (content == null) {
+        return null;
+      }
+
+      if (StringUtils.isNotBlank(message.getData())) {
+        ObjectNode entities = parseEntities(message.getData());
+
+        if (entities == null) {
+          return null;
+        }
+
+        if (data == null) {
+          data = mapper.createObjectNode();
+        }
+
+        content = mergeEntities(data, entities, content, i);
+      }
+
+      if (i > 0) {
+        body.append(SEPARATOR);
+      }
+
+      body.append(content);
+    }
+
+    body.append(MESSAGEML_END);
+
+    Message first = messages.get(0);
+
+    Message combined = new Message();
+    combined.setFormat(first.getFormat());
+    combined.setVersion(first.getVersion());
+    combined.setMessage(body.toString());
+
+    if (data != null) {
+      combined.setData(data.toString());
+    }
+
+    return combined;
+  }
+
+  /**
+   * Removes the messageML root of the message body.
+   * @param message Message body
+   * @return Body without the root or null if the root has attributes, which would be lost
+   */
+  private String stripRoot(String message) {
+    String content = message.trim();
+
+    if (!content.startsWith(MESSAGEML_ROOT)) {
+      return content;
+    }
+
+    Matcher matcher = ROOT_PATTERN.matcher(content);
+
+    if (!matcher.matches() || StringUtils.isNotBlank(matcher.group(1))) {
+      return null;
+    }
+
+    return matcher.group(2);
+  }
+
+  private ObjectNode parseEntities(String json) {
+    try {
+      JsonNode node = mapper.readTree(json);
+      return node.isObject() ? (ObjectNode) node : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Adds the entities to the combined data, renaming the keys already in use.
+   * @param data Combined data
+   * @param entities Entities of the message
+   * @param content Message body
+   * @param index Message index
+   * @return Message body referencing the renamed keys
+   */
+  private String mergeEntities(ObjectNode data, ObjectNode entities, String content, int index) {
+    String result = content;
+    Iterator<Map.Entry<String, JsonNode>> fields = entities.fields();
+
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      String key = field.getKey();
+
+      if (data.has(key)) {
+        String newKey = key + KEY_SUFFIX + index;
+
+        while (data.has(newKey) || entities.has(newKey)) {
+          newKey = newKey + KEY_SUFFIX;
+        }
+
+        result = renameReferences(result, key, newKey);
+        key = newKey;
+      }
+
+      data.set(key, field.getValue());
+    }
+
+    return result;
+  }
+
+  private String renameReferences(String content, String key, String newKey) {
+    String quotedKey = Pattern.quote(key);
+    String replacement = Matcher.quoteReplacement(newKey);
+
+    String result = content.replaceAll("(data-entity-id\\s*=\\s*[\"'])" + quotedKey + "([\"'])",
+        "$1" + replacement + "$2");
+    result = result.replaceAll("(entity\\[\\s*[\"'])" + quotedKey + "([\"']\\s*\\])",
+        "$1" + replacement + "$2");
+    result = result.replaceAll("(entity\\.)" + quotedKey + "(?![\\w$])", "$1" + replacement);
+
+    return result;
+  }
+
+}
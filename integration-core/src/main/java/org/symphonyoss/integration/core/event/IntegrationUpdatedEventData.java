@@ -0,0 +1,38 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.event;
+
+/**
+ * Integration updated event object.
+ *
+ * This event is published when an integration finishes its bootstrap process or when it's removed
+ * from the Integration Bridge, so the components that cache integration settings can rebuild
+ * their state.
+ */
+public class IntegrationUpdatedEventData {
+
+  private String configurationType;
+
+  public IntegrationUpdatedEventData(String configurationType) {
+    this.configurationType = configurationType;
+  }
+
+  public String getConfigurationType() {
+    return configurationType;
+  }
+
+}
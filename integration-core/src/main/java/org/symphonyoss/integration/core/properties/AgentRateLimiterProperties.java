@@ -0,0 +1,11 @@
+package org.symphonyoss.integration.core.properties;
+
+import org.symphonyoss.integration.core.ratelimit.AgentRateLimiter;
+
+/**
+ * Exception message keys used by the component {@link AgentRateLimiter}
+ */
+public class AgentRateLimiterProperties {
+  public static final String RATE_LIMIT_EXCEEDED = "core.agent.rate.limiter.exceeded";
+  public static final String RATE_LIMIT_EXCEEDED_SOLUTION = "core.agent.rate.limiter.exceeded.solution";
+}
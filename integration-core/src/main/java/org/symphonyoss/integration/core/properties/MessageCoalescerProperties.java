@@ -0,0 +1,10 @@
+package org.symphonyoss.integration.core.properties;
+
+import org.symphonyoss.integration.core.coalescing.MessageCoalescer;
+
+/**
+ * Exception message keys used by the component {@link MessageCoalescer}
+ */
+public class MessageCoalescerProperties {
+  public static final String DELIVERY_FAILED = "core.message.coalescer.delivery.failed";
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket whose refill rate is adjusted using AIMD (additive increase, multiplicative
+ * decrease).
+ *
+ * Every successful call below the latency target increases the rate by a fraction of the
+ * configured additive step, so the rate grows roughly one step per second at full speed. Throttling
+ * signals (HTTP 429 or latency above the target) cut the rate by the decrease factor, at most once
+ * per decrease interval, to avoid collapsing the rate when several in-flight calls fail together.
+ *
+ * Callers reserve permits in advance, so the bucket may go into debt. The returned wait time
+ * tells the caller how long it should sleep before performing the call.
+ */
+public class AdaptiveTokenBucket {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final RateLimitSettings settings;
+
+  private double rate;
+
+  private double tokens;
+
+  private long lastRefillNanos;
+
+  private long lastDecreaseNanos;
+
+  private boolean decreased;
+
+  public AdaptiveTokenBucket(RateLimitSettings settings, long nowNanos) {
+    this.settings = settings;
+    this.rate = settings.getInitialRate();
+    this.tokens = capacity();
+    this.lastRefillNanos = nowNanos;
+  }
+
+  /**
+   * Reserves one permit.
+   * @param nowNanos Current time (nanoseconds)
+   * @param maxWaitNanos Max time the caller accepts to wait for the permit (nanoseconds)
+   * @return Time the caller must wait before using the permit (nanoseconds) or -1 if the permit
+   * can't be granted within the max wait time.
+   */
+  public synchronized long reserve(long nowNanos, long maxWaitNanos) {
+    refill(nowNanos);
+
+    if (tokens >= 1) {
+      tokens -= 1;
+      return 0;
+    }
+
+    long waitNanos = (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / rate);
+
+    if (waitNanos > maxWaitNanos) {
+      return -1;
+    }
+
+    tokens -= 1;
+    return waitNanos;
+  }
+
+  /**
+   * Reports a successful call. The rate grows if the latency is below the target, otherwise it's
+   * handled as a congestion signal.
+   * @param nowNanos Current time (nanoseconds)
+   * @param latencyNanos Call latency (nanoseconds)
+   */
+  public synchronized void onSuccess(long nowNanos, long latencyNanos) {
+    if (latencyNanos > settings.getLatencyTargetNanos()) {
+      decrease(nowNanos);
+    } else {
+      refill(nowNanos);
+      rate = Math.min(settings.getMaxRate(), rate + settings.getAdditiveIncrease() / rate);
+    }
+  }
+
+  /**
+   * Reports the remote service throttled the call.
+   * @param nowNanos Current time (nanoseconds)
+   */
+  public synchronized void onThrottled(long nowNanos) {
+    decrease(nowNanos);
+  }
+
+  /**
+   * Returns a permit reserved by a call that didn't reach the remote service.
+   * @param nowNanos Current time (nanoseconds)
+   */
+  public synchronized void release(long nowNanos) {
+    refill(nowNanos);
+    tokens = Math.min(capacity(), tokens + 1);
+  }
+
+  /**
+   * Retrieves the current rate.
+   * @return Permits per second
+   */
+  public synchronized double getRate() {
+    return rate;
+  }
+
+  private void decrease(long nowNanos) {
+    if (decreased && nowNanos - lastDecreaseNanos < settings.getDecreaseIntervalNanos()) {
+      return;
+    }
+
+    refill(nowNanos);
+
+    rate = Math.max(settings.getMinRate(), rate * settings.getDecreaseFactor());
+    tokens = Math.min(tokens, capacity());
+
+    lastDecreaseNanos = nowNanos;
+    decreased = true;
+  }
+
+  private void refill(long nowNanos) {
+    long elapsed = nowNanos - lastRefillNanos;
+
+    if (elapsed > 0) {
+      tokens = Math.min(capacity(), tokens + elapsed * rate / NANOS_PER_SECOND);
+      lastRefillNanos = nowNanos;
+    }
+  }
+
+  private double capacity() {
+    return Math.max(1, rate * settings.getBurstSeconds());
+  }
+
+}
@@ -0,0 +1,331 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.ratelimit;
+
+import static org.symphonyoss.integration.core.properties.AgentRateLimiterProperties
+    .RATE_LIMIT_EXCEEDED;
+import static org.symphonyoss.integration.core.properties.AgentRateLimiterProperties
+    .RATE_LIMIT_EXCEEDED_SOLUTION;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Outbound rate limiter for the Agent Message API.
+ *
+ * The Agent throttles each bot user individually, so this component keeps one
+ * {@link AdaptiveTokenBucket} per integration user. The rate of each bucket adapts to the 429
+ * responses and latencies observed on the Agent calls. Callers wait for a permit up to the
+ * configured deadline, otherwise the call is shed with HTTP 429 (Too Many Requests).
+ */
+@Component
+public class AgentRateLimiter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AgentRateLimiter.class);
+
+  public static final int TOO_MANY_REQUESTS = 429;
+
+  public static final int SERVICE_UNAVAILABLE = 503;
+
+  private static final String PREFIX = "integration_bridge.agent-rate-limit.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String INITIAL_RATE_KEY = PREFIX + "initial-rate";
+
+  public static final String MIN_RATE_KEY = PREFIX + "min-rate";
+
+  public static final String MAX_RATE_KEY = PREFIX + "max-rate";
+
+  public static final String ADDITIVE_INCREASE_KEY = PREFIX + "additive-increase";
+
+  public static final String DECREASE_FACTOR_KEY = PREFIX + "decrease-factor";
+
+  public static final String DECREASE_INTERVAL_KEY = PREFIX + "decrease-interval";
+
+  public static final String LATENCY_TARGET_KEY = PREFIX + "latency-target";
+
+  public static final String BURST_SECONDS_KEY = PREFIX + "burst-seconds";
+
+  public static final String MAX_WAIT_KEY = PREFIX + "max-wait";
+
+  private static final String METRIC_PREFIX = "agent.rateLimiter";
+
+  private static final String RATE = "rate";
+
+  private static final String WAIT_TIME = "waitTime";
+
+  private static final String REJECTED = "rejected";
+
+  private static final String THROTTLED = "throttled";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  @Autowired
+  private LogMessageSource logMessage;
+
+  private RateLimitSettings settings = new RateLimitSettings();
+
+  /**
+   * Rate limiter state for each integration user
+   */
+  private final ConcurrentMap<String, UserRateLimit> limits = new ConcurrentHashMap<>();
+
+  /**
+   * Reads the rate limiter settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    RateLimitSettings defaults = new RateLimitSettings();
+
+    settings.setEnabled(environment.getProperty(ENABLED_KEY, Boolean.class, defaults.isEnabled()));
+    settings.setInitialRate(
+        environment.getProperty(INITIAL_RATE_KEY, Double.class, defaults.getInitialRate()));
+    settings.setMinRate(environment.getProperty(MIN_RATE_KEY, Double.class, defaults.getMinRate()));
+    settings.setMaxRate(environment.getProperty(MAX_RATE_KEY, Double.class, defaults.getMaxRate()));
+    settings.setAdditiveIncrease(environment.getProperty(ADDITIVE_INCREASE_KEY, Double.class,
+        defaults.getAdditiveIncrease()));
+    settings.setDecreaseFactor(environment.getProperty(DECREASE_FACTOR_KEY, Double.class,
+        defaults.getDecreaseFactor()));
+    settings.setDecreaseIntervalMillis(environment.getProperty(DECREASE_INTERVAL_KEY, Long.class,
+        defaults.getDecreaseIntervalMillis()));
+    settings.setLatencyTargetMillis(environment.getProperty(LATENCY_TARGET_KEY, Long.class,
+        defaults.getLatencyTargetMillis()));
+    settings.setBurstSeconds(
+        environment.getProperty(BURST_SECONDS_KEY, Double.class, defaults.getBurstSeconds()));
+    settings.setMaxWaitMillis(
+        environment.getProperty(MAX_WAIT_KEY, Long.class, defaults.getMaxWaitMillis()));
+
+    LOG.info("Agent rate limiter enabled: {}, initial rate: {}/s, max wait: {}ms",
+        settings.isEnabled(), settings.getInitialRate(), settings.getMaxWaitMillis());
+  }
+
+  /**
+   * Acquires a permit to post a message on behalf of the integration user. This method blocks
+   * the caller until the permit is available. The wait is also bounded by the caller deadline.
+   * @param integrationUser Integration user
+   * @throws RemoteApiException HTTP 429 if the permit can't be granted within the max wait time
+   */
+  public void acquire(String integrationUser) throws RemoteApiException {
+    if (!settings.isEnabled()) {
+      return;
+    }
+
+    UserRateLimit limit = getLimit(integrationUser);
+    long waitNanos = limit.bucket.reserve(System.nanoTime(), getMaxWaitNanos());
+
+    if (waitNanos < 0) {
+      limit.rejected.mark();
+      throw rateLimitExceeded(integrationUser, limit);
+    }
+
+    limit.waitTime.update(waitNanos, TimeUnit.NANOSECONDS);
+
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        limit.rejected.mark();
+        throw rateLimitExceeded(integrationUser, limit);
+      }
+    }
+  }
+
+  /**
+   * Reports a successful call to the Agent.
+   * @param integrationUser Integration user
+   * @param latencyNanos Call latency (nanoseconds)
+   */
+  public void onSuccess(String integrationUser, long latencyNanos) {
+    if (settings.isEnabled()) {
+      getLimit(integrationUser).bucket.onSuccess(System.nanoTime(), latencyNanos);
+    }
+  }
+
+  /**
+   * Reports a failed call to the Agent. HTTP 429 (Too Many Requests) and HTTP 503 (Service
+   * Unavailable) are handled as throttling signals.
+   * @param integrationUser Integration user
+   * @param code HTTP response code
+   */
+  public void onFailure(String integrationUser, int code) {
+    if (settings.isEnabled() && isThrottled(code)) {
+      UserRateLimit limit = getLimit(integrationUser);
+      limit.throttled.mark();
+      limit.bucket.onThrottled(System.nanoTime());
+    }
+  }
+
+  /**
+   * Reports a call to the Agent that failed without an HTTP response (i.e. connection failures
+   * or timeouts). The permit is given back to the bucket, and timeouts are handled as throttling
+   * signals like the slow calls.
+   * @param integrationUser Integration user
+   * @param cause Failure cause
+   */
+  public void onError(String integrationUser, Throwable cause) {
+    if (!settings.isEnabled()) {
+      return;
+    }
+
+    UserRateLimit limit = getLimit(integrationUser);
+    long nowNanos = System.nanoTime();
+
+    if (isTimeout(cause)) {
+      limit.throttled.mark();
+      limit.bucket.onThrottled(nowNanos);
+    } else {
+      limit.bucket.release(nowNanos);
+    }
+  }
+
+  /**
+   * Retrieves the current rate for the integration user.
+   * @param integrationUser Integration user
+   * @return Permits per second
+   */
+  public double getCurrentRate(String integrationUser) {
+    return getLimit(integrationUser).bucket.getRate();
+  }
+
+  public RateLimitSettings getSettings() {
+    return settings;
+  }
+
+  private long getMaxWaitNanos() {
+    Deadline deadline = Deadline.current();
+
+    if (deadline == null) {
+      return settings.getMaxWaitNanos();
+    }
+
+    return Math.min(settings.getMaxWaitNanos(), deadline.remaining(TimeUnit.NANOSECONDS));
+  }
+
+  private boolean isThrottled(int code) {
+    return code == TOO_MANY_REQUESTS || code == SERVICE_UNAVAILABLE;
+  }
+
+  private boolean isTimeout(Throwable cause) {
+    for (Throwable current = cause; current != null; current = current.getCause()) {
+      if (current instanceof SocketTimeoutException || current instanceof TimeoutException) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private RemoteApiException rateLimitExceeded(String integrationUser, UserRateLimit limit) {
+    String rate = String.format("%.2f", limit.bucket.getRate());
+    String message = logMessage.getMessage(RATE_LIMIT_EXCEEDED, integrationUser, rate);
+    String solution = logMessage.getMessage(RATE_LIMIT_EXCEEDED_SOLUTION);
+
+    return new RemoteApiException(TOO_MANY_REQUESTS, message, solution);
+  }
+
+  /**
+   * Retrieves the rate limiter state for the integration user. The state and its metrics are
+   * created on the first call.
+   * @param integrationUser Integration user
+   * @return Rate limiter state
+   */
+  private UserRateLimit getLimit(String integrationUser) {
+    UserRateLimit limit = limits.get(integrationUser);
+
+    if (limit != null) {
+      return limit;
+    }
+
+    UserRateLimit newLimit = new UserRateLimit(integrationUser);
+    limit = limits.putIfAbsent(integrationUser, newLimit);
+
+    if (limit == null) {
+      newLimit.registerRateGauge();
+      return newLimit;
+    }
+
+    return limit;
+  }
+
+  /**
+   * Holds the token bucket and the metrics for an integration user.
+   */
+  private class UserRateLimit {
+
+    private final String integrationUser;
+
+    private final AdaptiveTokenBucket bucket;
+
+    private final Timer waitTime;
+
+    private final Meter rejected;
+
+    private final Meter throttled;
+
+    UserRateLimit(String integrationUser) {
+      this.integrationUser = integrationUser;
+      this.bucket = new AdaptiveTokenBucket(settings, System.nanoTime());
+      this.waitTime = metricsRegistry.timer(metricName(WAIT_TIME));
+      this.rejected = metricsRegistry.meter(metricName(REJECTED));
+      this.throttled = metricsRegistry.meter(metricName(THROTTLED));
+    }
+
+    void registerRateGauge() {
+      String name = metricName(RATE);
+
+      if (!metricsRegistry.getGauges().containsKey(name)) {
+        metricsRegistry.register(name, new Gauge<Double>() {
+          @Override
+          public Double getValue() {
+            return bucket.getRate();
+          }
+        });
+      }
+    }
+
+    private String metricName(String metric) {
+      return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, integrationUser, metric);
+    }
+
+  }
+
+}
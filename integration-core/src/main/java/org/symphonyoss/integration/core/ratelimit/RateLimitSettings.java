@@ -0,0 +1,165 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings used by the {@link AdaptiveTokenBucket}.
+ */
+public class RateLimitSettings {
+
+  private boolean enabled = false;
+
+  /**
+   * Rate used when the bucket is created (permits per second)
+   */
+  private double initialRate = 20;
+
+  /**
+   * Lowest rate the bucket can reach (permits per second)
+   */
+  private double minRate = 1;
+
+  /**
+   * Highest rate the bucket can reach (permits per second)
+   */
+  private double maxRate = 100;
+
+  /**
+   * Rate increment per second while there are no throttling signals
+   */
+  private double additiveIncrease = 1;
+
+  /**
+   * Factor applied to the rate when a throttling signal is observed
+   */
+  private double decreaseFactor = 0.5;
+
+  /**
+   * Minimum interval between two consecutive rate decreases (milliseconds)
+   */
+  private long decreaseIntervalMillis = 1000;
+
+  /**
+   * Latencies above this value are handled as throttling signals (milliseconds)
+   */
+  private long latencyTargetMillis = 2000;
+
+  /**
+   * Number of seconds of permits the bucket can accumulate
+   */
+  private double burstSeconds = 1;
+
+  /**
+   * Max time the caller waits for a permit before the call is shed (milliseconds)
+   */
+  private long maxWaitMillis = 2000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getInitialRate() {
+    return initialRate;
+  }
+
+  public void setInitialRate(double initialRate) {
+    this.initialRate = initialRate;
+  }
+
+  public double getMinRate() {
+    return minRate;
+  }
+
+  public void setMinRate(double minRate) {
+    this.minRate = minRate;
+  }
+
+  public double getMaxRate() {
+    return maxRate;
+  }
+
+  public void setMaxRate(double maxRate) {
+    this.maxRate = maxRate;
+  }
+
+  public double getAdditiveIncrease() {
+    return additiveIncrease;
+  }
+
+  public void setAdditiveIncrease(double additiveIncrease) {
+    this.additiveIncrease = additiveIncrease;
+  }
+
+  public double getDecreaseFactor() {
+    return decreaseFactor;
+  }
+
+  public void setDecreaseFactor(double decreaseFactor) {
+    this.decreaseFactor = decreaseFactor;
+  }
+
+  public long getDecreaseIntervalMillis() {
+    return decreaseIntervalMillis;
+  }
+
+  public void setDecreaseIntervalMillis(long decreaseIntervalMillis) {
+    this.decreaseIntervalMillis = decreaseIntervalMillis;
+  }
+
+  public long getDecreaseIntervalNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(decreaseIntervalMillis);
+  }
+
+  public long getLatencyTargetMillis() {
+    return latencyTargetMillis;
+  }
+
+  public void setLatencyTargetMillis(long latencyTargetMillis) {
+    this.latencyTargetMillis = latencyTargetMillis;
+  }
+
+  public long getLatencyTargetNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+  }
+
+  public double getBurstSeconds() {
+    return burstSeconds;
+  }
+
+  public void setBurstSeconds(double burstSeconds) {
+    this.burstSeconds = burstSeconds;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  public void setMaxWaitMillis(long maxWaitMillis) {
+    this.maxWaitMillis = maxWaitMillis;
+  }
+
+  public long getMaxWaitNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+  }
+
+}
@@ -26,6 +26,8 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.hamcrest.Matchers;
@@ -37,21 +39,28 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.symphonyoss.integration.Integration;
+import org.symphonyoss.integration.agent.api.client.PreparedMessage;
+import org.symphonyoss.integration.agent.api.client.V2MessageApiClient;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.DeadlineExceededException;
 import org.symphonyoss.integration.core.NullIntegration;
 import org.symphonyoss.integration.core.bootstrap.IntegrationBootstrapContext;
+import org.symphonyoss.integration.core.coalescing.MessageCoalescer;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.config.IntegrationInstance;
 import org.symphonyoss.integration.model.message.Message;
 import org.symphonyoss.integration.service.IntegrationBridge;
-import org.symphonyoss.integration.service.StreamService;
 
 import java.net.ConnectException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 /**
@@ -70,7 +79,7 @@ public class IntegrationBridgeTest {
   private static final String COMPONENT = "core";
 
   @Spy
-  private StreamService streamService = new StreamServiceImpl();
+  private PreparedMessageStreamService streamService = new StreamServiceImpl();
 
   @Mock
   private IntegrationBridgeExceptionHandler exceptionHandler;
@@ -78,6 +87,9 @@ public class IntegrationBridgeTest {
   @Mock
   private IntegrationBootstrapContext bootstrap;
 
+  @Mock
+  private MessageCoalescer coalescer;
+
   @InjectMocks
   private IntegrationBridge bridge = new IntegrationBridgeImpl();
 
@@ -121,6 +133,50 @@ public class IntegrationBridgeTest {
     assertEquals(message, result.get(1));
   }
 
+  @Test
+  public void testSendPreparedMessage() throws RemoteApiException {
+    Message message = new Message();
+    PreparedMessage prepared = new PreparedMessage(V2MessageApiClient.API_VERSION, message,
+        MediaType.APPLICATION_JSON_TYPE, new byte[0]);
+
+    doReturn(prepared).when(streamService).prepareMessage(message);
+    doReturn(message).when(streamService).postMessage(INTEGRATION_USER, "stream1", prepared);
+    doReturn(message).when(streamService).postMessage(INTEGRATION_USER, "stream2", prepared);
+
+    IntegrationInstance instance = new IntegrationInstance();
+    instance.setConfigurationId("57756bca4b54433738037005");
+    instance.setInstanceId("1234");
+    instance.setOptionalProperties(OPTIONAL_PROPERTIES);
+
+    List<Message> result = bridge.sendMessage(instance, INTEGRATION_USER, message);
+
+    assertEquals(2, result.size());
+    verify(streamService, never()).postMessage(anyString(), anyString(), any(Message.class));
+  }
+
+  @Test
+  public void testSendMessageDeadlineExceeded() throws RemoteApiException {
+    IntegrationInstance instance = new IntegrationInstance();
+    instance.setConfigurationId("57756bca4b54433738037005");
+    instance.setInstanceId("1234");
+
+    Deadline previous = Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    try {
+      bridge.sendMessage(instance, INTEGRATION_USER, Arrays.asList("stream1", "stream2"),
+          new Message());
+      fail();
+    } catch (DeadlineExceededException e) {
+      assertEquals(DeadlineExceededException.GATEWAY_TIMEOUT, e.getCode());
+    } finally {
+      Deadline.restore(previous);
+    }
+
+    verify(streamService, never()).postMessage(anyString(), anyString(), any(Message.class));
+    verify(streamService, never())
+        .postMessage(anyString(), anyString(), any(PreparedMessage.class));
+  }
+
   @Test
   public void testSendMessageUnauthenticated() throws RemoteApiException, JsonProcessingException {
     RemoteApiException exception = new RemoteApiException(401, "Unauthorized");
@@ -17,13 +17,23 @@
 package org.symphonyoss.integration.core.bridge;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.symphonyoss.integration.authentication.AuthenticationToken.VOID_KM_TOKEN;
 import static org.symphonyoss.integration.authentication.AuthenticationToken.VOID_SESSION_TOKEN;
 
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.zafarkhaja.semver.Version;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,13 +42,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.symphonyoss.integration.agent.api.client.AgentApiClient;
 import org.symphonyoss.integration.agent.api.client.MessageApiClient;
+import org.symphonyoss.integration.agent.api.client.PreparedMessage;
 import org.symphonyoss.integration.agent.api.client.V2MessageApiClient;
 import org.symphonyoss.integration.agent.api.client.V4MessageApiClient;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.AuthenticationToken;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.core.ratelimit.AgentRateLimiter;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.logging.LogMessageSource;
@@ -50,8 +63,13 @@ import org.symphonyoss.integration.model.stream.StreamType;
 import org.symphonyoss.integration.pod.api.client.StreamApiClient;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
 
 /**
  * Test class responsible to test the flows in the Stream Service.
@@ -80,13 +98,13 @@ public class StreamServiceTest {
   private AgentApiClient agentV2ApiClient;
 
   @Mock
-  private AgentApiClient agentV3ApiClient;
+  private AgentApiClient agentV4ApiClient;
 
   @Mock
   private StreamApiClient streamsApi;
 
   @Spy
-  private HashMap<MessageMLVersion, MessageApiClient> apiResolver;
+  private MetricRegistry metricsRegistry = new MetricRegistry();
 
   @InjectMocks
   private StreamServiceImpl streamService = new StreamServiceImpl();
@@ -97,21 +115,41 @@ public class StreamServiceTest {
   @Mock
   private LogMessageSource logMessage;
 
+  @Mock
+  private AgentRateLimiter rateLimiter;
+
   @Before
   public void init() {
-    apiResolver.put(MessageMLVersion.V1, messageApiClient);
-    apiResolver.put(MessageMLVersion.V2, messageApiClient);
+    Map<MessageMLVersion, MessageApiClient> clients = new EnumMap<>(MessageMLVersion.class);
+    clients.put(MessageMLVersion.V1, messageApiClient);
+    clients.put(MessageMLVersion.V2, messageApiClient);
+
+    ReflectionTestUtils.setField(streamService, "messageApiV2", messageApiClient);
+    ReflectionTestUtils.setField(streamService, "messageApiV4",
+        new V4MessageApiClient(agentV4ApiClient, logMessage));
+
+    AtomicReference<MessageApiRoutes> routes =
+        (AtomicReference<MessageApiRoutes>) ReflectionTestUtils.getField(streamService, "routes");
+    routes.set(new MessageApiRoutes(null, clients));
   }
 
   @Test
   public void testInit() {
-    apiResolver.clear();
     streamService.init();
 
-    assertNotNull(apiResolver);
-    assertEquals(2, apiResolver.size());
-    assertTrue(apiResolver.containsKey(MessageMLVersion.V1));
-    assertTrue(apiResolver.containsKey(MessageMLVersion.V2));
+    MessageApiRoutes routes = streamService.getMessageApiRoutes();
+
+    assertNotNull(routes);
+    assertNull(routes.getAgentVersion());
+    assertTrue(routes.getCapabilities().isEmpty());
+    assertEquals(V2MessageApiClient.class, routes.getClient(MessageMLVersion.V1).getClass());
+    assertEquals(V2MessageApiClient.class, routes.getClient(MessageMLVersion.V2).getClass());
+    assertNotNull(ReflectionTestUtils.getField(streamService, "messageApiV4"));
+
+    Gauge gauge = metricsRegistry.getGauges().get(
+        MetricRegistry.name(BASE_METRIC_NAME, "agent.messageApi.route", MessageMLVersion.V2.name()));
+    assertNotNull(gauge);
+    assertEquals(V2MessageApiClient.API_VERSION, gauge.getValue());
   }
 
   @Test
@@ -212,6 +250,96 @@ public class StreamServiceTest {
     assertEquals(message, result);
   }
 
+  @Test
+  public void testPostMessageThrottled() throws RemoteApiException {
+    Message message = new Message();
+    message.setMessage(StringUtils.EMPTY);
+    message.setVersion(MessageMLVersion.V1);
+
+    when(authenticationProxy.getToken(INTEGRATION_USER)).thenReturn(
+        AuthenticationToken.VOID_AUTH_TOKEN);
+    doThrow(new RemoteApiException(429, "Too many requests")).when(messageApiClient)
+        .postMessage(VOID_SESSION_TOKEN, VOID_KM_TOKEN, STREAM, message);
+
+    try {
+      streamService.postMessage(INTEGRATION_USER, STREAM, message);
+      fail();
+    } catch (RemoteApiException e) {
+      assertEquals(429, e.getCode());
+    }
+
+    verify(rateLimiter).acquire(INTEGRATION_USER);
+    verify(rateLimiter).onFailure(INTEGRATION_USER, 429);
+  }
+
+  @Test
+  public void testPostMessageProcessingFailure() throws RemoteApiException {
+    Message message = new Message();
+    message.setMessage(StringUtils.EMPTY);
+    message.setVersion(MessageMLVersion.V1);
+
+    ProcessingException failure = new ProcessingException("Read timed out");
+
+    when(authenticationProxy.getToken(INTEGRATION_USER)).thenReturn(
+        AuthenticationToken.VOID_AUTH_TOKEN);
+    doThrow(failure).when(messageApiClient)
+        .postMessage(VOID_SESSION_TOKEN, VOID_KM_TOKEN, STREAM, message);
+
+    try {
+      streamService.postMessage(INTEGRATION_USER, STREAM, message);
+      fail();
+    } catch (ProcessingException e) {
+      assertSame(failure, e);
+    }
+
+    verify(rateLimiter).onError(INTEGRATION_USER, failure);
+  }
+
+  @Test
+  public void testPrepareMessage() throws RemoteApiException {
+    Message message = new Message();
+    message.setMessage(StringUtils.EMPTY);
+    message.setVersion(MessageMLVersion.V1);
+
+    PreparedMessage prepared = new PreparedMessage(V2MessageApiClient.API_VERSION, message,
+        MediaType.APPLICATION_JSON_TYPE, new byte[0]);
+
+    when(messageApiClient.prepareMessage(message)).thenReturn(prepared);
+
+    assertEquals(prepared, streamService.prepareMessage(message));
+  }
+
+  @Test
+  public void testPrepareMessageFailure() throws RemoteApiException {
+    Message message = new Message();
+    message.setMessage(StringUtils.EMPTY);
+    message.setVersion(MessageMLVersion.V1);
+
+    doThrow(RemoteApiException.class).when(messageApiClient).prepareMessage(message);
+
+    assertNull(streamService.prepareMessage(message));
+  }
+
+  @Test
+  public void testPostPreparedMessageSuccessfully() throws RemoteApiException {
+    Message message = new Message();
+    message.setMessage(StringUtils.EMPTY);
+    message.setVersion(MessageMLVersion.V1);
+
+    PreparedMessage prepared = new PreparedMessage(V2MessageApiClient.API_VERSION, message,
+        MediaType.APPLICATION_JSON_TYPE, new byte[0]);
+
+    when(authenticationProxy.getToken(INTEGRATION_USER)).thenReturn(
+        AuthenticationToken.VOID_AUTH_TOKEN);
+    when(messageApiClient.postMessage(VOID_SESSION_TOKEN, VOID_KM_TOKEN, STREAM,
+        prepared)).thenReturn(message);
+
+    Message result = streamService.postMessage(INTEGRATION_USER, STREAM, prepared);
+    assertEquals(message, result);
+
+    verify(rateLimiter).acquire(INTEGRATION_USER);
+  }
+
   @Test(expected = RemoteApiException.class)
   public void testCreateIMApiException() throws RemoteApiException {
     List<Long> userIdList = new ArrayList<>();
@@ -241,12 +369,15 @@ public class StreamServiceTest {
 
   @Test
   public void testHandleServiceVersionUpdatedWithoutServiceName() {
+    MessageApiRoutes routes = streamService.getMessageApiRoutes();
+
     streamService.handleServiceVersionUpdatedEvent(
         new ServiceVersionUpdatedEventData(StringUtils.EMPTY, StringUtils.EMPTY,
             StringUtils.EMPTY));
 
-    assertEquals(messageApiClient, apiResolver.get(MessageMLVersion.V1));
-    assertEquals(messageApiClient, apiResolver.get(MessageMLVersion.V2));
+    assertSame(routes, streamService.getMessageApiRoutes());
+    assertEquals(messageApiClient, routes.getClient(MessageMLVersion.V1));
+    assertEquals(messageApiClient, routes.getClient(MessageMLVersion.V2));
   }
 
   @Test
@@ -254,8 +385,12 @@ public class StreamServiceTest {
     streamService.handleServiceVersionUpdatedEvent(
         new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, StringUtils.EMPTY, AGENT_API_V2));
 
-    assertEquals(messageApiClient, apiResolver.get(MessageMLVersion.V1));
-    assertEquals(messageApiClient, apiResolver.get(MessageMLVersion.V2));
+    MessageApiRoutes routes = streamService.getMessageApiRoutes();
+
+    assertEquals(Version.valueOf(AGENT_API_V2), routes.getAgentVersion());
+    assertFalse(routes.hasCapability(AgentCapability.MESSAGEML_V2));
+    assertEquals(messageApiClient, routes.getClient(MessageMLVersion.V1));
+    assertEquals(messageApiClient, routes.getClient(MessageMLVersion.V2));
   }
 
   @Test
@@ -263,7 +398,38 @@ public class StreamServiceTest {
     streamService.handleServiceVersionUpdatedEvent(
         new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, StringUtils.EMPTY, AGENT_API_V3));
 
-    assertEquals(messageApiClient, apiResolver.get(MessageMLVersion.V1));
-    assertEquals(V4MessageApiClient.class, apiResolver.get(MessageMLVersion.V2).getClass());
+    MessageApiRoutes routes = streamService.getMessageApiRoutes();
+
+    assertTrue(routes.hasCapability(AgentCapability.MESSAGEML_V2));
+    assertEquals(messageApiClient, routes.getClient(MessageMLVersion.V1));
+    assertEquals(V4MessageApiClient.class, routes.getClient(MessageMLVersion.V2).getClass());
+  }
+
+  @Test
+  public void testHandleServiceVersionUpdatedSameVersion() {
+    streamService.handleServiceVersionUpdatedEvent(
+        new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, StringUtils.EMPTY, AGENT_API_V3));
+
+    MessageApiRoutes routes = streamService.getMessageApiRoutes();
+
+    streamService.handleServiceVersionUpdatedEvent(
+        new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, AGENT_API_V3, AGENT_API_V3));
+
+    assertSame(routes, streamService.getMessageApiRoutes());
+  }
+
+  @Test
+  public void testHandleServiceVersionUpdatedReusesClients() {
+    streamService.handleServiceVersionUpdatedEvent(
+        new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, StringUtils.EMPTY, AGENT_API_V3));
+
+    MessageApiClient client = streamService.getMessageApiRoutes().getClient(MessageMLVersion.V2);
+
+    streamService.handleServiceVersionUpdatedEvent(
+        new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, AGENT_API_V3, AGENT_API_V2));
+    streamService.handleServiceVersionUpdatedEvent(
+        new ServiceVersionUpdatedEventData(AGENT_SERVICE_NAME, AGENT_API_V2, AGENT_API_V3));
+
+    assertSame(client, streamService.getMessageApiRoutes().getClient(MessageMLVersion.V2));
   }
 }
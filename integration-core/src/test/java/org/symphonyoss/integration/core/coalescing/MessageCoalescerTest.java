@@ -0,0 +1,200 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.coalescing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.model.message.Message;
+import org.symphonyoss.integration.model.message.MessageMLVersion;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link MessageCoalescer}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MessageCoalescerTest {
+
+  private static final String INTEGRATION_USER = "jiraWebHookIntegration";
+
+  private static final String INSTANCE_ID = "57bf581ae4b079de6a1cbbf9";
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(MessageCoalescer.ENABLED_KEY, "true")
+      .withProperty(MessageCoalescer.WINDOW_KEY, "60000")
+      .withProperty(MessageCoalescer.MAX_EVENTS_KEY, "3")
+      .withProperty("integration_bridge.message-coalescing.instances.disabled.window", "0")
+      .withProperty("integration_bridge.message-coalescing.simplewebhook.max-events", "10");
+
+  @Mock
+  private LogMessageSource logMessage;
+
+  @InjectMocks
+  private MessageCoalescer coalescer = new MessageCoalescer();
+
+  @After
+  public void finish() {
+    coalescer.destroy();
+  }
+
+  @Test
+  public void testDisabled() {
+    ((MockEnvironment) environment).setProperty(MessageCoalescer.ENABLED_KEY, "false");
+    coalescer.init();
+
+    assertFalse(coalescer.offer(buildInstance(INSTANCE_ID), INTEGRATION_USER,
+        buildMessage("test"), new RecordingSender(1)));
+  }
+
+  @Test
+  public void testOverrides() {
+    coalescer.init();
+
+    assertEquals(60000, coalescer.getWindow(INSTANCE_ID, INTEGRATION_USER));
+    assertEquals(0, coalescer.getWindow("disabled", INTEGRATION_USER));
+    assertEquals(3, coalescer.getMaxEvents(INTEGRATION_USER));
+    assertEquals(10, coalescer.getMaxEvents("simplewebhook"));
+
+    assertFalse(coalescer.offer(buildInstance("disabled"), INTEGRATION_USER,
+        buildMessage("test"), new RecordingSender(1)));
+  }
+
+  @Test
+  public void testFlushOnMaxEvents() throws InterruptedException {
+    coalescer.init();
+
+    RecordingSender sender = new RecordingSender(1);
+    IntegrationInstance instance = buildInstance(INSTANCE_ID);
+
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("first"), sender));
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("second"), sender));
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("third"), sender));
+
+    assertTrue(sender.latch.await(5, TimeUnit.SECONDS));
+    assertEquals(1, sender.messages.size());
+    assertEquals("<messageML>first<br/>second<br/>third</messageML>",
+        sender.messages.get(0).getMessage());
+  }
+
+  @Test
+  public void testFlushOnWindow() throws InterruptedException {
+    ((MockEnvironment) environment).setProperty(MessageCoalescer.WINDOW_KEY, "50");
+    coalescer.init();
+
+    RecordingSender sender = new RecordingSender(1);
+    IntegrationInstance instance = buildInstance(INSTANCE_ID);
+
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("first"), sender));
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("second"), sender));
+
+    assertTrue(sender.latch.await(5, TimeUnit.SECONDS));
+    assertEquals("<messageML>first<br/>second</messageML>", sender.messages.get(0).getMessage());
+  }
+
+  @Test
+  public void testFlushOnDestroy() {
+    coalescer.init();
+
+    RecordingSender sender = new RecordingSender(1);
+    coalescer.offer(buildInstance(INSTANCE_ID), INTEGRATION_USER, buildMessage("first"), sender);
+
+    coalescer.destroy();
+
+    assertEquals(1, sender.messages.size());
+    assertEquals("<messageML>first</messageML>", sender.messages.get(0).getMessage());
+  }
+
+  @Test
+  public void testCombinedMessageRejected() throws InterruptedException {
+    coalescer.init();
+
+    RecordingSender sender = new RecordingSender(3) {
+      @Override
+      public void send(IntegrationInstance instance, String integrationUser, Message message)
+          throws RemoteApiException {
+        if (message.getMessage().contains("<br/>")) {
+          throw new RemoteApiException(400, "Message too large");
+        }
+
+        super.send(instance, integrationUser, message);
+      }
+    };
+
+    IntegrationInstance instance = buildInstance(INSTANCE_ID);
+
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("first"), sender));
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("second"), sender));
+    assertTrue(coalescer.offer(instance, INTEGRATION_USER, buildMessage("third"), sender));
+
+    // Posted one by one
+    assertTrue(sender.latch.await(5, TimeUnit.SECONDS));
+    assertEquals(3, sender.messages.size());
+    assertEquals("<messageML>first</messageML>", sender.messages.get(0).getMessage());
+    assertEquals("<messageML>third</messageML>", sender.messages.get(2).getMessage());
+  }
+
+  private IntegrationInstance buildInstance(String instanceId) {
+    IntegrationInstance instance = new IntegrationInstance();
+    instance.setInstanceId(instanceId);
+    return instance;
+  }
+
+  private Message buildMessage(String body) {
+    Message message = new Message();
+    message.setVersion(MessageMLVersion.V2);
+    message.setMessage("<messageML>" + body + "</messageML>");
+    return message;
+  }
+
+  private static class RecordingSender implements CoalescedMessageSender {
+
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch latch;
+
+    RecordingSender(int expected) {
+      this.latch = new CountDownLatch(expected);
+    }
+
+    @Override
+    public void send(IntegrationInstance instance, String integrationUser, Message message)
+        throws RemoteApiException {
+      messages.add(message);
+      latch.countDown();
+    }
+
+  }
+
+}
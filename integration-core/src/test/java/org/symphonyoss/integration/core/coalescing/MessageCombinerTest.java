@@ -0,0 +1,105 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.coalescing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.symphonyoss.integration.model.message.Message;
+import org.symphonyoss.integration.model.message.MessageMLVersion;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link MessageCombiner}
+ */
+public class MessageCombinerTest {
+
+  private MessageCombiner combiner = new MessageCombiner();
+
+  @Test
+  public void testSingleMessage() {
+    Message message = buildMessage("<messageML>test</messageML>", null);
+    assertSame(message, combiner.combine(Collections.singletonList(message)));
+  }
+
+  @Test
+  public void testCombineBodies() {
+    Message first = buildMessage("<messageML>first</messageML>", null);
+    Message second = buildMessage("<messageML>second</messageML>", null);
+
+    Message result = combiner.combine(Arrays.asList(first, second));
+
+    assertEquals("<messageML>first<br/>second</messageML>", result.getMessage());
+    assertEquals(MessageMLVersion.V2, result.getVersion());
+    assertNull(result.getData());
+  }
+
+  @Test
+  public void testRenameCollidingEntities() {
+    Message first = buildMessage("<messageML><div data-entity-id=\"jira\">${entity['jira'].id}"
+        + "</div></messageML>", "{\"jira\":{\"id\":1}}");
+    Message second = buildMessage("<messageML><div data-entity-id=\"jira\">${entity.jira.id}"
+        + "</div></messageML>", "{\"jira\":{\"id\":2}}");
+
+    Message result = combiner.combine(Arrays.asList(first, second));
+
+    assertEquals("<messageML><div data-entity-id=\"jira\">${entity['jira'].id}</div><br/>"
+        + "<div data-entity-id=\"jira_1\">${entity.jira_1.id}</div></messageML>",
+        result.getMessage());
+    assertEquals("{\"jira\":{\"id\":1},\"jira_1\":{\"id\":2}}", result.getData());
+  }
+
+  @Test
+  public void testInvalidData() {
+    Message first = buildMessage("<messageML>first</messageML>", "[1, 2]");
+    Message second = buildMessage("<messageML>second</messageML>", null);
+
+    assertNull(combiner.combine(Arrays.asList(first, second)));
+  }
+
+  @Test
+  public void testRootWithAttributes() {
+    Message first = buildMessage("<messageML>first</messageML>", null);
+    Message second = buildMessage("<messageML xmlns=\"http://symphony.com\">second</messageML>",
+        null);
+
+    assertNull(combiner.combine(Arrays.asList(first, second)));
+  }
+
+  @Test
+  public void testRootWithWhitespace() {
+    Message first = buildMessage(" <messageML >first</messageML>\n", null);
+    Message second = buildMessage("<messageML>\nsecond\n</messageML>", null);
+
+    Message result = combiner.combine(Arrays.asList(first, second));
+
+    assertEquals("<messageML>first<br/>\nsecond\n</messageML>", result.getMessage());
+  }
+
+  private Message buildMessage(String body, String data) {
+    Message message = new Message();
+    message.setVersion(MessageMLVersion.V2);
+    message.setMessage(body);
+    message.setData(data);
+    return message;
+  }
+
+}
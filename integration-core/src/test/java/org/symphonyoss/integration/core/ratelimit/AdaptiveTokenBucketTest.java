@@ -0,0 +1,139 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AdaptiveTokenBucket}
+ */
+public class AdaptiveTokenBucketTest {
+
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private static final long FAST_CALL = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private static final long SLOW_CALL = TimeUnit.SECONDS.toNanos(5);
+
+  private static final double DELTA = 0.001;
+
+  private RateLimitSettings settings;
+
+  private AdaptiveTokenBucket bucket;
+
+  @Before
+  public void init() {
+    settings = new RateLimitSettings();
+    settings.setInitialRate(10);
+    settings.setMinRate(1);
+    settings.setMaxRate(20);
+    settings.setAdditiveIncrease(1);
+    settings.setDecreaseFactor(0.5);
+    settings.setDecreaseIntervalMillis(1000);
+    settings.setLatencyTargetMillis(2000);
+    settings.setBurstSeconds(1);
+
+    bucket = new AdaptiveTokenBucket(settings, 0);
+  }
+
+  @Test
+  public void testBurst() {
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, bucket.reserve(0, 0));
+    }
+
+    assertEquals(-1, bucket.reserve(0, 0));
+  }
+
+  @Test
+  public void testWaitForPermit() {
+    for (int i = 0; i < 10; i++) {
+      bucket.reserve(0, 0);
+    }
+
+    long wait = bucket.reserve(0, ONE_SECOND);
+    assertEquals(ONE_SECOND / 10, wait);
+
+    // The previous reservation put the bucket into debt
+    wait = bucket.reserve(0, ONE_SECOND);
+    assertEquals(2 * ONE_SECOND / 10, wait);
+  }
+
+  @Test
+  public void testRefill() {
+    for (int i = 0; i < 10; i++) {
+      bucket.reserve(0, 0);
+    }
+
+    assertEquals(0, bucket.reserve(ONE_SECOND / 10, 0));
+    assertEquals(-1, bucket.reserve(ONE_SECOND / 10, 0));
+  }
+
+  @Test
+  public void testAdditiveIncrease() {
+    for (int i = 0; i < 10; i++) {
+      bucket.onSuccess(i, FAST_CALL);
+    }
+
+    assertTrue(bucket.getRate() > 10.9);
+    assertTrue(bucket.getRate() < 11);
+  }
+
+  @Test
+  public void testMaxRate() {
+    for (int i = 0; i < 1000; i++) {
+      bucket.onSuccess(i, FAST_CALL);
+    }
+
+    assertEquals(20, bucket.getRate(), DELTA);
+  }
+
+  @Test
+  public void testMultiplicativeDecrease() {
+    bucket.onThrottled(0);
+    assertEquals(5, bucket.getRate(), DELTA);
+
+    // Should be ignored (decrease interval)
+    bucket.onThrottled(ONE_SECOND / 2);
+    assertEquals(5, bucket.getRate(), DELTA);
+
+    bucket.onThrottled(ONE_SECOND);
+    assertEquals(2.5, bucket.getRate(), DELTA);
+  }
+
+  @Test
+  public void testMinRate() {
+    for (int i = 0; i < 10; i++) {
+      bucket.onThrottled(i * ONE_SECOND);
+    }
+
+    assertEquals(1, bucket.getRate(), DELTA);
+  }
+
+  @Test
+  public void testSlowCallDecreasesRate() {
+    bucket.onSuccess(0, SLOW_CALL);
+    assertEquals(5, bucket.getRate(), DELTA);
+  }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.core.ratelimit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.logging.LogMessageSource;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Unit tests for {@link AgentRateLimiter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AgentRateLimiterTest {
+
+  private static final String INTEGRATION_USER = "jirawebhook";
+
+  private static final double DELTA = 0.001;
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(AgentRateLimiter.ENABLED_KEY, "true")
+      .withProperty(AgentRateLimiter.INITIAL_RATE_KEY, "2")
+      .withProperty(AgentRateLimiter.MAX_WAIT_KEY, "0");
+
+  @Mock
+  private LogMessageSource logMessage;
+
+  @InjectMocks
+  private AgentRateLimiter rateLimiter = new AgentRateLimiter();
+
+  @Before
+  public void init() {
+    rateLimiter.init();
+  }
+
+  @Test
+  public void testSettings() {
+    RateLimitSettings settings = rateLimiter.getSettings();
+
+    assertEquals(2, settings.getInitialRate(), DELTA);
+    assertEquals(0, settings.getMaxWaitMillis());
+    assertEquals(new RateLimitSettings().getMaxRate(), settings.getMaxRate(), DELTA);
+    assertFalse(new RateLimitSettings().isEnabled());
+  }
+
+  @Test
+  public void testShedLoad() throws RemoteApiException {
+    rateLimiter.acquire(INTEGRATION_USER);
+    rateLimiter.acquire(INTEGRATION_USER);
+
+    try {
+      rateLimiter.acquire(INTEGRATION_USER);
+      fail();
+    } catch (RemoteApiException e) {
+      assertEquals(AgentRateLimiter.TOO_MANY_REQUESTS, e.getCode());
+    }
+
+    String rejected =
+        MetricRegistry.name(BASE_METRIC_NAME, "agent.rateLimiter", INTEGRATION_USER, "rejected");
+    assertEquals(1, metricsRegistry.meter(rejected).getCount());
+  }
+
+  @Test
+  public void testThrottled() {
+    rateLimiter.onFailure(INTEGRATION_USER, AgentRateLimiter.TOO_MANY_REQUESTS);
+    assertEquals(1, rateLimiter.getCurrentRate(INTEGRATION_USER), DELTA);
+
+    Gauge gauge = metricsRegistry.getGauges().get(
+        MetricRegistry.name(BASE_METRIC_NAME, "agent.rateLimiter", INTEGRATION_USER, "rate"));
+    assertNotNull(gauge);
+    assertEquals(1, (Double) gauge.getValue(), DELTA);
+  }
+
+  @Test
+  public void testIgnoreOtherFailures() {
+    rateLimiter.onFailure(INTEGRATION_USER, 400);
+    assertEquals(2, rateLimiter.getCurrentRate(INTEGRATION_USER), DELTA);
+  }
+
+  @Test
+  public void testReleasePermitOnError() throws RemoteApiException {
+    rateLimiter.acquire(INTEGRATION_USER);
+    rateLimiter.acquire(INTEGRATION_USER);
+
+    rateLimiter.onError(INTEGRATION_USER, new ProcessingException(new ConnectException()));
+    rateLimiter.acquire(INTEGRATION_USER);
+
+    assertEquals(2, rateLimiter.getCurrentRate(INTEGRATION_USER), DELTA);
+  }
+
+  @Test
+  public void testTimeoutThrottled() {
+    rateLimiter.onError(INTEGRATION_USER, new ProcessingException(new SocketTimeoutException()));
+    assertEquals(1, rateLimiter.getCurrentRate(INTEGRATION_USER), DELTA);
+  }
+
+  @Test
+  public void testDisabled() throws RemoteApiException {
+    rateLimiter.getSettings().setEnabled(false);
+
+    for (int i = 0; i < 10; i++) {
+      rateLimiter.acquire(INTEGRATION_USER);
+    }
+  }
+
+}
@@ -1,7 +1,9 @@
 package org.symphonyoss.integration.healthcheck.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
@@ -11,11 +13,16 @@ import java.util.concurrent.Executors;
 
 /**
  * Configures and register an {@link Executor} to be used system wide by Spring's scheduling subsystem.
+ * The scheduled tasks (i.e. service health invokers) run on virtual threads when the virtual thread
+ * mode is enabled.
  */
 @Configuration
 @EnableScheduling
 public class SchedulerConfiguration implements SchedulingConfigurer {
 
+    @Autowired
+    private Environment environment;
+
     @Override
     public void configureTasks(ScheduledTaskRegistrar scheduledTaskRegistrar) {
         scheduledTaskRegistrar.setScheduler(taskExecutor());
@@ -23,7 +30,9 @@ public class SchedulerConfiguration implements SchedulingConfigurer {
 
     @Bean(destroyMethod="shutdown")
     public Executor taskExecutor() {
-        return Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("scheduler", false));
+        boolean virtual = VirtualThreads.isEnabled(environment);
+        return Executors.newSingleThreadScheduledExecutor(
+            VirtualThreads.newThreadFactory("scheduler", false, virtual));
     }
 
 }
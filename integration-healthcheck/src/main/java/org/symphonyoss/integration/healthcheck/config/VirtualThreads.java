@@ -0,0 +1,139 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.healthcheck.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates thread factories and executors backed by virtual threads.
+ *
+ * The application is built for Java 8, so the virtual thread API is looked up through reflection.
+ * When the runtime doesn't provide it, or the mode is disabled, platform threads are used instead.
+ */
+public final class VirtualThreads {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualThreads.class);
+
+  public static final String ENABLED_KEY = "integration_bridge.virtual-threads.enabled";
+
+  private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+
+  private static final Method BUILDER_NAME =
+      findMethod("java.lang.Thread$Builder", "name", String.class, long.class);
+
+  private static final Method BUILDER_FACTORY = findMethod("java.lang.Thread$Builder", "factory");
+
+  private static final Method THREAD_PER_TASK_EXECUTOR =
+      findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+  private VirtualThreads() {}
+
+  /**
+   * Checks if the JVM supports virtual threads.
+   * @return true if the virtual thread API is available
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_FACTORY != null
+        && THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Checks if the virtual thread mode was enabled and the JVM supports it.
+   * @param environment Spring environment
+   * @return true if the components should run on virtual threads
+   */
+  public static boolean isEnabled(Environment environment) {
+    Boolean enabled = environment.getProperty(ENABLED_KEY, Boolean.class, Boolean.FALSE);
+
+    if (!Boolean.TRUE.equals(enabled)) {
+      return false;
+    }
+
+    if (!isSupported()) {
+      LOG.warn("Virtual threads aren't supported by this JVM. Using platform threads instead.");
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates a thread factory. The threads are named using the provided prefix followed by a
+   * sequence number.
+   * @param name Thread name prefix
+   * @param daemon Daemon flag, applied to platform threads only (virtual threads are always daemon)
+   * @param virtual Creates virtual threads if supported
+   * @return Thread factory
+   */
+  public static ThreadFactory newThreadFactory(String name, boolean daemon, boolean virtual) {
+    if (virtual && isSupported()) {
+      try {
+        Object builder = OF_VIRTUAL.invoke(null);
+        builder = BUILDER_NAME.invoke(builder, name + "-", 0L);
+        return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+      } catch (ReflectiveOperationException e) {
+        LOG.warn("Fail to create the virtual thread factory. Using platform threads instead.", e);
+      }
+    }
+
+    return new NamedThreadFactory(name, daemon);
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. Virtual threads are cheap
+   * to create and to block, so they are not pooled.
+   * @param name Thread name prefix
+   * @return Executor service or null if virtual threads aren't supported
+   */
+  public static ExecutorService newThreadPerTaskExecutor(String name) {
+    if (!isSupported()) {
+      return null;
+    }
+
+    try {
+      ThreadFactory factory = newThreadFactory(name, true, true);
+      return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    } catch (ReflectiveOperationException e) {
+      LOG.warn("Fail to create the virtual thread executor", e);
+      return null;
+    }
+  }
+
+  private static Method findMethod(String className, String name, Class<?>... parameterTypes) {
+    try {
+      return findMethod(Class.forName(className), name, parameterTypes);
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+    try {
+      return clazz.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+}
@@ -16,6 +16,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.authentication.exception.UnregisteredUserAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfile;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.event.HealthCheckEventData;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.healthcheck.services.IntegrationBridgeServiceInfo;
@@ -23,7 +25,6 @@ import org.symphonyoss.integration.healthcheck.services.indicators.ServiceHealth
 import org.symphonyoss.integration.json.JsonUtils;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.Application;
-import org.symphonyoss.integration.model.yaml.HttpClientConfig;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 
 import java.io.IOException;
@@ -69,6 +70,9 @@ public abstract class ServiceHealthInvoker {
   @Autowired
   protected LogMessageSource logMessageSource;
 
+  @Autowired
+  protected HttpClientProfiles httpClientProfiles;
+
   protected String currentVersion;
 
   /**
@@ -164,7 +168,7 @@ public abstract class ServiceHealthInvoker {
 
     Response response = null;
     try {
-      HttpClientConfig timeouts = properties.getHttpClientConfig();
+      HttpClientProfile timeouts = httpClientProfiles.getProfile(getServiceName());
       Invocation.Builder invocationBuilder = client.target(healthCheckUrl)
               .property(ClientProperties.CONNECT_TIMEOUT, timeouts.getConnectTimeout())
               .property(ClientProperties.READ_TIMEOUT, timeouts.getReadTimeout())
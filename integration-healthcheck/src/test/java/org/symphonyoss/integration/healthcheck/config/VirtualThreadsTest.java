@@ -0,0 +1,86 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.healthcheck.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Unit tests for {@link VirtualThreads}
+ */
+public class VirtualThreadsTest {
+
+  private static final String THREAD_NAME = "test";
+
+  private static final Runnable NOOP = new Runnable() {
+    @Override
+    public void run() {
+    }
+  };
+
+  @Test
+  public void testDisabledByDefault() {
+    assertFalse(VirtualThreads.isEnabled(new MockEnvironment()));
+  }
+
+  @Test
+  public void testEnabled() {
+    MockEnvironment environment =
+        new MockEnvironment().withProperty(VirtualThreads.ENABLED_KEY, "true");
+    assertEquals(VirtualThreads.isSupported(), VirtualThreads.isEnabled(environment));
+  }
+
+  @Test
+  public void testPlatformThreadFactory() {
+    ThreadFactory factory = VirtualThreads.newThreadFactory(THREAD_NAME, true, false);
+    Thread thread = factory.newThread(NOOP);
+
+    assertEquals(THREAD_NAME + "-0", thread.getName());
+    assertTrue(thread.isDaemon());
+  }
+
+  @Test
+  public void testVirtualThreadFactory() {
+    ThreadFactory factory = VirtualThreads.newThreadFactory(THREAD_NAME, false, true);
+    Thread thread = factory.newThread(NOOP);
+
+    assertEquals(THREAD_NAME + "-0", thread.getName());
+    assertEquals(VirtualThreads.isSupported(), thread.isDaemon());
+  }
+
+  @Test
+  public void testThreadPerTaskExecutor() {
+    ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor(THREAD_NAME);
+
+    if (VirtualThreads.isSupported()) {
+      assertNotNull(executor);
+      executor.shutdown();
+    } else {
+      assertNull(executor);
+    }
+  }
+
+}
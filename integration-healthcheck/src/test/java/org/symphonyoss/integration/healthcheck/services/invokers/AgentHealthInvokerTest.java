@@ -32,6 +32,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.event.MessageMLVersionUpdatedEventData;
 import org.symphonyoss.integration.healthcheck.services.MockApplicationPublisher;
 import org.symphonyoss.integration.healthcheck.services.indicators.AgentHealthIndicator;
@@ -45,8 +46,8 @@ import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(
-    classes = {IntegrationProperties.class, AgentHealthInvoker.class, AgentHealthIndicator.class})
+@ContextConfiguration(classes = {IntegrationProperties.class, HttpClientProfiles.class,
+    AgentHealthInvoker.class, AgentHealthIndicator.class})
 public class AgentHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.45.0-SNAPSHOT";
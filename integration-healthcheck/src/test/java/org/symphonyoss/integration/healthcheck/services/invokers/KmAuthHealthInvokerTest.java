@@ -14,6 +14,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.healthcheck.services.IntegrationBridgeServiceInfo;
 import org.symphonyoss.integration.healthcheck.services.indicators.KmAuthHealthIndicator;
@@ -38,8 +39,8 @@ import static org.mockito.Mockito.mock;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(
-    classes = {IntegrationProperties.class, KmAuthHealthInvoker.class, KmAuthHealthIndicator.class})
+@ContextConfiguration(classes = {IntegrationProperties.class, HttpClientProfiles.class,
+    KmAuthHealthInvoker.class, KmAuthHealthIndicator.class})
 public class KmAuthHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.48.0";
@@ -30,6 +30,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.healthcheck.services.indicators.KmHealthIndicator;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
@@ -41,7 +42,8 @@ import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(classes = {IntegrationProperties.class, KmHealthInvoker.class})
+@ContextConfiguration(
+    classes = {IntegrationProperties.class, HttpClientProfiles.class, KmHealthInvoker.class})
 public class KmHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.45.0";
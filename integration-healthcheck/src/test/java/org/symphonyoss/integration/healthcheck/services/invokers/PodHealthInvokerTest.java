@@ -28,6 +28,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.healthcheck.services.indicators.PodHealthIndicator;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
@@ -39,7 +40,8 @@ import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(classes = {IntegrationProperties.class, PodHealthInvoker.class})
+@ContextConfiguration(
+    classes = {IntegrationProperties.class, HttpClientProfiles.class, PodHealthInvoker.class})
 public class PodHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.44.0";
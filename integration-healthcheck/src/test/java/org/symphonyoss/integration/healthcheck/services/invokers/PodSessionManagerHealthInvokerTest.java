@@ -34,6 +34,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.healthcheck.services.IntegrationBridgeServiceInfo;
 import org.symphonyoss.integration.healthcheck.services.indicators.PodSessionManagerHealthIndicator;
@@ -47,8 +48,8 @@ import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(
-    classes = {IntegrationProperties.class, PodSessionManagerHealthInvoker.class})
+@ContextConfiguration(classes = {IntegrationProperties.class, HttpClientProfiles.class,
+    PodSessionManagerHealthInvoker.class})
 public class PodSessionManagerHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.48.0";
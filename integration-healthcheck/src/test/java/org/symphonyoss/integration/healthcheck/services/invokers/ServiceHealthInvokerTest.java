@@ -33,6 +33,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.symphonyoss.integration.authentication.AuthenticationProxy;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
 import org.symphonyoss.integration.authentication.exception.UnregisteredUserAuthException;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
 import org.symphonyoss.integration.event.HealthCheckEventData;
 import org.symphonyoss.integration.healthcheck.event.ServiceVersionUpdatedEventData;
 import org.symphonyoss.integration.healthcheck.services.IntegrationBridgeServiceInfo;
@@ -62,8 +63,8 @@ import static org.mockito.Mockito.*;
 @RunWith(SpringRunner.class)
 @SpringBootTest
 @EnableConfigurationProperties
-@ContextConfiguration(
-    classes = {IntegrationProperties.class, PodHealthInvoker.class, PodHealthIndicator.class})
+@ContextConfiguration(classes = {IntegrationProperties.class, HttpClientProfiles.class,
+    PodHealthInvoker.class, PodHealthIndicator.class})
 public class ServiceHealthInvokerTest {
 
   private static final String MOCK_VERSION = "1.44.0";
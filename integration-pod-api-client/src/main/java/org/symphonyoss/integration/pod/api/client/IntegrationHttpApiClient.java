@@ -17,9 +17,13 @@
 package org.symphonyoss.integration.pod.api.client;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.api.client.SymphonyApiClient;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.hedging.RequestHedging;
+import org.symphonyoss.integration.client.support.timeout.AdaptiveTimeouts;
 import org.symphonyoss.integration.exception.MissingConfigurationException;
 import org.symphonyoss.integration.model.yaml.ProxyConnectionInfo;
 
@@ -34,8 +38,16 @@ public class IntegrationHttpApiClient extends SymphonyApiClient {
 
   private static final String REQUIRED_KEY = "pod.host";
 
+  private static final String HEDGING_NAME = "integration";
+
   private static final String API_PATH = "integrationapi";
 
+  @Autowired
+  private RequestHedging requestHedging;
+
+  @Autowired
+  private AdaptiveTimeouts adaptiveTimeouts;
+
   public IntegrationHttpApiClient() {
     super(SERVICE_NAME);
   }
@@ -51,6 +63,18 @@ public class IntegrationHttpApiClient extends SymphonyApiClient {
     return String.format("%s/%s", url, API_PATH);
   }
 
+  /**
+   * Builds the HTTP client. The requests are hedged if it's enabled to this API client
+   * and bounded by the caller deadline and the adaptive timeouts.
+   *
+   * @param basePath Base path
+   */
+  @Override
+  protected HttpApiClient buildHttpClient(String basePath) {
+    HttpApiClient client = requestHedging.decorate(HEDGING_NAME, super.buildHttpClient(basePath));
+    return adaptiveTimeouts.decorate(HEDGING_NAME, client);
+  }
+
   @Override
   protected ProxyConnectionInfo getProxy() {
     return this.properties.getPod().getProxy();
@@ -19,8 +19,13 @@ package org.symphonyoss.integration.pod.api.client;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.api.client.HttpApiClient;
 import org.symphonyoss.integration.api.client.SymphonyApiClient;
 import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClientFactory;
+import org.symphonyoss.integration.client.support.hedging.RequestHedging;
+import org.symphonyoss.integration.client.support.timeout.AdaptiveTimeouts;
 import org.symphonyoss.integration.exception.MissingConfigurationException;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
 import org.symphonyoss.integration.model.yaml.ProxyConnectionInfo;
@@ -36,9 +41,22 @@ public class PodHttpApiClient extends SymphonyApiClient {
 
   private static final String REQUIRED_KEY = "pod.host";
 
+  private static final String HEDGING_NAME = "pod";
+
   @Autowired
   private IntegrationProperties properties;
 
+  @Autowired
+  private RequestHedging requestHedging;
+
+  @Autowired
+  private AdaptiveTimeouts adaptiveTimeouts;
+
+  @Autowired
+  private AsyncHttpApiClientFactory asyncClientFactory;
+
+  private volatile AsyncHttpApiClient asyncClient;
+
   public PodHttpApiClient() {
     super(SERVICE_NAME);
   }
@@ -54,6 +72,30 @@ public class PodHttpApiClient extends SymphonyApiClient {
     return url;
   }
 
+  /**
+   * Builds the HTTP client. The requests are hedged if it's enabled to this API client
+   * and bounded by the caller deadline and the adaptive timeouts.
+   *
+   * @param basePath Base path
+   */
+  @Override
+  protected HttpApiClient buildHttpClient(String basePath) {
+    HttpApiClient client = requestHedging.decorate(HEDGING_NAME, super.buildHttpClient(basePath));
+    return adaptiveTimeouts.decorate(HEDGING_NAME, client);
+  }
+
+  /**
+   * Retrieves the non-blocking HTTP client to the POD API. The client is built on the first call.
+   * @return Asynchronous HTTP client
+   */
+  public AsyncHttpApiClient getAsyncClient() {
+    if (asyncClient == null) {
+      asyncClient = asyncClientFactory.newClient(getBasePath(), SERVICE_NAME);
+    }
+
+    return asyncClient;
+  }
+
   @Override
   protected ProxyConnectionInfo getProxy() {
     return this.properties.getPod().getProxy();
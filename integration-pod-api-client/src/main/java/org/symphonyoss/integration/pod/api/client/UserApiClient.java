@@ -26,6 +26,8 @@ import static org.symphonyoss.integration.pod.api.properties
     .BaseIntegrationInstanceApiClientProperties.MISSING_PARAMETER_WHEN_CALLING_SOLUTION;
 
 import org.symphonyoss.integration.api.client.HttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncHttpApiClient;
+import org.symphonyoss.integration.client.support.async.AsyncResults;
 import org.symphonyoss.integration.entity.model.User;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.logging.LogMessageSource;
@@ -37,6 +39,7 @@ import org.symphonyoss.integration.pod.api.model.UserDetail;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Holds all endpoints to deal with user info.
@@ -54,13 +57,22 @@ public class UserApiClient extends BasePodApiClient {
   private static final String UPDATE_USER = "updateUser";
   private static final String UPDATE_USER_AVATAR = "updateUserAvatar";
   private static final String UID = "uid";
+  private static final String GET_USER_PATH = "/v2/user";
   private HttpApiClient apiClient;
 
+  private AsyncHttpApiClient asyncApiClient;
+
   public UserApiClient(HttpApiClient apiClient, LogMessageSource logMessage) {
     this.apiClient = apiClient;
     this.logMessage = logMessage;
   }
 
+  public UserApiClient(HttpApiClient apiClient, AsyncHttpApiClient asyncApiClient,
+      LogMessageSource logMessage) {
+    this(apiClient, logMessage);
+    this.asyncApiClient = asyncApiClient;
+  }
+
   /**
    * Search a user by email.
    * @param sessionToken Session authentication token.
@@ -68,15 +80,40 @@ public class UserApiClient extends BasePodApiClient {
    * @return User information
    */
   public User getUserByEmail(String sessionToken, String email) throws RemoteApiException {
-    checkAuthToken(sessionToken);
+    checkGetUserParams(sessionToken, email, EMAIL, GET_USER_BY_EMAIL);
 
-    if (email == null) {
-      String reason = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING, EMAIL, GET_USER_BY_EMAIL);
-      String solution = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING_SOLUTION, EMAIL);
-      throw new RemoteApiException(HTTP_BAD_REQUEST_ERROR, reason, solution);
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
+
+    Map<String, String> queryParams = new HashMap<>();
+    queryParams.put("email", email);
+    queryParams.put("local", Boolean.TRUE.toString());
+
+    return apiClient.doGet(GET_USER_PATH, headerParams, queryParams, User.class);
+  }
+
+  /**
+   * Search a user by email without blocking the caller thread.
+   * @param sessionToken Session authentication token.
+   * @param email User email
+   * @return Future completed with the user information or with the {@link RemoteApiException}
+   */
+  public CompletableFuture<User> getUserByEmailAsync(final String sessionToken,
+      final String email) {
+    if (asyncApiClient == null) {
+      return AsyncResults.call(new AsyncResults.BlockingCall<User>() {
+        @Override
+        public User call() throws RemoteApiException {
+          return getUserByEmail(sessionToken, email);
+        }
+      });
     }
 
-    String path = "/v2/user";
+    try {
+      checkGetUserParams(sessionToken, email, EMAIL, GET_USER_BY_EMAIL);
+    } catch (RemoteApiException e) {
+      return AsyncResults.failed(e);
+    }
 
     Map<String, String> headerParams = new HashMap<>();
     headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
@@ -85,7 +122,7 @@ public class UserApiClient extends BasePodApiClient {
     queryParams.put("email", email);
     queryParams.put("local", Boolean.TRUE.toString());
 
-    return apiClient.doGet(path, headerParams, queryParams, User.class);
+    return asyncApiClient.doGetAsync(GET_USER_PATH, headerParams, queryParams, User.class);
   }
 
   /**
@@ -95,15 +132,40 @@ public class UserApiClient extends BasePodApiClient {
    * @return User information
    */
   public User getUserByUsername(String sessionToken, String username) throws RemoteApiException {
-    checkAuthToken(sessionToken);
+    checkGetUserParams(sessionToken, username, USERNAME, GET_USER_BY_USERNAME);
 
-    if (username == null) {
-      String reason = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING, USERNAME, GET_USER_BY_USERNAME);
-      String solution = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING_SOLUTION, USERNAME);
-      throw new RemoteApiException(HTTP_BAD_REQUEST_ERROR, reason, solution);
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
+
+    Map<String, String> queryParams = new HashMap<>();
+    queryParams.put("username", username);
+    queryParams.put("local", Boolean.TRUE.toString());
+
+    return apiClient.doGet(GET_USER_PATH, headerParams, queryParams, User.class);
+  }
+
+  /**
+   * Search a user by username without blocking the caller thread.
+   * @param sessionToken Session authentication token.
+   * @param username Username
+   * @return Future completed with the user information or with the {@link RemoteApiException}
+   */
+  public CompletableFuture<User> getUserByUsernameAsync(final String sessionToken,
+      final String username) {
+    if (asyncApiClient == null) {
+      return AsyncResults.call(new AsyncResults.BlockingCall<User>() {
+        @Override
+        public User call() throws RemoteApiException {
+          return getUserByUsername(sessionToken, username);
+        }
+      });
     }
 
-    String path = "/v2/user";
+    try {
+      checkGetUserParams(sessionToken, username, USERNAME, GET_USER_BY_USERNAME);
+    } catch (RemoteApiException e) {
+      return AsyncResults.failed(e);
+    }
 
     Map<String, String> headerParams = new HashMap<>();
     headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
@@ -112,7 +174,7 @@ public class UserApiClient extends BasePodApiClient {
     queryParams.put("username", username);
     queryParams.put("local", Boolean.TRUE.toString());
 
-    return apiClient.doGet(path, headerParams, queryParams, User.class);
+    return asyncApiClient.doGetAsync(GET_USER_PATH, headerParams, queryParams, User.class);
   }
 
   /**
@@ -122,15 +184,39 @@ public class UserApiClient extends BasePodApiClient {
    * @return User information
    */
   public User getUserById(String sessionToken, Long userId) throws RemoteApiException {
-    checkAuthToken(sessionToken);
+    checkGetUserParams(sessionToken, userId, USER_ID, GET_USER_BY_ID);
 
-    if (userId == null) {
-      String reason = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING, USER_ID, GET_USER_BY_ID);
-      String solution = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING_SOLUTION, USER_ID);
-      throw new RemoteApiException(HTTP_BAD_REQUEST_ERROR, reason, solution);
+    Map<String, String> headerParams = new HashMap<>();
+    headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
+
+    Map<String, String> queryParams = new HashMap<>();
+    queryParams.put("uid", userId.toString());
+    queryParams.put("local", Boolean.TRUE.toString());
+
+    return apiClient.doGet(GET_USER_PATH, headerParams, queryParams, User.class);
+  }
+
+  /**
+   * Search a user by user identifier without blocking the caller thread.
+   * @param sessionToken Session authentication token.
+   * @param userId User identifier
+   * @return Future completed with the user information or with the {@link RemoteApiException}
+   */
+  public CompletableFuture<User> getUserByIdAsync(final String sessionToken, final Long userId) {
+    if (asyncApiClient == null) {
+      return AsyncResults.call(new AsyncResults.BlockingCall<User>() {
+        @Override
+        public User call() throws RemoteApiException {
+          return getUserById(sessionToken, userId);
+        }
+      });
     }
 
-    String path = "/v2/user";
+    try {
+      checkGetUserParams(sessionToken, userId, USER_ID, GET_USER_BY_ID);
+    } catch (RemoteApiException e) {
+      return AsyncResults.failed(e);
+    }
 
     Map<String, String> headerParams = new HashMap<>();
     headerParams.put(SESSION_TOKEN_HEADER_PARAM, sessionToken);
@@ -139,7 +225,26 @@ public class UserApiClient extends BasePodApiClient {
     queryParams.put("uid", userId.toString());
     queryParams.put("local", Boolean.TRUE.toString());
 
-    return apiClient.doGet(path, headerParams, queryParams, User.class);
+    return asyncApiClient.doGetAsync(GET_USER_PATH, headerParams, queryParams, User.class);
+  }
+
+  /**
+   * Validates the parameters required to search a user.
+   * @param sessionToken Session authentication token.
+   * @param value Search parameter
+   * @param name Search parameter name
+   * @param method Method name
+   * @throws RemoteApiException Missing required parameter
+   */
+  private void checkGetUserParams(String sessionToken, Object value, String name, String method)
+      throws RemoteApiException {
+    checkAuthToken(sessionToken);
+
+    if (value == null) {
+      String reason = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING, name, method);
+      String solution = logMessage.getMessage(MISSING_PARAMETER_WHEN_CALLING_SOLUTION, name);
+      throw new RemoteApiException(HTTP_BAD_REQUEST_ERROR, reason, solution);
+    }
   }
 
   public UserDetail createUser(String sessionToken, UserCreate userInfo) throws RemoteApiException {
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Runs a callback once the request is complete, whether it was processed synchronously or
+ * asynchronously.
+ *
+ * Filters must not assume the request is complete when the filter chain returns. If the request
+ * went async, the response is only committed after the async processing ends, so the callback
+ * is registered as an {@link AsyncListener}.
+ */
+public abstract class AsyncCompletionListener implements AsyncListener {
+
+  private final AtomicBoolean completed = new AtomicBoolean();
+
+  /**
+   * Invoked once when the request is complete.
+   */
+  protected abstract void onRequestComplete();
+
+  /**
+   * Runs the callback now or when the async processing of the request ends.
+   * @param request HTTP request
+   */
+  public void register(HttpServletRequest request) {
+    if (request.isAsyncStarted()) {
+      request.getAsyncContext().addListener(this);
+    } else {
+      complete();
+    }
+  }
+
+  @Override
+  public void onComplete(AsyncEvent event) throws IOException {
+    complete();
+  }
+
+  @Override
+  public void onTimeout(AsyncEvent event) throws IOException {
+    // The response is written by the timeout handler, onComplete is invoked afterwards
+  }
+
+  @Override
+  public void onError(AsyncEvent event) throws IOException {
+    complete();
+  }
+
+  @Override
+  public void onStartAsync(AsyncEvent event) throws IOException {
+    // Async restarted by a later dispatch, keep listening to the new cycle
+    event.getAsyncContext().addListener(this);
+  }
+
+  private void complete() {
+    if (completed.compareAndSet(false, true)) {
+      onRequestComplete();
+    }
+  }
+
+}
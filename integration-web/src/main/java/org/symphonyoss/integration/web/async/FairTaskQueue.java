@@ -0,0 +1,394 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded work queue that serves the tasks of each key in deficit round robin order.
+ *
+ * Tasks are queued per key (see {@link FairTask}), and the keys with pending tasks are visited
+ * in turns. On each turn, a key can run as many tasks as its weight, so a key that floods the
+ * queue only delays its own tasks. Tasks that don't implement {@link FairTask} share the default
+ * queue.
+ *
+ * Each key holds at most the key capacity. Beyond that, the {@link OverflowPolicy} decides
+ * whether the new task is rejected or the oldest task of the key is cancelled. When the total
+ * capacity is reached, new tasks are rejected.
+ *
+ * This queue never blocks producers: the blocking and timed insertion methods behave like
+ * {@link #offer(Runnable)}.
+ */
+public class FairTaskQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+  private static final String DEFAULT_KEY = "";
+
+  private final int capacity;
+
+  private final int keyCapacity;
+
+  private final OverflowPolicy overflowPolicy;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition notEmpty = lock.newCondition();
+
+  /**
+   * Queues with pending tasks, by key
+   */
+  private final Map<String, KeyQueue> queues = new HashMap<>();
+
+  /**
+   * Round robin order of the queues with pending tasks
+   */
+  private final ArrayDeque<KeyQueue> schedule = new ArrayDeque<>();
+
+  private int count;
+
+  public FairTaskQueue(int capacity, int keyCapacity, OverflowPolicy overflowPolicy) {
+    this.capacity = Math.max(1, capacity);
+    this.keyCapacity = Math.max(1, keyCapacity);
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  @Override
+  public boolean offer(Runnable task) {
+    if (task == null) {
+      throw new NullPointerException();
+    }
+
+    Runnable dropped = null;
+
+    lock.lock();
+
+    try {
+      String key = keyOf(task);
+      KeyQueue queue = queues.get(key);
+
+      if (queue != null && queue.tasks.size() >= keyCapacity) {
+        if (overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+          return false;
+        }
+
+        dropped = queue.tasks.pollFirst();
+        count--;
+      }
+
+      if (count >= capacity) {
+        return false;
+      }
+
+      if (queue == null) {
+        queue = new KeyQueue(key, weightOf(task));
+        queues.put(key, queue);
+        schedule.addLast(queue);
+      }
+
+      queue.tasks.addLast(task);
+      count++;
+
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+
+    if (dropped instanceof Future) {
+      ((Future<?>) dropped).cancel(false);
+    }
+
+    return true;
+  }
+
+  @Override
+  public void put(Runnable task) throws InterruptedException {
+    if (!offer(task)) {
+      throw new IllegalStateException("Queue full");
+    }
+  }
+
+  @Override
+  public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+    return offer(task);
+  }
+
+  @Override
+  public Runnable poll() {
+    lock.lock();
+
+    try {
+      return (count == 0) ? null : dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable take() throws InterruptedException {
+    lock.lockInterruptibly();
+
+    try {
+      while (count == 0) {
+        notEmpty.await();
+      }
+
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+
+    lock.lockInterruptibly();
+
+    try {
+      while (count == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Runnable peek() {
+    lock.lock();
+
+    try {
+      return (count == 0) ? null : schedule.peekFirst().tasks.peekFirst();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean remove(Object task) {
+    if (!(task instanceof Runnable)) {
+      return false;
+    }
+
+    lock.lock();
+
+    try {
+      KeyQueue queue = queues.get(keyOf((Runnable) task));
+
+      if (queue == null || !queue.tasks.remove(task)) {
+        return false;
+      }
+
+      count--;
+
+      if (queue.tasks.isEmpty()) {
+        queues.remove(queue.key);
+        schedule.remove(queue);
+      }
+
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+
+    try {
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+
+    try {
+      return capacity - count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the number of keys with pending tasks.
+   * @return Number of keys
+   */
+  public int getKeyCount() {
+    lock.lock();
+
+    try {
+      return queues.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> collection) {
+    return drainTo(collection, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+    if (collection == this) {
+      throw new IllegalArgumentException();
+    }
+
+    lock.lock();
+
+    try {
+      int drained = 0;
+
+      while (count > 0 && drained < maxElements) {
+        collection.add(dequeue());
+        drained++;
+      }
+
+      return drained;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns an iterator over a snapshot of the pending tasks. Removing through the iterator
+   * removes the task from this queue.
+   */
+  @Override
+  public Iterator<Runnable> iterator() {
+    final List<Runnable> snapshot = new ArrayList<>();
+
+    lock.lock();
+
+    try {
+      for (KeyQueue queue : schedule) {
+        snapshot.addAll(queue.tasks);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    final Iterator<Runnable> iterator = snapshot.iterator();
+
+    return new Iterator<Runnable>() {
+
+      private Runnable last;
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Runnable next() {
+        last = iterator.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        if (last == null) {
+          throw new IllegalStateException();
+        }
+
+        FairTaskQueue.this.remove(last);
+        last = null;
+      }
+    };
+  }
+
+  /**
+   * Takes the next task from the queue at the head of the schedule. The queue moves to the end of
+   * the schedule once it runs out of deficit. Must be called holding the lock, with count > 0.
+   */
+  private Runnable dequeue() {
+    KeyQueue queue = schedule.peekFirst();
+
+    if (queue.deficit <= 0) {
+      queue.deficit += queue.weight;
+    }
+
+    Runnable task = queue.tasks.pollFirst();
+    queue.deficit--;
+    count--;
+
+    if (queue.tasks.isEmpty()) {
+      schedule.pollFirst();
+      queues.remove(queue.key);
+    } else if (queue.deficit <= 0) {
+      schedule.addLast(schedule.pollFirst());
+    }
+
+    return task;
+  }
+
+  private String keyOf(Runnable task) {
+    if (task instanceof FairTask) {
+      String key = ((FairTask) task).getKey();
+      return (key == null) ? DEFAULT_KEY : key;
+    }
+
+    return DEFAULT_KEY;
+  }
+
+  private int weightOf(Runnable task) {
+    return (task instanceof FairTask) ? Math.max(1, ((FairTask) task).getWeight()) : 1;
+  }
+
+  /**
+   * Pending tasks of a key.
+   */
+  private static class KeyQueue {
+
+    private final String key;
+
+    private final int weight;
+
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+    private int deficit;
+
+    KeyQueue(String key, int weight) {
+      this.key = key;
+      this.weight = weight;
+    }
+
+  }
+
+}
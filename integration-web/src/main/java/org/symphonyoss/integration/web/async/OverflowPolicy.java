@@ -0,0 +1,58 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import java.util.Locale;
+
+/**
+ * Defines what the {@link FairTaskQueue} does when a task arrives at a full queue.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * The new task is rejected
+   */
+  REJECT_NEWEST,
+
+  /**
+   * The oldest task of the queue is cancelled to make room for the new one
+   */
+  DROP_OLDEST;
+
+  /**
+   * Parses the policy name, accepting both "drop-oldest" and "DROP_OLDEST".
+   * @param value Policy name
+   * @param defaultPolicy Policy returned if the name is unknown
+   * @return Overflow policy
+   */
+  public static OverflowPolicy fromValue(String value, OverflowPolicy defaultPolicy) {
+    if (value == null) {
+      return defaultPolicy;
+    }
+
+    String normalized = value.trim().replace('-', '_').toUpperCase(Locale.ENGLISH);
+
+    for (OverflowPolicy policy : values()) {
+      if (policy.name().equals(normalized)) {
+        return policy;
+      }
+    }
+
+    return defaultPolicy;
+  }
+
+}
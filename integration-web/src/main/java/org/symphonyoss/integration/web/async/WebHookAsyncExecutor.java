@@ -0,0 +1,416 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.core.bootstrap.NamedThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Processes the webhook requests on a dedicated, bounded thread pool using the Servlet async
+ * support, so the container threads are released while the integrations talk to the Agent.
+ *
+ * Requests that can't be queued are answered with HTTP 503 (Service Unavailable). Requests that
+ * exceed the timeout are answered with HTTP 503 if they never started, or with HTTP 504 (Gateway
+ * Timeout) if they were still being processed. Requests already running are not interrupted.
+ *
+ * The queued requests are served per webhook instance in weighted round robin order (see
+ * {@link FairTaskQueue}), so a noisy instance can't take the share of the other instances of the
+ * same integration. Weights can be configured per instance hash using the key
+ * integration_bridge.webhook-async.fair-queue.weights.[hash].
+ *
+ * The request {@link Deadline} is propagated to the pool thread and bounds the async timeout.
+ * Tasks whose deadline expired while queued are answered with HTTP 504 without running.
+ *
+ * The async mode is disabled by default. When disabled, or when the request doesn't support
+ * async processing, the tasks run on the caller thread.
+ */
+@Component
+public class WebHookAsyncExecutor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebHookAsyncExecutor.class);
+
+  private static final String PREFIX = "integration_bridge.webhook-async.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String THREADS_KEY = PREFIX + "threads";
+
+  public static final String QUEUE_SIZE_KEY = PREFIX + "queue-size";
+
+  public static final String TIMEOUT_KEY = PREFIX + "timeout";
+
+  private static final String FAIR_QUEUE_PREFIX = PREFIX + "fair-queue.";
+
+  public static final String FAIR_QUEUE_ENABLED_KEY = FAIR_QUEUE_PREFIX + "enabled";
+
+  public static final String INSTANCE_QUEUE_SIZE_KEY = FAIR_QUEUE_PREFIX + "instance-queue-size";
+
+  public static final String OVERFLOW_POLICY_KEY = FAIR_QUEUE_PREFIX + "overflow";
+
+  public static final String DEFAULT_WEIGHT_KEY = FAIR_QUEUE_PREFIX + "default-weight";
+
+  public static final String WEIGHTS_PREFIX = FAIR_QUEUE_PREFIX + "weights.";
+
+  private static final String THREAD_NAME = "webhook-async";
+
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  private static final String METRIC_PREFIX = "webhook.async";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private WebHookAsyncSettings settings = new WebHookAsyncSettings();
+
+  private ThreadPoolExecutor executor;
+
+  private Meter rejected;
+
+  private Meter timeouts;
+
+  private Meter dropped;
+
+  /**
+   * Reads the executor settings and starts the thread pool. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    WebHookAsyncSettings defaults = new WebHookAsyncSettings();
+
+    settings.setEnabled(environment.getProperty(ENABLED_KEY, Boolean.class, defaults.isEnabled()));
+    settings.setThreads(environment.getProperty(THREADS_KEY, Integer.class, defaults.getThreads()));
+    settings.setQueueSize(
+        environment.getProperty(QUEUE_SIZE_KEY, Integer.class, defaults.getQueueSize()));
+    settings.setTimeoutMillis(
+        environment.getProperty(TIMEOUT_KEY, Long.class, defaults.getTimeoutMillis()));
+    settings.setFairQueueEnabled(environment.getProperty(FAIR_QUEUE_ENABLED_KEY, Boolean.class,
+        defaults.isFairQueueEnabled()));
+    settings.setInstanceQueueSize(environment.getProperty(INSTANCE_QUEUE_SIZE_KEY, Integer.class,
+        defaults.getInstanceQueueSize()));
+    settings.setOverflowPolicy(OverflowPolicy.fromValue(
+        environment.getProperty(OVERFLOW_POLICY_KEY), defaults.getOverflowPolicy()));
+    settings.setDefaultWeight(environment.getProperty(DEFAULT_WEIGHT_KEY, Integer.class,
+        defaults.getDefaultWeight()));
+
+    if (settings.isEnabled()) {
+      int threads = Math.max(1, settings.getThreads());
+
+      this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+          createQueue(), new NamedThreadFactory(THREAD_NAME, true));
+      this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    registerMetrics();
+
+    LOGGER.info("Webhook async processing enabled: {}, threads: {}, timeout: {}ms, "
+            + "fair queue: {}", settings.isEnabled(), settings.getThreads(),
+        settings.getTimeoutMillis(), settings.isFairQueueEnabled());
+  }
+
+  private BlockingQueue<Runnable> createQueue() {
+    int queueSize = Math.max(1, settings.getQueueSize());
+
+    if (settings.isFairQueueEnabled()) {
+      return new FairTaskQueue(queueSize, settings.getInstanceQueueSize(),
+          settings.getOverflowPolicy());
+    }
+
+    return new ArrayBlockingQueue<>(queueSize);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  public boolean isEnabled() {
+    return settings.isEnabled() && executor != null;
+  }
+
+  public WebHookAsyncSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Submits the task to the thread pool and starts the async processing of the request. The
+   * response is written when the task completes or the timeout expires.
+   * @param request HTTP request
+   * @param task Processing step
+   * @param <T> Response body type
+   * @return null if the async processing started or HTTP 503 if the task was rejected
+   */
+  public <T> ResponseEntity<T> submit(HttpServletRequest request, WebHookTask<T> task) {
+    return submit(request, null, task);
+  }
+
+  /**
+   * Submits the task to the queue of the webhook instance and starts the async processing of the
+   * request. The response is written when the task completes or the timeout expires. Tasks
+   * dropped from a full instance queue are answered with HTTP 503.
+   * @param request HTTP request
+   * @param instanceId Webhook instance hash or null to use the default queue
+   * @param task Processing step
+   * @param <T> Response body type
+   * @return null if the async processing started or HTTP 503 if the task was rejected
+   */
+  public <T> ResponseEntity<T> submit(HttpServletRequest request, String instanceId,
+      final WebHookTask<T> task) {
+    final Deadline deadline = Deadline.current();
+    final DeferredResult<ResponseEntity<T>> result =
+        new DeferredResult<>(getTimeoutMillis(deadline));
+    final Map<String, String> context = MDC.getCopyOfContextMap();
+
+    final WebHookFutureTask<T> future =
+        new WebHookFutureTask<>(instanceId, getWeight(instanceId), result, new Runnable() {
+          @Override
+          public void run() {
+            execute(task, result, context, deadline);
+          }
+        });
+
+    try {
+      executor.execute(future);
+    } catch (RejectedExecutionException e) {
+      rejected.mark();
+      LOGGER.warn("Webhook request rejected, the async queue is full");
+      return serviceUnavailable();
+    }
+
+    result.onTimeout(new Runnable() {
+      @Override
+      public void run() {
+        timeouts.mark();
+
+        if (future.expire()) {
+          LOGGER.warn("Webhook request expired in the async queue");
+          result.setResult(WebHookAsyncExecutor.<T>serviceUnavailable());
+        } else {
+          LOGGER.warn("Webhook request exceeded the timeout of {}ms", settings.getTimeoutMillis());
+          result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).<T>build());
+        }
+      }
+    });
+
+    try {
+      WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+      asyncManager.startDeferredResultProcessing(result);
+    } catch (Exception e) {
+      // The task result is delivered through the deferred result, so it's safe to cancel it
+      future.expire();
+      throw new IllegalStateException("Cannot start the async processing", e);
+    }
+
+    return null;
+  }
+
+  private <T> void execute(WebHookTask<T> task, DeferredResult<ResponseEntity<T>> result,
+      Map<String, String> context, Deadline deadline) {
+    if (deadline != null && deadline.isExpired()) {
+      LOGGER.warn("Webhook request deadline expired in the async queue");
+      result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).<T>build());
+      return;
+    }
+
+    if (context != null) {
+      MDC.setContextMap(context);
+    }
+
+    Deadline previous = Deadline.attach(deadline);
+
+    try {
+      result.setResult(task.execute());
+    } catch (Throwable e) {
+      result.setErrorResult(e);
+    } finally {
+      Deadline.restore(previous);
+      MDC.clear();
+    }
+  }
+
+  /**
+   * Retrieves the async timeout. The timeout is bounded by the remaining time of the request
+   * deadline.
+   * @param deadline Request deadline or null if there is no deadline
+   * @return Timeout (milliseconds)
+   */
+  private long getTimeoutMillis(Deadline deadline) {
+    if (deadline == null) {
+      return settings.getTimeoutMillis();
+    }
+
+    long remaining = Math.max(1, deadline.remaining(TimeUnit.MILLISECONDS));
+    return Math.min(settings.getTimeoutMillis(), remaining);
+  }
+
+  /**
+   * Retrieves the weight of the webhook instance. The weight isn't cached, so the hashes sent by
+   * the clients don't pile up in memory.
+   * @param instanceId Webhook instance hash
+   * @return Instance weight
+   */
+  private int getWeight(String instanceId) {
+    if (instanceId == null || !settings.isFairQueueEnabled()) {
+      return settings.getDefaultWeight();
+    }
+
+    return environment.getProperty(WEIGHTS_PREFIX + instanceId, Integer.class,
+        settings.getDefaultWeight());
+  }
+
+  private static <T> ResponseEntity<T> serviceUnavailable() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(RETRY_AFTER_HEADER, RETRY_AFTER_SECONDS)
+        .build();
+  }
+
+  private void registerMetrics() {
+    this.rejected =
+        metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "rejected"));
+    this.timeouts =
+        metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "timeouts"));
+    this.dropped =
+        metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "dropped"));
+
+    String queueSize = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "queueSize");
+
+    if (!metricsRegistry.getGauges().containsKey(queueSize)) {
+      metricsRegistry.register(queueSize, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return (executor == null) ? 0 : executor.getQueue().size();
+        }
+      });
+    }
+
+    String instanceQueues = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "instanceQueues");
+
+    if (!metricsRegistry.getGauges().containsKey(instanceQueues)) {
+      metricsRegistry.register(instanceQueues, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          if (executor != null && executor.getQueue() instanceof FairTaskQueue) {
+            return ((FairTaskQueue) executor.getQueue()).getKeyCount();
+          }
+
+          return 0;
+        }
+      });
+    }
+
+    String activeThreads = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "activeThreads");
+
+    if (!metricsRegistry.getGauges().containsKey(activeThreads)) {
+      metricsRegistry.register(activeThreads, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return (executor == null) ? 0 : executor.getActiveCount();
+        }
+      });
+    }
+  }
+
+  /**
+   * Queued webhook request. The request is answered with HTTP 503 if the task is cancelled before
+   * it starts, either because it expired or because it was dropped from a full instance queue.
+   */
+  private class WebHookFutureTask<T> extends FutureTask<Void> implements FairTask {
+
+    private final String instanceId;
+
+    private final int weight;
+
+    private final DeferredResult<ResponseEntity<T>> result;
+
+    private volatile boolean expired;
+
+    WebHookFutureTask(String instanceId, int weight, DeferredResult<ResponseEntity<T>> result,
+        Runnable runnable) {
+      super(runnable, null);
+      this.instanceId = instanceId;
+      this.weight = weight;
+      this.result = result;
+    }
+
+    @Override
+    public String getKey() {
+      return instanceId;
+    }
+
+    @Override
+    public int getWeight() {
+      return weight;
+    }
+
+    /**
+     * Cancels the task due to the request timeout.
+     * @return true if the task was cancelled before it started or false otherwise
+     */
+    boolean expire() {
+      this.expired = true;
+      return cancel(false);
+    }
+
+    @Override
+    protected void done() {
+      if (isCancelled()) {
+        if (!expired) {
+          dropped.mark();
+          LOGGER.warn("Webhook request dropped from the queue of the instance {}", instanceId);
+        }
+
+        result.setResult(WebHookAsyncExecutor.<T>serviceUnavailable());
+      }
+    }
+
+  }
+
+}
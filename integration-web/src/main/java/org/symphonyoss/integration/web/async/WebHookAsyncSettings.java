@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+/**
+ * Settings used by the {@link WebHookAsyncExecutor}.
+ */
+public class WebHookAsyncSettings {
+
+  private boolean enabled = false;
+
+  /**
+   * Number of threads that process the webhook requests
+   */
+  private int threads = 32;
+
+  /**
+   * Max number of requests waiting for a thread
+   */
+  private int queueSize = 256;
+
+  /**
+   * Max time to process a request (milliseconds)
+   */
+  private long timeoutMillis = 30000;
+
+  /**
+   * Serves the queued requests of each webhook instance in turns
+   */
+  private boolean fairQueueEnabled = true;
+
+  /**
+   * Max number of requests waiting for a thread for each webhook instance
+   */
+  private int instanceQueueSize = 64;
+
+  /**
+   * Policy applied when the queue of a webhook instance is full
+   */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT_NEWEST;
+
+  /**
+   * Number of requests served from each webhook instance queue per round
+   */
+  private int defaultWeight = 1;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public boolean isFairQueueEnabled() {
+    return fairQueueEnabled;
+  }
+
+  public void setFairQueueEnabled(boolean fairQueueEnabled) {
+    this.fairQueueEnabled = fairQueueEnabled;
+  }
+
+  public int getInstanceQueueSize() {
+    return instanceQueueSize;
+  }
+
+  public void setInstanceQueueSize(int instanceQueueSize) {
+    this.instanceQueueSize = instanceQueueSize;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  public int getDefaultWeight() {
+    return defaultWeight;
+  }
+
+  public void setDefaultWeight(int defaultWeight) {
+    this.defaultWeight = defaultWeight;
+  }
+
+}
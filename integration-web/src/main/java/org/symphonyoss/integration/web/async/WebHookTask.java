@@ -0,0 +1,35 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import org.springframework.http.ResponseEntity;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+/**
+ * Processing step of a webhook request that may run outside the servlet container thread.
+ * @param <T> Response body type
+ */
+public interface WebHookTask<T> {
+
+  /**
+   * Processes the request.
+   * @return HTTP response
+   * @throws RemoteApiException Failure to process the request
+   */
+  ResponseEntity<T> execute() throws RemoteApiException;
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.batch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Splits the body of a batch request into the events it carries.
+ *
+ * A batch is either a JSON array, where each element is an event, or NDJSON (newline-delimited
+ * JSON), where each non-blank line is an event. The format is detected by the first non-blank
+ * character of the body. The events are returned in the order they were sent.
+ *
+ * The events are counted while the body is split, so the parsing stops as soon as the batch
+ * exceeds the max number of events.
+ */
+@Component
+public class WebHookBatchParser {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebHookBatchParser.class);
+
+  private static final String PREFIX = "integration_bridge.webhook-batch.";
+
+  public static final String MAX_ITEMS_KEY = PREFIX + "max-items";
+
+  private static final int DEFAULT_MAX_ITEMS = 500;
+
+  private static final char ARRAY_START = '[';
+
+  private static final char LINE_SEPARATOR = '\n';
+
+  private static final String INVALID_ARRAY_MESSAGE = "Batch payload isn't a valid JSON array";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Autowired
+  private Environment environment;
+
+  private int maxItems = DEFAULT_MAX_ITEMS;
+
+  /**
+   * Reads the batch settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.maxItems = environment.getProperty(MAX_ITEMS_KEY, Integer.class, DEFAULT_MAX_ITEMS);
+    LOGGER.info("Webhook batch max items: {}", maxItems);
+  }
+
+  /**
+   * Retrieves the max number of events accepted in a single batch.
+   * @return Max number of events
+   */
+  public int getMaxItems() {
+    return maxItems;
+  }
+
+  /**
+   * Splits the batch into events.
+   * @param body Request body
+   * @return Events, serialized as JSON
+   * @throws InvalidBatchException The body is blank or it's an invalid JSON array
+   * @throws BatchTooLargeException The batch exceeds the max number of events
+   */
+  public List<String> parse(String body) throws InvalidBatchException {
+    if (StringUtils.isBlank(body)) {
+      throw new InvalidBatchException("Batch payload is empty");
+    }
+
+    String content = body.trim();
+
+    if (content.charAt(0) == ARRAY_START) {
+      return parseArray(content);
+    }
+
+    return parseLines(content);
+  }
+
+  private List<String> parseArray(String content) throws InvalidBatchException {
+    List<String> items = new ArrayList<>();
+
+    try (JsonParser parser = mapper.getFactory().createParser(content)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new InvalidBatchException(INVALID_ARRAY_MESSAGE);
+      }
+
+      JsonToken token = parser.nextToken();
+
+      while (token != JsonToken.END_ARRAY) {
+        if (token == null) {
+          throw new InvalidBatchException(INVALID_ARRAY_MESSAGE);
+        }
+
+        checkLimit(items);
+
+        // A JSON null element may be read as a null node
+        JsonNode item = mapper.readTree(parser);
+        items.add(String.valueOf(item));
+
+        token = parser.nextToken();
+      }
+    } catch (IOException e) {
+      throw new InvalidBatchException(INVALID_ARRAY_MESSAGE, e);
+    }
+
+    return items;
+  }
+
+  private List<String> parseLines(String content) throws BatchTooLargeException {
+    List<String> items = new ArrayList<>();
+    int start = 0;
+
+    while (start < content.length()) {
+      int end = content.indexOf(LINE_SEPARATOR, start);
+
+      if (end < 0) {
+        end = content.length();
+      }
+
+      String line = content.substring(start, end).trim();
+
+      if (!line.isEmpty()) {
+        checkLimit(items);
+        items.add(line);
+      }
+
+      start = end + 1;
+    }
+
+    return items;
+  }
+
+  /**
+   * Checks if a new event can be added to the batch.
+   * @param items Events already parsed
+   * @throws BatchTooLargeException The batch exceeds the max number of events
+   */
+  private void checkLimit(List<String> items) throws BatchTooLargeException {
+    if (items.size() >= maxItems) {
+      throw new BatchTooLargeException(
+          String.format("Batch exceeds the limit of %d events", maxItems));
+    }
+  }
+
+}
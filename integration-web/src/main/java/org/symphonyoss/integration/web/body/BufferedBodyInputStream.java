@@ -0,0 +1,88 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+/**
+ * Servlet input stream that reads a {@link BufferedRequestBody}.
+ */
+public class BufferedBodyInputStream extends ServletInputStream {
+
+  private final BufferedRequestBody body;
+
+  private final InputStream input;
+
+  private boolean finished;
+
+  public BufferedBodyInputStream(BufferedRequestBody body) {
+    this.body = body;
+    this.input = body.openStream();
+  }
+
+  public BufferedRequestBody getBody() {
+    return body;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int value = input.read();
+    finished = (value < 0);
+    return value;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int read = input.read(b, off, len);
+    finished = (read < 0);
+    return read;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return input.available();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return finished;
+  }
+
+  @Override
+  public boolean isReady() {
+    return true;
+  }
+
+  /**
+   * The body is already in memory, so the listener is notified immediately.
+   * @param readListener Read listener
+   */
+  @Override
+  public void setReadListener(ReadListener readListener) {
+    try {
+      readListener.onDataAvailable();
+      readListener.onAllDataRead();
+    } catch (IOException e) {
+      readListener.onError(e);
+    }
+  }
+
+}
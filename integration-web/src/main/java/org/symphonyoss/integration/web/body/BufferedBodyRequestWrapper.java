@@ -0,0 +1,70 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request wrapper that serves the body from a {@link BufferedRequestBody}. Each call to
+ * {@link #getInputStream()} returns a new stream, so the body can be read more than once.
+ */
+public class BufferedBodyRequestWrapper extends HttpServletRequestWrapper {
+
+  private final BufferedRequestBody body;
+
+  public BufferedBodyRequestWrapper(HttpServletRequest request, BufferedRequestBody body) {
+    super(request);
+    this.body = body;
+    request.setAttribute(BufferedRequestBody.ATTRIBUTE, body);
+  }
+
+  public BufferedRequestBody getBody() {
+    return body;
+  }
+
+  @Override
+  public ServletInputStream getInputStream() throws IOException {
+    return new BufferedBodyInputStream(body);
+  }
+
+  @Override
+  public BufferedReader getReader() throws IOException {
+    String encoding = getCharacterEncoding();
+    Charset charset =
+        (encoding != null) ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+    return new BufferedReader(new InputStreamReader(body.openStream(), charset));
+  }
+
+  @Override
+  public int getContentLength() {
+    return body.size();
+  }
+
+  @Override
+  public long getContentLengthLong() {
+    return body.size();
+  }
+
+}
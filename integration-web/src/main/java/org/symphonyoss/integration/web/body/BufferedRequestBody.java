@@ -0,0 +1,141 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Request body read as bytes. The body can be read as many times as required, so the
+ * components that need the raw bytes don't have to buffer the body again.
+ */
+public class BufferedRequestBody {
+
+  /**
+   * Request attribute used to share the buffered body with the web resources
+   */
+  public static final String ATTRIBUTE = BufferedRequestBody.class.getName();
+
+  private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+  private final byte[] bytes;
+
+  private final int length;
+
+  BufferedRequestBody(byte[] bytes, int length) {
+    this.bytes = bytes;
+    this.length = length;
+  }
+
+  /**
+   * Reads the body from the input stream. If the content length is known, the buffer is
+   * allocated with the exact size, otherwise it grows as the bytes arrive. A full buffer only grows
+   * when the stream has more bytes, so a body with the announced length is never copied. The read
+   * is aborted as soon as the body exceeds the max size.
+   * @param input Request input stream
+   * @param contentLength Content length informed by the client or -1 if unknown
+   * @param maxSize Max body size (bytes)
+   * @return Buffered body
+   * @throws RequestBodyTooLargeException Body exceeds the max size
+   * @throws IOException Failure to read the body
+   */
+  public static BufferedRequestBody read(InputStream input, long contentLength, long maxSize)
+      throws IOException {
+    if (contentLength > maxSize) {
+      throw new RequestBodyTooLargeException(maxSize);
+    }
+
+    int initialSize = (contentLength >= 0) ? (int) contentLength
+        : (int) Math.min(DEFAULT_BUFFER_SIZE, maxSize);
+    byte[] buffer = new byte[initialSize];
+    int length = 0;
+
+    while (true) {
+      if (length == buffer.length) {
+        // The buffer is full, checks the end of the body before growing it
+        int next = input.read();
+
+        if (next < 0) {
+          break;
+        }
+
+        if (length >= maxSize) {
+          throw new RequestBodyTooLargeException(maxSize);
+        }
+
+        // Unknown length or body larger than announced
+        long newSize = Math.min(maxSize, Math.max((long) buffer.length * 2, DEFAULT_BUFFER_SIZE));
+        buffer = Arrays.copyOf(buffer, (int) newSize);
+        buffer[length++] = (byte) next;
+      }
+
+      int read = input.read(buffer, length, buffer.length - length);
+
+      if (read < 0) {
+        break;
+      }
+
+      length += read;
+    }
+
+    if (length < buffer.length) {
+      // Body shorter than the buffer, keeps only the bytes read
+      buffer = Arrays.copyOf(buffer, length);
+    }
+
+    return new BufferedRequestBody(buffer, length);
+  }
+
+  /**
+   * Retrieves the body size.
+   * @return Size (bytes)
+   */
+  public int size() {
+    return length;
+  }
+
+  /**
+   * Opens a new stream to read the body.
+   * @return Input stream
+   */
+  public InputStream openStream() {
+    return new ByteArrayInputStream(bytes, 0, length);
+  }
+
+  /**
+   * Writes the body to the output stream.
+   * @param output Output stream
+   * @throws IOException Failure to write the body
+   */
+  public void writeTo(OutputStream output) throws IOException {
+    output.write(bytes, 0, length);
+  }
+
+  /**
+   * Decodes the body.
+   * @param charset Body charset
+   * @return Decoded body
+   */
+  public String asString(Charset charset) {
+    return new String(bytes, 0, length, charset);
+  }
+
+}
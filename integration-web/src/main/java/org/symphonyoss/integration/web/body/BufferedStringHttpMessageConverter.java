@@ -0,0 +1,58 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * String converter that decodes the {@link BufferedRequestBody} in a single step, allocating a
+ * string with the exact size instead of growing a buffer while the body is read.
+ */
+public class BufferedStringHttpMessageConverter extends StringHttpMessageConverter {
+
+  public BufferedStringHttpMessageConverter(Charset defaultCharset) {
+    super(defaultCharset);
+  }
+
+  @Override
+  protected String readInternal(Class<? extends String> clazz, HttpInputMessage inputMessage)
+      throws IOException {
+    InputStream input = inputMessage.getBody();
+
+    if (input instanceof BufferedBodyInputStream) {
+      BufferedRequestBody body = ((BufferedBodyInputStream) input).getBody();
+      return body.asString(getCharset(inputMessage.getHeaders().getContentType()));
+    }
+
+    return super.readInternal(clazz, inputMessage);
+  }
+
+  private Charset getCharset(MediaType contentType) {
+    if (contentType != null && contentType.getCharset() != null) {
+      return contentType.getCharset();
+    }
+
+    return getDefaultCharset();
+  }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Size limits for the webhook request bodies. The limits are disabled by default.
+ *
+ * The default limit can be overridden for each integration using the key
+ * integration_bridge.webhook-body.[integration].max-size, where [integration] is the first
+ * segment of the webhook path (configuration type or configuration identifier).
+ */
+@Component
+public class RequestBodyLimits {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RequestBodyLimits.class);
+
+  private static final String PREFIX = "integration_bridge.webhook-body.";
+
+  private static final String MAX_SIZE = "max-size";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String MAX_SIZE_KEY = PREFIX + MAX_SIZE;
+
+  private static final boolean DEFAULT_ENABLED = false;
+
+  /**
+   * Default max body size (5 MB)
+   */
+  private static final long DEFAULT_MAX_SIZE = 5 * 1024 * 1024;
+
+  private static final String METRIC_PREFIX = "webhook.body";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private final ConcurrentMap<String, Long> limits = new ConcurrentHashMap<>();
+
+  private boolean enabled;
+
+  private long defaultMaxSize;
+
+  private Meter rejected;
+
+  private Histogram size;
+
+  /**
+   * Reads the default limit. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, DEFAULT_ENABLED);
+    this.defaultMaxSize = environment.getProperty(MAX_SIZE_KEY, Long.class, DEFAULT_MAX_SIZE);
+
+    this.rejected =
+        metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "rejected"));
+    this.size =
+        metricsRegistry.histogram(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "size"));
+
+    LOGGER.info("Webhook body buffering enabled: {}, max size: {} bytes", enabled,
+        defaultMaxSize);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Retrieves the max body size for the integration.
+   * @param integration Configuration type or configuration identifier
+   * @return Max body size (bytes)
+   */
+  public long getMaxSize(String integration) {
+    if (integration == null) {
+      return defaultMaxSize;
+    }
+
+    Long maxSize = limits.get(integration);
+
+    if (maxSize == null) {
+      maxSize = environment.getProperty(PREFIX + integration + "." + MAX_SIZE, Long.class,
+          defaultMaxSize);
+      limits.putIfAbsent(integration, maxSize);
+    }
+
+    return maxSize;
+  }
+
+  /**
+   * Reports a body was accepted.
+   * @param bytes Body size (bytes)
+   */
+  public void onAccepted(long bytes) {
+    size.update(bytes);
+  }
+
+  /**
+   * Reports a body was rejected because it exceeds the limit.
+   */
+  public void onRejected() {
+    rejected.mark();
+  }
+
+}
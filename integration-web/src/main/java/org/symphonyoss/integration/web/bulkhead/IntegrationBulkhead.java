@@ -0,0 +1,104 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded number of concurrency slots for the webhook requests of one integration.
+ *
+ * Requests that can't take a slot right away may wait for a short time, but only up to the queue
+ * size. Beyond that they are rejected immediately, so a flooded integration never holds more
+ * container threads than its slots plus its queue.
+ */
+public class IntegrationBulkhead {
+
+  private final int maxConcurrent;
+
+  private final int queueSize;
+
+  private final Semaphore slots;
+
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  public IntegrationBulkhead(int maxConcurrent, int queueSize) {
+    this.maxConcurrent = maxConcurrent;
+    this.queueSize = queueSize;
+    this.slots = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Takes a slot, waiting for it up to the max wait time if the queue isn't full.
+   * @param maxWaitMillis Max time to wait for a slot (milliseconds)
+   * @return true if the slot was taken or false otherwise
+   * @throws InterruptedException the current thread was interrupted while waiting for a slot
+   */
+  public boolean tryAcquire(long maxWaitMillis) throws InterruptedException {
+    if (slots.tryAcquire()) {
+      return true;
+    }
+
+    if (maxWaitMillis <= 0) {
+      return false;
+    }
+
+    if (waiting.incrementAndGet() > queueSize) {
+      waiting.decrementAndGet();
+      return false;
+    }
+
+    try {
+      return slots.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  /**
+   * Releases a slot taken by {@link #tryAcquire(long)}.
+   */
+  public void release() {
+    slots.release();
+  }
+
+  /**
+   * Retrieves the number of slots in use.
+   * @return Slots in use
+   */
+  public int getActive() {
+    return maxConcurrent - slots.availablePermits();
+  }
+
+  /**
+   * Retrieves the number of requests waiting for a slot.
+   * @return Requests waiting for a slot
+   */
+  public int getWaiting() {
+    return waiting.get();
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.bulkhead;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.web.metrics.RequestMetricsController;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Keeps one {@link IntegrationBulkhead} per integration, so a slow or flooded integration can't
+ * take every container thread and starve the others.
+ *
+ * The default sizes can be overridden for each integration using the keys
+ * integration_bridge.webhook-bulkhead.[integration].max-concurrent and
+ * integration_bridge.webhook-bulkhead.[integration].queue-size, where [integration] is the
+ * configuration type. Only the integrations known by the {@link RequestMetricsController} get a
+ * bulkhead, so bogus webhook paths can't create new ones.
+ */
+@Component
+public class WebHookBulkheads {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebHookBulkheads.class);
+
+  private static final String PREFIX = "integration_bridge.webhook-bulkhead.";
+
+  private static final String MAX_CONCURRENT = "max-concurrent";
+
+  private static final String QUEUE_SIZE = "queue-size";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String MAX_CONCURRENT_KEY = PREFIX + MAX_CONCURRENT;
+
+  public static final String QUEUE_SIZE_KEY = PREFIX + QUEUE_SIZE;
+
+  public static final String MAX_WAIT_KEY = PREFIX + "max-wait";
+
+  public static final String RETRY_AFTER_KEY = PREFIX + "retry-after";
+
+  private static final boolean DEFAULT_ENABLED = true;
+
+  private static final int DEFAULT_MAX_CONCURRENT = 50;
+
+  private static final int DEFAULT_QUEUE_SIZE = 20;
+
+  private static final long DEFAULT_MAX_WAIT = 100;
+
+  private static final long DEFAULT_RETRY_AFTER = 1;
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private RequestMetricsController metricsController;
+
+  private final ConcurrentMap<String, IntegrationBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  private boolean enabled;
+
+  private int defaultMaxConcurrent;
+
+  private int defaultQueueSize;
+
+  private long maxWaitMillis;
+
+  private long retryAfterSeconds;
+
+  /**
+   * Reads the default settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, DEFAULT_ENABLED);
+    this.defaultMaxConcurrent =
+        environment.getProperty(MAX_CONCURRENT_KEY, Integer.class, DEFAULT_MAX_CONCURRENT);
+    this.defaultQueueSize =
+        environment.getProperty(QUEUE_SIZE_KEY, Integer.class, DEFAULT_QUEUE_SIZE);
+    this.maxWaitMillis = environment.getProperty(MAX_WAIT_KEY, Long.class, DEFAULT_MAX_WAIT);
+    this.retryAfterSeconds =
+        environment.getProperty(RETRY_AFTER_KEY, Long.class, DEFAULT_RETRY_AFTER);
+
+    LOGGER.info("Webhook bulkheads enabled: {}, max concurrent: {}, queue size: {}", enabled,
+        defaultMaxConcurrent, defaultQueueSize);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getMaxWaitMillis() {
+    return maxWaitMillis;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  /**
+   * Retrieves the bulkhead for the integration. The bulkhead and its metrics are created on the
+   * first call.
+   * @param integration Configuration type
+   * @return Integration bulkhead or null if the integration is unknown
+   */
+  public IntegrationBulkhead getBulkhead(String integration) {
+    if (integration == null) {
+      return null;
+    }
+
+    IntegrationBulkhead bulkhead = bulkheads.get(integration);
+
+    if (bulkhead != null || !metricsController.isIntegration(integration)) {
+      return bulkhead;
+    }
+
+    int maxConcurrent = environment.getProperty(PREFIX + integration + "." + MAX_CONCURRENT,
+        Integer.class, defaultMaxConcurrent);
+    int queueSize = environment.getProperty(PREFIX + integration + "." + QUEUE_SIZE,
+        Integer.class, defaultQueueSize);
+
+    IntegrationBulkhead newBulkhead = new IntegrationBulkhead(maxConcurrent, queueSize);
+    bulkhead = bulkheads.putIfAbsent(integration, newBulkhead);
+
+    if (bulkhead == null) {
+      metricsController.initBulkhead(integration, newBulkhead);
+      return newBulkhead;
+    }
+
+    return bulkhead;
+  }
+
+  /**
+   * Reports a request was rejected because the integration bulkhead is full.
+   * @param integration Configuration type
+   */
+  public void onRejected(String integration) {
+    metricsController.bulkheadRejected(integration);
+  }
+
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.dedupe;
+
+import java.util.Arrays;
+
+/**
+ * Time-windowed and memory-bounded set of 64-bit digests.
+ *
+ * The window is split into generations. Each generation is an open addressing table of primitive
+ * longs, so no object is allocated per entry. New digests are added to the current generation and
+ * lookups check all generations. When the current generation gets older than its share of the
+ * window, or it's full, the oldest generation is cleared and becomes the current one. The memory
+ * is allocated upfront and never grows, so a burst of unique deliveries only shortens the window.
+ *
+ * The value zero is reserved to mark the empty slots and can't be stored.
+ */
+public class RotatingDigestSet {
+
+  private static final long EMPTY = 0L;
+
+  private static final double LOAD_FACTOR = 0.5;
+
+  private final long[][] tables;
+
+  private final int[] sizes;
+
+  private final int maxEntriesPerGeneration;
+
+  private final long generationNanos;
+
+  private int current;
+
+  private long generationStartNanos;
+
+  /**
+   * Creates the set.
+   * @param maxEntries Max number of digests kept in all generations
+   * @param generations Number of generations
+   * @param windowNanos Time a digest is kept (nanoseconds)
+   * @param nowNanos Current time (nanoseconds)
+   */
+  public RotatingDigestSet(int maxEntries, int generations, long windowNanos, long nowNanos) {
+    if (generations < 2) {
+      throw new IllegalArgumentException("At least two generations are required");
+    }
+
+    this.maxEntriesPerGeneration = Math.max(1, maxEntries / generations);
+    this.generationNanos = windowNanos / generations;
+    this.tables = new long[generations][tableSize(maxEntriesPerGeneration)];
+    this.sizes = new int[generations];
+    this.generationStartNanos = nowNanos;
+  }
+
+  /**
+   * Adds the digest if it isn't in the set.
+   * @param digest Digest (non-zero)
+   * @param nowNanos Current time (nanoseconds)
+   * @return true if the digest was added or false if it's already in the set
+   */
+  public synchronized boolean add(long digest, long nowNanos) {
+    checkDigest(digest);
+    rotate(nowNanos);
+
+    for (long[] table : tables) {
+      if (indexOf(table, digest) >= 0) {
+        return false;
+      }
+    }
+
+    if (sizes[current] >= maxEntriesPerGeneration) {
+      advance(nowNanos);
+    }
+
+    insert(tables[current], digest);
+    sizes[current]++;
+
+    return true;
+  }
+
+  /**
+   * Removes the digest from the set.
+   * @param digest Digest (non-zero)
+   */
+  public synchronized void remove(long digest) {
+    checkDigest(digest);
+
+    for (int i = 0; i < tables.length; i++) {
+      if (delete(tables[i], digest)) {
+        sizes[i]--;
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of digests in the set, including the expired generations not yet cleared.
+   * @return Number of digests
+   */
+  public synchronized int size() {
+    int size = 0;
+
+    for (int generationSize : sizes) {
+      size += generationSize;
+    }
+
+    return size;
+  }
+
+  private void checkDigest(long digest) {
+    if (digest == EMPTY) {
+      throw new IllegalArgumentException("Digest can't be zero");
+    }
+  }
+
+  /**
+   * Clears the generations that left the window.
+   * @param nowNanos Current time (nanoseconds)
+   */
+  private void rotate(long nowNanos) {
+    int expired = 0;
+
+    while (nowNanos - generationStartNanos >= generationNanos && expired < tables.length) {
+      advance(generationStartNanos + generationNanos);
+      expired++;
+    }
+
+    if (expired == tables.length) {
+      generationStartNanos = nowNanos;
+    }
+  }
+
+  private void advance(long startNanos) {
+    current = (current + 1) % tables.length;
+    Arrays.fill(tables[current], EMPTY);
+    sizes[current] = 0;
+    generationStartNanos = startNanos;
+  }
+
+  private static int tableSize(int entries) {
+    int size = Integer.highestOneBit((int) Math.ceil(entries / LOAD_FACTOR));
+    return size < entries / LOAD_FACTOR ? size << 1 : size;
+  }
+
+  private static int slot(long[] table, long digest) {
+    long mixed = digest * 0x9E3779B97F4A7C15L;
+    return (int) (mixed >>> 32) & (table.length - 1);
+  }
+
+  private static int indexOf(long[] table, long digest) {
+    int mask = table.length - 1;
+
+    for (int i = slot(table, digest); table[i] != EMPTY; i = (i + 1) & mask) {
+      if (table[i] == digest) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  private static void insert(long[] table, long digest) {
+    int mask = table.length - 1;
+    int i = slot(table, digest);
+
+    while (table[i] != EMPTY) {
+      i = (i + 1) & mask;
+    }
+
+    table[i] = digest;
+  }
+
+  /**
+   * Deletes the digest using backward shift, so the probe sequences stay valid without tombstones.
+   * @param table Open addressing table
+   * @param digest Digest
+   * @return true if the digest was found
+   */
+  private static boolean delete(long[] table, long digest) {
+    int hole = indexOf(table, digest);
+
+    if (hole < 0) {
+      return false;
+    }
+
+    int mask = table.length - 1;
+    int i = hole;
+
+    while (true) {
+      i = (i + 1) & mask;
+
+      if (table[i] == EMPTY) {
+        break;
+      }
+
+      int home = slot(table, table[i]);
+
+      // Moves the entry only if its home slot isn't cyclically between the hole and its position
+      boolean between = hole <= i ? (hole < home && home <= i) : (hole < home || home <= i);
+
+      if (!between) {
+        table[hole] = table[i];
+        hole = i;
+      }
+    }
+
+    table[hole] = EMPTY;
+    return true;
+  }
+
+}
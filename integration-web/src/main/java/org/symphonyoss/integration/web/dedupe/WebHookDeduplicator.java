@@ -0,0 +1,324 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.dedupe;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.webhook.WebHookPayload;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Suppresses duplicate webhook deliveries.
+ *
+ * Webhook sources usually retry when the response is slow, so the same event may be delivered
+ * more than once. Each delivery is identified by a 64-bit digest of the instance and the delivery
+ * id header sent by the source. Two distinct events may have the same content, so the request
+ * content is only hashed when the content-hash setting is enabled for the integration. Requests
+ * without a delivery id and without content hashing aren't tracked. The digests are kept in a
+ * {@link RotatingDigestSet} during the configured window.
+ *
+ * The digest is reserved when the request arrives, so a retry received while the first delivery
+ * is still in progress is also suppressed. Failed deliveries must be released, allowing the source
+ * to retry them.
+ */
+@Component
+public class WebHookDeduplicator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebHookDeduplicator.class);
+
+  /**
+   * Returned when the request isn't tracked
+   */
+  public static final long NO_DIGEST = 0L;
+
+  private static final String PREFIX = "integration_bridge.webhook-dedupe.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String WINDOW_KEY = PREFIX + "window";
+
+  public static final String MAX_ENTRIES_KEY = PREFIX + "max-entries";
+
+  public static final String GENERATIONS_KEY = PREFIX + "generations";
+
+  private static final String DELIVERY_ID_HEADER = "delivery-id-header";
+
+  private static final String CONTENT_HASH = "content-hash";
+
+  public static final String DELIVERY_ID_HEADER_KEY = PREFIX + DELIVERY_ID_HEADER;
+
+  public static final String CONTENT_HASH_KEY = PREFIX + CONTENT_HASH;
+
+  private static final String METRIC_PREFIX = "webhook.dedupe";
+
+  private static final String DUPLICATES = "duplicates";
+
+  private static final String SIZE = "size";
+
+  private static final boolean DEFAULT_ENABLED = false;
+
+  private static final boolean DEFAULT_CONTENT_HASH = false;
+
+  private static final long DEFAULT_WINDOW = 300;
+
+  private static final int DEFAULT_MAX_ENTRIES = 100000;
+
+  private static final int DEFAULT_GENERATIONS = 4;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private static final byte SEPARATOR = 0;
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private final ConcurrentMap<String, DeliveryKey> deliveryKeys = new ConcurrentHashMap<>();
+
+  private boolean enabled;
+
+  private DeliveryKey defaultDeliveryKey;
+
+  private RotatingDigestSet digests;
+
+  /**
+   * Reads the deduplication settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    this.enabled = environment.getProperty(ENABLED_KEY, Boolean.class, DEFAULT_ENABLED);
+    this.defaultDeliveryKey = new DeliveryKey(environment.getProperty(DELIVERY_ID_HEADER_KEY),
+        environment.getProperty(CONTENT_HASH_KEY, Boolean.class, DEFAULT_CONTENT_HASH));
+
+    long window = environment.getProperty(WINDOW_KEY, Long.class, DEFAULT_WINDOW);
+    int maxEntries = environment.getProperty(MAX_ENTRIES_KEY, Integer.class, DEFAULT_MAX_ENTRIES);
+    int generations =
+        environment.getProperty(GENERATIONS_KEY, Integer.class, DEFAULT_GENERATIONS);
+
+    if (enabled) {
+      this.digests = new RotatingDigestSet(maxEntries, generations,
+          TimeUnit.SECONDS.toNanos(window), System.nanoTime());
+      registerSizeGauge();
+    }
+
+    LOGGER.info("Webhook deduplication enabled: {}, window: {}s, max entries: {}", enabled, window,
+        maxEntries);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Computes the digest that identifies the delivery.
+   * @param hash Instance identifier
+   * @param configurationType Configuration type
+   * @param payload Webhook payload
+   * @return Delivery digest or {@link #NO_DIGEST} if the delivery isn't tracked
+   */
+  public long digest(String hash, String configurationType, WebHookPayload payload) {
+    if (!enabled) {
+      return NO_DIGEST;
+    }
+
+    DeliveryKey deliveryKey = getDeliveryKey(configurationType);
+    String header = deliveryKey.deliveryIdHeader;
+    String deliveryId = null;
+
+    if (header != null && payload.getHeaders() != null) {
+      deliveryId = payload.getHeaders().get(header);
+    }
+
+    long digest = update(FNV_OFFSET_BASIS, hash);
+
+    if (StringUtils.isNotEmpty(deliveryId)) {
+      digest = update(digest, header);
+      digest = update(digest, deliveryId);
+    } else if (!deliveryKey.contentHash) {
+      return NO_DIGEST;
+    } else if (payload.getBody() != null) {
+      digest = update(digest, payload.getBody());
+    } else if (payload.getParameters() != null) {
+      Map<String, String> parameters = new TreeMap<>(payload.getParameters());
+
+      for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+        digest = update(digest, parameter.getKey());
+        digest = update(digest, parameter.getValue());
+      }
+    }
+
+    return nonZero(digest);
+  }
+
+  /**
+   * Computes the digest that identifies an event delivered inside a batch. Batch items share the
+   * request headers, so they're only tracked when content hashing is enabled for the integration.
+   * @param hash Instance identifier
+   * @param configurationType Configuration type
+   * @param content Event content
+   * @return Event digest or {@link #NO_DIGEST} if the event isn't tracked
+   */
+  public long digestContent(String hash, String configurationType, String content) {
+    if (!enabled || !getDeliveryKey(configurationType).contentHash) {
+      return NO_DIGEST;
+    }
+
+    return nonZero(update(update(FNV_OFFSET_BASIS, hash), content));
+  }
+
+  /**
+   * Reserves the delivery digest.
+   * @param configurationType Configuration type
+   * @param digest Delivery digest
+   * @return true if the delivery was already received within the window
+   */
+  public boolean isDuplicate(String configurationType, long digest) {
+    if (digest == NO_DIGEST) {
+      return false;
+    }
+
+    if (digests.add(digest, System.nanoTime())) {
+      return false;
+    }
+
+    metricsRegistry.counter(
+        MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, configurationType, DUPLICATES)).inc();
+    return true;
+  }
+
+  /**
+   * Releases the delivery digest, so the source can deliver it again.
+   * @param digest Delivery digest
+   */
+  public void release(long digest) {
+    if (digest != NO_DIGEST) {
+      digests.remove(digest);
+    }
+  }
+
+  /**
+   * Retrieves the header that carries the delivery id for the integration.
+   * @param configurationType Configuration type
+   * @return Header name or null if the integration doesn't define one
+   */
+  public String getDeliveryIdHeader(String configurationType) {
+    return getDeliveryKey(configurationType).deliveryIdHeader;
+  }
+
+  /**
+   * Retrieves the delivery key settings of the integration. The integration settings are read once
+   * and fall back to the default settings.
+   * @param configurationType Configuration type
+   * @return Delivery key settings
+   */
+  private DeliveryKey getDeliveryKey(String configurationType) {
+    if (configurationType == null) {
+      return defaultDeliveryKey;
+    }
+
+    DeliveryKey deliveryKey = deliveryKeys.get(configurationType);
+
+    if (deliveryKey == null) {
+      String prefix = PREFIX + configurationType + ".";
+      deliveryKey = new DeliveryKey(
+          environment.getProperty(prefix + DELIVERY_ID_HEADER,
+              defaultDeliveryKey.deliveryIdHeader),
+          environment.getProperty(prefix + CONTENT_HASH, Boolean.class,
+              defaultDeliveryKey.contentHash));
+      deliveryKeys.putIfAbsent(configurationType, deliveryKey);
+    }
+
+    return deliveryKey;
+  }
+
+  /**
+   * Hashes the value using FNV-1a (64-bit) over the UTF-16 code units, so the value isn't copied,
+   * followed by a separator so the concatenation of two values can't collide with a single value.
+   */
+  private long update(long digest, String value) {
+    long result = digest;
+
+    if (value != null) {
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+
+        result ^= (c & 0xff);
+        result *= FNV_PRIME;
+        result ^= (c >>> 8);
+        result *= FNV_PRIME;
+      }
+    }
+
+    result ^= SEPARATOR;
+    result *= FNV_PRIME;
+
+    return result;
+  }
+
+  private long nonZero(long digest) {
+    return digest == NO_DIGEST ? 1L : digest;
+  }
+
+  private void registerSizeGauge() {
+    String name = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, SIZE);
+
+    if (!metricsRegistry.getGauges().containsKey(name)) {
+      metricsRegistry.register(name, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return digests.size();
+        }
+      });
+    }
+  }
+
+  /**
+   * Settings used to identify the deliveries of an integration.
+   */
+  private static final class DeliveryKey {
+
+    private final String deliveryIdHeader;
+
+    private final boolean contentHash;
+
+    DeliveryKey(String deliveryIdHeader, boolean contentHash) {
+      this.deliveryIdHeader = StringUtils.isBlank(deliveryIdHeader) ? null : deliveryIdHeader;
+      this.contentHash = contentHash;
+    }
+
+  }
+
+}
@@ -20,6 +20,7 @@ import com.codahale.metrics.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.web.async.AsyncCompletionListener;
 import org.symphonyoss.integration.web.metrics.RequestMetricsController;
 
 import java.io.IOException;
@@ -71,18 +72,20 @@ public class IntegrationMetricsFilter implements Filter {
 
   /**
    * Verifies if the request execution time should be logged and start the timer context if
-   * required.
+   * required. The timers are stopped when the request is complete, so the async processing time
+   * is also measured.
    */
   @Override
-  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+  public void doFilter(ServletRequest servletRequest, final ServletResponse servletResponse,
       FilterChain filterChain) throws IOException, ServletException {
     Timer.Context requestContext = null;
     Timer.Context webhookContext = null;
 
     boolean logRequest = true;
 
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+
     try {
-      HttpServletRequest request = (HttpServletRequest) servletRequest;
       String pathInfo = request.getRequestURI().replace(request.getContextPath(), StringUtils.EMPTY);
 
       logRequest = shouldLogRequest(pathInfo);
@@ -101,10 +104,18 @@ public class IntegrationMetricsFilter implements Filter {
       filterChain.doFilter(servletRequest, servletResponse);
     } finally {
       if (logRequest) {
-        metricsController.finishIntegrationExecution(webhookContext);
-
-        HttpServletResponse response = (HttpServletResponse) servletResponse;
-        metricsController.finishRequest(requestContext, response.getStatus());
+        final Timer.Context finalRequestContext = requestContext;
+        final Timer.Context finalWebhookContext = webhookContext;
+
+        new AsyncCompletionListener() {
+          @Override
+          protected void onRequestComplete() {
+            metricsController.finishIntegrationExecution(finalWebhookContext);
+
+            HttpServletResponse response = (HttpServletResponse) servletResponse;
+            metricsController.finishRequest(finalRequestContext, response.getStatus());
+          }
+        }.register(request);
       }
     }
   }
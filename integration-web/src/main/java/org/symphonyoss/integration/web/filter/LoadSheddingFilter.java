@@ -0,0 +1,150 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.web.async.AsyncCompletionListener;
+import org.symphonyoss.integration.web.shedding.AdaptiveConcurrencyLimiter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds the requests that exceed the adaptive concurrency limit.
+ *
+ * Requests beyond the limit are answered with HTTP 503 (Service Unavailable) and the Retry-After
+ * header before any processing. The latency of the accepted requests is reported to the limiter
+ * when the request is complete, so the requests processed asynchronously are also measured.
+ * Welcome requests and the paths listed in the exempt-url init parameter are never shed.
+ */
+public class LoadSheddingFilter implements Filter {
+
+  public static final String EXEMPT_URL_PARAM = "exempt-url";
+
+  private static final String WELCOME_SUFFIX = "/welcome";
+
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private static final String INFO_KEY = "info";
+
+  private static final String SERVICE_UNAVAILABLE_MESSAGE = "Service overloaded";
+
+  private AdaptiveConcurrencyLimiter limiter;
+
+  private List<String> exemptList;
+
+  /**
+   * Initialize the spring components and retrieves the init params.
+   * @param config Filter configuration
+   * @throws ServletException Report failure to initialize the filter
+   */
+  @Override
+  public void init(FilterConfig config) throws ServletException {
+    WebApplicationContext springContext =
+        WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
+    this.limiter = springContext.getBean(AdaptiveConcurrencyLimiter.class);
+
+    String exemptUrlParam = config.getInitParameter(EXEMPT_URL_PARAM);
+    this.exemptList = StringUtils.isEmpty(exemptUrlParam)
+        ? Collections.<String>emptyList() : Arrays.asList(exemptUrlParam.split(","));
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain filterChain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    final HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+    if (isExempt(request)) {
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    final int inflight = limiter.tryAcquire();
+
+    if (inflight < 0) {
+      writeResponse(response);
+      return;
+    }
+
+    final long start = System.nanoTime();
+
+    try {
+      filterChain.doFilter(servletRequest, servletResponse);
+    } finally {
+      new AsyncCompletionListener() {
+        @Override
+        protected void onRequestComplete() {
+          limiter.release(System.nanoTime() - start, inflight, response.getStatus());
+        }
+      }.register(request);
+    }
+  }
+
+  private boolean isExempt(HttpServletRequest request) {
+    String pathInfo = request.getRequestURI().replace(request.getContextPath(), StringUtils.EMPTY);
+
+    if (pathInfo.endsWith(WELCOME_SUFFIX)) {
+      return true;
+    }
+
+    for (String url : exemptList) {
+      if (pathInfo.startsWith(url)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Write the http error response.
+   * @param response Http response
+   * @throws IOException Report failure to write the http error response.
+   */
+  private void writeResponse(HttpServletResponse response) throws IOException {
+    response.setContentType(APPLICATION_JSON);
+    response.setStatus(AdaptiveConcurrencyLimiter.SERVICE_UNAVAILABLE);
+    response.setHeader(RETRY_AFTER_HEADER,
+        String.valueOf(limiter.getSettings().getRetryAfterSeconds()));
+
+    ObjectNode message = JsonNodeFactory.instance.objectNode();
+    message.put(INFO_KEY, SERVICE_UNAVAILABLE_MESSAGE);
+
+    response.getWriter().write(message.toString());
+  }
+
+  @Override
+  public void destroy() {}
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.symphonyoss.integration.web.properties.WebHookBodyFilterProperties
+    .PAYLOAD_TOO_LARGE;
+import static org.symphonyoss.integration.web.properties.WebHookBodyFilterProperties
+    .PAYLOAD_TOO_LARGE_SOLUTION;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.exception.ExceptionMessageFormatter;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.web.body.BufferedBodyRequestWrapper;
+import org.symphonyoss.integration.web.body.BufferedRequestBody;
+import org.symphonyoss.integration.web.body.RequestBodyLimits;
+import org.symphonyoss.integration.web.body.RequestBodyTooLargeException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Reads the webhook request bodies as bytes under the size limit configured for each
+ * integration.
+ *
+ * Requests whose Content-Length exceeds the limit are answered with HTTP 413 (Payload Too Large)
+ * before any byte is read. Bodies without Content-Length are read until the limit is reached.
+ * Accepted bodies are served to the web resources from a {@link BufferedRequestBody}, so the
+ * payload is decoded once, straight from the bytes.
+ *
+ * Form and multipart bodies are parsed by the servlet container, so only the Content-Length is
+ * checked for them.
+ */
+public class WebHookBodyFilter implements Filter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WebHookBodyFilter.class);
+
+  public static final int PAYLOAD_TOO_LARGE_STATUS = 413;
+
+  private static final String INFO_KEY = "info";
+
+  private static final String MAX_SIZE_KEY = "maxSize";
+
+  private static final String PAYLOAD_TOO_LARGE_MESSAGE = "Payload too large";
+
+  private static final String WEBHOOK_FILTER = "Webhook Filter";
+
+  private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+  private static final String MULTIPART_CONTENT_TYPE = "multipart/";
+
+  private static final List<String> BODY_METHODS = Arrays.asList("POST", "PUT", "PATCH");
+
+  private RequestBodyLimits limits;
+
+  private LogMessageSource logMessage;
+
+  /**
+   * Initialize the spring components.
+   * @param config Filter configuration
+   * @throws ServletException Report failure to initialize the filter
+   */
+  @Override
+  public void init(FilterConfig config) throws ServletException {
+    WebApplicationContext springContext =
+        WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
+    this.limits = springContext.getBean(RequestBodyLimits.class);
+    this.logMessage = springContext.getBean(LogMessageSource.class);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain filterChain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+    if (!limits.isEnabled() || !hasBody(request)) {
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    String integration = getIntegration(request);
+    long maxSize = limits.getMaxSize(integration);
+    long contentLength = request.getContentLengthLong();
+
+    if (contentLength > maxSize) {
+      rejectRequest(response, integration, maxSize);
+      return;
+    }
+
+    if (isParsedByContainer(request)) {
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    BufferedRequestBody body;
+
+    try {
+      body = BufferedRequestBody.read(request.getInputStream(), contentLength, maxSize);
+    } catch (RequestBodyTooLargeException e) {
+      rejectRequest(response, integration, maxSize);
+      return;
+    }
+
+    limits.onAccepted(body.size());
+    filterChain.doFilter(new BufferedBodyRequestWrapper(request, body), servletResponse);
+  }
+
+  private boolean hasBody(HttpServletRequest request) {
+    return BODY_METHODS.contains(request.getMethod());
+  }
+
+  private boolean isParsedByContainer(HttpServletRequest request) {
+    String contentType = request.getContentType();
+
+    if (contentType == null) {
+      return false;
+    }
+
+    String normalized = contentType.toLowerCase(Locale.ENGLISH);
+    return normalized.startsWith(FORM_CONTENT_TYPE)
+        || normalized.startsWith(MULTIPART_CONTENT_TYPE);
+  }
+
+  /**
+   * Retrieves the first segment of the webhook path.
+   * @param request HTTP request
+   * @return Configuration type or configuration identifier
+   */
+  private String getIntegration(HttpServletRequest request) {
+    String path = request.getRequestURI()
+        .replace(request.getContextPath(), StringUtils.EMPTY)
+        .replace(WebHookOriginCheckFilter.URL_PATTERN, StringUtils.EMPTY);
+
+    int separator = path.indexOf("/");
+    return (separator < 0) ? path : path.substring(0, separator);
+  }
+
+  /**
+   * Write the http error response.
+   * @param response Http response
+   * @param integration Configuration type or configuration identifier
+   * @param maxSize Max body size (bytes)
+   * @throws IOException Report failure to write the http error response.
+   */
+  private void rejectRequest(HttpServletResponse response, String integration, long maxSize)
+      throws IOException {
+    limits.onRejected();
+
+    LOGGER.warn(ExceptionMessageFormatter.format(WEBHOOK_FILTER,
+        logMessage.getMessage(PAYLOAD_TOO_LARGE, integration, String.valueOf(maxSize)),
+        logMessage.getMessage(PAYLOAD_TOO_LARGE_SOLUTION, integration)));
+
+    response.setContentType(APPLICATION_JSON);
+    response.setStatus(PAYLOAD_TOO_LARGE_STATUS);
+
+    ObjectNode message = JsonNodeFactory.instance.objectNode();
+    message.put(INFO_KEY, PAYLOAD_TOO_LARGE_MESSAGE);
+    message.put(MAX_SIZE_KEY, maxSize);
+
+    response.getWriter().write(message.toString());
+  }
+
+  @Override
+  public void destroy() {}
+}
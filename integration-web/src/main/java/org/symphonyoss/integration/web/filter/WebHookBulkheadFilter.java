@@ -0,0 +1,151 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.web.async.AsyncCompletionListener;
+import org.symphonyoss.integration.web.bulkhead.IntegrationBulkhead;
+import org.symphonyoss.integration.web.bulkhead.WebHookBulkheads;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Limits the number of webhook requests processed concurrently for each integration.
+ *
+ * Requests that can't take a slot from the integration bulkhead are answered with HTTP 503
+ * (Service Unavailable) and the Retry-After header. The slot is held until the request is
+ * complete, so the requests processed asynchronously are also accounted for.
+ */
+public class WebHookBulkheadFilter implements Filter {
+
+  public static final int SERVICE_UNAVAILABLE = 503;
+
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private static final String INFO_KEY = "info";
+
+  private static final String INTEGRATION_KEY = "integration";
+
+  private static final String SERVICE_UNAVAILABLE_MESSAGE = "Integration busy";
+
+  private WebHookBulkheads bulkheads;
+
+  /**
+   * Initialize the spring components.
+   * @param config Filter configuration
+   * @throws ServletException Report failure to initialize the filter
+   */
+  @Override
+  public void init(FilterConfig config) throws ServletException {
+    WebApplicationContext springContext =
+        WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
+    this.bulkheads = springContext.getBean(WebHookBulkheads.class);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain filterChain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+    final String integration = getIntegration(request);
+    final IntegrationBulkhead bulkhead =
+        bulkheads.isEnabled() ? bulkheads.getBulkhead(integration) : null;
+
+    if (bulkhead == null) {
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    if (!acquire(bulkhead)) {
+      bulkheads.onRejected(integration);
+      writeResponse(response, integration);
+      return;
+    }
+
+    try {
+      filterChain.doFilter(servletRequest, servletResponse);
+    } finally {
+      new AsyncCompletionListener() {
+        @Override
+        protected void onRequestComplete() {
+          bulkhead.release();
+        }
+      }.register(request);
+    }
+  }
+
+  private boolean acquire(IntegrationBulkhead bulkhead) {
+    try {
+      return bulkhead.tryAcquire(bulkheads.getMaxWaitMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Retrieves the first segment of the webhook path.
+   * @param request HTTP request
+   * @return Configuration type
+   */
+  private String getIntegration(HttpServletRequest request) {
+    String path = request.getRequestURI()
+        .replace(request.getContextPath(), StringUtils.EMPTY)
+        .replace(WebHookOriginCheckFilter.URL_PATTERN, StringUtils.EMPTY);
+
+    int separator = path.indexOf("/");
+    return (separator < 0) ? path : path.substring(0, separator);
+  }
+
+  /**
+   * Write the http error response.
+   * @param response Http response
+   * @param integration Configuration type
+   * @throws IOException Report failure to write the http error response.
+   */
+  private void writeResponse(HttpServletResponse response, String integration)
+      throws IOException {
+    response.setContentType(APPLICATION_JSON);
+    response.setStatus(SERVICE_UNAVAILABLE);
+    response.setHeader(RETRY_AFTER_HEADER, String.valueOf(bulkheads.getRetryAfterSeconds()));
+
+    ObjectNode message = JsonNodeFactory.instance.objectNode();
+    message.put(INFO_KEY, SERVICE_UNAVAILABLE_MESSAGE);
+    message.put(INTEGRATION_KEY, integration);
+
+    response.getWriter().write(message.toString());
+  }
+
+  @Override
+  public void destroy() {}
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.client.support.deadline.RequestDeadlines;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Starts the deadline of the webhook requests.
+ *
+ * The deadline is attached to the thread processing the request, so the API clients bound the
+ * remote calls by the remaining time. The timeout is configured per integration.
+ */
+public class WebHookDeadlineFilter implements Filter {
+
+  private RequestDeadlines deadlines;
+
+  /**
+   * Initialize the spring components.
+   * @param config Filter configuration
+   * @throws ServletException Report failure to initialize the filter
+   */
+  @Override
+  public void init(FilterConfig config) throws ServletException {
+    WebApplicationContext springContext =
+        WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
+    this.deadlines = springContext.getBean(RequestDeadlines.class);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain filterChain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    Deadline deadline = deadlines.newDeadline(getIntegration(request));
+
+    if (deadline == null) {
+      filterChain.doFilter(servletRequest, servletResponse);
+      return;
+    }
+
+    Deadline previous = Deadline.attach(deadline);
+
+    try {
+      filterChain.doFilter(servletRequest, servletResponse);
+    } finally {
+      Deadline.restore(previous);
+    }
+  }
+
+  /**
+   * Retrieves the first segment of the webhook path.
+   * @param request HTTP request
+   * @return Configuration type
+   */
+  private String getIntegration(HttpServletRequest request) {
+    String path = request.getRequestURI()
+        .replace(request.getContextPath(), StringUtils.EMPTY)
+        .replace(WebHookOriginCheckFilter.URL_PATTERN, StringUtils.EMPTY);
+
+    int separator = path.indexOf("/");
+    return (separator < 0) ? path : path.substring(0, separator);
+  }
+
+  @Override
+  public void destroy() {}
+}
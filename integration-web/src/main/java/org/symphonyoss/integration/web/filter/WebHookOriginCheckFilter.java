@@ -25,6 +25,10 @@ import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilte
     .CANNOT_RETRIEVE_WHITELIST;
 import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilterProperties
     .CANNOT_RETRIEVE_WHITELIST_SOLUTION;
+import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilterProperties
+    .REVERSE_DNS_TIMEOUT;
+import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilterProperties
+    .REVERSE_DNS_TIMEOUT_SOLUTION;
 import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilterProperties
     .WEBHOOK_REQUEST_BLOCKED;
 import static org.symphonyoss.integration.web.properties.WebHookOriginCheckFilterProperties
@@ -35,19 +39,16 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeansException;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
-import org.symphonyoss.integration.Integration;
 import org.symphonyoss.integration.exception.ExceptionMessageFormatter;
 import org.symphonyoss.integration.logging.LogMessageSource;
-import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+import org.symphonyoss.integration.web.whitelist.OriginWhiteList;
+import org.symphonyoss.integration.web.whitelist.OriginWhiteListIndex;
+import org.symphonyoss.integration.web.whitelist.ResolvedHost;
+import org.symphonyoss.integration.web.whitelist.ReverseDnsResolver;
 
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.servlet.Filter;
@@ -107,12 +108,14 @@ public class WebHookOriginCheckFilter implements Filter {
 
   private WebApplicationContext springContext;
 
-  private IntegrationProperties properties;
+  private OriginWhiteListIndex whiteListIndex;
+
+  private ReverseDnsResolver dnsResolver;
 
   private LogMessageSource logMessage;
 
   /**
-   * Initialize the spring components and the whitelist cache.
+   * Initialize the spring components and the whitelist index.
    * @param config Filter configuration
    * @throws ServletException Report failure to initialize the filter
    */
@@ -120,7 +123,8 @@ public class WebHookOriginCheckFilter implements Filter {
   public void init(FilterConfig config) throws ServletException {
     this.springContext =
         WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
-    this.properties = springContext.getBean(IntegrationProperties.class);
+    this.whiteListIndex = springContext.getBean(OriginWhiteListIndex.class);
+    this.dnsResolver = springContext.getBean(ReverseDnsResolver.class);
     this.logMessage = springContext.getBean(LogMessageSource.class);
   }
 
@@ -160,7 +164,7 @@ public class WebHookOriginCheckFilter implements Filter {
     }
 
     String integrationType = path.substring(0, path.indexOf("/"));
-    Set<String> whiteList = getWhiteListByApplication(integrationType);
+    OriginWhiteList whiteList = whiteListIndex.getWhiteList(integrationType);
 
     if (whiteList.isEmpty()) {
       filterChain.doFilter(servletRequest, servletResponse);
@@ -205,61 +209,60 @@ public class WebHookOriginCheckFilter implements Filter {
     return path.endsWith(WELCOME_PATH);
   }
 
-  /**
-   * Get the application whitelist based on YAML file settings and embedded integration settings.
-   * @param integrationType Integration type
-   * @return Application origin whitelist
-   */
-  private Set<String> getWhiteListByApplication(String integrationType) {
-    Set<String> result = new HashSet<>();
-
-    try {
-      Integration integration = springContext.getBean(integrationType, Integration.class);
-      result.addAll(integration.getIntegrationWhiteList());
-    } catch (BeansException e) {
-      LOGGER.error("Cannot retrieve embedded " + integrationType + " whitelist");
-    }
-
-    result.addAll(properties.getGlobalWhiteList());
-    return result;
-  }
-
   /**
    * Verify if the origin is allowed to send message through the integration.
    * @param remoteAddressInfo Request origin addresses (this may contain one or more IP's separated by comma)
-   * @param whiteList The IP whitelist to match the remoteAddress
+   * @param whiteList The whitelist to match the remoteAddress (IP addresses, CIDR ranges and host names)
    * @param integrationType The path for the incoming HTTP request
    * @return true if the origin is allowed or false otherwise
    */
-  private boolean verifyOrigin(String remoteAddressInfo, Set<String> whiteList, String integrationType) {
+  private boolean verifyOrigin(String remoteAddressInfo, OriginWhiteList whiteList, String integrationType) {
     String[] remoteAddresses = COMMA_PATTERN.split(remoteAddressInfo);
-    return verifyOriginIPs(remoteAddresses, whiteList) || verifyOriginHosts(remoteAddresses, whiteList, integrationType);
+    return verifyOriginIPs(remoteAddresses, whiteList) || (whiteList.hasHostNames()
+        && verifyOriginHosts(remoteAddresses, whiteList, integrationType));
   }
 
-  private boolean verifyOriginHosts(String[] remoteAddresses, Set<String> whiteList, String integrationType) {
+  /**
+   * Verify if the host names of the origin addresses are allowed. The host names are resolved by
+   * the {@link ReverseDnsResolver}, so slow DNS servers don't block the request thread beyond the
+   * configured deadline. Lookups that miss the deadline follow the configured failure policy.
+   * @param remoteAddresses Request origin addresses
+   * @param whiteList The whitelist to match the host names
+   * @param integrationType Integration type
+   * @return true if the origin is allowed or false otherwise
+   */
+  private boolean verifyOriginHosts(String[] remoteAddresses, OriginWhiteList whiteList, String integrationType) {
     for (String ipAddress : remoteAddresses) {
-      try {
-        InetAddress address = InetAddress.getByName(ipAddress);
-        String hostName = address.getHostName();
-        String canonicalHostName = address.getCanonicalHostName();
-
-        if (whiteList.contains(hostName) || whiteList.contains(canonicalHostName)) {
-          return true;
-        }
-      } catch (UnknownHostException e) {
-        LOGGER.warn(ExceptionMessageFormatter.format(WEBHOOK_FILTER,
-            logMessage.getMessage(CANNOT_FIND_HOST_FOR_IP, ipAddress),
-            e,
-            logMessage.getMessage(CANNOT_FIND_HOST_FOR_IP_SOLUTION, integrationType)
-        ));
+      ResolvedHost host = dnsResolver.resolve(ipAddress);
+
+      switch (host.getStatus()) {
+        case RESOLVED:
+          if (whiteList.containsHost(host.getHostName())
+              || whiteList.containsHost(host.getCanonicalHostName())) {
+            return true;
+          }
+          break;
+        case TIMEOUT:
+          LOGGER.warn(ExceptionMessageFormatter.format(WEBHOOK_FILTER,
+              logMessage.getMessage(REVERSE_DNS_TIMEOUT, ipAddress),
+              logMessage.getMessage(REVERSE_DNS_TIMEOUT_SOLUTION, integrationType)));
+
+          if (dnsResolver.isFailOpen()) {
+            return true;
+          }
+          break;
+        default:
+          LOGGER.warn(ExceptionMessageFormatter.format(WEBHOOK_FILTER,
+              logMessage.getMessage(CANNOT_FIND_HOST_FOR_IP, ipAddress),
+              logMessage.getMessage(CANNOT_FIND_HOST_FOR_IP_SOLUTION, integrationType)));
       }
     }
     return false;
   }
 
-  private boolean verifyOriginIPs(String[] remoteAddresses, Set<String> whiteList) {
+  private boolean verifyOriginIPs(String[] remoteAddresses, OriginWhiteList whiteList) {
     for (String ipAddress : remoteAddresses) {
-      if (whiteList.contains(ipAddress)) {
+      if (whiteList.containsAddress(ipAddress)) {
         return true;
       }
     }
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
+import org.symphonyoss.integration.web.async.AsyncCompletionListener;
+import org.symphonyoss.integration.web.throttling.SourceThrottler;
+import org.symphonyoss.integration.web.throttling.SourceThrottlingSettings;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles the webhook requests per source address.
+ *
+ * This filter runs before the other webhook filters, so requests from sources that exceed their
+ * rate or that were penalized for sending repeated bad requests are answered with HTTP 429 (Too
+ * Many Requests) before the Integration Bridge looks up the webhook instance.
+ */
+public class WebHookThrottlingFilter implements Filter {
+
+  public static final int TOO_MANY_REQUESTS = 429;
+
+  private static final String FORWARD_HEADER = "x-forwarded-for";
+
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private static final String INFO_KEY = "info";
+
+  private static final String ORIGIN_KEY = "origin";
+
+  private static final String TOO_MANY_REQUESTS_MESSAGE = "Too many requests";
+
+  private static final char ADDRESS_SEPARATOR = ',';
+
+  private SourceThrottler throttler;
+
+  /**
+   * Initialize the spring components.
+   * @param config Filter configuration
+   * @throws ServletException Report failure to initialize the filter
+   */
+  @Override
+  public void init(FilterConfig config) throws ServletException {
+    WebApplicationContext springContext =
+        WebApplicationContextUtils.getRequiredWebApplicationContext(config.getServletContext());
+    this.throttler = springContext.getBean(SourceThrottler.class);
+  }
+
+  /**
+   * Checks if the source address is allowed to send a new request. Otherwise, the filter returns
+   * an HTTP 429 (Too Many Requests) with the Retry-After header.
+   *
+   * The response status is reported to the throttler after the request is complete, so the
+   * sources that produce repeated bad requests can be penalized. A request that fails with an
+   * exception is reported as HTTP 500, as the response status wasn't set yet.
+   */
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse,
+      FilterChain filterChain) throws IOException, ServletException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    final HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+    final String sourceAddress = getSourceAddress(request);
+    long waitMillis = throttler.tryAcquire(sourceAddress);
+
+    if (waitMillis > 0) {
+      writeResponse(response, sourceAddress, waitMillis);
+      return;
+    }
+
+    try {
+      filterChain.doFilter(servletRequest, servletResponse);
+    } catch (IOException | ServletException | RuntimeException e) {
+      throttler.onResponse(sourceAddress, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+      throw e;
+    }
+
+    new AsyncCompletionListener() {
+      @Override
+      protected void onRequestComplete() {
+        throttler.onResponse(sourceAddress, response.getStatus());
+      }
+    }.register(request);
+  }
+
+  /**
+   * Gets the source address of the request. When the request comes from a trusted proxy, the
+   * x-forwarded-for header is read from right to left and the first address that isn't a trusted
+   * proxy is the source address. Otherwise, the header is ignored because any client can set it.
+   * @param request Incoming Http request
+   * @return Source address
+   */
+  private String getSourceAddress(HttpServletRequest request) {
+    String remoteAddress = request.getRemoteAddr();
+    String sourceAddress = remoteAddress != null ? remoteAddress : StringUtils.EMPTY;
+
+    SourceThrottlingSettings settings = throttler.getSettings();
+    Set<String> trustedProxies = settings.getTrustedProxies();
+
+    if (!settings.isUseForwardedHeader() || !trustedProxies.contains(sourceAddress)) {
+      return sourceAddress;
+    }
+
+    String forwarded = request.getHeader(FORWARD_HEADER);
+
+    if (StringUtils.isBlank(forwarded)) {
+      return sourceAddress;
+    }
+
+    String[] addresses = StringUtils.split(forwarded, ADDRESS_SEPARATOR);
+
+    for (int i = addresses.length - 1; i >= 0; i--) {
+      String address = addresses[i].trim();
+
+      if (!address.isEmpty()) {
+        sourceAddress = address;
+
+        if (!trustedProxies.contains(address)) {
+          break;
+        }
+      }
+    }
+
+    return sourceAddress;
+  }
+
+  /**
+   * Write the http error response.
+   * @param response Http response
+   * @param sourceAddress Source address
+   * @param waitMillis Time the source must wait before sending a new request (milliseconds)
+   * @throws IOException Report failure to write the http error response.
+   */
+  private void writeResponse(HttpServletResponse response, String sourceAddress, long waitMillis)
+      throws IOException {
+    long retryAfter = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+
+    response.setContentType(APPLICATION_JSON);
+    response.setStatus(TOO_MANY_REQUESTS);
+    response.setHeader(RETRY_AFTER_HEADER, String.valueOf(retryAfter));
+
+    ObjectNode message = JsonNodeFactory.instance.objectNode();
+    message.put(INFO_KEY, TOO_MANY_REQUESTS_MESSAGE);
+    message.put(ORIGIN_KEY, sourceAddress);
+
+    response.getWriter().write(message.toString());
+  }
+
+  @Override
+  public void destroy() {}
+}
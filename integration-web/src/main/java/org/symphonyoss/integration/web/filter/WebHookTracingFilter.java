@@ -25,6 +25,7 @@ import org.symphonyoss.integration.logging.DistributedTracingUtils;
 
 import java.io.IOException;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -37,12 +38,20 @@ import javax.servlet.http.HttpServletResponse;
 /**
  * Add trace id to every request received by the integration bridge.
  * If it already contains a trace id, it will not override it.
+ *
+ * This filter also runs on the async dispatch, restoring the trace id of the original request so
+ * the logs written while the async response is sent keep the same trace.
  * Created by Milton Quilzini on 25/11/16.
  */
 public class WebHookTracingFilter implements Filter {
 
   private static final Logger LOG = LoggerFactory.getLogger(WebHookTracingFilter.class);
 
+  /**
+   * Request attribute used to keep the trace id across the async dispatches
+   */
+  public static final String TRACE_ID_ATTRIBUTE = WebHookTracingFilter.class.getName() + ".traceId";
+
   @Override
   public void init(FilterConfig config) throws ServletException {
   }
@@ -51,6 +60,12 @@ public class WebHookTracingFilter implements Filter {
   public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
       throws IOException, ServletException {
     HttpServletRequest request = (HttpServletRequest) servletRequest;
+
+    if (DispatcherType.ASYNC.equals(request.getDispatcherType())) {
+      doFilterAsyncDispatch(request, servletResponse, filterChain);
+      return;
+    }
+
     String xTraceInHeader = request.getHeader(TRACE_ID);
 
     if (isBlank(xTraceInHeader)) {
@@ -66,10 +81,27 @@ public class WebHookTracingFilter implements Filter {
     response.setHeader(TRACE_ID, xTraceInHeader);
     LOG.info("Trace {} added to response.", xTraceInHeader);
 
+    request.setAttribute(TRACE_ID_ATTRIBUTE, xTraceInHeader);
+
     filterChain.doFilter(servletRequest, servletResponse);
     DistributedTracingUtils.clearMDC();
   }
 
+  private void doFilterAsyncDispatch(HttpServletRequest request, ServletResponse response,
+      FilterChain filterChain) throws IOException, ServletException {
+    Object traceId = request.getAttribute(TRACE_ID_ATTRIBUTE);
+
+    if (traceId != null) {
+      DistributedTracingUtils.setMDC(traceId.toString());
+    }
+
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      DistributedTracingUtils.clearMDC();
+    }
+  }
+
   @Override
   public void destroy() {
   }
@@ -41,6 +41,26 @@ public class RequestMetricsConstants {
    */
   public static final String INCOMING_REQUESTS = BASE_METRIC_NAME + "." + REQUESTS;
 
+  /**
+   * Base metric name used by the integration bulkhead metrics
+   */
+  public static final String BULKHEAD = "bulkhead";
+
+  /**
+   * Metric name which expose the gauge for the bulkhead slots in use
+   */
+  public static final String BULKHEAD_ACTIVE = "active";
+
+  /**
+   * Metric name which expose the gauge for the requests waiting for a bulkhead slot
+   */
+  public static final String BULKHEAD_WAITING = "waiting";
+
+  /**
+   * Metric name which expose the meter for the requests rejected by the bulkhead
+   */
+  public static final String BULKHEAD_REJECTED = "rejected";
+
   /**
    * Metric name which expose the meter for HTTP 200 (OK) returned by the integration bridge
    */
@@ -19,11 +19,16 @@ package org.symphonyoss.integration.web.metrics;
 import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
 import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.RATIO;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.ACTIVE_REQUESTS;
+import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.BULKHEAD;
+import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.BULKHEAD_ACTIVE;
+import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.BULKHEAD_REJECTED;
+import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.BULKHEAD_WAITING;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.INCOMING_REQUESTS;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.OTHER_RESPONSE_CODE;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.REQUESTS;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -31,6 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.symphonyoss.integration.metrics.IntegrationController;
 import org.symphonyoss.integration.metrics.gauge.CounterRatio;
+import org.symphonyoss.integration.web.bulkhead.IntegrationBulkhead;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -73,6 +79,11 @@ public class RequestMetricsController implements IntegrationController {
    */
   private ConcurrentMap<String, Timer> timerByIntegration = new ConcurrentHashMap<>();
 
+  /**
+   * Meter for the requests rejected by the bulkhead of each integration
+   */
+  private ConcurrentMap<String, Meter> bulkheadRejectedByIntegration = new ConcurrentHashMap<>();
+
   /**
    * Initializes all the metrics for each HTTP response code.
    */
@@ -117,6 +128,62 @@ public class RequestMetricsController implements IntegrationController {
     metricsRegistry.register(MetricRegistry.name(BASE_METRIC_NAME, integration, REQUESTS, RATIO), requestsRatio);
   }
 
+  /**
+   * Checks if the metrics for the integration were initialized.
+   * @param integration Integration identifier
+   * @return true if the integration is known or false otherwise
+   */
+  public boolean isIntegration(String integration) {
+    return timerByIntegration.containsKey(integration);
+  }
+
+  /**
+   * Initializes the bulkhead metrics for an specific integration. Each integration should monitor
+   * the number of slots in use, the number of requests waiting for a slot and the number of
+   * requests rejected per second.
+   * @param integration Integration identifier
+   * @param bulkhead Integration bulkhead
+   */
+  public void initBulkhead(String integration, final IntegrationBulkhead bulkhead) {
+    registerGauge(MetricRegistry.name(BASE_METRIC_NAME, integration, BULKHEAD, BULKHEAD_ACTIVE),
+        new Gauge<Integer>() {
+          @Override
+          public Integer getValue() {
+            return bulkhead.getActive();
+          }
+        });
+
+    registerGauge(MetricRegistry.name(BASE_METRIC_NAME, integration, BULKHEAD, BULKHEAD_WAITING),
+        new Gauge<Integer>() {
+          @Override
+          public Integer getValue() {
+            return bulkhead.getWaiting();
+          }
+        });
+
+    Meter rejected = metricsRegistry.meter(
+        MetricRegistry.name(BASE_METRIC_NAME, integration, BULKHEAD, BULKHEAD_REJECTED));
+    bulkheadRejectedByIntegration.put(integration, rejected);
+  }
+
+  private void registerGauge(String name, Gauge<Integer> gauge) {
+    if (!metricsRegistry.getGauges().containsKey(name)) {
+      metricsRegistry.register(name, gauge);
+    }
+  }
+
+  /**
+   * Signals a request was rejected by the integration bulkhead.
+   * @param integration Integration identifier
+   */
+  public void bulkheadRejected(String integration) {
+    Meter meter = this.bulkheadRejectedByIntegration.get(integration);
+
+    if (meter != null) {
+      meter.mark();
+    }
+  }
+
   /**
    * Signals the beginning of the request processing. This method should increment the active
    * requests and start the timer context.
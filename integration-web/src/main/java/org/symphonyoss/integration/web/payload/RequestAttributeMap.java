@@ -0,0 +1,183 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.payload;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Lazy map view over the headers or parameters of a servlet request.
+ *
+ * Single lookups are delegated to the request, so nothing is copied unless the integration
+ * iterates the map or the view is detached. Entries added through {@link #put(String, String)} are
+ * kept in a local overlay and never change the request.
+ *
+ * The view is bound to the request thread. The servlet container recycles the request once the
+ * response is committed, so {@link #detach()} must be called before handing the view to another
+ * thread.
+ */
+public abstract class RequestAttributeMap extends AbstractMap<String, String> {
+
+  private HttpServletRequest request;
+
+  /**
+   * Entries added by the caller before the view is materialized
+   */
+  private Map<String, String> overlay;
+
+  /**
+   * Snapshot of the request entries (null until materialized)
+   */
+  private Map<String, String> values;
+
+  protected RequestAttributeMap(HttpServletRequest request) {
+    this.request = request;
+  }
+
+  /**
+   * Retrieves the names available in the request.
+   * @param request HTTP request
+   * @return Attribute names
+   */
+  protected abstract Enumeration<String> readNames(HttpServletRequest request);
+
+  /**
+   * Retrieves a single value from the request.
+   * @param request HTTP request
+   * @param name Attribute name
+   * @return Attribute value or null if the request doesn't contain the attribute
+   */
+  protected abstract String readValue(HttpServletRequest request, String name);
+
+  /**
+   * Creates the map used to store the materialized entries. Defines how the keys are compared.
+   * @return Empty map
+   */
+  protected abstract Map<String, String> newStore();
+
+  @Override
+  public String get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+
+    if (values != null) {
+      return values.get(key);
+    }
+
+    if (overlay != null && overlay.containsKey(key)) {
+      return overlay.get(key);
+    }
+
+    return readValue(request, (String) key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (!(key instanceof String)) {
+      return false;
+    }
+
+    if (values != null) {
+      return values.containsKey(key);
+    }
+
+    if (overlay != null && overlay.containsKey(key)) {
+      return true;
+    }
+
+    return readValue(request, (String) key) != null;
+  }
+
+  @Override
+  public String put(String key, String value) {
+    if (values != null) {
+      return values.put(key, value);
+    }
+
+    String previous = get(key);
+
+    if (overlay == null) {
+      overlay = newStore();
+    }
+
+    overlay.put(key, value);
+    return previous;
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return Collections.unmodifiableMap(materialize()).entrySet();
+  }
+
+  @Override
+  public int size() {
+    return materialize().size();
+  }
+
+  /**
+   * Copies the request entries into the view and releases the request. After this call the view
+   * no longer depends on the request and can be safely used by other threads.
+   */
+  public void detach() {
+    materialize();
+  }
+
+  /**
+   * Checks if the view still reads the values from the request.
+   * @return true if the view wasn't materialized yet
+   */
+  public boolean isAttached() {
+    return values == null;
+  }
+
+  private Map<String, String> materialize() {
+    if (values != null) {
+      return values;
+    }
+
+    Map<String, String> store = newStore();
+    Enumeration<String> names = readNames(request);
+
+    if (names != null) {
+      while (names.hasMoreElements()) {
+        String name = names.nextElement();
+
+        // Keeps the first occurrence, as the request lookups do
+        if (!store.containsKey(name)) {
+          store.put(name, readValue(request, name));
+        }
+      }
+    }
+
+    if (overlay != null) {
+      store.putAll(overlay);
+      overlay = null;
+    }
+
+    this.values = store;
+    this.request = null;
+
+    return store;
+  }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.payload;
+
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Lazy view over the request parameters. Parameter names are case-sensitive, as defined by the
+ * servlet specification.
+ */
+public class RequestParameterMap extends RequestAttributeMap {
+
+  public RequestParameterMap(HttpServletRequest request) {
+    super(request);
+  }
+
+  @Override
+  protected Enumeration<String> readNames(HttpServletRequest request) {
+    return request.getParameterNames();
+  }
+
+  @Override
+  protected String readValue(HttpServletRequest request, String name) {
+    return request.getParameter(name);
+  }
+
+  @Override
+  protected Map<String, String> newStore() {
+    return new LinkedHashMap<>();
+  }
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.payload;
+
+import org.symphonyoss.integration.authorization.AuthorizationPayload;
+import org.symphonyoss.integration.webhook.WebHookPayload;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Builds the payloads delivered to the integrations using lazy views over the servlet request,
+ * so the headers and parameters are only copied when an integration iterates them.
+ */
+public final class RequestPayloads {
+
+  private RequestPayloads() {
+  }
+
+  /**
+   * Creates a webhook payload backed by the request.
+   * @param request HTTP request
+   * @param body Request body
+   * @return Webhook payload
+   */
+  public static WebHookPayload newWebHookPayload(HttpServletRequest request, String body) {
+    return new WebHookPayload(new RequestParameterMap(request), new RequestHeaderMap(request),
+        body);
+  }
+
+  /**
+   * Creates an authorization payload backed by the request.
+   * @param request HTTP request
+   * @param body Request body
+   * @return Authorization payload
+   */
+  public static AuthorizationPayload newAuthorizationPayload(HttpServletRequest request,
+      String body) {
+    return new AuthorizationPayload(new RequestParameterMap(request),
+        new RequestHeaderMap(request), body);
+  }
+
+  /**
+   * Detaches the payload from the servlet request. Must be called on the request thread before
+   * handing the payload to another thread.
+   * @param payload Webhook payload
+   * @return The same payload
+   */
+  public static WebHookPayload detach(WebHookPayload payload) {
+    if (payload != null) {
+      detach(payload.getParameters());
+      detach(payload.getHeaders());
+    }
+
+    return payload;
+  }
+
+  private static void detach(Map<String, String> map) {
+    if (map instanceof RequestAttributeMap) {
+      ((RequestAttributeMap) map).detach();
+    }
+  }
+
+}
@@ -0,0 +1,13 @@
+package org.symphonyoss.integration.web.properties;
+
+import org.symphonyoss.integration.web.filter.WebHookBodyFilter;
+
+/**
+ * Exception message keys used by the component {@link WebHookBodyFilter}
+ */
+public class WebHookBodyFilterProperties {
+
+  public static final String PAYLOAD_TOO_LARGE = "integration.web.payload.too.large";
+
+  public static final String PAYLOAD_TOO_LARGE_SOLUTION = PAYLOAD_TOO_LARGE + ".solution";
+}
@@ -18,4 +18,8 @@ public class WebHookOriginCheckFilterProperties {
   public static final String CANNOT_RETRIEVE_WHITELIST = "integration.web.cannot.retrieve.whitelist";
 
   public static final String CANNOT_RETRIEVE_WHITELIST_SOLUTION = CANNOT_RETRIEVE_WHITELIST + ".solution";
+
+  public static final String REVERSE_DNS_TIMEOUT = "integration.web.reverse.dns.timeout";
+
+  public static final String REVERSE_DNS_TIMEOUT_SOLUTION = REVERSE_DNS_TIMEOUT + ".solution";
 }
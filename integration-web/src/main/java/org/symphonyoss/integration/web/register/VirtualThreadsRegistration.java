@@ -0,0 +1,97 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.register;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.ConfigurableEmbeddedServletContainer;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.healthcheck.config.VirtualThreads;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the Tomcat request handling on virtual threads when the virtual thread mode is enabled
+ * and the JVM supports it. Otherwise, Tomcat keeps its platform thread pool.
+ *
+ * Each request gets a new virtual thread, so the blocking calls performed by the integrations
+ * (Agent, POD and Key Manager APIs) don't hold a pooled thread while waiting for the response.
+ */
+@Component
+public class VirtualThreadsRegistration implements EmbeddedServletContainerCustomizer,
+    DisposableBean {
+
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsRegistration.class);
+
+  private static final String THREAD_NAME = "http-vt";
+
+  @Autowired
+  private Environment environment;
+
+  private ExecutorService executor;
+
+  @Override
+  public void customize(ConfigurableEmbeddedServletContainer container) {
+    if (!(container instanceof TomcatEmbeddedServletContainerFactory)
+        || !VirtualThreads.isEnabled(environment)) {
+      return;
+    }
+
+    this.executor = VirtualThreads.newThreadPerTaskExecutor(THREAD_NAME);
+
+    if (executor == null) {
+      return;
+    }
+
+    TomcatEmbeddedServletContainerFactory factory = (TomcatEmbeddedServletContainerFactory) container;
+    factory.addConnectorCustomizers(new TomcatConnectorCustomizer() {
+      @Override
+      public void customize(Connector connector) {
+        ProtocolHandler handler = connector.getProtocolHandler();
+
+        if (handler instanceof AbstractProtocol) {
+          ((AbstractProtocol<?>) handler).setExecutor(executor);
+          LOG.info("Tomcat connector {} running on virtual threads", connector.getPort());
+        }
+      }
+    });
+  }
+
+  /**
+   * Tomcat doesn't stop executors it hasn't created.
+   */
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+}
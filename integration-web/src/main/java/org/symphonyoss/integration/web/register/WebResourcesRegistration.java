@@ -22,16 +22,29 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import org.symphonyoss.integration.web.body.BufferedStringHttpMessageConverter;
 import org.symphonyoss.integration.web.filter.IntegrationMetricsFilter;
+import org.symphonyoss.integration.web.filter.LoadSheddingFilter;
+import org.symphonyoss.integration.web.filter.WebHookBodyFilter;
+import org.symphonyoss.integration.web.filter.WebHookBulkheadFilter;
+import org.symphonyoss.integration.web.filter.WebHookDeadlineFilter;
 import org.symphonyoss.integration.web.filter.WebHookOriginCheckFilter;
+import org.symphonyoss.integration.web.filter.WebHookThrottlingFilter;
 import org.symphonyoss.integration.web.filter.WebHookTracingFilter;
 
+import java.nio.charset.Charset;
 import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.DispatcherType;
 
 /**
  * Class responsible to register the web resources required by the application.
@@ -53,8 +66,30 @@ public class WebResourcesRegistration {
 
   private static final String METRICS_PATH = "/metrics/";
 
+  private static final String HEALTH_PATH = "/health";
+
   private static final String CORS_MAPPING = "/**";
 
+  /**
+   * Filter orders. The metrics and tracing filters run first, so the requests rejected by the
+   * other filters are still measured and traced.
+   */
+  private static final int METRICS_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 7;
+
+  private static final int TRACING_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 6;
+
+  private static final int DEADLINE_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 5;
+
+  private static final int THROTTLING_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 4;
+
+  private static final int LOAD_SHEDDING_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 3;
+
+  private static final int BULKHEAD_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 2;
+
+  private static final int ORIGIN_CHECK_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+  private static final int BODY_FILTER_ORDER = Ordered.LOWEST_PRECEDENCE;
+
   /**
    * Register webhook check origin filter.
    * @return Filter registration object
@@ -66,12 +101,99 @@ public class WebResourcesRegistration {
 
     String urlPattern = WebHookOriginCheckFilter.URL_PATTERN + PATH_WILDCARD;
     registration.setUrlPatterns(Collections.singletonList(urlPattern));
+    registration.setOrder(ORIGIN_CHECK_FILTER_ORDER);
 
     return registration;
   }
 
   /**
-   * Register webhook tracing filter.
+   * Register webhook deadline filter. This filter must run before the other webhook filters, so
+   * the time spent waiting on them is also accounted for by the request deadline.
+   * @return Filter registration object
+   */
+  @Bean
+  public FilterRegistrationBean webhookDeadlineFilterRegistration() {
+    WebHookDeadlineFilter filter = new WebHookDeadlineFilter();
+    FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+
+    String urlPattern = WebHookOriginCheckFilter.URL_PATTERN + PATH_WILDCARD;
+    registration.setUrlPatterns(Collections.singletonList(urlPattern));
+    registration.setOrder(DEADLINE_FILTER_ORDER);
+
+    return registration;
+  }
+
+  /**
+   * Register webhook throttling filter. This filter runs before the load shedding, bulkhead and
+   * origin check filters to reject the throttled requests as early as possible.
+   * @return Filter registration object
+   */
+  @Bean
+  public FilterRegistrationBean webhookThrottlingFilterRegistration() {
+    WebHookThrottlingFilter filter = new WebHookThrottlingFilter();
+    FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+
+    String urlPattern = WebHookOriginCheckFilter.URL_PATTERN + PATH_WILDCARD;
+    registration.setUrlPatterns(Collections.singletonList(urlPattern));
+    registration.setOrder(THROTTLING_FILTER_ORDER);
+
+    return registration;
+  }
+
+  /**
+   * Register load shedding filter. This filter runs after the throttling filter and before the
+   * bulkhead filter, so the requests above the concurrency limit are rejected before they take
+   * the integration slots. The health and metrics paths are never shed.
+   * @return Filter registration object
+   */
+  @Bean
+  public FilterRegistrationBean loadSheddingFilterRegistration() {
+    LoadSheddingFilter filter = new LoadSheddingFilter();
+    FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+    registration.setUrlPatterns(Collections.singletonList(baseUrlMapping()));
+    registration.addInitParameter(LoadSheddingFilter.EXEMPT_URL_PARAM,
+        BASE_API_PATH + METRICS_PATH + "," + BASE_API_PATH + HEALTH_PATH);
+    registration.setOrder(LOAD_SHEDDING_FILTER_ORDER);
+    return registration;
+  }
+
+  /**
+   * Register webhook bulkhead filter. This filter runs after the load shedding filter and before
+   * the origin check filter, so the integration slots are taken before the request body is read.
+   * @return Filter registration object
+   */
+  @Bean
+  public FilterRegistrationBean webhookBulkheadFilterRegistration() {
+    WebHookBulkheadFilter filter = new WebHookBulkheadFilter();
+    FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+
+    String urlPattern = WebHookOriginCheckFilter.URL_PATTERN + PATH_WILDCARD;
+    registration.setUrlPatterns(Collections.singletonList(urlPattern));
+    registration.setOrder(BULKHEAD_FILTER_ORDER);
+
+    return registration;
+  }
+
+  /**
+   * Register webhook body filter. This filter runs after the origin check filter, so the bodies
+   * sent by blocked hosts are never read.
+   * @return Filter registration object
+   */
+  @Bean
+  public FilterRegistrationBean webhookBodyFilterRegistration() {
+    WebHookBodyFilter filter = new WebHookBodyFilter();
+    FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+
+    String urlPattern = WebHookOriginCheckFilter.URL_PATTERN + PATH_WILDCARD;
+    registration.setUrlPatterns(Collections.singletonList(urlPattern));
+    registration.setOrder(BODY_FILTER_ORDER);
+
+    return registration;
+  }
+
+  /**
+   * Register webhook tracing filter. This filter also runs on the async dispatch to restore the
+   * trace id.
    * @return Filter registration object
    */
   @Bean
@@ -79,6 +201,8 @@ public class WebResourcesRegistration {
     WebHookTracingFilter filter = new WebHookTracingFilter();
     FilterRegistrationBean registration = new FilterRegistrationBean(filter);
     registration.setUrlPatterns(Collections.singletonList(baseUrlMapping()));
+    registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+    registration.setOrder(TRACING_FILTER_ORDER);
     return registration;
   }
 
@@ -93,6 +217,7 @@ public class WebResourcesRegistration {
     registration.setUrlPatterns(Collections.singletonList(baseUrlMapping()));
     registration.addInitParameter(IntegrationMetricsFilter.IGNORE_URL_PARAM, BASE_API_PATH + METRICS_PATH);
     registration.addInitParameter(IntegrationMetricsFilter.WEBHOOK_URL_PARAM, WebHookOriginCheckFilter.URL_PATTERN);
+    registration.setOrder(METRICS_FILTER_ORDER);
     return registration;
   }
 
@@ -126,6 +251,24 @@ public class WebResourcesRegistration {
       public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping(CORS_MAPPING).allowedMethods(PATH_WILDCARD);
       }
+
+      /**
+       * Decodes the buffered webhook bodies straight from the bytes.
+       */
+      @Override
+      public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+          HttpMessageConverter<?> converter = converters.get(i);
+
+          if (converter.getClass().equals(StringHttpMessageConverter.class)) {
+            Charset charset = ((StringHttpMessageConverter) converter).getDefaultCharset();
+            BufferedStringHttpMessageConverter bufferedConverter =
+                new BufferedStringHttpMessageConverter(charset);
+            bufferedConverter.setWriteAcceptCharset(false);
+            converters.set(i, bufferedConverter);
+          }
+        }
+      }
     };
   }
 
@@ -46,8 +46,8 @@ import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.ErrorResponse;
 import org.symphonyoss.integration.model.yaml.AppAuthorizationModel;
 import org.symphonyoss.integration.service.IntegrationBridge;
+import org.symphonyoss.integration.web.payload.RequestPayloads;
 
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -217,21 +217,6 @@ public class ApplicationAuthorizationResource {
    * Construct the payload that will be sent to {@link AuthorizedIntegration}
    */
   private AuthorizationPayload getAuthorizationPayload(HttpServletRequest request, String body) {
-    Map<String, String> parameters = new HashMap<>();
-    Map<String, String> headers = new HashMap<>();
-
-    Enumeration<String> paramEnum = request.getParameterNames();
-    while (paramEnum.hasMoreElements()) {
-      String paramName = paramEnum.nextElement();
-      parameters.put(paramName, request.getParameter(paramName));
-    }
-
-    Enumeration<String> headerEnum = request.getHeaderNames();
-    while (headerEnum.hasMoreElements()) {
-      String headerName = headerEnum.nextElement();
-      headers.put(headerName, request.getHeader(headerName));
-    }
-
-    return new AuthorizationPayload(parameters, headers, body);
+    return RequestPayloads.newAuthorizationPayload(request, body);
   }
 }
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.resource;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfile;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+
+import java.util.Map;
+
+/**
+ * REST endpoint to expose the effective HTTP client settings of each remote service.
+ */
+@RestController
+@RequestMapping("/v1/admin/http-clients")
+public class HttpClientProfileResource {
+
+  private final HttpClientProfiles profiles;
+
+  public HttpClientProfileResource(HttpClientProfiles profiles) {
+    this.profiles = profiles;
+  }
+
+  /**
+   * Retrieves the HTTP client profiles of all the services.
+   * @return HTTP client profile per service name
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Map<ServiceName, HttpClientProfile>> getProfiles() {
+    return ResponseEntity.ok(profiles.getProfiles());
+  }
+
+  /**
+   * Retrieves the HTTP client profile of a service.
+   * @param serviceName Service name (i.e. pod, agent, key_manager)
+   * @return HTTP client profile or HTTP 404 if the service is unknown
+   */
+  @GetMapping(value = "/{serviceName}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<HttpClientProfile> getProfile(@PathVariable String serviceName) {
+    for (ServiceName service : ServiceName.values()) {
+      if (service.name().equalsIgnoreCase(serviceName)) {
+        return ResponseEntity.ok(profiles.getProfile(service));
+      }
+    }
+
+    return ResponseEntity.notFound().build();
+  }
+
+}
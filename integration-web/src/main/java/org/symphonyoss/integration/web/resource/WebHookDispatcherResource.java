@@ -21,6 +21,9 @@ import static org.symphonyoss.integration.web.properties.WebHookDispatcherResour
 import static org.symphonyoss.integration.web.properties.WebHookDispatcherResourceProperties
     .CANT_PARSE_PAYLOAD_SOLUTION;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,13 +38,32 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.symphonyoss.integration.entity.MessageMLParseException;
+import org.symphonyoss.integration.exception.IntegrationUnavailableException;
 import org.symphonyoss.integration.exception.RemoteApiException;
+import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.model.message.Message;
+import org.symphonyoss.integration.web.async.AsyncCompletionListener;
+import org.symphonyoss.integration.web.async.WebHookTask;
+import org.symphonyoss.integration.web.batch.BatchTooLargeException;
+import org.symphonyoss.integration.web.batch.InvalidBatchException;
+import org.symphonyoss.integration.web.batch.WebHookBatchParser;
+import org.symphonyoss.integration.web.dedupe.WebHookDeduplicator;
+import org.symphonyoss.integration.web.payload.RequestPayloads;
 import org.symphonyoss.integration.webhook.WebHookIntegration;
 import org.symphonyoss.integration.webhook.WebHookPayload;
 import org.symphonyoss.integration.webhook.exception.WebHookParseException;
+import org.symphonyoss.integration.webhook.exception.WebHookUnavailableException;
+import org.symphonyoss.integration.webhook.exception.WebHookUnprocessableEntityException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 /**
  * REST endpoint to handle requests for WebHooks.
@@ -57,9 +79,30 @@ public class WebHookDispatcherResource extends WebHookResource {
 
   private static final String DATA = "data";
 
+  private static final String CONTENT_TYPE = "Content-Type";
+
+  private static final String CONTENT_LENGTH = "Content-Length";
+
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+
+  private static final javax.ws.rs.core.MediaType JSON_TYPE =
+      javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+  private static final String INDEX_KEY = "index";
+
+  private static final String STATUS_KEY = "status";
+
+  private static final String MESSAGE_KEY = "message";
+
   @Autowired
   private LogMessageSource logMessage;
 
+  @Autowired
+  private WebHookDeduplicator deduplicator;
+
+  @Autowired
+  private WebHookBatchParser batchParser;
+
   /**
    * Handle HTTP POST requests sent from third-party apps to post messages with Content-type
    * 'application/x-www-form-urlencoded'
@@ -131,8 +174,9 @@ public class WebHookDispatcherResource extends WebHookResource {
     return handleRequest(hash, configurationId, whiIntegration, payload);
   }
 
-  private ResponseEntity<String> handleRequest(String hash, String configurationId,
-      WebHookIntegration whiIntegration, WebHookPayload payload) throws RemoteApiException {
+  private ResponseEntity<String> handleRequest(final String hash, final String configurationId,
+      final WebHookIntegration whiIntegration, final WebHookPayload payload)
+      throws RemoteApiException {
     // Checks if the payload has the correct content type
     if (!whiIntegration.isSupportedContentType(payload.getContentType())) {
         String msg = String.format("Unsupported Content-Type [%s]. Accept %s", payload.getContentType(),
@@ -141,7 +185,81 @@ public class WebHookDispatcherResource extends WebHookResource {
         return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(msg);
     }
 
+    if (isUnknownInstance(hash, configurationId, whiIntegration)) {
+      LOGGER.info("Instance {} not found for configuration {}", hash, configurationId);
+      return ResponseEntity.notFound().build();
+    }
+
+    // Duplicate deliveries are acknowledged without being processed again
+    String configurationType = whiIntegration.getSettings().getType();
+    long digest = deduplicator.digest(hash, configurationType, payload);
+
+    if (deduplicator.isDuplicate(configurationType, digest)) {
+      LOGGER.info("Duplicate delivery ignored for hash {} and configuration {}", hash,
+          configurationId);
+      return ResponseEntity.ok().body("");
+    }
+
     // handles the request
+    try {
+      ResponseEntity<String> response = execute(hash, payload, new WebHookTask<String>() {
+        @Override
+        public ResponseEntity<String> execute() throws RemoteApiException {
+          return handlePayload(hash, configurationId, whiIntegration, payload);
+        }
+      });
+
+      releaseOnFailure(digest, response);
+
+      return response;
+    } catch (RemoteApiException | RuntimeException e) {
+      deduplicator.release(digest);
+      throw e;
+    }
+  }
+
+  /**
+   * Releases the delivery digest if the request fails, so the source is able to retry it. When the
+   * request is processed asynchronously, the status is checked once the response is complete.
+   * @param digest Delivery digest
+   * @param response HTTP response or null if the response will be written asynchronously
+   */
+  private void releaseOnFailure(final long digest, ResponseEntity<String> response) {
+    if (digest == WebHookDeduplicator.NO_DIGEST) {
+      return;
+    }
+
+    if (response != null) {
+      if (!response.getStatusCode().is2xxSuccessful()) {
+        deduplicator.release(digest);
+      }
+
+      return;
+    }
+
+    HttpServletRequest request = getCurrentRequest();
+
+    if (request == null || !request.isAsyncStarted()) {
+      return;
+    }
+
+    final HttpServletResponse servletResponse =
+        (HttpServletResponse) request.getAsyncContext().getResponse();
+
+    new AsyncCompletionListener() {
+      @Override
+      protected void onRequestComplete() {
+        HttpStatus status = HttpStatus.valueOf(servletResponse.getStatus());
+
+        if (!status.is2xxSuccessful()) {
+          deduplicator.release(digest);
+        }
+      }
+    }.register(request);
+  }
+
+  private ResponseEntity<String> handlePayload(String hash, String configurationId,
+      WebHookIntegration whiIntegration, WebHookPayload payload) throws RemoteApiException {
     try {
       String configurationType = whiIntegration.getSettings().getType();
       whiIntegration.handle(hash, configurationType, payload);
@@ -155,6 +273,198 @@ public class WebHookDispatcherResource extends WebHookResource {
     }
   }
 
+  /**
+   * Handle HTTP POST requests carrying many events, sent as a JSON array or NDJSON.
+   * @param hash Configuration instance identifier
+   * @param configurationId Configuration identifier
+   * @param configurationType Configuration type
+   * @param body Batch of events
+   * @param request HTTP request
+   * @return HTTP 200 if all the events succeed or HTTP 207 otherwise. The body contains the
+   * status of each event.
+   */
+  @RequestMapping(value = "/{configurationType}/{configurationId}/{hash}/batch",
+      consumes = MediaType.ALL_VALUE, method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<String> handleBatchRequest(@PathVariable String hash,
+      @PathVariable String configurationId, @PathVariable String configurationType,
+      @RequestBody String body, HttpServletRequest request) throws RemoteApiException {
+    return handleBatchRequest(hash, configurationId, body, request);
+  }
+
+  /**
+   * Handle HTTP POST requests carrying many events, sent as a JSON array or NDJSON. The
+   * integration and the instance are looked up once, then the events are handled in order.
+   * @param hash Configuration instance identifier
+   * @param configurationId Configuration identifier
+   * @param body Batch of events
+   * @param request HTTP request
+   * @return HTTP 200 if all the events succeed or HTTP 207 otherwise. The body contains the
+   * status of each event.
+   */
+  @RequestMapping(value = "/{configurationId}/{hash}/batch", consumes = MediaType.ALL_VALUE,
+      method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<String> handleBatchRequest(@PathVariable final String hash,
+      @PathVariable final String configurationId, @RequestBody String body,
+      HttpServletRequest request) throws RemoteApiException {
+    LOGGER.info("Batch request received for hash {} and configuration {}", hash, configurationId);
+
+    final WebHookIntegration whiIntegration = getWebHookIntegration(configurationId);
+
+    if (!whiIntegration.isSupportedContentType(JSON_TYPE)) {
+      String msg = String.format("Batch requests aren't supported. Accept %s",
+          whiIntegration.getSupportedContentTypes());
+      LOGGER.error(msg);
+      return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(msg);
+    }
+
+    if (isUnknownInstance(hash, configurationId, whiIntegration)) {
+      LOGGER.info("Instance {} not found for configuration {}", hash, configurationId);
+      return ResponseEntity.notFound().build();
+    }
+
+    final List<String> items;
+
+    try {
+      items = batchParser.parse(body);
+    } catch (BatchTooLargeException e) {
+      LOGGER.error(e.getMessage());
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+    } catch (InvalidBatchException e) {
+      LOGGER.error(e.getMessage(), e);
+      return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Headers and parameters are copied once and shared by all the events
+    final WebHookPayload requestPayload =
+        RequestPayloads.detach(retrieveWebHookPayload(request, null));
+
+    return execute(hash, null, new WebHookTask<String>() {
+      @Override
+      public ResponseEntity<String> execute() {
+        String configurationType = whiIntegration.getSettings().getType();
+        IntegrationInstance instance =
+            getConfigurationInstance(hash, configurationId, configurationType);
+
+        return handleBatch(instance, configurationType, whiIntegration, requestPayload, items);
+      }
+    });
+  }
+
+  /**
+   * Handles the events of a batch in order. Once the Integration Bridge loses connectivity, the
+   * remaining events are reported as unavailable without being handled.
+   */
+  private ResponseEntity<String> handleBatch(IntegrationInstance instance,
+      String configurationType, WebHookIntegration whiIntegration, WebHookPayload requestPayload,
+      List<String> items) {
+    Map<String, String> headers = getBatchItemHeaders(requestPayload);
+
+    ArrayNode results = JsonNodeFactory.instance.arrayNode();
+    boolean success = true;
+    boolean unavailable = false;
+
+    for (int i = 0; i < items.size(); i++) {
+      ObjectNode result = results.addObject();
+      result.put(INDEX_KEY, i);
+
+      int status;
+
+      if (unavailable) {
+        status = HttpStatus.SERVICE_UNAVAILABLE.value();
+      } else {
+        status = handleBatchItem(instance, configurationType, whiIntegration, requestPayload,
+            headers, items.get(i), result);
+        unavailable = (status == HttpStatus.SERVICE_UNAVAILABLE.value());
+      }
+
+      result.put(STATUS_KEY, status);
+      success &= isSuccessful(status);
+    }
+
+    HttpStatus status = success ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+    return ResponseEntity.status(status).body(results.toString());
+  }
+
+  /**
+   * Builds the headers of the batch events. The events are JSON, and the length and encoding of
+   * the batch body don't apply to them.
+   */
+  private Map<String, String> getBatchItemHeaders(WebHookPayload requestPayload) {
+    Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    headers.putAll(requestPayload.getHeaders());
+    headers.remove(CONTENT_LENGTH);
+    headers.remove(CONTENT_ENCODING);
+    headers.put(CONTENT_TYPE, JSON_TYPE.toString());
+    return headers;
+  }
+
+  /**
+   * Handles a single event of the batch, using the instance looked up once for the whole batch.
+   * @return HTTP status of the event
+   */
+  private int handleBatchItem(IntegrationInstance instance, String configurationType,
+      WebHookIntegration whiIntegration, WebHookPayload requestPayload,
+      Map<String, String> headers, String item, ObjectNode result) {
+    long digest = deduplicator.digestContent(instance.getInstanceId(), configurationType, item);
+
+    if (deduplicator.isDuplicate(configurationType, digest)) {
+      return HttpStatus.OK.value();
+    }
+
+    Map<String, String> itemHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    itemHeaders.putAll(headers);
+
+    Map<String, String> parameters = new HashMap<>(requestPayload.getParameters());
+
+    try {
+      Message message =
+          whiIntegration.parse(instance, new WebHookPayload(parameters, itemHeaders, item));
+
+      if (message != null) {
+        sendMessage(instance, configurationType, message);
+      }
+
+      return HttpStatus.OK.value();
+    } catch (Exception e) {
+      deduplicator.release(digest);
+
+      int status = getBatchItemStatus(e);
+
+      if (status == HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+        LOGGER.error(e.getMessage(), e);
+        result.put(MESSAGE_KEY, "Unexpected exception");
+      } else {
+        LOGGER.info(e.getMessage());
+        result.put(MESSAGE_KEY, e.getMessage());
+      }
+
+      return status;
+    }
+  }
+
+  private boolean isSuccessful(int status) {
+    return status >= HttpStatus.OK.value() && status < HttpStatus.MULTIPLE_CHOICES.value();
+  }
+
+  /**
+   * Maps the failure of a batch event to the status the single event endpoint would return.
+   */
+  private int getBatchItemStatus(Exception e) {
+    if (e instanceof RemoteApiException) {
+      return ((RemoteApiException) e).getCode();
+    } else if (e instanceof WebHookUnprocessableEntityException) {
+      return HttpStatus.UNPROCESSABLE_ENTITY.value();
+    } else if (e instanceof WebHookParseException || e instanceof MessageMLParseException) {
+      return HttpStatus.BAD_REQUEST.value();
+    } else if (e instanceof ConnectivityException || e instanceof WebHookUnavailableException
+        || e instanceof IntegrationUnavailableException) {
+      return HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    return HttpStatus.INTERNAL_SERVER_ERROR.value();
+  }
+
   /**
    * Handle HTTP HEAD requests sent from third-party apps
    * @param hash Configuration instance identifier
@@ -181,6 +491,10 @@ public class WebHookDispatcherResource extends WebHookResource {
 
     WebHookIntegration webHookIntegration = getWebHookIntegration(configurationId);
 
+    if (isUnknownInstance(hash, configurationId, webHookIntegration)) {
+      return ResponseEntity.notFound().build();
+    }
+
     String configurationType = webHookIntegration.getSettings().getType();
     getConfigurationInstance(hash, configurationId, configurationType);
 
@@ -36,27 +36,34 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.symphonyoss.integration.config.exception.InstanceNotFoundException;
+import org.symphonyoss.integration.config.index.InstanceHashIndex;
 import org.symphonyoss.integration.exception.IntegrationUnavailableException;
+import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.exception.config.ForbiddenUserException;
 import org.symphonyoss.integration.exception.config.IntegrationConfigException;
 import org.symphonyoss.integration.exception.config.NotFoundException;
 import org.symphonyoss.integration.logging.LogMessageSource;
 import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.model.message.Message;
 import org.symphonyoss.integration.service.IntegrationBridge;
 import org.symphonyoss.integration.service.IntegrationService;
+import org.symphonyoss.integration.web.async.WebHookAsyncExecutor;
+import org.symphonyoss.integration.web.async.WebHookTask;
 import org.symphonyoss.integration.web.exception.IntegrationBridgeUnavailableException;
+import org.symphonyoss.integration.web.payload.RequestPayloads;
 import org.symphonyoss.integration.webhook.WebHookIntegration;
 import org.symphonyoss.integration.webhook.WebHookPayload;
 import org.symphonyoss.integration.webhook.exception.WebHookDisabledException;
 import org.symphonyoss.integration.webhook.exception.WebHookUnavailableException;
 import org.symphonyoss.integration.webhook.exception.WebHookUnprocessableEntityException;
 
-import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -83,6 +90,12 @@ public abstract class WebHookResource {
   @Autowired
   private IntegrationBridge integrationBridge;
 
+  @Autowired
+  private InstanceHashIndex instanceHashIndex;
+
+  @Autowired
+  private WebHookAsyncExecutor asyncExecutor;
+
   @Autowired
   private LogMessageSource logMessage;
 
@@ -155,28 +168,103 @@ public abstract class WebHookResource {
   }
 
   /**
-   * Retrieve the payload that will be sent to {@link WebHookIntegration}
-   * @param request
-   * @param body
-   * @return
+   * Sends the message to the streams configured for the integration instance.
+   * @param instance Integration instance
+   * @param integrationUser Integration user
+   * @param message Message to be sent
+   * @return Messages sent
+   * @throws RemoteApiException Failure to send the message
    */
-  protected WebHookPayload retrieveWebHookPayload(HttpServletRequest request, String body) {
-    Map<String, String> parameters = new HashMap<>();
-    Map<String, String> headers = new HashMap<>();
+  protected List<Message> sendMessage(IntegrationInstance instance, String integrationUser,
+      Message message) throws RemoteApiException {
+    return integrationBridge.sendMessage(instance, integrationUser, message);
+  }
 
-    Enumeration<String> paramEnum = request.getParameterNames();
-    while (paramEnum.hasMoreElements()) {
-      String paramName = paramEnum.nextElement();
-      parameters.put(paramName, request.getParameter(paramName));
+  /**
+   * Checks if the integration instance definitely doesn't exist. This check doesn't perform remote
+   * calls, so requests carrying bogus instance hashes can be rejected before the integration
+   * looks up the instance.
+   * @param instanceId Integration instance identifier
+   * @param configurationId Integration identifier
+   * @param whiIntegration WebHook integration responsible to handle the request
+   * @return true if the instance definitely doesn't exist or false otherwise
+   */
+  protected boolean isUnknownInstance(String instanceId, String configurationId,
+      WebHookIntegration whiIntegration) {
+    String integrationUser = whiIntegration.getSettings().getType();
+    return instanceHashIndex.isUnknownInstance(configurationId, integrationUser, instanceId);
+  }
+
+  /**
+   * Executes the processing step of the request. If the async mode is enabled, the step runs on
+   * the webhook thread pool and the container thread is released until the step completes.
+   * @param task Processing step
+   * @param <T> Response body type
+   * @return HTTP response or null if the response will be written asynchronously
+   * @throws RemoteApiException Failure to process the request synchronously
+   */
+  protected <T> ResponseEntity<T> execute(WebHookTask<T> task) throws RemoteApiException {
+    return execute(null, task);
+  }
+
+  /**
+   * Executes the processing step of the request. The payload is detached from the servlet request
+   * before the step is handed to the webhook thread pool.
+   * @param payload Webhook payload used by the processing step
+   * @param task Processing step
+   * @param <T> Response body type
+   * @return HTTP response or null if the response will be written asynchronously
+   * @throws RemoteApiException Failure to process the request synchronously
+   */
+  protected <T> ResponseEntity<T> execute(WebHookPayload payload, WebHookTask<T> task)
+      throws RemoteApiException {
+    return execute(null, payload, task);
+  }
+
+  /**
+   * Executes the processing step of the request. In async mode, the step is queued with the other
+   * requests of the same webhook instance, so the instances are served in turns.
+   * @param hash Webhook instance hash
+   * @param payload Webhook payload used by the processing step
+   * @param task Processing step
+   * @param <T> Response body type
+   * @return HTTP response or null if the response will be written asynchronously
+   * @throws RemoteApiException Failure to process the request synchronously
+   */
+  protected <T> ResponseEntity<T> execute(String hash, WebHookPayload payload,
+      WebHookTask<T> task) throws RemoteApiException {
+    HttpServletRequest request = getCurrentRequest();
+
+    if (request == null || !request.isAsyncSupported() || !asyncExecutor.isEnabled()) {
+      return task.execute();
     }
 
-    Enumeration<String> headerEnum = request.getHeaderNames();
-    while (headerEnum.hasMoreElements()) {
-      String headerName = headerEnum.nextElement();
-      headers.put(headerName, request.getHeader(headerName));
+    RequestPayloads.detach(payload);
+    return asyncExecutor.submit(request, hash, task);
+  }
+
+  /**
+   * Retrieves the request bound to the current thread.
+   * @return HTTP request or null if there is no request bound to the thread
+   */
+  protected HttpServletRequest getCurrentRequest() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+    if (attributes instanceof ServletRequestAttributes) {
+      return ((ServletRequestAttributes) attributes).getRequest();
     }
 
-    return new WebHookPayload(parameters, headers, body);
+    return null;
+  }
+
+  /**
+   * Retrieve the payload that will be sent to {@link WebHookIntegration}
+   * @param request
+   * @param body
+   * @return
+   */
+  protected WebHookPayload retrieveWebHookPayload(HttpServletRequest request, String body) {
+    return RequestPayloads.newWebHookPayload(request, body);
   }
 
   private void closeCircuit() {
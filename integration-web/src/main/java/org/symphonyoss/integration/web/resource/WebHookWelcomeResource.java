@@ -27,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.model.config.IntegrationInstance;
+import org.symphonyoss.integration.web.async.WebHookTask;
 import org.symphonyoss.integration.webhook.WebHookIntegration;
 
 /**
@@ -65,18 +66,24 @@ public class WebHookWelcomeResource extends WebHookResource {
   @RequestMapping(value = "/{configurationId}/{hash}/welcome",
       method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE,
       produces = MediaType.TEXT_PLAIN_VALUE)
-  public ResponseEntity<String> handleWelcomeRequest(@PathVariable String hash,
-      @PathVariable String configurationId, @RequestBody String body) throws RemoteApiException {
+  public ResponseEntity<String> handleWelcomeRequest(@PathVariable final String hash,
+      @PathVariable final String configurationId, @RequestBody final String body)
+      throws RemoteApiException {
     LOGGER.info("Welcome: Request received for hash {} and configuration {}", hash, configurationId);
 
-    WebHookIntegration whiIntegration = getWebHookIntegration(configurationId);
+    final WebHookIntegration whiIntegration = getWebHookIntegration(configurationId);
 
-    String configurationType = whiIntegration.getSettings().getType();
-    IntegrationInstance instance =
-        getConfigurationInstance(hash, configurationId, configurationType);
+    return execute(hash, null, new WebHookTask<String>() {
+      @Override
+      public ResponseEntity<String> execute() throws RemoteApiException {
+        String configurationType = whiIntegration.getSettings().getType();
+        IntegrationInstance instance =
+            getConfigurationInstance(hash, configurationId, configurationType);
 
-    whiIntegration.welcome(instance, configurationType, body);
+        whiIntegration.welcome(instance, configurationType, body);
 
-    return ResponseEntity.ok().body("");
+        return ResponseEntity.ok().body("");
+      }
+    });
   }
 }
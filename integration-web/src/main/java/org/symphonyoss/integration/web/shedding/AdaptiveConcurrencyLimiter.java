@@ -0,0 +1,216 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.shedding;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Limits the number of in-flight requests using a {@link GradientLimit}.
+ *
+ * The limit shrinks when the request latency rises above the baseline and grows back once it
+ * recovers, so an overloaded application rejects the excess requests right away instead of
+ * letting them queue until they time out.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+  public static final int SERVICE_UNAVAILABLE = 503;
+
+  public static final int TOO_MANY_REQUESTS = 429;
+
+  public static final int GATEWAY_TIMEOUT = 504;
+
+  private static final String PREFIX = "integration_bridge.concurrency-limit.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String INITIAL_LIMIT_KEY = PREFIX + "initial-limit";
+
+  public static final String MIN_LIMIT_KEY = PREFIX + "min-limit";
+
+  public static final String MAX_LIMIT_KEY = PREFIX + "max-limit";
+
+  public static final String TOLERANCE_KEY = PREFIX + "tolerance";
+
+  public static final String SMOOTHING_KEY = PREFIX + "smoothing";
+
+  public static final String BASELINE_WINDOW_KEY = PREFIX + "baseline-window";
+
+  public static final String BACKOFF_RATIO_KEY = PREFIX + "backoff-ratio";
+
+  public static final String RETRY_AFTER_KEY = PREFIX + "retry-after";
+
+  private static final String METRIC_PREFIX = "concurrencyLimit";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private ConcurrencyLimitSettings settings = new ConcurrencyLimitSettings();
+
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  private GradientLimit limit;
+
+  private Meter rejected;
+
+  /**
+   * Reads the limiter settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    ConcurrencyLimitSettings defaults = new ConcurrencyLimitSettings();
+
+    settings.setEnabled(environment.getProperty(ENABLED_KEY, Boolean.class, defaults.isEnabled()));
+    settings.setInitialLimit(
+        environment.getProperty(INITIAL_LIMIT_KEY, Integer.class, defaults.getInitialLimit()));
+    settings.setMinLimit(
+        environment.getProperty(MIN_LIMIT_KEY, Integer.class, defaults.getMinLimit()));
+    settings.setMaxLimit(
+        environment.getProperty(MAX_LIMIT_KEY, Integer.class, defaults.getMaxLimit()));
+    settings.setTolerance(
+        environment.getProperty(TOLERANCE_KEY, Double.class, defaults.getTolerance()));
+    settings.setSmoothing(
+        environment.getProperty(SMOOTHING_KEY, Double.class, defaults.getSmoothing()));
+    settings.setBaselineWindow(environment.getProperty(BASELINE_WINDOW_KEY, Integer.class,
+        defaults.getBaselineWindow()));
+    settings.setBackoffRatio(
+        environment.getProperty(BACKOFF_RATIO_KEY, Double.class, defaults.getBackoffRatio()));
+    settings.setRetryAfterSeconds(
+        environment.getProperty(RETRY_AFTER_KEY, Long.class, defaults.getRetryAfterSeconds()));
+
+    this.limit = new GradientLimit(settings);
+
+    registerMetrics();
+
+    LOGGER.info("Concurrency limiter enabled: {}, initial limit: {}, min: {}, max: {}",
+        settings.isEnabled(), settings.getInitialLimit(), settings.getMinLimit(),
+        settings.getMaxLimit());
+  }
+
+  public ConcurrencyLimitSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Takes an in-flight slot if the number of in-flight requests is below the current limit.
+   * @return Number of in-flight requests including this one, or -1 if the request must be shed
+   */
+  public int tryAcquire() {
+    if (!settings.isEnabled()) {
+      return inflight.incrementAndGet();
+    }
+
+    int maxInflight = limit.getLimit();
+
+    while (true) {
+      int current = inflight.get();
+
+      if (current >= maxInflight) {
+        rejected.mark();
+        return -1;
+      }
+
+      if (inflight.compareAndSet(current, current + 1)) {
+        return current + 1;
+      }
+    }
+  }
+
+  /**
+   * Releases the in-flight slot and reports the request outcome. Requests rejected by the other
+   * filters (HTTP 429 or 503) don't carry latency information, and timed out requests (HTTP 504)
+   * cut the limit.
+   * @param latencyNanos Request latency (nanoseconds)
+   * @param inflightAtStart Value returned by {@link #tryAcquire()}
+   * @param status HTTP response code
+   */
+  public void release(long latencyNanos, int inflightAtStart, int status) {
+    inflight.decrementAndGet();
+
+    if (!settings.isEnabled() || status == SERVICE_UNAVAILABLE || status == TOO_MANY_REQUESTS) {
+      return;
+    }
+
+    if (status == GATEWAY_TIMEOUT) {
+      limit.onDropped();
+    } else {
+      limit.onSample(latencyNanos, inflightAtStart);
+    }
+  }
+
+  /**
+   * Retrieves the current limit.
+   * @return Max number of in-flight requests
+   */
+  public int getLimit() {
+    return limit.getLimit();
+  }
+
+  /**
+   * Retrieves the number of in-flight requests.
+   * @return In-flight requests
+   */
+  public int getInflight() {
+    return inflight.get();
+  }
+
+  private void registerMetrics() {
+    this.rejected =
+        metricsRegistry.meter(MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "rejected"));
+
+    String limitName = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "limit");
+
+    if (!metricsRegistry.getGauges().containsKey(limitName)) {
+      metricsRegistry.register(limitName, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return getLimit();
+        }
+      });
+    }
+
+    String inflightName = MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, "inflight");
+
+    if (!metricsRegistry.getGauges().containsKey(inflightName)) {
+      metricsRegistry.register(inflightName, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return getInflight();
+        }
+      });
+    }
+  }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.shedding;
+
+/**
+ * Settings used by the {@link AdaptiveConcurrencyLimiter}.
+ */
+public class ConcurrencyLimitSettings {
+
+  private boolean enabled = true;
+
+  /**
+   * Limit used when the application starts (in-flight requests)
+   */
+  private int initialLimit = 50;
+
+  /**
+   * Lowest limit the limiter can reach (in-flight requests)
+   */
+  private int minLimit = 10;
+
+  /**
+   * Highest limit the limiter can reach (in-flight requests)
+   */
+  private int maxLimit = 200;
+
+  /**
+   * Ratio between the latency and the baseline latency tolerated before the limit decreases
+   */
+  private double tolerance = 1.5;
+
+  /**
+   * Weight of each new limit estimate in the current limit
+   */
+  private double smoothing = 0.2;
+
+  /**
+   * Number of samples averaged by the baseline latency
+   */
+  private int baselineWindow = 600;
+
+  /**
+   * Factor applied to the limit when a request times out
+   */
+  private double backoffRatio = 0.9;
+
+  /**
+   * Time the rejected clients should wait before retrying (seconds)
+   */
+  private long retryAfterSeconds = 1;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  public void setInitialLimit(int initialLimit) {
+    this.initialLimit = initialLimit;
+  }
+
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  public void setMinLimit(int minLimit) {
+    this.minLimit = minLimit;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  public void setMaxLimit(int maxLimit) {
+    this.maxLimit = maxLimit;
+  }
+
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  public double getSmoothing() {
+    return smoothing;
+  }
+
+  public void setSmoothing(double smoothing) {
+    this.smoothing = smoothing;
+  }
+
+  public int getBaselineWindow() {
+    return baselineWindow;
+  }
+
+  public void setBaselineWindow(int baselineWindow) {
+    this.baselineWindow = baselineWindow;
+  }
+
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  public void setBackoffRatio(double backoffRatio) {
+    this.backoffRatio = backoffRatio;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  public void setRetryAfterSeconds(long retryAfterSeconds) {
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+}
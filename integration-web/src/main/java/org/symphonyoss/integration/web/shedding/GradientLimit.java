@@ -0,0 +1,103 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.shedding;
+
+/**
+ * Concurrency limit estimated from the gradient between the baseline latency and the latency of
+ * each request.
+ *
+ * The baseline is a long-term average of the request latencies. While the latency stays within
+ * the tolerance of the baseline, the limit grows by the square root of the current limit (the
+ * queue allowed on top of the limit). When the latency rises, the limit shrinks proportionally to
+ * the gradient, at most by half per sample. Each new estimate is smoothed into the current limit.
+ *
+ * Samples taken while less than half of the limit is in use are ignored, since they say nothing
+ * about the capacity of the application.
+ */
+public class GradientLimit {
+
+  private static final double MIN_GRADIENT = 0.5;
+
+  private static final double MAX_GRADIENT = 1.0;
+
+  private static final double BASELINE_DRIFT_RATIO = 2.0;
+
+  private static final double BASELINE_DECAY = 0.95;
+
+  private final ConcurrencyLimitSettings settings;
+
+  private double limit;
+
+  private double baselineNanos;
+
+  public GradientLimit(ConcurrencyLimitSettings settings) {
+    this.settings = settings;
+    this.limit = clamp(settings.getInitialLimit());
+  }
+
+  /**
+   * Reports the latency of a completed request.
+   * @param latencyNanos Request latency (nanoseconds)
+   * @param inflight Number of in-flight requests when the request started
+   */
+  public synchronized void onSample(long latencyNanos, int inflight) {
+    if (latencyNanos <= 0) {
+      return;
+    }
+
+    if (baselineNanos == 0) {
+      baselineNanos = latencyNanos;
+    } else {
+      baselineNanos += (latencyNanos - baselineNanos) / Math.max(1, settings.getBaselineWindow());
+    }
+
+    // The latency recovered well below the baseline, so let the baseline follow it quickly
+    if (baselineNanos / latencyNanos > BASELINE_DRIFT_RATIO) {
+      baselineNanos *= BASELINE_DECAY;
+    }
+
+    if (inflight < limit / 2) {
+      return;
+    }
+
+    double gradient = Math.max(MIN_GRADIENT,
+        Math.min(MAX_GRADIENT, settings.getTolerance() * baselineNanos / latencyNanos));
+    double estimate = limit * gradient + Math.sqrt(limit);
+
+    limit = clamp(limit * (1 - settings.getSmoothing()) + estimate * settings.getSmoothing());
+  }
+
+  /**
+   * Reports a request timed out. The limit is cut by the backoff ratio.
+   */
+  public synchronized void onDropped() {
+    limit = clamp(limit * settings.getBackoffRatio());
+  }
+
+  /**
+   * Retrieves the current limit.
+   * @return Max number of in-flight requests
+   */
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  private double clamp(double value) {
+    return Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), value));
+  }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for a single source address.
+ *
+ * The bucket is implemented as a GCRA (generic cell rate algorithm): it keeps the theoretical
+ * arrival time of the next request and a request is allowed when it's not ahead of that time by
+ * more than the burst tolerance. This needs a single compare-and-set per request.
+ *
+ * The bucket also counts the consecutive bad responses sent to the source address. When the
+ * threshold is reached, the source address is blocked for a penalty that doubles on each new
+ * offense. A successful response resets the counters.
+ */
+public class SourceBucket {
+
+  private final AtomicLong theoreticalArrival;
+
+  private final AtomicInteger badResponses = new AtomicInteger();
+
+  private final AtomicInteger offenses = new AtomicInteger();
+
+  private final AtomicLong blockedUntilNanos;
+
+  private volatile boolean blocked;
+
+  public SourceBucket(long nowNanos) {
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+    this.blockedUntilNanos = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Tries to acquire a permit.
+   * @param nowNanos Current time (nanoseconds)
+   * @param intervalNanos Emission interval (nanoseconds per request)
+   * @param toleranceNanos Burst tolerance (nanoseconds)
+   * @return 0 if the permit was granted, otherwise the time the source address must wait before
+   * sending a new request (nanoseconds)
+   */
+  public long tryAcquire(long nowNanos, long intervalNanos, long toleranceNanos) {
+    if (blocked) {
+      long remaining = blockedUntilNanos.get() - nowNanos;
+
+      if (remaining > 0) {
+        return remaining;
+      }
+
+      blocked = false;
+    }
+
+    while (true) {
+      long current = theoreticalArrival.get();
+      long base = (current - nowNanos > 0) ? current : nowNanos;
+      long ahead = base - nowNanos - toleranceNanos;
+
+      if (ahead > 0) {
+        return ahead;
+      }
+
+      if (theoreticalArrival.compareAndSet(current, base + intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Reports a bad response sent to the source address.
+   * @param nowNanos Current time (nanoseconds)
+   * @param threshold Consecutive bad responses before the penalty
+   * @param penaltyNanos First penalty (nanoseconds)
+   * @param maxPenaltyNanos Max penalty (nanoseconds)
+   * @return true if the source address was penalized or false otherwise
+   */
+  public boolean onBadResponse(long nowNanos, int threshold, long penaltyNanos,
+      long maxPenaltyNanos) {
+    if (badResponses.incrementAndGet() < threshold) {
+      return false;
+    }
+
+    badResponses.set(0);
+
+    int offense = Math.min(offenses.getAndIncrement(), 30);
+    long penalty = Math.min(maxPenaltyNanos, penaltyNanos << offense);
+
+    if (penalty < 0) {
+      penalty = maxPenaltyNanos;
+    }
+
+    blockedUntilNanos.set(nowNanos + penalty);
+    blocked = true;
+
+    return true;
+  }
+
+  /**
+   * Reports a successful response sent to the source address.
+   */
+  public void onSuccess() {
+    if (badResponses.get() != 0) {
+      badResponses.set(0);
+    }
+
+    if (offenses.get() != 0) {
+      offenses.set(0);
+    }
+  }
+
+  public boolean isBlocked(long nowNanos) {
+    return blocked && blockedUntilNanos.get() - nowNanos > 0;
+  }
+
+  public int getOffenses() {
+    return offenses.get();
+  }
+
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.throttling;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Throttles the webhook requests per source address.
+ *
+ * Each source address has its own {@link SourceBucket}. The buckets are kept in a striped table
+ * where each stripe is a small LRU map guarded by its own lock, so the number of tracked
+ * addresses is bounded no matter how many addresses send requests. The lock only protects the
+ * table lookup, the buckets are lock-free.
+ *
+ * Addresses that produce repeated HTTP 400 or 404 responses (like scanners sending bogus
+ * webhook hashes) are blocked for an escalating penalty.
+ */
+@Component
+public class SourceThrottler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SourceThrottler.class);
+
+  private static final String PREFIX = "integration_bridge.webhook-throttling.";
+
+  public static final String ENABLED_KEY = PREFIX + "enabled";
+
+  public static final String RATE_KEY = PREFIX + "rate";
+
+  public static final String BURST_KEY = PREFIX + "burst";
+
+  public static final String BAD_RESPONSE_THRESHOLD_KEY = PREFIX + "bad-response-threshold";
+
+  public static final String PENALTY_KEY = PREFIX + "penalty";
+
+  public static final String MAX_PENALTY_KEY = PREFIX + "max-penalty";
+
+  public static final String MAX_ENTRIES_KEY = PREFIX + "max-entries";
+
+  public static final String STRIPES_KEY = PREFIX + "stripes";
+
+  public static final String USE_FORWARDED_HEADER_KEY = PREFIX + "use-forwarded-header";
+
+  public static final String TRUSTED_PROXIES_KEY = PREFIX + "trusted-proxies";
+
+  private static final String METRIC_PREFIX = "webhook.throttling";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private SourceThrottlingSettings settings = new SourceThrottlingSettings();
+
+  private Stripe[] stripes;
+
+  private long intervalNanos;
+
+  private long toleranceNanos;
+
+  private Meter rejected;
+
+  private Meter penalties;
+
+  /**
+   * Reads the throttling settings. Missing keys keep the default values.
+   */
+  @PostConstruct
+  public void init() {
+    SourceThrottlingSettings defaults = new SourceThrottlingSettings();
+
+    settings.setEnabled(environment.getProperty(ENABLED_KEY, Boolean.class, defaults.isEnabled()));
+    settings.setRate(environment.getProperty(RATE_KEY, Double.class, defaults.getRate()));
+    settings.setBurst(environment.getProperty(BURST_KEY, Integer.class, defaults.getBurst()));
+    settings.setBadResponseThreshold(environment.getProperty(BAD_RESPONSE_THRESHOLD_KEY,
+        Integer.class, defaults.getBadResponseThreshold()));
+    settings.setPenaltyMillis(
+        environment.getProperty(PENALTY_KEY, Long.class, defaults.getPenaltyMillis()));
+    settings.setMaxPenaltyMillis(
+        environment.getProperty(MAX_PENALTY_KEY, Long.class, defaults.getMaxPenaltyMillis()));
+    settings.setMaxEntries(
+        environment.getProperty(MAX_ENTRIES_KEY, Integer.class, defaults.getMaxEntries()));
+    settings.setStripes(environment.getProperty(STRIPES_KEY, Integer.class, defaults.getStripes()));
+    settings.setUseForwardedHeader(environment.getProperty(USE_FORWARDED_HEADER_KEY,
+        Boolean.class, defaults.isUseForwardedHeader()));
+    settings.setTrustedProxies(getTrustedProxies());
+
+    double rate = Math.max(settings.getRate(), 0.001);
+    int burst = Math.max(1, settings.getBurst());
+
+    this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    this.toleranceNanos = intervalNanos * (burst - 1);
+
+    int stripeCount = Math.max(1, settings.getStripes());
+    int stripeCapacity = Math.max(1, settings.getMaxEntries() / stripeCount);
+
+    this.stripes = new Stripe[stripeCount];
+
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe(stripeCapacity);
+    }
+
+    registerMetrics();
+
+    LOGGER.info("Webhook throttling enabled: {}, rate: {}/s, burst: {}, max entries: {}",
+        settings.isEnabled(), settings.getRate(), settings.getBurst(), settings.getMaxEntries());
+  }
+
+  /**
+   * Reads the comma-separated list of trusted proxy addresses.
+   * @return Trusted proxy addresses
+   */
+  private Set<String> getTrustedProxies() {
+    String proxies = environment.getProperty(TRUSTED_PROXIES_KEY);
+
+    if (StringUtils.isBlank(proxies)) {
+      return Collections.emptySet();
+    }
+
+    Set<String> result = new HashSet<>();
+
+    for (String proxy : proxies.split(",")) {
+      if (StringUtils.isNotBlank(proxy)) {
+        result.add(proxy.trim());
+      }
+    }
+
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Tries to acquire a permit for the source address.
+   * @param sourceAddress Source address
+   * @return 0 if the request is allowed, otherwise the time the source address must wait before
+   * sending a new request (milliseconds)
+   */
+  public long tryAcquire(String sourceAddress) {
+    if (!settings.isEnabled()) {
+      return 0;
+    }
+
+    long now = System.nanoTime();
+    long waitNanos = getBucket(sourceAddress, now).tryAcquire(now, intervalNanos, toleranceNanos);
+
+    if (waitNanos > 0) {
+      rejected.mark();
+      return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    return 0;
+  }
+
+  /**
+   * Reports the response status sent to the source address. HTTP 400 and HTTP 404 count towards
+   * the penalty, successful responses reset it.
+   * @param sourceAddress Source address
+   * @param status HTTP response status
+   */
+  public void onResponse(String sourceAddress, int status) {
+    if (!settings.isEnabled()) {
+      return;
+    }
+
+    if (isBadResponse(status)) {
+      long now = System.nanoTime();
+      SourceBucket bucket = getBucket(sourceAddress, now);
+
+      boolean penalized = bucket.onBadResponse(now, settings.getBadResponseThreshold(),
+          TimeUnit.MILLISECONDS.toNanos(settings.getPenaltyMillis()),
+          TimeUnit.MILLISECONDS.toNanos(settings.getMaxPenaltyMillis()));
+
+      if (penalized) {
+        penalties.mark();
+        LOGGER.warn("Webhook requests from {} blocked after repeated bad responses (offense {})",
+            sourceAddress, bucket.getOffenses());
+      }
+    } else if (status < 400) {
+      SourceBucket bucket = findBucket(sourceAddress);
+
+      if (bucket != null) {
+        bucket.onSuccess();
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of tracked source addresses.
+   * @return Number of tracked source addresses
+   */
+  public int size() {
+    int size = 0;
+
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+
+    return size;
+  }
+
+  public SourceThrottlingSettings getSettings() {
+    return settings;
+  }
+
+  private boolean isBadResponse(int status) {
+    return status == 400 || status == 404;
+  }
+
+  private SourceBucket getBucket(String sourceAddress, long nowNanos) {
+    return stripeFor(sourceAddress).getOrCreate(sourceAddress, nowNanos);
+  }
+
+  private SourceBucket findBucket(String sourceAddress) {
+    return stripeFor(sourceAddress).get(sourceAddress);
+  }
+
+  private Stripe stripeFor(String sourceAddress) {
+    int hash = sourceAddress.hashCode();
+    hash ^= (hash >>> 16);
+    return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+  }
+
+  private void registerMetrics() {
+    this.rejected = metricsRegistry.meter(metricName("rejected"));
+    this.penalties = metricsRegistry.meter(metricName("penalties"));
+
+    String trackedSources = metricName("trackedSources");
+
+    if (!metricsRegistry.getGauges().containsKey(trackedSources)) {
+      metricsRegistry.register(trackedSources, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return size();
+        }
+      });
+    }
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, metric);
+  }
+
+  /**
+   * LRU map of buckets. The least recently used address is evicted when the stripe is full.
+   */
+  private static final class Stripe {
+
+    private final Map<String, SourceBucket> buckets;
+
+    Stripe(final int capacity) {
+      this.buckets = new LinkedHashMap<String, SourceBucket>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SourceBucket> eldest) {
+          return size() > capacity;
+        }
+      };
+    }
+
+    synchronized SourceBucket getOrCreate(String sourceAddress, long nowNanos) {
+      SourceBucket bucket = buckets.get(sourceAddress);
+
+      if (bucket == null) {
+        bucket = new SourceBucket(nowNanos);
+        buckets.put(sourceAddress, bucket);
+      }
+
+      return bucket;
+    }
+
+    synchronized SourceBucket get(String sourceAddress) {
+      return buckets.get(sourceAddress);
+    }
+
+    synchronized int size() {
+      return buckets.size();
+    }
+
+  }
+
+}
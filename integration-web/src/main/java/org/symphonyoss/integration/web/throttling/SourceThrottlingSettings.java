@@ -0,0 +1,156 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.throttling;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings used by the {@link SourceThrottler}.
+ */
+public class SourceThrottlingSettings {
+
+  private boolean enabled = false;
+
+  /**
+   * Requests per second allowed for each source address
+   */
+  private double rate = 50;
+
+  /**
+   * Number of requests a source address can send at once
+   */
+  private int burst = 100;
+
+  /**
+   * Consecutive bad responses (HTTP 400 or 404) before the source address is penalized
+   */
+  private int badResponseThreshold = 20;
+
+  /**
+   * First penalty applied to the source address (milliseconds). Each new penalty doubles it.
+   */
+  private long penaltyMillis = 1000;
+
+  /**
+   * Max penalty applied to the source address (milliseconds)
+   */
+  private long maxPenaltyMillis = TimeUnit.MINUTES.toMillis(5);
+
+  /**
+   * Max number of tracked source addresses
+   */
+  private int maxEntries = 10000;
+
+  /**
+   * Number of independent stripes of the address table
+   */
+  private int stripes = 16;
+
+  /**
+   * Uses the x-forwarded-for header to find the source address of the requests received from the
+   * trusted proxies
+   */
+  private boolean useForwardedHeader = false;
+
+  /**
+   * Addresses of the proxies allowed to set the x-forwarded-for header
+   */
+  private Set<String> trustedProxies = Collections.emptySet();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getRate() {
+    return rate;
+  }
+
+  public void setRate(double rate) {
+    this.rate = rate;
+  }
+
+  public int getBurst() {
+    return burst;
+  }
+
+  public void setBurst(int burst) {
+    this.burst = burst;
+  }
+
+  public int getBadResponseThreshold() {
+    return badResponseThreshold;
+  }
+
+  public void setBadResponseThreshold(int badResponseThreshold) {
+    this.badResponseThreshold = badResponseThreshold;
+  }
+
+  public long getPenaltyMillis() {
+    return penaltyMillis;
+  }
+
+  public void setPenaltyMillis(long penaltyMillis) {
+    this.penaltyMillis = penaltyMillis;
+  }
+
+  public long getMaxPenaltyMillis() {
+    return maxPenaltyMillis;
+  }
+
+  public void setMaxPenaltyMillis(long maxPenaltyMillis) {
+    this.maxPenaltyMillis = maxPenaltyMillis;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public int getStripes() {
+    return stripes;
+  }
+
+  public void setStripes(int stripes) {
+    this.stripes = stripes;
+  }
+
+  public boolean isUseForwardedHeader() {
+    return useForwardedHeader;
+  }
+
+  public void setUseForwardedHeader(boolean useForwardedHeader) {
+    this.useForwardedHeader = useForwardedHeader;
+  }
+
+  public Set<String> getTrustedProxies() {
+    return trustedProxies;
+  }
+
+  public void setTrustedProxies(Set<String> trustedProxies) {
+    this.trustedProxies = trustedProxies;
+  }
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Utility methods to parse IP address literals.
+ *
+ * These methods never query the DNS. Strings that aren't IP address literals are rejected.
+ */
+public final class IpAddresses {
+
+  public static final int IPV4_LENGTH = 4;
+
+  public static final int IPV6_LENGTH = 16;
+
+  private static final int IPV4_BITS = 32;
+
+  private static final int IPV6_BITS = 128;
+
+  private static final int MAX_OCTET = 255;
+
+  private static final char CIDR_SEPARATOR = '/';
+
+  private IpAddresses() {}
+
+  /**
+   * Parses an IPv4 or IPv6 address literal.
+   * @param value Address literal
+   * @return Address bytes (4 bytes for IPv4 or 16 bytes for IPv6) or null if the value isn't an
+   * IP address literal.
+   */
+  public static byte[] parseAddress(String value) {
+    if (StringUtils.isEmpty(value)) {
+      return null;
+    }
+
+    if (value.indexOf(':') >= 0) {
+      return parseIPv6(value);
+    }
+
+    return parseIPv4(value);
+  }
+
+  /**
+   * Parses a CIDR range, like "10.0.0.0/8" or "2001:db8::/32". Plain addresses are handled as
+   * single host ranges.
+   * @param value CIDR range
+   * @return CIDR range or null if the value isn't a valid range
+   */
+  public static CidrRange parseRange(String value) {
+    if (StringUtils.isEmpty(value)) {
+      return null;
+    }
+
+    int separator = value.indexOf(CIDR_SEPARATOR);
+
+    String addressValue = (separator < 0) ? value : value.substring(0, separator);
+    byte[] address = parseAddress(addressValue);
+
+    if (address == null) {
+      return null;
+    }
+
+    int maxLength = (address.length == IPV4_LENGTH) ? IPV4_BITS : IPV6_BITS;
+
+    if (separator < 0) {
+      return new CidrRange(address, maxLength);
+    }
+
+    String prefixValue = value.substring(separator + 1);
+
+    if (!StringUtils.isNumeric(prefixValue) || prefixValue.length() > 3) {
+      return null;
+    }
+
+    int prefixLength = Integer.parseInt(prefixValue);
+
+    if (prefixLength > maxLength) {
+      return null;
+    }
+
+    return new CidrRange(address, prefixLength);
+  }
+
+  private static byte[] parseIPv4(String value) {
+    byte[] result = new byte[IPV4_LENGTH];
+
+    int octet = 0;
+    int digits = 0;
+    int current = 0;
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      if (c == '.') {
+        if (digits == 0 || octet == IPV4_LENGTH - 1) {
+          return null;
+        }
+
+        result[octet++] = (byte) current;
+        current = 0;
+        digits = 0;
+      } else if (c >= '0' && c <= '9' && digits < 3) {
+        current = current * 10 + (c - '0');
+        digits++;
+
+        if (current > MAX_OCTET) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    }
+
+    if (digits == 0 || octet != IPV4_LENGTH - 1) {
+      return null;
+    }
+
+    result[octet] = (byte) current;
+    return result;
+  }
+
+  private static byte[] parseIPv6(String value) {
+    String literal = value;
+
+    if (literal.startsWith("[") && literal.endsWith("]")) {
+      literal = literal.substring(1, literal.length() - 1);
+    }
+
+    // Only hex digits, colons and dots are accepted. This guarantees the JDK parses the value as
+    // a literal instead of resolving it as a host name.
+    for (int i = 0; i < literal.length(); i++) {
+      char c = literal.charAt(i);
+
+      if (c != ':' && c != '.' && Character.digit(c, 16) < 0) {
+        return null;
+      }
+    }
+
+    try {
+      return InetAddress.getByName(literal).getAddress();
+    } catch (UnknownHostException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Network address and prefix length of a CIDR range.
+   */
+  public static final class CidrRange {
+
+    private final byte[] address;
+
+    private final int prefixLength;
+
+    CidrRange(byte[] address, int prefixLength) {
+      this.address = address;
+      this.prefixLength = prefixLength;
+    }
+
+    public byte[] getAddress() {
+      return address;
+    }
+
+    public int getPrefixLength() {
+      return prefixLength;
+    }
+
+  }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+/**
+ * Binary prefix trie used to match IPv4 and IPv6 addresses against a set of CIDR ranges.
+ *
+ * Each bit of the address selects the child node, so a lookup walks at most 32 nodes for IPv4
+ * and 128 nodes for IPv6 no matter how many ranges were added. IPv4 and IPv6 ranges are kept in
+ * separate trees.
+ *
+ * This class is not thread-safe while ranges are added. The {@link OriginWhiteList} fills the
+ * trie on its constructor and never changes it afterwards.
+ */
+public class IpPrefixTrie {
+
+  private static final int BITS_PER_BYTE = 8;
+
+  private final Node ipv4Root = new Node();
+
+  private final Node ipv6Root = new Node();
+
+  private boolean empty = true;
+
+  /**
+   * Adds a range to the trie.
+   * @param address Network address (4 bytes for IPv4 or 16 bytes for IPv6)
+   * @param prefixLength Number of leading bits of the network address
+   * @throws IllegalArgumentException Invalid address length or prefix length
+   */
+  public void add(byte[] address, int prefixLength) {
+    int maxLength = address.length * BITS_PER_BYTE;
+
+    if (prefixLength < 0 || prefixLength > maxLength) {
+      throw new IllegalArgumentException("Invalid prefix length: " + prefixLength);
+    }
+
+    Node node = getRoot(address);
+
+    for (int i = 0; i < prefixLength && !node.terminal; i++) {
+      if (bit(address, i) == 0) {
+        if (node.zero == null) {
+          node.zero = new Node();
+        }
+        node = node.zero;
+      } else {
+        if (node.one == null) {
+          node.one = new Node();
+        }
+        node = node.one;
+      }
+    }
+
+    // Wider range covers the narrower ones, so the children can be dropped
+    node.terminal = true;
+    node.zero = null;
+    node.one = null;
+
+    empty = false;
+  }
+
+  /**
+   * Checks if the address belongs to any range of the trie.
+   * @param address IP address (4 bytes for IPv4 or 16 bytes for IPv6)
+   * @return true if the address belongs to a range or false otherwise
+   */
+  public boolean contains(byte[] address) {
+    if (empty) {
+      return false;
+    }
+
+    Node node = getRoot(address);
+    int length = address.length * BITS_PER_BYTE;
+
+    for (int i = 0; i < length; i++) {
+      if (node.terminal) {
+        return true;
+      }
+
+      node = (bit(address, i) == 0) ? node.zero : node.one;
+
+      if (node == null) {
+        return false;
+      }
+    }
+
+    return node.terminal;
+  }
+
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  private Node getRoot(byte[] address) {
+    if (address.length == IpAddresses.IPV4_LENGTH) {
+      return ipv4Root;
+    } else if (address.length == IpAddresses.IPV6_LENGTH) {
+      return ipv6Root;
+    }
+
+    throw new IllegalArgumentException("Invalid address length: " + address.length);
+  }
+
+  private static int bit(byte[] address, int index) {
+    return (address[index / BITS_PER_BYTE] >> (BITS_PER_BYTE - 1 - index % BITS_PER_BYTE)) & 1;
+  }
+
+  private static final class Node {
+
+    private Node zero;
+
+    private Node one;
+
+    private boolean terminal;
+
+  }
+
+}
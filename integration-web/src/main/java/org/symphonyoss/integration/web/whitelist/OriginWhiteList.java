@@ -0,0 +1,118 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable origin whitelist compiled from the whitelist entries.
+ *
+ * The entries may be IP addresses, CIDR ranges (IPv4 or IPv6) or host names. IP addresses and
+ * CIDR ranges are compiled into an {@link IpPrefixTrie}, while host names are kept in a set. Host
+ * names are only checked when the whitelist has host name entries, so the filter doesn't need to
+ * resolve the remote host for IP-only whitelists.
+ */
+public final class OriginWhiteList {
+
+  public static final OriginWhiteList EMPTY =
+      new OriginWhiteList(Collections.<String>emptySet());
+
+  private final Set<String> entries;
+
+  private final Set<String> hostNames;
+
+  private final IpPrefixTrie ranges = new IpPrefixTrie();
+
+  public OriginWhiteList(Collection<String> whiteList) {
+    Set<String> entries = new HashSet<>();
+    Set<String> hostNames = new HashSet<>();
+
+    for (String value : whiteList) {
+      String entry = StringUtils.trimToNull(value);
+
+      if (entry == null) {
+        continue;
+      }
+
+      entries.add(entry);
+
+      IpAddresses.CidrRange range = IpAddresses.parseRange(entry);
+
+      if (range != null) {
+        ranges.add(range.getAddress(), range.getPrefixLength());
+      } else {
+        hostNames.add(entry);
+      }
+    }
+
+    this.entries = Collections.unmodifiableSet(entries);
+    this.hostNames = Collections.unmodifiableSet(hostNames);
+  }
+
+  /**
+   * Checks if the whitelist has no entries. Empty whitelists allow any origin.
+   * @return true if the whitelist has no entries or false otherwise
+   */
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  /**
+   * Checks if the whitelist has host name entries.
+   * @return true if the whitelist has host name entries or false otherwise
+   */
+  public boolean hasHostNames() {
+    return !hostNames.isEmpty();
+  }
+
+  /**
+   * Checks if the IP address is allowed by the whitelist.
+   * @param ipAddress IP address
+   * @return true if the IP address matches an entry or belongs to a CIDR range, false otherwise
+   */
+  public boolean containsAddress(String ipAddress) {
+    if (entries.contains(ipAddress)) {
+      return true;
+    }
+
+    if (ranges.isEmpty()) {
+      return false;
+    }
+
+    byte[] address = IpAddresses.parseAddress(ipAddress);
+    return address != null && ranges.contains(address);
+  }
+
+  /**
+   * Checks if the host name is allowed by the whitelist.
+   * @param hostName Host name
+   * @return true if the host name matches an entry or false otherwise
+   */
+  public boolean containsHost(String hostName) {
+    return hostNames.contains(hostName);
+  }
+
+  public Set<String> getEntries() {
+    return entries;
+  }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.Integration;
+import org.symphonyoss.integration.core.event.IntegrationUpdatedEventData;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of the origin whitelists per integration.
+ *
+ * Each whitelist is composed by the global whitelist defined in the YAML config file and the
+ * whitelist of the integration. The whitelists are compiled once and rebuilt when the
+ * integrations bootstrap or are removed, so the webhook filter only performs a map lookup for
+ * each request.
+ */
+@Component
+public class OriginWhiteListIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OriginWhiteListIndex.class);
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private IntegrationProperties properties;
+
+  /**
+   * Compiled whitelist for each integration type
+   */
+  private final ConcurrentMap<String, OriginWhiteList> whiteLists = new ConcurrentHashMap<>();
+
+  private volatile OriginWhiteList globalWhiteList;
+
+  /**
+   * Retrieves the whitelist for the integration type. The whitelist is compiled on the first
+   * call.
+   *
+   * Integration types without a corresponding bean aren't cached, otherwise arbitrary request
+   * paths would grow the index. The global whitelist is returned for those types.
+   * @param integrationType Integration type
+   * @return Origin whitelist
+   */
+  public OriginWhiteList getWhiteList(String integrationType) {
+    OriginWhiteList whiteList = whiteLists.get(integrationType);
+
+    if (whiteList != null) {
+      return whiteList;
+    }
+
+    return rebuild(integrationType);
+  }
+
+  /**
+   * Compiles the whitelist for the integration type and replaces the current one.
+   * @param integrationType Integration type
+   * @return Compiled whitelist
+   */
+  public OriginWhiteList rebuild(String integrationType) {
+    Integration integration;
+
+    try {
+      integration = context.getBean(integrationType, Integration.class);
+    } catch (BeansException e) {
+      LOGGER.error("Cannot retrieve embedded " + integrationType + " whitelist");
+      whiteLists.remove(integrationType);
+      return getGlobalWhiteList();
+    }
+
+    Set<String> entries = new HashSet<>(getGlobalWhiteList().getEntries());
+
+    Set<String> integrationWhiteList = integration.getIntegrationWhiteList();
+
+    if (integrationWhiteList != null) {
+      entries.addAll(integrationWhiteList);
+    }
+
+    OriginWhiteList whiteList = new OriginWhiteList(entries);
+    whiteLists.put(integrationType, whiteList);
+
+    return whiteList;
+  }
+
+  /**
+   * Discards all the compiled whitelists. They will be compiled again on demand.
+   */
+  public void clear() {
+    globalWhiteList = null;
+    whiteLists.clear();
+  }
+
+  /**
+   * Handle events related to integrations bootstrapped or removed.
+   * @param event Integration updated event
+   */
+  @EventListener
+  public void handleIntegrationUpdatedEvent(IntegrationUpdatedEventData event) {
+    String integrationType = event.getConfigurationType();
+
+    if (integrationType == null) {
+      clear();
+    } else {
+      rebuild(integrationType);
+    }
+  }
+
+  private OriginWhiteList getGlobalWhiteList() {
+    OriginWhiteList whiteList = globalWhiteList;
+
+    if (whiteList == null) {
+      Set<String> entries = properties.getGlobalWhiteList();
+      whiteList = (entries == null) ? OriginWhiteList.EMPTY : new OriginWhiteList(entries);
+      globalWhiteList = whiteList;
+    }
+
+    return whiteList;
+  }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+/**
+ * Result of a reverse DNS lookup performed by the {@link ReverseDnsResolver}.
+ */
+public final class ResolvedHost {
+
+  /**
+   * Lookup status
+   */
+  public enum Status {
+    /**
+     * Host names were resolved
+     */
+    RESOLVED,
+
+    /**
+     * The address can't be resolved
+     */
+    UNKNOWN,
+
+    /**
+     * The lookup didn't finish within the deadline or the resolver is overloaded
+     */
+    TIMEOUT
+  }
+
+  public static final ResolvedHost UNKNOWN = new ResolvedHost(Status.UNKNOWN, null, null);
+
+  public static final ResolvedHost TIMEOUT = new ResolvedHost(Status.TIMEOUT, null, null);
+
+  private final Status status;
+
+  private final String hostName;
+
+  private final String canonicalHostName;
+
+  private ResolvedHost(Status status, String hostName, String canonicalHostName) {
+    this.status = status;
+    this.hostName = hostName;
+    this.canonicalHostName = canonicalHostName;
+  }
+
+  public static ResolvedHost resolved(String hostName, String canonicalHostName) {
+    return new ResolvedHost(Status.RESOLVED, hostName, canonicalHostName);
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public String getHostName() {
+    return hostName;
+  }
+
+  public String getCanonicalHostName() {
+    return canonicalHostName;
+  }
+
+}
@@ -0,0 +1,390 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.symphonyoss.integration.core.bootstrap.NamedThreadFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Resolves the host names of the webhook senders without blocking the request threads on slow
+ * DNS servers.
+ *
+ * Lookups run on a bounded pool of resolver threads and the request thread waits for them up to
+ * the configured deadline. Results are cached using a positive TTL for resolved addresses and a
+ * negative TTL for the addresses that can't be resolved. Concurrent requests for the same address
+ * share the same lookup, and a lookup that misses the deadline keeps running to fill the cache
+ * for the next requests.
+ */
+@Component
+public class ReverseDnsResolver {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReverseDnsResolver.class);
+
+  private static final String PREFIX = "integration_bridge.reverse-dns.";
+
+  public static final String CACHE_TTL_KEY = PREFIX + "cache-ttl";
+
+  public static final String NEGATIVE_TTL_KEY = PREFIX + "negative-ttl";
+
+  public static final String MAX_ENTRIES_KEY = PREFIX + "max-entries";
+
+  public static final String THREADS_KEY = PREFIX + "threads";
+
+  public static final String QUEUE_SIZE_KEY = PREFIX + "queue-size";
+
+  public static final String TIMEOUT_KEY = PREFIX + "timeout";
+
+  public static final String FAILURE_POLICY_KEY = PREFIX + "failure-policy";
+
+  private static final String METRIC_PREFIX = "reverseDns";
+
+  private static final String THREAD_NAME = "reverse-dns";
+
+  @Autowired
+  private Environment environment;
+
+  @Autowired
+  private MetricRegistry metricsRegistry;
+
+  private ReverseDnsSettings settings = new ReverseDnsSettings();
+
+  private final ConcurrentMap<String, Lookup> cache = new ConcurrentHashMap<>();
+
+  private ThreadPoolExecutor executor;
+
+  private Timer lookupTime;
+
+  private Meter hits;
+
+  private Meter misses;
+
+  private Meter timeouts;
+
+  /**
+   * Reads the resolver settings and starts the resolver threads. Missing keys keep the default
+   * values.
+   */
+  @PostConstruct
+  public void init() {
+    ReverseDnsSettings defaults = new ReverseDnsSettings();
+
+    settings.setCacheTtlMillis(
+        environment.getProperty(CACHE_TTL_KEY, Long.class, defaults.getCacheTtlMillis()));
+    settings.setNegativeTtlMillis(
+        environment.getProperty(NEGATIVE_TTL_KEY, Long.class, defaults.getNegativeTtlMillis()));
+    settings.setMaxEntries(
+        environment.getProperty(MAX_ENTRIES_KEY, Integer.class, defaults.getMaxEntries()));
+    settings.setThreads(environment.getProperty(THREADS_KEY, Integer.class, defaults.getThreads()));
+    settings.setQueueSize(
+        environment.getProperty(QUEUE_SIZE_KEY, Integer.class, defaults.getQueueSize()));
+    settings.setTimeoutMillis(
+        environment.getProperty(TIMEOUT_KEY, Long.class, defaults.getTimeoutMillis()));
+    settings.setFailurePolicy(DnsFailurePolicy.valueOf(
+        environment.getProperty(FAILURE_POLICY_KEY, defaults.getFailurePolicy().name())
+            .trim()
+            .toUpperCase()));
+
+    int threads = Math.max(1, settings.getThreads());
+
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<Runnable>(Math.max(1, settings.getQueueSize())),
+        new NamedThreadFactory(THREAD_NAME, true));
+    this.executor.allowCoreThreadTimeOut(true);
+
+    registerMetrics();
+
+    LOGGER.info("Reverse DNS resolver threads: {}, timeout: {}ms, failure policy: {}",
+        threads, settings.getTimeoutMillis(), settings.getFailurePolicy());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Resolves the host names of the address. This method blocks the caller up to the configured
+   * timeout.
+   * @param ipAddress IP address (or host name) of the webhook sender
+   * @return Resolved host names, {@link ResolvedHost#UNKNOWN} if the address can't be resolved or
+   * {@link ResolvedHost#TIMEOUT} if the lookup didn't finish within the deadline.
+   */
+  public ResolvedHost resolve(String ipAddress) {
+    long now = System.nanoTime();
+    Lookup lookup = cache.get(ipAddress);
+
+    if (lookup != null && !lookup.isExpired(now)) {
+      hits.mark();
+    } else {
+      misses.mark();
+      lookup = startLookup(ipAddress, lookup);
+    }
+
+    if (lookup == null) {
+      timeouts.mark();
+      return ResolvedHost.TIMEOUT;
+    }
+
+    try {
+      return lookup.get(settings.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      timeouts.mark();
+      return ResolvedHost.TIMEOUT;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return ResolvedHost.TIMEOUT;
+    } catch (ExecutionException e) {
+      return ResolvedHost.UNKNOWN;
+    }
+  }
+
+  /**
+   * Checks if the requests must be allowed when the lookup doesn't finish within the deadline.
+   * @return true if the failure policy is fail-open or false otherwise
+   */
+  public boolean isFailOpen() {
+    return DnsFailurePolicy.FAIL_OPEN.equals(settings.getFailurePolicy());
+  }
+
+  public ReverseDnsSettings getSettings() {
+    return settings;
+  }
+
+  /**
+   * Performs the reverse DNS lookup. This method runs on the resolver threads.
+   * @param ipAddress IP address (or host name) of the webhook sender
+   * @return Resolved host names or {@link ResolvedHost#UNKNOWN} if the address can't be resolved
+   */
+  protected ResolvedHost lookup(String ipAddress) {
+    try {
+      return toResolvedHost(InetAddress.getByName(ipAddress));
+    } catch (UnknownHostException e) {
+      return ResolvedHost.UNKNOWN;
+    }
+  }
+
+  /**
+   * Reads the host names of the address. When the reverse lookup fails, the JDK returns the
+   * textual IP address instead of throwing an exception, so it's handled as an unknown address.
+   * @param address Address of the webhook sender
+   * @return Resolved host names or {@link ResolvedHost#UNKNOWN} if the address can't be resolved
+   */
+  static ResolvedHost toResolvedHost(InetAddress address) {
+    String hostName = address.getHostName();
+
+    if (hostName.equals(address.getHostAddress())) {
+      return ResolvedHost.UNKNOWN;
+    }
+
+    return ResolvedHost.resolved(hostName, address.getCanonicalHostName());
+  }
+
+  /**
+   * Submits a new lookup and caches it. Concurrent callers get the lookup submitted by the first
+   * one.
+   * @param ipAddress IP address
+   * @param expired Expired lookup found in the cache
+   * @return Lookup or null if the resolver threads are overloaded
+   */
+  private Lookup startLookup(String ipAddress, Lookup expired) {
+    Lookup lookup = new Lookup(ipAddress);
+
+    boolean installed = (expired == null) ? cache.putIfAbsent(ipAddress, lookup) == null
+        : cache.replace(ipAddress, expired, lookup);
+
+    if (!installed) {
+      Lookup current = cache.get(ipAddress);
+
+      if (current != null) {
+        return current;
+      }
+    }
+
+    try {
+      executor.execute(lookup);
+    } catch (RejectedExecutionException e) {
+      cache.remove(ipAddress, lookup);
+      return null;
+    }
+
+    if (installed) {
+      evictEntries();
+    }
+
+    return lookup;
+  }
+
+  /**
+   * Keeps the cache under the max number of entries. Expired entries are removed first, then the
+   * oldest entries are removed until the cache has room for new entries (10% of the max number of
+   * entries), so the eviction doesn't run again on every new lookup.
+   */
+  private void evictEntries() {
+    int maxEntries = settings.getMaxEntries();
+
+    if (cache.size() <= maxEntries) {
+      return;
+    }
+
+    long now = System.nanoTime();
+    Iterator<Lookup> iterator = cache.values().iterator();
+
+    while (iterator.hasNext()) {
+      if (iterator.next().isExpired(now)) {
+        iterator.remove();
+      }
+    }
+
+    int excess = cache.size() - (maxEntries - maxEntries / 10);
+
+    if (excess <= 0) {
+      return;
+    }
+
+    List<Map.Entry<String, Lookup>> entries = new ArrayList<>(cache.entrySet());
+
+    Collections.sort(entries, new Comparator<Map.Entry<String, Lookup>>() {
+      @Override
+      public int compare(Map.Entry<String, Lookup> o1, Map.Entry<String, Lookup> o2) {
+        return Long.compare(o1.getValue().createdAtNanos - o2.getValue().createdAtNanos, 0);
+      }
+    });
+
+    for (int i = 0; i < excess && i < entries.size(); i++) {
+      Map.Entry<String, Lookup> entry = entries.get(i);
+      cache.remove(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void registerMetrics() {
+    this.lookupTime = metricsRegistry.timer(metricName("lookupTime"));
+    this.hits = metricsRegistry.meter(metricName("hits"));
+    this.misses = metricsRegistry.meter(metricName("misses"));
+    this.timeouts = metricsRegistry.meter(metricName("timeouts"));
+
+    String hitRate = metricName("hitRate");
+
+    if (!metricsRegistry.getGauges().containsKey(hitRate)) {
+      metricsRegistry.register(hitRate, new RatioGauge() {
+        @Override
+        protected Ratio getRatio() {
+          return Ratio.of(hits.getCount(), hits.getCount() + misses.getCount());
+        }
+      });
+    }
+
+    String cacheSize = metricName("cacheSize");
+
+    if (!metricsRegistry.getGauges().containsKey(cacheSize)) {
+      metricsRegistry.register(cacheSize, new Gauge<Integer>() {
+        @Override
+        public Integer getValue() {
+          return cache.size();
+        }
+      });
+    }
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, METRIC_PREFIX, metric);
+  }
+
+  /**
+   * Lookup task. The expiration time is defined when the task finishes according to the lookup
+   * result.
+   */
+  private final class Lookup extends FutureTask<ResolvedHost> {
+
+    private final long createdAtNanos = System.nanoTime();
+
+    private volatile long expiresAtNanos;
+
+    private volatile boolean finished;
+
+    Lookup(final String ipAddress) {
+      super(new Callable<ResolvedHost>() {
+        @Override
+        public ResolvedHost call() throws Exception {
+          Timer.Context context = lookupTime.time();
+
+          try {
+            return lookup(ipAddress);
+          } finally {
+            context.stop();
+          }
+        }
+      });
+    }
+
+    @Override
+    protected void done() {
+      long ttlMillis = settings.getNegativeTtlMillis();
+
+      try {
+        if (!isCancelled() && ResolvedHost.Status.RESOLVED.equals(get().getStatus())) {
+          ttlMillis = settings.getCacheTtlMillis();
+        }
+      } catch (InterruptedException | ExecutionException e) {
+        // Failed lookups use the negative TTL
+      }
+
+      this.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+      this.finished = true;
+    }
+
+    boolean isExpired(long nowNanos) {
+      return finished && nowNanos - expiresAtNanos >= 0;
+    }
+
+  }
+
+}
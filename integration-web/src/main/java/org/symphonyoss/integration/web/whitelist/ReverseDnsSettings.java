@@ -0,0 +1,114 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings used by the {@link ReverseDnsResolver}.
+ */
+public class ReverseDnsSettings {
+
+  /**
+   * Time to keep resolved host names (milliseconds)
+   */
+  private long cacheTtlMillis = TimeUnit.MINUTES.toMillis(10);
+
+  /**
+   * Time to keep addresses that can't be resolved (milliseconds)
+   */
+  private long negativeTtlMillis = TimeUnit.MINUTES.toMillis(1);
+
+  /**
+   * Max number of cached addresses
+   */
+  private int maxEntries = 10000;
+
+  /**
+   * Number of resolver threads
+   */
+  private int threads = 4;
+
+  /**
+   * Max number of lookups waiting for a resolver thread
+   */
+  private int queueSize = 100;
+
+  /**
+   * Max time the request thread waits for a lookup (milliseconds)
+   */
+  private long timeoutMillis = 500;
+
+  private DnsFailurePolicy failurePolicy = DnsFailurePolicy.FAIL_CLOSED;
+
+  public long getCacheTtlMillis() {
+    return cacheTtlMillis;
+  }
+
+  public void setCacheTtlMillis(long cacheTtlMillis) {
+    this.cacheTtlMillis = cacheTtlMillis;
+  }
+
+  public long getNegativeTtlMillis() {
+    return negativeTtlMillis;
+  }
+
+  public void setNegativeTtlMillis(long negativeTtlMillis) {
+    this.negativeTtlMillis = negativeTtlMillis;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public int getQueueSize() {
+    return queueSize;
+  }
+
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public DnsFailurePolicy getFailurePolicy() {
+    return failurePolicy;
+  }
+
+  public void setFailurePolicy(DnsFailurePolicy failurePolicy) {
+    this.failurePolicy = failurePolicy;
+  }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Unit tests for {@link FairTaskQueue}
+ */
+public class FairTaskQueueTest {
+
+  private static final String NOISY = "noisy";
+
+  private static final String QUIET = "quiet";
+
+  @Test
+  public void testRoundRobin() {
+    FairTaskQueue queue = new FairTaskQueue(10, 10, OverflowPolicy.REJECT_NEWEST);
+
+    for (int i = 0; i < 4; i++) {
+      queue.offer(new KeyedTask(NOISY, 1));
+    }
+
+    queue.offer(new KeyedTask(QUIET, 1));
+
+    assertEquals(5, queue.size());
+    assertEquals(2, queue.getKeyCount());
+    assertEquals("noisy,quiet,noisy,noisy,noisy", drainKeys(queue));
+    assertEquals(0, queue.getKeyCount());
+  }
+
+  @Test
+  public void testWeights() {
+    FairTaskQueue queue = new FairTaskQueue(10, 10, OverflowPolicy.REJECT_NEWEST);
+
+    for (int i = 0; i < 3; i++) {
+      queue.offer(new KeyedTask(QUIET, 2));
+      queue.offer(new KeyedTask(NOISY, 1));
+    }
+
+    assertEquals("quiet,quiet,noisy,quiet,noisy,noisy", drainKeys(queue));
+  }
+
+  @Test
+  public void testRejectNewest() {
+    FairTaskQueue queue = new FairTaskQueue(10, 2, OverflowPolicy.REJECT_NEWEST);
+
+    assertTrue(queue.offer(new KeyedTask(NOISY, 1)));
+    assertTrue(queue.offer(new KeyedTask(NOISY, 1)));
+    assertFalse(queue.offer(new KeyedTask(NOISY, 1)));
+    assertTrue(queue.offer(new KeyedTask(QUIET, 1)));
+  }
+
+  @Test
+  public void testDropOldest() {
+    FairTaskQueue queue = new FairTaskQueue(10, 2, OverflowPolicy.DROP_OLDEST);
+
+    KeyedTask oldest = new KeyedTask(NOISY, 1);
+    KeyedTask second = new KeyedTask(NOISY, 1);
+    KeyedTask newest = new KeyedTask(NOISY, 1);
+
+    queue.offer(oldest);
+    queue.offer(second);
+
+    assertTrue(queue.offer(newest));
+    assertTrue(oldest.isCancelled());
+    assertEquals(2, queue.size());
+    assertSame(second, queue.poll());
+    assertSame(newest, queue.poll());
+  }
+
+  @Test
+  public void testCapacity() {
+    FairTaskQueue queue = new FairTaskQueue(2, 10, OverflowPolicy.DROP_OLDEST);
+
+    assertTrue(queue.offer(new KeyedTask(NOISY, 1)));
+    assertTrue(queue.offer(new KeyedTask(QUIET, 1)));
+    assertFalse(queue.offer(new KeyedTask("other", 1)));
+    assertEquals(0, queue.remainingCapacity());
+  }
+
+  @Test
+  public void testRemove() {
+    FairTaskQueue queue = new FairTaskQueue(10, 10, OverflowPolicy.REJECT_NEWEST);
+
+    KeyedTask task = new KeyedTask(QUIET, 1);
+    queue.offer(new KeyedTask(NOISY, 1));
+    queue.offer(task);
+
+    assertTrue(queue.remove(task));
+    assertFalse(queue.remove(task));
+    assertEquals(1, queue.size());
+    assertEquals(1, queue.getKeyCount());
+  }
+
+  @Test
+  public void testPlainRunnable() {
+    FairTaskQueue queue = new FairTaskQueue(10, 10, OverflowPolicy.REJECT_NEWEST);
+
+    Runnable task = new Runnable() {
+      @Override
+      public void run() {}
+    };
+
+    queue.offer(task);
+
+    assertSame(task, queue.peek());
+    assertSame(task, queue.poll());
+    assertNull(queue.poll());
+  }
+
+  private String drainKeys(FairTaskQueue queue) {
+    List<Runnable> tasks = new ArrayList<>();
+    queue.drainTo(tasks);
+
+    StringBuilder keys = new StringBuilder();
+
+    for (Runnable task : tasks) {
+      if (keys.length() > 0) {
+        keys.append(',');
+      }
+
+      keys.append(((KeyedTask) task).getKey());
+    }
+
+    return keys.toString();
+  }
+
+  private static class KeyedTask extends FutureTask<Void> implements FairTask {
+
+    private final String key;
+
+    private final int weight;
+
+    KeyedTask(String key, int weight) {
+      super(new Runnable() {
+        @Override
+        public void run() {}
+      }, null);
+      this.key = key;
+      this.weight = weight;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public int getWeight() {
+      return weight;
+    }
+
+  }
+
+}
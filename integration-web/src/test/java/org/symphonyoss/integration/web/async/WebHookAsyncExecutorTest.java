@@ -0,0 +1,308 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.symphonyoss.integration.client.support.deadline.Deadline;
+import org.symphonyoss.integration.exception.RemoteApiException;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+/**
+ * Unit tests for {@link WebHookAsyncExecutor}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookAsyncExecutorTest {
+
+  private static final long WAIT_MILLIS = 5000;
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(WebHookAsyncExecutor.ENABLED_KEY, "true")
+      .withProperty(WebHookAsyncExecutor.THREADS_KEY, "1")
+      .withProperty(WebHookAsyncExecutor.QUEUE_SIZE_KEY, "1");
+
+  @InjectMocks
+  private WebHookAsyncExecutor executor = new WebHookAsyncExecutor();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private MockHttpServletRequest currentRequest;
+
+  private volatile boolean running;
+
+  @Before
+  public void init() {
+    executor.init();
+  }
+
+  @After
+  public void shutdown() {
+    release.countDown();
+    executor.shutdown();
+    Deadline.restore(null);
+  }
+
+  @Test
+  public void testSettings() {
+    assertTrue(executor.isEnabled());
+    assertEquals(1, executor.getSettings().getThreads());
+    assertEquals(new WebHookAsyncSettings().getTimeoutMillis(),
+        executor.getSettings().getTimeoutMillis());
+  }
+
+  @Test
+  public void testDisabled() {
+    WebHookAsyncExecutor disabled = new WebHookAsyncExecutor();
+    ReflectionTestUtils.setField(disabled, "environment", new MockEnvironment());
+    ReflectionTestUtils.setField(disabled, "metricsRegistry", new MetricRegistry());
+
+    disabled.init();
+
+    assertFalse(disabled.isEnabled());
+  }
+
+  @Test
+  public void testAsyncResult() throws InterruptedException {
+    WebAsyncManager asyncManager = startRequest();
+
+    ResponseEntity<String> response =
+        executor.submit(currentRequest, task(ResponseEntity.ok("")));
+
+    assertNull(response);
+    assertTrue(asyncManager.isConcurrentHandlingStarted());
+
+    release.countDown();
+    waitForResult(asyncManager);
+
+    assertEquals(ResponseEntity.ok(""), asyncManager.getConcurrentResult());
+  }
+
+  @Test
+  public void testAsyncError() throws InterruptedException {
+    WebAsyncManager asyncManager = startRequest();
+    final RemoteApiException error = new RemoteApiException(500, "Agent unavailable");
+
+    executor.submit(currentRequest, new WebHookTask<String>() {
+      @Override
+      public ResponseEntity<String> execute() throws RemoteApiException {
+        throw error;
+      }
+    });
+
+    waitForResult(asyncManager);
+
+    assertEquals(error, asyncManager.getConcurrentResult());
+  }
+
+  @Test
+  public void testPropagateDeadline() throws InterruptedException {
+    WebAsyncManager asyncManager = startRequest();
+    Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+    Deadline.attach(deadline);
+
+    executor.submit(currentRequest, new WebHookTask<Deadline>() {
+      @Override
+      public ResponseEntity<Deadline> execute() throws RemoteApiException {
+        return ResponseEntity.ok(Deadline.current());
+      }
+    });
+
+    waitForResult(asyncManager);
+
+    assertEquals(ResponseEntity.ok(deadline), asyncManager.getConcurrentResult());
+  }
+
+  @Test
+  public void testDeadlineExpired() throws InterruptedException {
+    WebAsyncManager asyncManager = startRequest();
+    Deadline.attach(Deadline.after(0, TimeUnit.MILLISECONDS));
+
+    executor.submit(currentRequest, task(ResponseEntity.ok("")));
+
+    release.countDown();
+    waitForResult(asyncManager);
+
+    assertEquals(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build(),
+        asyncManager.getConcurrentResult());
+    assertFalse(running);
+  }
+
+  @Test
+  public void testQueueFull() throws IOException, InterruptedException {
+    // Busy thread
+    WebAsyncManager running = startRequest();
+    MockHttpServletRequest runningRequest = currentRequest;
+    executor.submit(runningRequest, task(ResponseEntity.ok("")));
+
+    // Queued
+    WebAsyncManager queued = startRequest();
+    MockHttpServletRequest queuedRequest = currentRequest;
+    executor.submit(queuedRequest, task(ResponseEntity.ok("")));
+
+    // Rejected
+    startRequest();
+    ResponseEntity<String> rejected = executor.submit(currentRequest, task(ResponseEntity.ok("")));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+    assertEquals("1", rejected.getHeaders().getFirst("Retry-After"));
+
+    // Wait until the first task is running, so the timeout maps to 504
+    waitUntilRunning();
+
+    fireTimeout(queuedRequest);
+    fireTimeout(runningRequest);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+        ((ResponseEntity<?>) queued.getConcurrentResult()).getStatusCode());
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT,
+        ((ResponseEntity<?>) running.getConcurrentResult()).getStatusCode());
+
+    String timeouts = MetricRegistry.name(BASE_METRIC_NAME, "webhook.async", "timeouts");
+    assertEquals(2, metricsRegistry.meter(timeouts).getCount());
+
+    String rejectedMetric = MetricRegistry.name(BASE_METRIC_NAME, "webhook.async", "rejected");
+    assertEquals(1, metricsRegistry.meter(rejectedMetric).getCount());
+  }
+
+  @Test
+  public void testDropOldest() throws InterruptedException {
+    WebHookAsyncExecutor dropOldest = new WebHookAsyncExecutor();
+    ReflectionTestUtils.setField(dropOldest, "environment", new MockEnvironment()
+        .withProperty(WebHookAsyncExecutor.ENABLED_KEY, "true")
+        .withProperty(WebHookAsyncExecutor.THREADS_KEY, "1")
+        .withProperty(WebHookAsyncExecutor.INSTANCE_QUEUE_SIZE_KEY, "1")
+        .withProperty(WebHookAsyncExecutor.OVERFLOW_POLICY_KEY, "drop-oldest"));
+    ReflectionTestUtils.setField(dropOldest, "metricsRegistry", metricsRegistry);
+
+    dropOldest.init();
+
+    try {
+      // Busy thread
+      startRequest();
+      dropOldest.submit(currentRequest, "instance", task(ResponseEntity.ok("")));
+      waitUntilRunning();
+
+      // Queued, then dropped by the next request of the same instance
+      WebAsyncManager oldest = startRequest();
+      dropOldest.submit(currentRequest, "instance", task(ResponseEntity.ok("")));
+
+      startRequest();
+      assertNull(dropOldest.submit(currentRequest, "instance", task(ResponseEntity.ok(""))));
+
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+          ((ResponseEntity<?>) oldest.getConcurrentResult()).getStatusCode());
+
+      String dropped = MetricRegistry.name(BASE_METRIC_NAME, "webhook.async", "dropped");
+      assertEquals(1, metricsRegistry.meter(dropped).getCount());
+    } finally {
+      release.countDown();
+      dropOldest.shutdown();
+    }
+  }
+
+  private WebAsyncManager startRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAsyncSupported(true);
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+    asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+
+    this.currentRequest = request;
+    return asyncManager;
+  }
+
+  private <T> WebHookTask<T> task(final ResponseEntity<T> response) {
+    return new WebHookTask<T>() {
+      @Override
+      public ResponseEntity<T> execute() {
+        running = true;
+
+        try {
+          release.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+
+        return response;
+      }
+    };
+  }
+
+  private void waitForResult(WebAsyncManager asyncManager) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+    while (!asyncManager.hasConcurrentResult() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(asyncManager.hasConcurrentResult());
+  }
+
+  private void waitUntilRunning() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+    while (!running && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(running);
+  }
+
+  private void fireTimeout(MockHttpServletRequest request) throws IOException {
+    MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+    for (AsyncListener listener : asyncContext.getListeners()) {
+      listener.onTimeout(new AsyncEvent(asyncContext));
+    }
+  }
+
+}
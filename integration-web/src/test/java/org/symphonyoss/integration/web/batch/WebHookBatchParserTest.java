@@ -0,0 +1,113 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.batch;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for {@link WebHookBatchParser}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookBatchParserTest {
+
+  @Spy
+  private Environment environment =
+      new MockEnvironment().withProperty(WebHookBatchParser.MAX_ITEMS_KEY, "10");
+
+  @InjectMocks
+  private WebHookBatchParser parser = new WebHookBatchParser();
+
+  @Before
+  public void init() {
+    parser.init();
+  }
+
+  @Test
+  public void testMaxItems() {
+    assertEquals(10, parser.getMaxItems());
+  }
+
+  @Test
+  public void testParseArray() throws InvalidBatchException {
+    List<String> items = parser.parse(" [{\"id\": 1}, {\"id\": 2}, \"text\"] ");
+    assertEquals(Arrays.asList("{\"id\":1}", "{\"id\":2}", "\"text\""), items);
+  }
+
+  @Test
+  public void testParseLines() throws InvalidBatchException {
+    List<String> items = parser.parse("{\"id\": 1}\r\n\n  {\"id\": 2}\n");
+    assertEquals(Arrays.asList("{\"id\": 1}", "{\"id\": 2}"), items);
+  }
+
+  @Test(expected = InvalidBatchException.class)
+  public void testInvalidArray() throws InvalidBatchException {
+    parser.parse("[{\"id\": 1}, ");
+  }
+
+  @Test(expected = InvalidBatchException.class)
+  public void testEmptyBatch() throws InvalidBatchException {
+    parser.parse("  \n ");
+  }
+
+  @Test
+  public void testParseArrayWithNull() throws InvalidBatchException {
+    assertEquals(Arrays.asList("null", "1"), parser.parse("[null, 1]"));
+  }
+
+  @Test(expected = BatchTooLargeException.class)
+  public void testTooManyArrayItems() throws InvalidBatchException {
+    parser.parse(buildBatch("[", ", ", "]", 11));
+  }
+
+  @Test(expected = BatchTooLargeException.class)
+  public void testTooManyLines() throws InvalidBatchException {
+    parser.parse(buildBatch("", "\n", "", 11));
+  }
+
+  @Test
+  public void testMaxItemsAccepted() throws InvalidBatchException {
+    assertEquals(10, parser.parse(buildBatch("[", ", ", "]", 10)).size());
+    assertEquals(10, parser.parse(buildBatch("", "\n", "", 10)).size());
+  }
+
+  private String buildBatch(String start, String separator, String end, int items) {
+    StringBuilder batch = new StringBuilder(start);
+
+    for (int i = 0; i < items; i++) {
+      if (i > 0) {
+        batch.append(separator);
+      }
+
+      batch.append("{\"id\": ").append(i).append("}");
+    }
+
+    return batch.append(end).toString();
+  }
+
+}
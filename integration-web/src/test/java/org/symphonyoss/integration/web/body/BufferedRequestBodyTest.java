@@ -0,0 +1,135 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.body;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link BufferedRequestBody}
+ */
+public class BufferedRequestBodyTest {
+
+  private static final String BODY = "{\"issue\":{\"key\":\"SAM-25\",\"summary\":\"A\u00e7\u00e3o\"}}";
+
+  private static final byte[] BYTES = BODY.getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void testKnownContentLength() throws IOException {
+    BufferedRequestBody body = BufferedRequestBody.read(stream(), BYTES.length, BYTES.length);
+
+    assertEquals(BYTES.length, body.size());
+    assertEquals(BODY, body.asString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testKnownContentLengthNotCopied() throws IOException {
+    final Set<byte[]> buffers = Collections.newSetFromMap(new IdentityHashMap<byte[], Boolean>());
+
+    InputStream input = new ByteArrayInputStream(BYTES) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        buffers.add(b);
+        return super.read(b, off, Math.min(len, 3));
+      }
+    };
+
+    BufferedRequestBody body = BufferedRequestBody.read(input, BYTES.length, 1024);
+
+    // The body is read into a single buffer, which is kept as is
+    assertEquals(1, buffers.size());
+    assertSame(buffers.iterator().next(), ReflectionTestUtils.getField(body, "bytes"));
+    assertEquals(BODY, body.asString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testShorterThanContentLength() throws IOException {
+    BufferedRequestBody body = BufferedRequestBody.read(stream(), BYTES.length + 10, 1024);
+
+    assertEquals(BYTES.length, body.size());
+    assertEquals(BYTES.length, ((byte[]) ReflectionTestUtils.getField(body, "bytes")).length);
+    assertEquals(BODY, body.asString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testLargerThanContentLength() throws IOException {
+    BufferedRequestBody body = BufferedRequestBody.read(stream(), 10, 1024);
+    assertEquals(BODY, body.asString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testUnknownContentLength() throws IOException {
+    // Small chunks to exercise the buffer growth
+    InputStream input = new ByteArrayInputStream(BYTES) {
+      @Override
+      public synchronized int read(byte[] b, int off, int len) {
+        return super.read(b, off, Math.min(len, 3));
+      }
+    };
+
+    BufferedRequestBody body = BufferedRequestBody.read(input, -1, 1024);
+
+    assertEquals(BODY, body.asString(StandardCharsets.UTF_8));
+    assertEquals(BODY, StreamUtils.copyToString(body.openStream(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testExactLimit() throws IOException {
+    BufferedRequestBody body = BufferedRequestBody.read(stream(), -1, BYTES.length);
+    assertEquals(BYTES.length, body.size());
+  }
+
+  @Test(expected = RequestBodyTooLargeException.class)
+  public void testContentLengthTooLarge() throws IOException {
+    BufferedRequestBody.read(stream(), BYTES.length, BYTES.length - 1);
+  }
+
+  @Test(expected = RequestBodyTooLargeException.class)
+  public void testStreamTooLarge() throws IOException {
+    BufferedRequestBody.read(stream(), -1, BYTES.length - 1);
+  }
+
+  @Test(expected = RequestBodyTooLargeException.class)
+  public void testWrongContentLength() throws IOException {
+    BufferedRequestBody.read(stream(), 10, 20);
+  }
+
+  @Test
+  public void testEmptyBody() throws IOException {
+    BufferedRequestBody body = BufferedRequestBody.read(new ByteArrayInputStream(new byte[0]), 0,
+        1024);
+    assertEquals(0, body.size());
+    assertEquals("", body.asString(StandardCharsets.UTF_8));
+  }
+
+  private InputStream stream() {
+    return new ByteArrayInputStream(BYTES);
+  }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.bulkhead;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for {@link IntegrationBulkhead}
+ */
+public class IntegrationBulkheadTest {
+
+  @Test
+  public void testSlots() throws InterruptedException {
+    IntegrationBulkhead bulkhead = new IntegrationBulkhead(2, 0);
+
+    assertTrue(bulkhead.tryAcquire(0));
+    assertTrue(bulkhead.tryAcquire(0));
+    assertFalse(bulkhead.tryAcquire(0));
+    assertEquals(2, bulkhead.getActive());
+
+    bulkhead.release();
+
+    assertEquals(1, bulkhead.getActive());
+    assertTrue(bulkhead.tryAcquire(0));
+  }
+
+  @Test
+  public void testQueueFull() throws InterruptedException {
+    IntegrationBulkhead bulkhead = new IntegrationBulkhead(1, 0);
+
+    assertTrue(bulkhead.tryAcquire(0));
+    assertFalse(bulkhead.tryAcquire(1000));
+    assertEquals(0, bulkhead.getWaiting());
+  }
+
+  @Test
+  public void testWaitForSlot() throws InterruptedException {
+    final IntegrationBulkhead bulkhead = new IntegrationBulkhead(1, 1);
+    final CountDownLatch started = new CountDownLatch(1);
+    final AtomicBoolean acquired = new AtomicBoolean();
+
+    assertTrue(bulkhead.tryAcquire(0));
+
+    Thread waiter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        started.countDown();
+
+        try {
+          acquired.set(bulkhead.tryAcquire(TimeUnit.SECONDS.toMillis(10)));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    waiter.start();
+    started.await();
+
+    while (bulkhead.getWaiting() == 0) {
+      Thread.sleep(1);
+    }
+
+    // Queue is full
+    assertFalse(bulkhead.tryAcquire(1000));
+
+    bulkhead.release();
+    waiter.join();
+
+    assertTrue(acquired.get());
+    assertEquals(1, bulkhead.getActive());
+  }
+
+}
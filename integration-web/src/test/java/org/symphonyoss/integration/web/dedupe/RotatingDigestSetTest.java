@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.dedupe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link RotatingDigestSet}
+ */
+public class RotatingDigestSetTest {
+
+  private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+
+  private static final long GENERATION = WINDOW / 4;
+
+  private RotatingDigestSet digests;
+
+  @Before
+  public void init() {
+    digests = new RotatingDigestSet(16, 4, WINDOW, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSingleGeneration() {
+    new RotatingDigestSet(16, 1, WINDOW, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroDigest() {
+    digests.add(0, 0);
+  }
+
+  @Test
+  public void testDuplicate() {
+    assertTrue(digests.add(1, 0));
+    assertTrue(digests.add(2, 0));
+    assertFalse(digests.add(1, GENERATION));
+    assertEquals(2, digests.size());
+  }
+
+  @Test
+  public void testExpire() {
+    assertTrue(digests.add(1, 0));
+    assertFalse(digests.add(1, 3 * GENERATION));
+    assertTrue(digests.add(1, WINDOW));
+  }
+
+  @Test
+  public void testExpireAfterIdle() {
+    assertTrue(digests.add(1, 0));
+    assertTrue(digests.add(1, 10 * WINDOW));
+    assertEquals(1, digests.size());
+  }
+
+  @Test
+  public void testMemoryBound() {
+    for (long digest = 1; digest <= 100; digest++) {
+      assertTrue(digests.add(digest, 0));
+    }
+
+    assertTrue(digests.size() <= 16);
+    assertFalse(digests.add(100, 0));
+    assertTrue(digests.add(1, 0));
+  }
+
+  @Test
+  public void testRemove() {
+    // Negative and colliding digests exercise the backward shift deletion
+    for (long digest = -50; digest <= 50; digest += 10) {
+      if (digest != 0) {
+        digests.add(digest, 0);
+      }
+    }
+
+    digests.remove(-20);
+    digests.remove(30);
+
+    assertTrue(digests.add(-20, 0));
+    assertTrue(digests.add(30, 0));
+    assertFalse(digests.add(-50, 0));
+    assertFalse(digests.add(50, 0));
+    assertFalse(digests.add(10, 0));
+  }
+
+}
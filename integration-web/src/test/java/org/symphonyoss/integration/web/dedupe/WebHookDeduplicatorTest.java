@@ -0,0 +1,173 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.dedupe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.symphonyoss.integration.webhook.WebHookPayload;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link WebHookDeduplicator}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookDeduplicatorTest {
+
+  private static final String HASH = "c518e9ed5fd5f9492f75fba443d014061cd63042";
+
+  private static final String GITHUB = "githubWebHookIntegration";
+
+  private static final String JIRA = "jiraWebHookIntegration";
+
+  private static final String ZAPIER = "zapierWebHookIntegration";
+
+  private static final String DELIVERY_HEADER = "X-GitHub-Delivery";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(WebHookDeduplicator.ENABLED_KEY, "true")
+      .withProperty("integration_bridge.webhook-dedupe." + GITHUB + ".delivery-id-header",
+          DELIVERY_HEADER)
+      .withProperty("integration_bridge.webhook-dedupe." + JIRA + ".content-hash", "true");
+
+  @InjectMocks
+  private WebHookDeduplicator deduplicator = new WebHookDeduplicator();
+
+  @Before
+  public void init() {
+    deduplicator.init();
+  }
+
+  @Test
+  public void testContentDigest() {
+    long digest = deduplicator.digest(HASH, JIRA, buildPayload("body", null));
+
+    assertEquals(digest, deduplicator.digest(HASH, JIRA, buildPayload("body", null)));
+    assertNotEquals(digest, deduplicator.digest(HASH, JIRA, buildPayload("other", null)));
+    assertNotEquals(digest, deduplicator.digest("other", JIRA, buildPayload("body", null)));
+  }
+
+  @Test
+  public void testDeliveryIdDigest() {
+    long digest = deduplicator.digest(HASH, GITHUB, buildPayload("body", "1"));
+
+    // Retries carry the same delivery id even if the body changes
+    assertEquals(digest, deduplicator.digest(HASH, GITHUB, buildPayload("changed", "1")));
+    assertNotEquals(digest, deduplicator.digest(HASH, GITHUB, buildPayload("body", "2")));
+
+    // The header is ignored by the integrations that don't define it
+    assertEquals(deduplicator.digest(HASH, JIRA, buildPayload("body", "1")),
+        deduplicator.digest(HASH, JIRA, buildPayload("body", "2")));
+  }
+
+  @Test
+  public void testNotTracked() {
+    // Neither delivery id header nor content hashing
+    assertEquals(WebHookDeduplicator.NO_DIGEST,
+        deduplicator.digest(HASH, ZAPIER, buildPayload("body", "1")));
+    assertEquals(WebHookDeduplicator.NO_DIGEST,
+        deduplicator.digestContent(HASH, ZAPIER, "body"));
+
+    // Requests without the delivery id aren't hashed by content unless configured
+    assertEquals(WebHookDeduplicator.NO_DIGEST,
+        deduplicator.digest(HASH, GITHUB, buildPayload("body", null)));
+    assertEquals(WebHookDeduplicator.NO_DIGEST,
+        deduplicator.digestContent(HASH, GITHUB, "body"));
+  }
+
+  @Test
+  public void testBatchItemDigest() {
+    long digest = deduplicator.digestContent(HASH, JIRA, "item");
+
+    assertNotEquals(WebHookDeduplicator.NO_DIGEST, digest);
+    assertEquals(digest, deduplicator.digestContent(HASH, JIRA, "item"));
+    assertNotEquals(digest, deduplicator.digestContent(HASH, JIRA, "other"));
+  }
+
+  @Test
+  public void testDuplicate() {
+    long digest = deduplicator.digest(HASH, JIRA, buildPayload("body", null));
+
+    assertFalse(deduplicator.isDuplicate(JIRA, digest));
+    assertTrue(deduplicator.isDuplicate(JIRA, digest));
+
+    String duplicates =
+        MetricRegistry.name(BASE_METRIC_NAME, "webhook.dedupe", JIRA, "duplicates");
+    assertEquals(1, metricsRegistry.counter(duplicates).getCount());
+  }
+
+  @Test
+  public void testRelease() {
+    long digest = deduplicator.digest(HASH, JIRA, buildPayload("body", null));
+
+    assertFalse(deduplicator.isDuplicate(JIRA, digest));
+    deduplicator.release(digest);
+    assertFalse(deduplicator.isDuplicate(JIRA, digest));
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    WebHookDeduplicator defaultDeduplicator = new WebHookDeduplicator();
+    ReflectionTestUtils.setField(defaultDeduplicator, "environment", new MockEnvironment());
+    ReflectionTestUtils.setField(defaultDeduplicator, "metricsRegistry", metricsRegistry);
+    defaultDeduplicator.init();
+
+    assertFalse(defaultDeduplicator.isEnabled());
+  }
+
+  @Test
+  public void testDisabled() {
+    ((MockEnvironment) environment).setProperty(WebHookDeduplicator.ENABLED_KEY, "false");
+    deduplicator.init();
+
+    long digest = deduplicator.digest(HASH, JIRA, buildPayload("body", null));
+
+    assertEquals(WebHookDeduplicator.NO_DIGEST, digest);
+    assertFalse(deduplicator.isDuplicate(JIRA, digest));
+    assertFalse(deduplicator.isDuplicate(JIRA, digest));
+  }
+
+  private WebHookPayload buildPayload(String body, String deliveryId) {
+    Map<String, String> headers = new HashMap<>();
+
+    if (deliveryId != null) {
+      headers.put(DELIVERY_HEADER, deliveryId);
+    }
+
+    return new WebHookPayload(new HashMap<String, String>(), headers, body);
+  }
+
+}
@@ -43,7 +43,10 @@ import org.symphonyoss.integration.web.metrics.RequestMetricsController;
 
 import java.io.IOException;
 
+import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -136,4 +139,29 @@ public class IntegrationMetricsFilterTest {
     verify(metricsController, times(1)).finishIntegrationExecution(webhookResourceContext);
     verify(metricsController, times(1)).finishRequest(context, 200);
   }
+
+  @Test
+  public void testLogAsyncWebHookRequest() throws IOException, ServletException {
+    MockHttpServletRequest asyncRequest =
+        new MockHttpServletRequest("POST", WEBHOOK_URL + TEST_INTEGRATION + "/2123a62d34e");
+    asyncRequest.setAsyncSupported(true);
+
+    MockHttpServletResponse asyncResponse = new MockHttpServletResponse();
+
+    filter.doFilter(asyncRequest, asyncResponse, new FilterChain() {
+      @Override
+      public void doFilter(ServletRequest request, ServletResponse response) {
+        request.startAsync();
+      }
+    });
+
+    // The request is still being processed
+    verify(metricsController, times(0)).finishRequest(any(Timer.Context.class), anyInt());
+
+    asyncResponse.setStatus(202);
+    asyncRequest.getAsyncContext().complete();
+
+    verify(metricsController, times(1)).finishIntegrationExecution(webhookResourceContext);
+    verify(metricsController, times(1)).finishRequest(context, 202);
+  }
 }
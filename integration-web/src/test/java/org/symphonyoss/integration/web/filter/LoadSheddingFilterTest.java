@@ -0,0 +1,134 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.symphonyoss.integration.web.shedding.AdaptiveConcurrencyLimiter;
+import org.symphonyoss.integration.web.shedding.ConcurrencyLimitSettings;
+
+import java.io.IOException;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+/**
+ * Unit tests for {@link LoadSheddingFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LoadSheddingFilterTest {
+
+  private static final String WEBHOOK_URI =
+      "/integration/v1/whi/jiraWebHookIntegration/57bf581ae4b079de6a1cbbf9/123456";
+
+  private static final String EXEMPT_URL = "/integration/metrics/,/integration/health";
+
+  @Mock
+  private WebApplicationContext springContext;
+
+  @Mock
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @Spy
+  private ServletContext servletContext = new MockServletContext();
+
+  private MockFilterConfig config;
+
+  private MockHttpServletRequest request = new MockHttpServletRequest();
+
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  private LoadSheddingFilter filter = new LoadSheddingFilter();
+
+  @Before
+  public void init() throws ServletException {
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE,
+        springContext);
+
+    config = new MockFilterConfig(servletContext);
+    config.addInitParameter(LoadSheddingFilter.EXEMPT_URL_PARAM, EXEMPT_URL);
+
+    doReturn(limiter).when(springContext).getBean(AdaptiveConcurrencyLimiter.class);
+    doReturn(new ConcurrencyLimitSettings()).when(limiter).getSettings();
+
+    request.setRequestURI(WEBHOOK_URI);
+
+    filter.init(config);
+  }
+
+  @Test
+  public void testAllowed() throws IOException, ServletException {
+    doReturn(3).when(limiter).tryAcquire();
+
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+
+    assertNotNull(chain.getRequest());
+    verify(limiter).release(anyLong(), eq(3), eq(200));
+  }
+
+  @Test
+  public void testShedLoad() throws IOException, ServletException {
+    doReturn(-1).when(limiter).tryAcquire();
+
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+
+    assertNull(chain.getRequest());
+    assertEquals(AdaptiveConcurrencyLimiter.SERVICE_UNAVAILABLE, response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+    verify(limiter, never()).release(anyLong(), anyInt(), anyInt());
+  }
+
+  @Test
+  public void testExemptPaths() throws IOException, ServletException {
+    doReturn(-1).when(limiter).tryAcquire();
+
+    request.setRequestURI(WEBHOOK_URI + "/welcome");
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+    assertNotNull(chain.getRequest());
+
+    request.setRequestURI("/integration/health");
+    chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+    assertNotNull(chain.getRequest());
+
+    verify(limiter, never()).tryAcquire();
+  }
+
+}
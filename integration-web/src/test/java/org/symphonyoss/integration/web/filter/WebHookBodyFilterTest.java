@@ -0,0 +1,193 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.web.body.BufferedRequestBody;
+import org.symphonyoss.integration.web.body.RequestBodyLimits;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Unit tests for {@link WebHookBodyFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookBodyFilterTest {
+
+  private static final String JIRA_PATH = "/integration/v1/whi/jiraWebHookIntegration/"
+      + "57756bca4b54433738037005/5810d144e4b0f884b709cc5a";
+
+  private static final String GITHUB_PATH = "/integration/v1/whi/githubWebHookIntegration/"
+      + "57756bca4b54433738037005/5810d144e4b0f884b709cc5a";
+
+  private static final String BODY = "{\"webhookEvent\":\"jira:issue_created\"}";
+
+  @Mock
+  private WebApplicationContext springContext;
+
+  @Mock
+  private LogMessageSource logMessage;
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(RequestBodyLimits.ENABLED_KEY, "true")
+      .withProperty(RequestBodyLimits.MAX_SIZE_KEY, "64")
+      .withProperty("integration_bridge.webhook-body.githubWebHookIntegration.max-size", "16");
+
+  @InjectMocks
+  private RequestBodyLimits limits = new RequestBodyLimits();
+
+  @Spy
+  private ServletContext servletContext = new MockServletContext();
+
+  @Spy
+  private FilterConfig config = new MockFilterConfig();
+
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  private WebHookBodyFilter filter = new WebHookBodyFilter();
+
+  @Before
+  public void init() throws ServletException {
+    limits.init();
+
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE,
+        springContext);
+
+    doReturn(servletContext).when(config).getServletContext();
+    doReturn(limits).when(springContext).getBean(RequestBodyLimits.class);
+    doReturn(logMessage).when(springContext).getBean(LogMessageSource.class);
+
+    filter.init(config);
+  }
+
+  @Test
+  public void testBufferedBody() throws IOException, ServletException {
+    MockHttpServletRequest request = newRequest(JIRA_PATH, BODY);
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    HttpServletRequest filtered = (HttpServletRequest) chain.getRequest();
+
+    // The body can be read more than once
+    for (int i = 0; i < 2; i++) {
+      String body = StreamUtils.copyToString(filtered.getInputStream(), StandardCharsets.UTF_8);
+      assertEquals(BODY, body);
+    }
+
+    assertTrue(request.getAttribute(BufferedRequestBody.ATTRIBUTE) instanceof BufferedRequestBody);
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  public void testContentLengthTooLarge() throws IOException, ServletException {
+    MockHttpServletRequest request = newRequest(GITHUB_PATH, BODY);
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(WebHookBodyFilter.PAYLOAD_TOO_LARGE_STATUS, response.getStatus());
+    assertNull(chain.getRequest());
+
+    String rejected = MetricRegistry.name(BASE_METRIC_NAME, "webhook.body", "rejected");
+    assertEquals(1, metricsRegistry.meter(rejected).getCount());
+  }
+
+  @Test
+  public void testDisabledByDefault() throws IOException, ServletException {
+    RequestBodyLimits defaultLimits = new RequestBodyLimits();
+    ReflectionTestUtils.setField(defaultLimits, "environment", new MockEnvironment());
+    ReflectionTestUtils.setField(defaultLimits, "metricsRegistry", metricsRegistry);
+    defaultLimits.init();
+
+    doReturn(defaultLimits).when(springContext).getBean(RequestBodyLimits.class);
+    filter.init(config);
+
+    MockHttpServletRequest request = newRequest(GITHUB_PATH, BODY);
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertFalse(defaultLimits.isEnabled());
+    assertEquals(request, chain.getRequest());
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  public void testFormBodyNotBuffered() throws IOException, ServletException {
+    MockHttpServletRequest request = newRequest(JIRA_PATH, "payload=test");
+    request.setContentType("application/x-www-form-urlencoded");
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(request, chain.getRequest());
+  }
+
+  @Test
+  public void testWelcomeRequest() throws IOException, ServletException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", JIRA_PATH + "/welcome");
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertEquals(request, chain.getRequest());
+  }
+
+  private MockHttpServletRequest newRequest(String path, String body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.symphonyoss.integration.web.bulkhead.IntegrationBulkhead;
+import org.symphonyoss.integration.web.bulkhead.WebHookBulkheads;
+
+import java.io.IOException;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+/**
+ * Unit tests for {@link WebHookBulkheadFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookBulkheadFilterTest {
+
+  private static final String INTEGRATION = "jiraWebHookIntegration";
+
+  private static final String WEBHOOK_URI =
+      "/integration/v1/whi/" + INTEGRATION + "/57bf581ae4b079de6a1cbbf9/123456";
+
+  @Mock
+  private WebApplicationContext springContext;
+
+  @Mock
+  private WebHookBulkheads bulkheads;
+
+  @Spy
+  private ServletContext servletContext = new MockServletContext();
+
+  @Spy
+  private FilterConfig config = new MockFilterConfig();
+
+  private MockHttpServletRequest request = new MockHttpServletRequest();
+
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  private IntegrationBulkhead bulkhead = new IntegrationBulkhead(1, 0);
+
+  private WebHookBulkheadFilter filter = new WebHookBulkheadFilter();
+
+  @Before
+  public void init() throws ServletException {
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE,
+        springContext);
+
+    doReturn(servletContext).when(config).getServletContext();
+    doReturn(bulkheads).when(springContext).getBean(WebHookBulkheads.class);
+    doReturn(true).when(bulkheads).isEnabled();
+    doReturn(bulkhead).when(bulkheads).getBulkhead(INTEGRATION);
+    doReturn(1L).when(bulkheads).getRetryAfterSeconds();
+
+    request.setRequestURI(WEBHOOK_URI);
+
+    filter.init(config);
+  }
+
+  @Test
+  public void testAllowed() throws IOException, ServletException {
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertNotNull(chain.getRequest());
+    assertEquals(200, response.getStatus());
+    assertEquals(0, bulkhead.getActive());
+  }
+
+  @Test
+  public void testBulkheadFull() throws IOException, ServletException, InterruptedException {
+    bulkhead.tryAcquire(0);
+
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+
+    assertNull(chain.getRequest());
+    assertEquals(WebHookBulkheadFilter.SERVICE_UNAVAILABLE, response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+    verify(bulkheads).onRejected(INTEGRATION);
+  }
+
+  @Test
+  public void testDisabled() throws IOException, ServletException, InterruptedException {
+    doReturn(false).when(bulkheads).isEnabled();
+    bulkhead.tryAcquire(0);
+
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(request, response, chain);
+
+    assertNotNull(chain.getRequest());
+    verify(bulkheads, never()).onRejected(anyString());
+  }
+
+}
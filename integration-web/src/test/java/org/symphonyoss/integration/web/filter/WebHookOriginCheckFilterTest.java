@@ -18,9 +18,13 @@ package org.symphonyoss.integration.web.filter;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,6 +33,8 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockFilterConfig;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -37,7 +43,11 @@ import org.springframework.mock.web.MockServletContext;
 import org.springframework.web.context.WebApplicationContext;
 import org.symphonyoss.integration.Integration;
 import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.core.event.IntegrationUpdatedEventData;
 import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+import org.symphonyoss.integration.web.whitelist.OriginWhiteListIndex;
+import org.symphonyoss.integration.web.whitelist.ResolvedHost;
+import org.symphonyoss.integration.web.whitelist.ReverseDnsResolver;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -73,6 +83,12 @@ public class WebHookOriginCheckFilterTest {
 
   private static final String REMOTE_ADDRESS_LIST_NO_IP_ALLOWED = "192.30.224.40, 192.140.252.55";
 
+  private static final String REMOTE_ADDRESS_RANGE = "192.30.252.0/22";
+
+  private static final String REMOTE_ADDRESS_IN_RANGE = "192.30.254.17";
+
+  private static final String REMOTE_ADDRESS_OUT_OF_RANGE = "192.30.248.17";
+
   private static final String FORWARD_HEADER = "x-forwarded-for";
 
   private static final String WEBHOOK_URL = "/integration/v1/whi/jiraWebHookIntegration/11111/22222";
@@ -82,6 +98,18 @@ public class WebHookOriginCheckFilterTest {
   @InjectMocks
   private WebHookOriginCheckFilter filter = new WebHookOriginCheckFilter();
 
+  @InjectMocks
+  private OriginWhiteListIndex whiteListIndex = new OriginWhiteListIndex();
+
+  @InjectMocks
+  private ReverseDnsResolver dnsResolver = new ReverseDnsResolver();
+
+  @Spy
+  private Environment environment = new MockEnvironment();
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
   @Mock
   private WebApplicationContext springContext;
 
@@ -117,11 +145,19 @@ public class WebHookOriginCheckFilterTest {
     doReturn(integration).when(springContext).getBean(BEAN_NAME, Integration.class);
     doReturn(properties).when(springContext).getBean(IntegrationProperties.class);
     doReturn(logMessage).when(springContext).getBean(LogMessageSource.class);
+    doReturn(whiteListIndex).when(springContext).getBean(OriginWhiteListIndex.class);
+    doReturn(dnsResolver).when(springContext).getBean(ReverseDnsResolver.class);
     doReturn(Collections.singleton(REMOTE_ADDRESS)).when(integration).getIntegrationWhiteList();
 
+    dnsResolver.init();
     filter.init(config);
   }
 
+  @After
+  public void shutdown() {
+    dnsResolver.shutdown();
+  }
+
   @Test
   public void testEmptyWhiteList() throws IOException, ServletException {
     doThrow(NoSuchBeanDefinitionException.class).when(springContext)
@@ -223,6 +259,67 @@ public class WebHookOriginCheckFilterTest {
     assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
   }
 
+  @Test
+  public void testRemoteAddressRangeAllowed() throws IOException, ServletException {
+    doReturn(Collections.singleton(REMOTE_ADDRESS_RANGE)).when(integration)
+        .getIntegrationWhiteList();
+    doReturn(REMOTE_ADDRESS_IN_RANGE).when(request).getHeader(FORWARD_HEADER);
+
+    filter.doFilter(request, response, new MockFilterChain());
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void testRemoteAddressRangeNotAllowed() throws IOException, ServletException {
+    doReturn(Collections.singleton(REMOTE_ADDRESS_RANGE)).when(integration)
+        .getIntegrationWhiteList();
+    doReturn(REMOTE_ADDRESS_OUT_OF_RANGE).when(request).getHeader(FORWARD_HEADER);
+
+    filter.doFilter(request, response, new MockFilterChain());
+    assertEquals(Response.Status.FORBIDDEN.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void testWhiteListRebuilt() throws IOException, ServletException {
+    doReturn(REMOTE_ADDRESS_IN_RANGE).when(request).getHeader(FORWARD_HEADER);
+
+    filter.doFilter(request, response, new MockFilterChain());
+    assertEquals(Response.Status.FORBIDDEN.getStatusCode(), response.getStatus());
+
+    doReturn(Collections.singleton(REMOTE_ADDRESS_RANGE)).when(integration)
+        .getIntegrationWhiteList();
+    whiteListIndex.handleIntegrationUpdatedEvent(new IntegrationUpdatedEventData(BEAN_NAME));
+
+    MockHttpServletResponse newResponse = new MockHttpServletResponse();
+    filter.doFilter(request, newResponse, new MockFilterChain());
+    assertEquals(Response.Status.OK.getStatusCode(), newResponse.getStatus());
+  }
+
+  @Test
+  public void testReverseDnsTimeoutFailClosed() throws IOException, ServletException {
+    testReverseDnsTimeout(false);
+    assertEquals(Response.Status.FORBIDDEN.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void testReverseDnsTimeoutFailOpen() throws IOException, ServletException {
+    testReverseDnsTimeout(true);
+    assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+  }
+
+  private void testReverseDnsTimeout(boolean failOpen) throws IOException, ServletException {
+    ReverseDnsResolver resolver = mock(ReverseDnsResolver.class);
+    doReturn(ResolvedHost.TIMEOUT).when(resolver).resolve(anyString());
+    doReturn(failOpen).when(resolver).isFailOpen();
+    doReturn(resolver).when(springContext).getBean(ReverseDnsResolver.class);
+
+    doReturn(Collections.singleton("github.com")).when(integration).getIntegrationWhiteList();
+    doReturn(REMOTE_ADDRESS_IN_RANGE).when(request).getHeader(FORWARD_HEADER);
+
+    filter.init(config);
+    filter.doFilter(request, response, new MockFilterChain());
+  }
+
   @Test
   public void testWelcomeUrl() throws IOException, ServletException {
     doReturn(WELCOME_URL).when(request).getRequestURI();
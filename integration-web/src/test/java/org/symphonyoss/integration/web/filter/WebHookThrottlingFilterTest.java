@@ -0,0 +1,155 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+import org.symphonyoss.integration.web.throttling.SourceThrottler;
+import org.symphonyoss.integration.web.throttling.SourceThrottlingSettings;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+/**
+ * Unit tests for {@link WebHookThrottlingFilter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebHookThrottlingFilterTest {
+
+  private static final String FORWARD_HEADER = "x-forwarded-for";
+
+  private static final String SOURCE_ADDRESS = "192.30.252.40";
+
+  private static final String PROXY_ADDRESS = "10.0.0.2";
+
+  @Mock
+  private WebApplicationContext springContext;
+
+  @Mock
+  private SourceThrottler throttler;
+
+  @Spy
+  private ServletContext servletContext = new MockServletContext();
+
+  @Spy
+  private FilterConfig config = new MockFilterConfig();
+
+  private MockHttpServletRequest request = new MockHttpServletRequest();
+
+  private MockHttpServletResponse response = new MockHttpServletResponse();
+
+  private WebHookThrottlingFilter filter = new WebHookThrottlingFilter();
+
+  @Before
+  public void init() throws ServletException {
+    servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE,
+        springContext);
+
+    doReturn(servletContext).when(config).getServletContext();
+    doReturn(throttler).when(springContext).getBean(SourceThrottler.class);
+    SourceThrottlingSettings settings = new SourceThrottlingSettings();
+    settings.setUseForwardedHeader(true);
+    settings.setTrustedProxies(new HashSet<>(Arrays.asList(PROXY_ADDRESS, "10.0.0.1")));
+
+    doReturn(settings).when(throttler).getSettings();
+
+    request.setRemoteAddr(PROXY_ADDRESS);
+    request.addHeader(FORWARD_HEADER, "1.2.3.4, " + SOURCE_ADDRESS + ", 10.0.0.1");
+
+    filter.init(config);
+  }
+
+  @Test
+  public void testAllowed() throws IOException, ServletException {
+    doReturn(0L).when(throttler).tryAcquire(SOURCE_ADDRESS);
+    response.setStatus(404);
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    verify(throttler).onResponse(SOURCE_ADDRESS, 404);
+  }
+
+  @Test
+  public void testUntrustedForwardedHeader() throws IOException, ServletException {
+    request.setRemoteAddr(SOURCE_ADDRESS);
+    doReturn(0L).when(throttler).tryAcquire(SOURCE_ADDRESS);
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    verify(throttler).tryAcquire(SOURCE_ADDRESS);
+  }
+
+  @Test
+  public void testForwardedHeaderDisabled() throws IOException, ServletException {
+    throttler.getSettings().setUseForwardedHeader(false);
+    doReturn(0L).when(throttler).tryAcquire(PROXY_ADDRESS);
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    verify(throttler).tryAcquire(PROXY_ADDRESS);
+  }
+
+  @Test
+  public void testFailure() throws IOException, ServletException {
+    doReturn(0L).when(throttler).tryAcquire(SOURCE_ADDRESS);
+    FilterChain chain = mock(FilterChain.class);
+    doThrow(IllegalStateException.class).when(chain).doFilter(request, response);
+
+    try {
+      filter.doFilter(request, response, chain);
+      fail();
+    } catch (IllegalStateException e) {
+      verify(throttler).onResponse(SOURCE_ADDRESS, 500);
+      verify(throttler, never()).onResponse(SOURCE_ADDRESS, 200);
+    }
+  }
+
+  @Test
+  public void testTooManyRequests() throws IOException, ServletException {
+    doReturn(1500L).when(throttler).tryAcquire(SOURCE_ADDRESS);
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    assertEquals(WebHookThrottlingFilter.TOO_MANY_REQUESTS, response.getStatus());
+    assertEquals("2", response.getHeader("Retry-After"));
+  }
+
+}
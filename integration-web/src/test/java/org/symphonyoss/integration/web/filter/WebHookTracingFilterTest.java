@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.symphonyoss.integration.logging.DistributedTracingUtils.TRACE_ID;
 import static org.symphonyoss.integration.logging.DistributedTracingUtils.TRACE_ID_SIZE;
 
@@ -32,9 +33,12 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.io.IOException;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
@@ -120,4 +124,33 @@ public class WebHookTracingFilterTest {
     webHookTracingFilter.doFilter(request, mock(HttpServletResponse.class), mock(FilterChain.class));
   }
 
+  /**
+   * Validates the async dispatch restores the trace id of the original request.
+   */
+  @Test
+  public void testDoFilterAsyncDispatch() throws Exception {
+    final String traceId = RandomStringUtils.randomAlphanumeric(TRACE_ID_SIZE);
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setDispatcherType(DispatcherType.ASYNC);
+    request.setAttribute(WebHookTracingFilter.TRACE_ID_ATTRIBUTE, traceId);
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    FilterChain filterChain = mock(FilterChain.class);
+
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocationOnMock) throws Throwable {
+        assertTrue(MDC.get(TRACE_ID).startsWith(traceId));
+        return null;
+      }
+    }).when(filterChain).doFilter(request, response);
+
+    webHookTracingFilter.doFilter(request, response, filterChain);
+
+    verify(filterChain).doFilter(request, response);
+    assertNull(MDC.get(TRACE_ID));
+    assertNull(response.getHeader(TRACE_ID));
+  }
+
 }
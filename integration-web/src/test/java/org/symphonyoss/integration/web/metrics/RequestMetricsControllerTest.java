@@ -17,9 +17,12 @@
 package org.symphonyoss.integration.web.metrics;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.ACTIVE_REQUESTS;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.INCOMING_REQUESTS;
 import static org.symphonyoss.integration.web.metrics.RequestMetricsConstants.OTHER_RESPONSE_CODE;
@@ -34,6 +37,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.symphonyoss.integration.web.bulkhead.IntegrationBulkhead;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -118,4 +122,23 @@ public class RequestMetricsControllerTest {
 
     assertEquals(1, timerByIntegration.get(TEST_INTEGRATION).getCount());
   }
+
+  @Test
+  public void testBulkhead() throws InterruptedException {
+    assertFalse(controller.isIntegration(TEST_INTEGRATION));
+
+    controller.initController(TEST_INTEGRATION);
+    assertTrue(controller.isIntegration(TEST_INTEGRATION));
+
+    IntegrationBulkhead bulkhead = new IntegrationBulkhead(2, 0);
+    bulkhead.tryAcquire(0);
+
+    controller.initBulkhead(TEST_INTEGRATION, bulkhead);
+    controller.bulkheadRejected(TEST_INTEGRATION);
+
+    String base = MetricRegistry.name(BASE_METRIC_NAME, TEST_INTEGRATION, "bulkhead");
+    assertEquals(1, metricsRegistry.getGauges().get(base + ".active").getValue());
+    assertEquals(0, metricsRegistry.getGauges().get(base + ".waiting").getValue());
+    assertEquals(1, metricsRegistry.meter(base + ".rejected").getCount());
+  }
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.payload;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.symphonyoss.integration.webhook.WebHookPayload;
+
+import java.util.Map;
+
+/**
+ * Unit tests for {@link RequestAttributeMap}
+ */
+public class RequestAttributeMapTest {
+
+  private static final String HEADER_NAME = "X-Event-Key";
+
+  private static final String HEADER_VALUE = "jira:issue_created";
+
+  private static final String PARAM_NAME = "webhookEvent";
+
+  private static final String PARAM_VALUE = "created";
+
+  private MockHttpServletRequest request;
+
+  @Before
+  public void init() {
+    request = spy(new MockHttpServletRequest());
+    request.addHeader(HEADER_NAME, HEADER_VALUE);
+    request.addHeader(HEADER_NAME, "ignored");
+    request.addParameter(PARAM_NAME, PARAM_VALUE);
+  }
+
+  @Test
+  public void testLazyLookup() {
+    RequestHeaderMap headers = new RequestHeaderMap(request);
+
+    assertEquals(HEADER_VALUE, headers.get(HEADER_NAME));
+    assertEquals(HEADER_VALUE, headers.get(HEADER_NAME.toLowerCase()));
+    assertTrue(headers.containsKey(HEADER_NAME));
+    assertFalse(headers.containsKey("X-Unknown"));
+    assertNull(headers.get(null));
+
+    assertTrue(headers.isAttached());
+    verify(request, never()).getHeaderNames();
+  }
+
+  @Test
+  public void testMaterialize() {
+    RequestHeaderMap headers = new RequestHeaderMap(request);
+
+    assertEquals(1, headers.size());
+    assertEquals(HEADER_VALUE, headers.entrySet().iterator().next().getValue());
+    assertFalse(headers.isAttached());
+
+    // Case-insensitive after materialization as well
+    assertEquals(HEADER_VALUE, headers.get(HEADER_NAME.toUpperCase()));
+  }
+
+  @Test
+  public void testParametersAreCaseSensitive() {
+    RequestParameterMap parameters = new RequestParameterMap(request);
+
+    assertEquals(PARAM_VALUE, parameters.get(PARAM_NAME));
+    assertNull(parameters.get(PARAM_NAME.toUpperCase()));
+  }
+
+  @Test
+  public void testOverlay() {
+    RequestParameterMap parameters = new RequestParameterMap(request);
+
+    assertNull(parameters.put("message", "<messageML/>"));
+    parameters.put("data", null);
+
+    assertEquals("<messageML/>", parameters.get("message"));
+    assertTrue(parameters.containsKey("data"));
+    assertNull(request.getParameter("message"));
+
+    parameters.detach();
+
+    assertEquals(3, parameters.size());
+    assertEquals(PARAM_VALUE, parameters.get(PARAM_NAME));
+    assertEquals("<messageML/>", parameters.get("message"));
+  }
+
+  @Test
+  public void testDetach() {
+    WebHookPayload payload =
+        RequestPayloads.detach(RequestPayloads.newWebHookPayload(request, null));
+
+    // The request is recycled by the container after the response
+    request.removeHeader(HEADER_NAME);
+    request.removeAllParameters();
+
+    assertEquals(HEADER_VALUE, payload.getHeaders().get(HEADER_NAME));
+    assertEquals(PARAM_VALUE, payload.getParameters().get(PARAM_NAME));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnlyEntries() {
+    Map<String, String> headers = new RequestHeaderMap(request);
+    headers.entrySet().clear();
+  }
+
+}
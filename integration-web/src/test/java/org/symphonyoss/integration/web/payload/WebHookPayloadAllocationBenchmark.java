@@ -0,0 +1,131 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.payload;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.symphonyoss.integration.webhook.WebHookPayload;
+
+import java.lang.management.ManagementFactory;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Measures the bytes allocated per request to build a {@link WebHookPayload} using the eager
+ * copies and the lazy request views.
+ *
+ * This is not a unit test and doesn't run during the build. Run the main method with the test
+ * classpath, e.g.:
+ *
+ * mvn -pl integration-web test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.symphonyoss.integration.web.payload.WebHookPayloadAllocationBenchmark
+ */
+public class WebHookPayloadAllocationBenchmark {
+
+  private static final int WARMUP_ITERATIONS = 200000;
+
+  private static final int ITERATIONS = 1000000;
+
+  private static final int HEADERS = 20;
+
+  private static final int PARAMETERS = 5;
+
+  private static final String BODY = "{\"webhookEvent\":\"jira:issue_created\"}";
+
+  /**
+   * Prevents the JIT from removing the payload construction
+   */
+  private static volatile Object sink;
+
+  public static void main(String[] args) {
+    HttpServletRequest request = newRequest();
+
+    run("eager copy", request, false);
+    run("lazy views", request, true);
+  }
+
+  private static void run(String name, HttpServletRequest request, boolean lazy) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      sink = newPayload(request, lazy);
+    }
+
+    long before = allocatedBytes();
+    long start = System.nanoTime();
+
+    for (int i = 0; i < ITERATIONS; i++) {
+      WebHookPayload payload = newPayload(request, lazy);
+      // Integrations usually read a couple of headers
+      payload.getHeaders().get("X-Event-Key");
+      payload.getHeaders().get("Content-Type");
+      sink = payload;
+    }
+
+    long elapsed = System.nanoTime() - start;
+    long allocated = allocatedBytes() - before;
+
+    System.out.printf("%-12s %8d bytes/request %8d ns/request%n", name, allocated / ITERATIONS,
+        elapsed / ITERATIONS);
+  }
+
+  private static WebHookPayload newPayload(HttpServletRequest request, boolean lazy) {
+    if (lazy) {
+      return RequestPayloads.newWebHookPayload(request, BODY);
+    }
+
+    Map<String, String> parameters = new HashMap<>();
+    Map<String, String> headers = new HashMap<>();
+
+    Enumeration<String> paramEnum = request.getParameterNames();
+    while (paramEnum.hasMoreElements()) {
+      String paramName = paramEnum.nextElement();
+      parameters.put(paramName, request.getParameter(paramName));
+    }
+
+    Enumeration<String> headerEnum = request.getHeaderNames();
+    while (headerEnum.hasMoreElements()) {
+      String headerName = headerEnum.nextElement();
+      headers.put(headerName, request.getHeader(headerName));
+    }
+
+    return new WebHookPayload(parameters, headers, BODY);
+  }
+
+  private static HttpServletRequest newRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("X-Event-Key", "jira:issue_created");
+    request.addHeader("Content-Type", "application/json");
+
+    for (int i = 2; i < HEADERS; i++) {
+      request.addHeader("X-Header-" + i, "value" + i);
+    }
+
+    for (int i = 0; i < PARAMETERS; i++) {
+      request.addParameter("param" + i, "value" + i);
+    }
+
+    return request;
+  }
+
+  private static long allocatedBytes() {
+    com.sun.management.ThreadMXBean bean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+}
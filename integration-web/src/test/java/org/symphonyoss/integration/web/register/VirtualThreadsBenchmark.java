@@ -0,0 +1,117 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.register;
+
+import org.symphonyoss.integration.authentication.AuthenticationToken;
+import org.symphonyoss.integration.authentication.UserAuthenticationContext;
+import org.symphonyoss.integration.healthcheck.config.VirtualThreads;
+import org.symphonyoss.integration.model.yaml.ConnectionInfo;
+import org.symphonyoss.integration.model.yaml.IntegrationProperties;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the platform thread pool used by Tomcat (200 threads by default)
+ * with one virtual thread per request, at high concurrency.
+ *
+ * Each simulated request reads the authentication token, blocks for a while to simulate the call
+ * to the Agent and renews the token from time to time.
+ *
+ * This is not a unit test and doesn't run during the build. Run the main method with the test
+ * classpath on a JVM that supports virtual threads, e.g.:
+ *
+ * mvn -pl integration-web test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.symphonyoss.integration.web.register.VirtualThreadsBenchmark
+ */
+public class VirtualThreadsBenchmark {
+
+  private static final int PLATFORM_THREADS = 200;
+
+  private static final int REQUESTS = 20000;
+
+  private static final long REMOTE_CALL_MILLIS = 50;
+
+  private static final int RENEW_INTERVAL = 1000;
+
+  public static void main(String[] args) throws InterruptedException {
+    UserAuthenticationContext context = newContext();
+
+    ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    run("platform threads (" + PLATFORM_THREADS + ")", platform, context);
+    platform.shutdown();
+
+    ExecutorService virtual = VirtualThreads.newThreadPerTaskExecutor("benchmark");
+
+    if (virtual == null) {
+      System.out.println("Virtual threads aren't supported by this JVM");
+      return;
+    }
+
+    run("virtual threads", virtual, context);
+    virtual.shutdown();
+  }
+
+  private static void run(String name, ExecutorService executor,
+      final UserAuthenticationContext context) throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(REQUESTS);
+    long start = System.nanoTime();
+
+    for (int i = 0; i < REQUESTS; i++) {
+      final int request = i;
+
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            context.getToken();
+            TimeUnit.MILLISECONDS.sleep(REMOTE_CALL_MILLIS);
+
+            if (request % RENEW_INTERVAL == 0) {
+              context.setToken(new AuthenticationToken("S-" + request, "KM-" + request));
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            latch.countDown();
+          }
+        }
+      });
+    }
+
+    latch.await();
+
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    double throughput = REQUESTS * 1000.0 / Math.max(1, elapsedMillis);
+
+    System.out.printf("%-24s %8d ms %10.1f req/s%n", name, elapsedMillis, throughput);
+  }
+
+  private static UserAuthenticationContext newContext() {
+    IntegrationProperties properties = new IntegrationProperties();
+    properties.setPod(new ConnectionInfo());
+
+    UserAuthenticationContext context =
+        new UserAuthenticationContext("jiraWebHookIntegration", null, null, null, properties);
+    context.setToken(new AuthenticationToken("S-TOKEN", "KM-TOKEN"));
+
+    return context;
+  }
+
+}
@@ -34,8 +34,13 @@ import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.config.annotation.CorsRegistration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.symphonyoss.integration.web.filter.LoadSheddingFilter;
+import org.symphonyoss.integration.web.filter.WebHookBodyFilter;
+import org.symphonyoss.integration.web.filter.WebHookBulkheadFilter;
+import org.symphonyoss.integration.web.filter.WebHookDeadlineFilter;
 import org.symphonyoss.integration.web.resource.WebHookResourceTest;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -66,6 +71,50 @@ public class WebResourcesRegistrationTest extends WebHookResourceTest {
     assertEquals(URL_PATTERN_CHECK_ORIGIN, urlPattern);
   }
 
+  @Test
+  public void testWebhookThrottlingFilterRegistration() {
+    FilterRegistrationBean bean = registration.webhookThrottlingFilterRegistration();
+    assertNotNull(bean);
+    assertEquals(URL_PATTERN_CHECK_ORIGIN, bean.getUrlPatterns().iterator().next());
+    assertTrue(bean.getOrder() < registration.webhookCheckOriginFilterRegistration().getOrder());
+  }
+
+  @Test
+  public void testLoadSheddingFilterRegistration() {
+    FilterRegistrationBean bean = registration.loadSheddingFilterRegistration();
+    assertNotNull(bean);
+    assertEquals(URL_PATTERN_TRACING, bean.getUrlPatterns().iterator().next());
+    assertTrue(bean.getFilter() instanceof LoadSheddingFilter);
+    assertTrue(bean.getInitParameters().get(LoadSheddingFilter.EXEMPT_URL_PARAM)
+        .contains(URL_PATTERN_METRICS));
+  }
+
+  @Test
+  public void testWebhookBulkheadFilterRegistration() {
+    FilterRegistrationBean bean = registration.webhookBulkheadFilterRegistration();
+    assertNotNull(bean);
+    assertEquals(URL_PATTERN_CHECK_ORIGIN, bean.getUrlPatterns().iterator().next());
+    assertTrue(bean.getFilter() instanceof WebHookBulkheadFilter);
+    assertTrue(bean.getOrder() < registration.webhookBodyFilterRegistration().getOrder());
+  }
+
+  @Test
+  public void testWebhookDeadlineFilterRegistration() {
+    FilterRegistrationBean bean = registration.webhookDeadlineFilterRegistration();
+    assertNotNull(bean);
+    assertEquals(URL_PATTERN_CHECK_ORIGIN, bean.getUrlPatterns().iterator().next());
+    assertTrue(bean.getFilter() instanceof WebHookDeadlineFilter);
+    assertTrue(bean.getOrder() < registration.webhookBulkheadFilterRegistration().getOrder());
+  }
+
+  @Test
+  public void testWebhookBodyFilterRegistration() {
+    FilterRegistrationBean bean = registration.webhookBodyFilterRegistration();
+    assertNotNull(bean);
+    assertEquals(URL_PATTERN_CHECK_ORIGIN, bean.getUrlPatterns().iterator().next());
+    assertTrue(bean.getFilter() instanceof WebHookBodyFilter);
+  }
+
   @Test
   public void testWebhookTracingFilterRegistration() {
     FilterRegistrationBean bean = registration.webhookTracingFilterRegistration();
@@ -87,6 +136,23 @@ public class WebResourcesRegistrationTest extends WebHookResourceTest {
     assertTrue(params.values().contains(URL_PATTERN_METRICS));
   }
 
+  @Test
+  public void testFilterOrder() {
+    List<FilterRegistrationBean> chain = Arrays.asList(
+        registration.integrationMetricsFilterRegistration(),
+        registration.webhookTracingFilterRegistration(),
+        registration.webhookDeadlineFilterRegistration(),
+        registration.webhookThrottlingFilterRegistration(),
+        registration.loadSheddingFilterRegistration(),
+        registration.webhookBulkheadFilterRegistration(),
+        registration.webhookCheckOriginFilterRegistration(),
+        registration.webhookBodyFilterRegistration());
+
+    for (int i = 1; i < chain.size(); i++) {
+      assertTrue(chain.get(i - 1).getOrder() < chain.get(i).getOrder());
+    }
+  }
+
   @Test
   public void testApiServletRegistration() {
     WebApplicationContext context = mock(WebApplicationContext.class);
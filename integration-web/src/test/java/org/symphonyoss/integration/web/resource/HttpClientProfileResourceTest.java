@@ -0,0 +1,76 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.symphonyoss.integration.authentication.api.enums.ServiceName;
+import org.symphonyoss.integration.authentication.http.HttpClientProfile;
+import org.symphonyoss.integration.authentication.http.HttpClientProfiles;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link HttpClientProfileResource}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientProfileResourceTest {
+
+  @Mock
+  private HttpClientProfiles profiles;
+
+  private HttpClientProfile agentProfile = new HttpClientProfile();
+
+  private HttpClientProfileResource resource;
+
+  @Before
+  public void init() {
+    agentProfile.setReadTimeout(30000);
+    doReturn(agentProfile).when(profiles).getProfile(ServiceName.AGENT);
+
+    resource = new HttpClientProfileResource(profiles);
+  }
+
+  @Test
+  public void testGetProfiles() {
+    Map<ServiceName, HttpClientProfile> expected =
+        Collections.singletonMap(ServiceName.AGENT, agentProfile);
+    doReturn(expected).when(profiles).getProfiles();
+
+    assertEquals(ResponseEntity.ok(expected), resource.getProfiles());
+  }
+
+  @Test
+  public void testGetProfile() {
+    assertEquals(ResponseEntity.ok(agentProfile), resource.getProfile("agent"));
+  }
+
+  @Test
+  public void testUnknownService() {
+    assertEquals(HttpStatus.NOT_FOUND, resource.getProfile("unknown").getStatusCode());
+  }
+
+}
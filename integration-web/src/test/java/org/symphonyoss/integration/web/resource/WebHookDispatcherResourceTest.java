@@ -17,6 +17,7 @@
 package org.symphonyoss.integration.web.resource;
 
 import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
@@ -26,19 +27,27 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.symphonyoss.integration.IntegrationStatus;
 import org.symphonyoss.integration.entity.MessageMLParseException;
 import org.symphonyoss.integration.exception.IntegrationUnavailableException;
@@ -46,7 +55,11 @@ import org.symphonyoss.integration.exception.RemoteApiException;
 import org.symphonyoss.integration.exception.authentication.ConnectivityException;
 import org.symphonyoss.integration.exception.config.IntegrationConfigException;
 import org.symphonyoss.integration.logging.LogMessageSource;
+import org.symphonyoss.integration.model.config.IntegrationInstance;
 import org.symphonyoss.integration.model.config.IntegrationSettings;
+import org.symphonyoss.integration.model.message.Message;
+import org.symphonyoss.integration.web.batch.WebHookBatchParser;
+import org.symphonyoss.integration.web.dedupe.WebHookDeduplicator;
 import org.symphonyoss.integration.web.exception.IntegrationBridgeUnavailableException;
 import org.symphonyoss.integration.webhook.WebHookPayload;
 import org.symphonyoss.integration.webhook.exception.WebHookDisabledException;
@@ -54,8 +67,10 @@ import org.symphonyoss.integration.webhook.exception.WebHookParseException;
 import org.symphonyoss.integration.webhook.exception.WebHookUnavailableException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.concurrent.TimeUnit;
 
@@ -84,6 +99,12 @@ public class WebHookDispatcherResourceTest extends WebHookResourceTest {
   @Mock
   private HttpServletRequest httpRequest;
 
+  @Mock
+  private WebHookDeduplicator deduplicator;
+
+  @Spy
+  private WebHookBatchParser batchParser = new WebHookBatchParser();
+
   @InjectMocks
   private WebHookDispatcherResource webHookDispatcherResource = new WebHookDispatcherResource();
 
@@ -202,6 +223,176 @@ public class WebHookDispatcherResourceTest extends WebHookResourceTest {
         request), ResponseEntity.ok().body(""));
   }
 
+  /**
+   * Validates the request is rejected when the instance definitely doesn't exist.
+   */
+  @Test
+  public void testHandleRequestUnknownInstance() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.WILDCARD_TYPE);
+    doReturn(true).when(instanceHashIndex).isUnknownInstance(CONFIGURATION_ID, TEST_USER,
+        TEST_HASH);
+    mockRequest();
+
+    assertEquals(ResponseEntity.notFound().build(),
+        webHookDispatcherResource.handleRequest(TEST_HASH, CONFIGURATION_ID, TEST_USER,
+            MESSAGE_BODY, request));
+    verify(whiIntegration, never()).handle(anyString(), anyString(), any(WebHookPayload.class));
+  }
+
+  /**
+   * Validates a duplicate delivery is acknowledged without being processed.
+   */
+  @Test
+  public void testHandleDuplicateDelivery() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.WILDCARD_TYPE);
+    doReturn(10L).when(deduplicator).digest(eq(TEST_HASH), eq(TEST_USER),
+        any(WebHookPayload.class));
+    doReturn(true).when(deduplicator).isDuplicate(TEST_USER, 10L);
+    mockRequest();
+
+    assertEquals(ResponseEntity.ok().body(""),
+        webHookDispatcherResource.handleRequest(TEST_HASH, CONFIGURATION_ID, TEST_USER,
+            MESSAGE_BODY, request));
+    verify(whiIntegration, never()).handle(anyString(), anyString(), any(WebHookPayload.class));
+  }
+
+  /**
+   * Validates the delivery digest is released when the request fails, so the source can retry.
+   */
+  @Test
+  public void testReleaseDigestOnFailure() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.WILDCARD_TYPE);
+    doReturn(10L).when(deduplicator).digest(eq(TEST_HASH), eq(TEST_USER),
+        any(WebHookPayload.class));
+    doThrow(WebHookParseException.class).when(whiIntegration)
+        .handle(anyString(), anyString(), any(WebHookPayload.class));
+    mockRequest();
+
+    ResponseEntity<String> response = webHookDispatcherResource.handleRequest(TEST_HASH,
+        CONFIGURATION_ID, TEST_USER, MESSAGE_BODY, request);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verify(deduplicator).release(10L);
+  }
+
+  /**
+   * Validates the events of a batch are handled in order and reported individually.
+   */
+  @Test
+  public void testHandleBatchRequest() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.APPLICATION_JSON_TYPE);
+    Message message = new Message();
+    doReturn(message).doThrow(WebHookParseException.class).doReturn(message).when(whiIntegration)
+        .parse(eq(whiInstance), any(WebHookPayload.class));
+    mockRequest();
+
+    ResponseEntity<String> response = webHookDispatcherResource.handleBatchRequest(TEST_HASH,
+        CONFIGURATION_ID, TEST_USER, "{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}", request);
+
+    assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+
+    JsonNode results = new ObjectMapper().readTree(response.getBody());
+    assertEquals(3, results.size());
+    assertEquals(200, results.get(0).path("status").asInt());
+    assertEquals(400, results.get(1).path("status").asInt());
+    assertEquals(200, results.get(2).path("status").asInt());
+    assertEquals(2, results.get(2).path("index").asInt());
+
+    // The instance is looked up once for the whole batch
+    verify(integrationService, times(1)).getInstanceById(CONFIGURATION_ID, TEST_HASH, TEST_USER);
+    verify(integrationBridge, times(2)).sendMessage(whiInstance, TEST_USER, message);
+    verify(whiIntegration, never()).handle(anyString(), anyString(), any(WebHookPayload.class));
+  }
+
+  /**
+   * Validates the events of a batch don't carry the length and encoding of the batch body.
+   */
+  @Test
+  public void testBatchItemHeaders() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.APPLICATION_JSON_TYPE);
+    mockRequest();
+
+    List<String> headerNames = new ArrayList<>();
+    headerNames.add("Content-Length");
+    headerNames.add("Content-Encoding");
+    headerNames.add("X-Event");
+
+    doReturn(Collections.enumeration(headerNames)).when(request).getHeaderNames();
+    doReturn("100").when(request).getHeader("Content-Length");
+    doReturn("gzip").when(request).getHeader("Content-Encoding");
+    doReturn("push").when(request).getHeader("X-Event");
+
+    webHookDispatcherResource.handleBatchRequest(TEST_HASH, CONFIGURATION_ID, TEST_USER,
+        "[{\"id\": 1}]", request);
+
+    ArgumentCaptor<WebHookPayload> captor = ArgumentCaptor.forClass(WebHookPayload.class);
+    verify(whiIntegration).parse(eq(whiInstance), captor.capture());
+
+    Map<String, String> headers = captor.getValue().getHeaders();
+    assertEquals("push", headers.get("X-Event"));
+    assertFalse(headers.containsKey("Content-Length"));
+    assertFalse(headers.containsKey("Content-Encoding"));
+  }
+
+  /**
+   * Validates a batch above the max number of events is rejected without handling any event.
+   */
+  @Test
+  public void testHandleBatchRequestTooLarge() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.APPLICATION_JSON_TYPE);
+    ReflectionTestUtils.setField(batchParser, "maxItems", 2);
+
+    ResponseEntity<String> response = webHookDispatcherResource.handleBatchRequest(TEST_HASH,
+        CONFIGURATION_ID, TEST_USER, "{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}", request);
+
+    assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+    verify(whiIntegration, never()).parse(any(IntegrationInstance.class),
+        any(WebHookPayload.class));
+  }
+
+  /**
+   * Validates a batch is rejected when the integration doesn't accept JSON payloads.
+   */
+  @Test
+  public void testHandleBatchRequestUnsupported() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+
+    ResponseEntity<String> response = webHookDispatcherResource.handleBatchRequest(TEST_HASH,
+        CONFIGURATION_ID, TEST_USER, "[]", request);
+
+    assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, response.getStatusCode());
+  }
+
+  /**
+   * Validates an invalid batch is rejected without handling any event.
+   */
+  @Test
+  public void testHandleInvalidBatchRequest() throws Exception {
+    mockConfiguration(true);
+    mockStatus(IntegrationStatus.ACTIVE);
+    doReturn(true).when(whiIntegration).isSupportedContentType(MediaType.APPLICATION_JSON_TYPE);
+
+    ResponseEntity<String> response = webHookDispatcherResource.handleBatchRequest(TEST_HASH,
+        CONFIGURATION_ID, TEST_USER, "[{\"id\": 1}", request);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verify(whiIntegration, never()).parse(any(IntegrationInstance.class),
+        any(WebHookPayload.class));
+  }
+
   @Test
   public void testWebHookPayload()
       throws IntegrationConfigException, WebHookParseException, RemoteApiException {
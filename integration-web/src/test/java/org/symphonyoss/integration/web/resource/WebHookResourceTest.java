@@ -20,12 +20,14 @@ import static org.mockito.Mockito.when;
 
 import org.mockito.Mock;
 import org.symphonyoss.integration.IntegrationStatus;
+import org.symphonyoss.integration.config.index.InstanceHashIndex;
 import org.symphonyoss.integration.exception.config.IntegrationConfigException;
 import org.symphonyoss.integration.model.config.IntegrationInstance;
 import org.symphonyoss.integration.model.config.IntegrationSettings;
 import org.symphonyoss.integration.model.healthcheck.IntegrationHealth;
 import org.symphonyoss.integration.service.IntegrationBridge;
 import org.symphonyoss.integration.service.IntegrationService;
+import org.symphonyoss.integration.web.async.WebHookAsyncExecutor;
 import org.symphonyoss.integration.webhook.WebHookIntegration;
 
 import java.util.ArrayList;
@@ -72,6 +74,12 @@ public abstract class WebHookResourceTest {
   @Mock(name = "integrationBridge")
   protected IntegrationBridge integrationBridge;
 
+  @Mock
+  protected InstanceHashIndex instanceHashIndex;
+
+  @Mock
+  protected WebHookAsyncExecutor asyncExecutor;
+
   /**
    * Used within mocked services.
    */
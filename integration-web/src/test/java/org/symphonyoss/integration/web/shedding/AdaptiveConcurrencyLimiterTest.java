@@ -0,0 +1,94 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.shedding;
+
+import static org.junit.Assert.assertEquals;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimiterTest {
+
+  private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(AdaptiveConcurrencyLimiter.INITIAL_LIMIT_KEY, "2")
+      .withProperty(AdaptiveConcurrencyLimiter.MIN_LIMIT_KEY, "1");
+
+  @InjectMocks
+  private AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter();
+
+  @Before
+  public void init() {
+    limiter.init();
+  }
+
+  @Test
+  public void testShedLoad() {
+    assertEquals(1, limiter.tryAcquire());
+    assertEquals(2, limiter.tryAcquire());
+    assertEquals(-1, limiter.tryAcquire());
+
+    String rejected = MetricRegistry.name(BASE_METRIC_NAME, "concurrencyLimit", "rejected");
+    assertEquals(1, metricsRegistry.meter(rejected).getCount());
+
+    limiter.release(LATENCY, 2, 200);
+    assertEquals(1, limiter.getInflight());
+  }
+
+  @Test
+  public void testLimitGauge() {
+    String limit = MetricRegistry.name(BASE_METRIC_NAME, "concurrencyLimit", "limit");
+    assertEquals(2, metricsRegistry.getGauges().get(limit).getValue());
+  }
+
+  @Test
+  public void testTimeout() {
+    int inflight = limiter.tryAcquire();
+    limiter.release(LATENCY, inflight, AdaptiveConcurrencyLimiter.GATEWAY_TIMEOUT);
+
+    assertEquals(1, limiter.getLimit());
+  }
+
+  @Test
+  public void testDisabled() {
+    limiter.getSettings().setEnabled(false);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i + 1, limiter.tryAcquire());
+    }
+  }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.shedding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link GradientLimit}
+ */
+public class GradientLimitTest {
+
+  private static final long FAST_CALL = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private static final long SLOW_CALL = TimeUnit.SECONDS.toNanos(2);
+
+  private ConcurrencyLimitSettings settings;
+
+  private GradientLimit limit;
+
+  @Before
+  public void init() {
+    settings = new ConcurrencyLimitSettings();
+    settings.setInitialLimit(20);
+    settings.setMinLimit(5);
+    settings.setMaxLimit(40);
+
+    limit = new GradientLimit(settings);
+  }
+
+  @Test
+  public void testGrowWhileLatencyIsStable() {
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(FAST_CALL, limit.getLimit());
+    }
+
+    assertTrue(limit.getLimit() > 20);
+  }
+
+  @Test
+  public void testMaxLimit() {
+    for (int i = 0; i < 1000; i++) {
+      limit.onSample(FAST_CALL, limit.getLimit());
+    }
+
+    assertEquals(40, limit.getLimit());
+  }
+
+  @Test
+  public void testShrinkWhenLatencyRises() {
+    limit.onSample(FAST_CALL, 20);
+    int baseline = limit.getLimit();
+
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(SLOW_CALL, 20);
+    }
+
+    assertTrue(limit.getLimit() < baseline);
+  }
+
+  @Test
+  public void testMinLimit() {
+    limit.onSample(FAST_CALL, 20);
+
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(SLOW_CALL, 40);
+    }
+
+    assertEquals(5, limit.getLimit());
+  }
+
+  @Test
+  public void testIgnoreAppLimitedSamples() {
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(FAST_CALL, 1);
+    }
+
+    assertEquals(20, limit.getLimit());
+  }
+
+  @Test
+  public void testDropped() {
+    limit.onDropped();
+    assertEquals(18, limit.getLimit());
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.throttling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link SourceBucket}
+ */
+public class SourceBucketTest {
+
+  private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private static final long TOLERANCE = 2 * INTERVAL;
+
+  private static final long PENALTY = TimeUnit.SECONDS.toNanos(1);
+
+  private static final long MAX_PENALTY = TimeUnit.SECONDS.toNanos(3);
+
+  @Test
+  public void testBurst() {
+    SourceBucket bucket = new SourceBucket(0);
+
+    assertEquals(0, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+    assertEquals(0, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+    assertEquals(0, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+    assertEquals(INTERVAL, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+
+    assertEquals(0, bucket.tryAcquire(INTERVAL, INTERVAL, TOLERANCE));
+  }
+
+  @Test
+  public void testPenaltyEscalation() {
+    SourceBucket bucket = new SourceBucket(0);
+
+    assertFalse(bucket.onBadResponse(0, 2, PENALTY, MAX_PENALTY));
+    assertTrue(bucket.onBadResponse(0, 2, PENALTY, MAX_PENALTY));
+    assertEquals(PENALTY, bucket.tryAcquire(0, INTERVAL, TOLERANCE));
+
+    // Second offense doubles the penalty
+    bucket.onBadResponse(PENALTY, 2, PENALTY, MAX_PENALTY);
+    bucket.onBadResponse(PENALTY, 2, PENALTY, MAX_PENALTY);
+    assertTrue(bucket.isBlocked(PENALTY));
+    assertFalse(bucket.isBlocked(3 * PENALTY));
+
+    // Third offense reaches the max penalty
+    bucket.onBadResponse(3 * PENALTY, 2, PENALTY, MAX_PENALTY);
+    bucket.onBadResponse(3 * PENALTY, 2, PENALTY, MAX_PENALTY);
+    assertEquals(MAX_PENALTY, bucket.tryAcquire(3 * PENALTY, INTERVAL, TOLERANCE));
+    assertEquals(3, bucket.getOffenses());
+
+    assertEquals(0, bucket.tryAcquire(6 * PENALTY, INTERVAL, TOLERANCE));
+  }
+
+  @Test
+  public void testSuccessResetsPenalty() {
+    SourceBucket bucket = new SourceBucket(0);
+
+    bucket.onBadResponse(0, 2, PENALTY, MAX_PENALTY);
+    bucket.onSuccess();
+
+    assertFalse(bucket.onBadResponse(0, 2, PENALTY, MAX_PENALTY));
+    assertEquals(0, bucket.getOffenses());
+  }
+
+}
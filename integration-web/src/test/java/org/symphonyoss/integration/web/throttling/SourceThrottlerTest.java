@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.throttling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Unit tests for {@link SourceThrottler}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SourceThrottlerTest {
+
+  private static final String SOURCE_ADDRESS = "192.30.252.40";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(SourceThrottler.ENABLED_KEY, "true")
+      .withProperty(SourceThrottler.TRUSTED_PROXIES_KEY, "10.0.0.1, 10.0.0.2")
+      .withProperty(SourceThrottler.RATE_KEY, "1")
+      .withProperty(SourceThrottler.BURST_KEY, "2")
+      .withProperty(SourceThrottler.BAD_RESPONSE_THRESHOLD_KEY, "3")
+      .withProperty(SourceThrottler.MAX_ENTRIES_KEY, "4")
+      .withProperty(SourceThrottler.STRIPES_KEY, "2");
+
+  @InjectMocks
+  private SourceThrottler throttler = new SourceThrottler();
+
+  @Before
+  public void init() {
+    throttler.init();
+  }
+
+  @Test
+  public void testSettings() {
+    SourceThrottlingSettings settings = throttler.getSettings();
+
+    assertTrue(settings.isEnabled());
+    assertFalse(settings.isUseForwardedHeader());
+    assertEquals(new HashSet<>(Arrays.asList("10.0.0.1", "10.0.0.2")),
+        settings.getTrustedProxies());
+
+    SourceThrottlingSettings defaults = new SourceThrottlingSettings();
+
+    assertFalse(defaults.isEnabled());
+    assertFalse(defaults.isUseForwardedHeader());
+    assertTrue(defaults.getTrustedProxies().isEmpty());
+  }
+
+  @Test
+  public void testRateExceeded() {
+    assertEquals(0, throttler.tryAcquire(SOURCE_ADDRESS));
+    assertEquals(0, throttler.tryAcquire(SOURCE_ADDRESS));
+    assertTrue(throttler.tryAcquire(SOURCE_ADDRESS) > 0);
+
+    assertEquals(1, metricsRegistry.meter(metricName("rejected")).getCount());
+  }
+
+  @Test
+  public void testPenalty() {
+    throttler.onResponse(SOURCE_ADDRESS, 404);
+    throttler.onResponse(SOURCE_ADDRESS, 400);
+    throttler.onResponse(SOURCE_ADDRESS, 404);
+
+    assertTrue(throttler.tryAcquire(SOURCE_ADDRESS) > 0);
+    assertEquals(1, metricsRegistry.meter(metricName("penalties")).getCount());
+  }
+
+  @Test
+  public void testOtherErrorsIgnored() {
+    for (int i = 0; i < 10; i++) {
+      throttler.onResponse(SOURCE_ADDRESS, 500);
+    }
+
+    assertEquals(0, throttler.tryAcquire(SOURCE_ADDRESS));
+  }
+
+  @Test
+  public void testBoundedEntries() {
+    for (int i = 0; i < 1000; i++) {
+      throttler.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+    }
+
+    assertTrue(throttler.size() <= 4);
+  }
+
+  @Test
+  public void testDisabled() {
+    throttler.getSettings().setEnabled(false);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(0, throttler.tryAcquire(SOURCE_ADDRESS));
+    }
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, "webhook.throttling", metric);
+  }
+
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IpPrefixTrie}
+ */
+public class IpPrefixTrieTest {
+
+  @Test
+  public void testEmpty() {
+    IpPrefixTrie trie = new IpPrefixTrie();
+
+    assertTrue(trie.isEmpty());
+    assertFalse(trie.contains(IpAddresses.parseAddress("10.0.0.1")));
+  }
+
+  @Test
+  public void testWiderRangeWins() {
+    IpPrefixTrie trie = new IpPrefixTrie();
+    trie.add(IpAddresses.parseAddress("172.16.5.0"), 24);
+    trie.add(IpAddresses.parseAddress("172.16.0.0"), 12);
+
+    assertTrue(trie.contains(IpAddresses.parseAddress("172.16.5.10")));
+    assertTrue(trie.contains(IpAddresses.parseAddress("172.31.0.1")));
+    assertFalse(trie.contains(IpAddresses.parseAddress("172.32.0.1")));
+  }
+
+  @Test
+  public void testAnyAddress() {
+    IpPrefixTrie trie = new IpPrefixTrie();
+    trie.add(IpAddresses.parseAddress("0.0.0.0"), 0);
+
+    assertTrue(trie.contains(IpAddresses.parseAddress("8.8.8.8")));
+    assertFalse(trie.contains(IpAddresses.parseAddress("::1")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPrefixLength() {
+    new IpPrefixTrie().add(IpAddresses.parseAddress("10.0.0.0"), 33);
+  }
+
+}
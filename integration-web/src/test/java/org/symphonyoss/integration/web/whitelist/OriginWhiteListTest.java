@@ -0,0 +1,82 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link OriginWhiteList}
+ */
+public class OriginWhiteListTest {
+
+  private static final String HOST_NAME = "github.com";
+
+  private final OriginWhiteList whiteList = new OriginWhiteList(
+      Arrays.asList("192.30.252.40", " 10.0.0.0/8 ", "2001:db8::/32", HOST_NAME, "", "1.2.3.4/33"));
+
+  @Test
+  public void testEmpty() {
+    assertTrue(OriginWhiteList.EMPTY.isEmpty());
+    assertFalse(OriginWhiteList.EMPTY.hasHostNames());
+    assertFalse(OriginWhiteList.EMPTY.containsAddress("192.30.252.40"));
+    assertFalse(whiteList.isEmpty());
+  }
+
+  @Test
+  public void testExactAddress() {
+    assertTrue(whiteList.containsAddress("192.30.252.40"));
+    assertFalse(whiteList.containsAddress("192.30.252.41"));
+  }
+
+  @Test
+  public void testIPv4Range() {
+    assertTrue(whiteList.containsAddress("10.0.0.1"));
+    assertTrue(whiteList.containsAddress("10.255.255.255"));
+    assertFalse(whiteList.containsAddress("11.0.0.1"));
+  }
+
+  @Test
+  public void testIPv6Range() {
+    assertTrue(whiteList.containsAddress("2001:db8::1"));
+    assertTrue(whiteList.containsAddress("2001:0db8:ffff:0000:0000:0000:0000:0001"));
+    assertFalse(whiteList.containsAddress("2001:db9::1"));
+  }
+
+  @Test
+  public void testInvalidAddress() {
+    assertFalse(whiteList.containsAddress("unknown"));
+    assertFalse(whiteList.containsAddress("10.0.0"));
+    assertFalse(whiteList.containsAddress("10.0.0.256"));
+    assertFalse(whiteList.containsAddress("10..0.1"));
+  }
+
+  @Test
+  public void testHostNames() {
+    assertTrue(whiteList.hasHostNames());
+    assertTrue(whiteList.containsHost(HOST_NAME));
+    assertFalse(whiteList.containsHost("10.0.0.1"));
+
+    // Invalid ranges are handled as host names
+    assertTrue(whiteList.containsHost("1.2.3.4/33"));
+  }
+
+}
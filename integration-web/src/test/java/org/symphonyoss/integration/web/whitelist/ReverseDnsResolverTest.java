@@ -0,0 +1,184 @@
+/**
+ * Copyright 2016-2017 Symphony Integrations - Symphony LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.symphonyoss.integration.web.whitelist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.symphonyoss.integration.metrics.IntegrationMetricsConstants.BASE_METRIC_NAME;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ReverseDnsResolver}
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReverseDnsResolverTest {
+
+  private static final String IP_ADDRESS = "192.30.252.40";
+
+  private static final String UNKNOWN_ADDRESS = "10.0.0.1";
+
+  private static final String SLOW_ADDRESS = "10.0.0.2";
+
+  private static final String HOST_NAME = "lb-192-30-252-40-iad.github.com";
+
+  @Spy
+  private MetricRegistry metricsRegistry = new MetricRegistry();
+
+  @Spy
+  private Environment environment = new MockEnvironment()
+      .withProperty(ReverseDnsResolver.TIMEOUT_KEY, "50")
+      .withProperty(ReverseDnsResolver.NEGATIVE_TTL_KEY, "0")
+      .withProperty(ReverseDnsResolver.FAILURE_POLICY_KEY, "fail_open");
+
+  @InjectMocks
+  private MockReverseDnsResolver resolver = new MockReverseDnsResolver();
+
+  @Before
+  public void init() {
+    resolver.init();
+  }
+
+  @After
+  public void shutdown() {
+    resolver.slowLookup.countDown();
+    resolver.shutdown();
+  }
+
+  @Test
+  public void testSettings() {
+    assertEquals(50, resolver.getSettings().getTimeoutMillis());
+    assertEquals(DnsFailurePolicy.FAIL_OPEN, resolver.getSettings().getFailurePolicy());
+    assertTrue(resolver.isFailOpen());
+  }
+
+  @Test
+  public void testCachedLookup() {
+    ResolvedHost host = resolver.resolve(IP_ADDRESS);
+
+    assertEquals(ResolvedHost.Status.RESOLVED, host.getStatus());
+    assertEquals(HOST_NAME, host.getHostName());
+    assertEquals(HOST_NAME, host.getCanonicalHostName());
+
+    assertEquals(host, resolver.resolve(IP_ADDRESS));
+    assertEquals(1, resolver.lookups.get());
+    assertEquals(1, metricsRegistry.meter(metricName("hits")).getCount());
+    assertEquals(1, metricsRegistry.meter(metricName("misses")).getCount());
+  }
+
+  @Test
+  public void testNegativeLookupExpires() {
+    assertEquals(ResolvedHost.UNKNOWN, resolver.resolve(UNKNOWN_ADDRESS));
+    assertEquals(ResolvedHost.UNKNOWN, resolver.resolve(UNKNOWN_ADDRESS));
+
+    // Negative TTL is zero, so both calls perform the lookup
+    assertEquals(2, resolver.lookups.get());
+  }
+
+  @Test
+  public void testTimeout() {
+    assertEquals(ResolvedHost.TIMEOUT, resolver.resolve(SLOW_ADDRESS));
+    assertEquals(1, metricsRegistry.meter(metricName("timeouts")).getCount());
+
+    resolver.slowLookup.countDown();
+
+    // The lookup keeps running after the deadline and fills the cache
+    assertEquals(ResolvedHost.Status.RESOLVED, resolver.resolve(SLOW_ADDRESS).getStatus());
+    assertEquals(1, resolver.lookups.get());
+  }
+
+  @Test
+  public void testReverseLookupMiss() throws UnknownHostException {
+    InetAddress address = InetAddress.getByAddress(UNKNOWN_ADDRESS, new byte[] {10, 0, 0, 1});
+    assertEquals(ResolvedHost.UNKNOWN, ReverseDnsResolver.toResolvedHost(address));
+  }
+
+  @Test
+  public void testEvictOldestEntries() {
+    resolver.getSettings().setMaxEntries(2);
+
+    resolver.resolve("10.0.1.1");
+    resolver.resolve("10.0.1.2");
+    resolver.resolve("10.0.1.3");
+
+    Gauge cacheSize = metricsRegistry.getGauges().get(metricName("cacheSize"));
+    assertEquals(2, cacheSize.getValue());
+
+    // The newest entries are kept
+    resolver.resolve("10.0.1.3");
+    assertEquals(3, resolver.lookups.get());
+
+    resolver.resolve("10.0.1.1");
+    assertEquals(4, resolver.lookups.get());
+  }
+
+  @Test
+  public void testFailClosedByDefault() {
+    assertEquals(DnsFailurePolicy.FAIL_CLOSED, new ReverseDnsSettings().getFailurePolicy());
+  }
+
+  private String metricName(String metric) {
+    return MetricRegistry.name(BASE_METRIC_NAME, "reverseDns", metric);
+  }
+
+  /**
+   * Resolver that doesn't query the DNS.
+   */
+  private static final class MockReverseDnsResolver extends ReverseDnsResolver {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final CountDownLatch slowLookup = new CountDownLatch(1);
+
+    @Override
+    protected ResolvedHost lookup(String ipAddress) {
+      lookups.incrementAndGet();
+
+      if (UNKNOWN_ADDRESS.equals(ipAddress)) {
+        return ResolvedHost.UNKNOWN;
+      }
+
+      if (SLOW_ADDRESS.equals(ipAddress)) {
+        try {
+          slowLookup.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      return ResolvedHost.resolved(HOST_NAME, HOST_NAME);
+    }
+
+  }
+
+}